@@ -7,6 +7,7 @@ import android.system.Os
 import com.app.ralaunch.core.logging.AppLog
 import androidx.appcompat.app.AppCompatDelegate
 import com.app.ralaunch.feature.controls.packs.ControlPackManager
+import com.app.ralaunch.core.common.JsonHttpRepositoryClient
 import com.app.ralaunch.core.common.SettingsAccess
 import com.app.ralaunch.core.di.KoinInitializer
 import com.app.ralaunch.core.di.contract.IRuntimeManagerServiceV2
@@ -32,6 +33,7 @@ class RaLaunchApp : Application(), KoinComponent {
 
     companion object {
         private const val TAG = "RaLaunchApp"
+        private const val HTTP_CACHE_DIR = "http_json_cache"
 
         @Volatile
         private var instance: RaLaunchApp? = null
@@ -71,6 +73,9 @@ class RaLaunchApp : Application(), KoinComponent {
         // 3. 初始化进程级文件日志捕获
         initFileLogger()
 
+        // 3.1 启用仓库 JSON 的 HTTP 磁盘缓存
+        JsonHttpRepositoryClient.installCache(File(cacheDir, HTTP_CACHE_DIR))
+
         // 4. 启动时迁移旧运行时布局，仅在主进程执行一次
         runRuntimeMigrationOnAppLaunch()
 
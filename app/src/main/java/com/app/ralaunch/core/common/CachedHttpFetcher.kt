@@ -0,0 +1,179 @@
+package com.app.ralaunch.core.common
+
+import com.app.ralaunch.core.logging.AppLog
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.CoroutineStart
+import kotlinx.coroutines.Deferred
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.async
+import java.net.HttpURLConnection
+import java.security.MessageDigest
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * 带条件请求的 HTTP 文本获取器
+ *
+ * - 新鲜条目直接返回，不访问网络
+ * - 过期条目立即返回旧内容，同时在后台用 ETag / If-Modified-Since 重新验证（stale-while-revalidate）
+ * - 同一 URL（及请求头）的并发请求合并为一次网络请求
+ * - 强制刷新失败时不会悄悄返回旧内容：仍在 [maxStaleMs] 内的缓存以 [Fetched.isStale] 标记返回，
+ *   是否采用由调用方决定（有多个镜像时应先尝试其余镜像）
+ * - 缓存键包含请求头摘要，不同凭据 / Accept 的响应互不覆盖
+ */
+class CachedHttpFetcher(
+    private val cache: HttpResponseCache,
+    private val defaultMaxAgeMs: Long = DEFAULT_MAX_AGE_MS,
+    private val maxStaleMs: Long = DEFAULT_MAX_STALE_MS,
+    private val scope: CoroutineScope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
+) {
+
+    /**
+     * 获取结果
+     *
+     * @property isStale 本次网络请求失败，[value] 来自旧缓存
+     */
+    data class Fetched<out T>(
+        val value: T,
+        val isStale: Boolean = false
+    ) {
+        inline fun <R> map(transform: (T) -> R): Fetched<R> = Fetched(transform(value), isStale)
+    }
+
+    private data class Request(
+        val url: String,
+        val connectTimeoutMs: Int,
+        val readTimeoutMs: Int,
+        val headers: Map<String, String>
+    ) {
+        val cacheKey: String = cacheKeyOf(url, headers)
+    }
+
+    private val inFlight = ConcurrentHashMap<String, Deferred<HttpResponseCache.Entry>>()
+
+    /**
+     * 获取文本
+     *
+     * @param forceRefresh 跳过新鲜度判断，总是向服务器验证（仍会发送条件请求）
+     */
+    suspend fun getText(
+        urlString: String,
+        connectTimeoutMs: Int,
+        readTimeoutMs: Int,
+        headers: Map<String, String> = emptyMap(),
+        forceRefresh: Boolean = false
+    ): Fetched<String> {
+        val request = Request(urlString, connectTimeoutMs, readTimeoutMs, headers)
+        val cached = cache.get(request.cacheKey)
+        val now = cache.now()
+
+        if (cached != null && !forceRefresh) {
+            if (cached.isFresh(now)) {
+                return Fetched(cached.body)
+            }
+            if (isWithinStaleWindow(cached, now)) {
+                revalidate(request)
+                return Fetched(cached.body)
+            }
+        }
+
+        return try {
+            Fetched(revalidate(request).await().body)
+        } catch (e: CancellationException) {
+            // 调用方被取消时不能当作网络失败回退到旧缓存
+            throw e
+        } catch (e: Exception) {
+            if (cached != null && isWithinStaleWindow(cached, cache.now())) {
+                AppLog.w(TAG, "Network failed for $urlString, stale cache available: ${e.message}")
+                Fetched(cached.body, isStale = true)
+            } else {
+                throw e
+            }
+        }
+    }
+
+    private fun isWithinStaleWindow(entry: HttpResponseCache.Entry, now: Long): Boolean =
+        entry.ageMs(now) < entry.metadata.maxAgeMs + maxStaleMs
+
+    private fun revalidate(request: Request): Deferred<HttpResponseCache.Entry> {
+        inFlight[request.cacheKey]?.let { return it }
+        val deferred = scope.async(start = CoroutineStart.LAZY) { fetch(request) }
+        val existing = inFlight.putIfAbsent(request.cacheKey, deferred)
+        if (existing != null) {
+            deferred.cancel()
+            return existing
+        }
+        deferred.invokeOnCompletion { error ->
+            inFlight.remove(request.cacheKey, deferred)
+            if (error != null) {
+                AppLog.w(TAG, "Revalidation failed for ${request.url}: ${error.message}")
+            }
+        }
+        deferred.start()
+        return deferred
+    }
+
+    private fun fetch(request: Request): HttpResponseCache.Entry {
+        val cached = cache.get(request.cacheKey)
+        val connection = JsonHttpRepositoryClient.openConnection(
+            urlString = request.url,
+            connectTimeoutMs = request.connectTimeoutMs,
+            readTimeoutMs = request.readTimeoutMs,
+            headers = request.headers
+        )
+        try {
+            cached?.metadata?.etag?.let { connection.setRequestProperty("If-None-Match", it) }
+            cached?.metadata?.lastModified?.let { connection.setRequestProperty("If-Modified-Since", it) }
+
+            val responseCode = connection.responseCode
+            val maxAgeMs = parseMaxAgeMs(connection.getHeaderField("Cache-Control")) ?: defaultMaxAgeMs
+            return when {
+                responseCode == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null ->
+                    cache.touch(cached, maxAgeMs)
+                responseCode == HttpURLConnection.HTTP_OK -> {
+                    val body = connection.inputStream.bufferedReader().use { it.readText() }
+                    cache.put(
+                        url = request.cacheKey,
+                        body = body,
+                        etag = connection.getHeaderField("ETag"),
+                        lastModified = connection.getHeaderField("Last-Modified"),
+                        maxAgeMs = maxAgeMs
+                    )
+                }
+                else -> throw IllegalStateException("HTTP $responseCode")
+            }
+        } finally {
+            connection.disconnect()
+        }
+    }
+
+    private fun parseMaxAgeMs(cacheControl: String?): Long? {
+        if (cacheControl.isNullOrBlank()) return null
+        val directives = cacheControl.split(',').map { it.trim().lowercase() }
+        if ("no-store" in directives || "no-cache" in directives) return 0L
+        return directives.firstOrNull { it.startsWith("max-age=") }
+            ?.substringAfter('=')
+            ?.toLongOrNull()
+            ?.times(1000)
+    }
+
+    companion object {
+        private const val TAG = "CachedHttpFetcher"
+
+        const val DEFAULT_MAX_AGE_MS = 5 * 60 * 1000L
+        const val DEFAULT_MAX_STALE_MS = 7 * 24 * 60 * 60 * 1000L
+
+        /**
+         * URL 加请求头的摘要；只保存摘要，Authorization 等凭据不会写入缓存元数据
+         */
+        private fun cacheKeyOf(url: String, headers: Map<String, String>): String {
+            if (headers.isEmpty()) return url
+            val canonical = headers.entries
+                .sortedBy { it.key.lowercase() }
+                .joinToString("\n") { "${it.key.lowercase()}: ${it.value}" }
+            val digest = MessageDigest.getInstance("SHA-256").digest(canonical.toByteArray(Charsets.UTF_8))
+            return url + "#" + digest.joinToString("") { "%02x".format(it) }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.app.ralaunch.core.common
+
+import com.app.ralaunch.core.logging.AppLog
+import kotlinx.serialization.Serializable
+import kotlinx.serialization.json.Json
+import java.io.File
+import java.security.MessageDigest
+
+/**
+ * HTTP 响应磁盘缓存
+ *
+ * 以 URL 的 SHA-256 为文件名，每个条目由 `.body`（响应正文）和 `.meta`（校验器与时间戳）组成，
+ * 写入时先写临时文件再重命名，避免读到半截内容。
+ * `.meta` 的 mtime 记录最近访问时间，条目数超过 [maxEntries] 时按最近访问淘汰。
+ */
+class HttpResponseCache(
+    private val directory: File,
+    private val maxEntries: Int = DEFAULT_MAX_ENTRIES,
+    private val clock: () -> Long = System::currentTimeMillis
+) {
+
+    @Serializable
+    data class Metadata(
+        val url: String,
+        val etag: String? = null,
+        val lastModified: String? = null,
+        val storedAt: Long = 0L,
+        val maxAgeMs: Long = 0L
+    )
+
+    data class Entry(
+        val metadata: Metadata,
+        val body: String
+    ) {
+        fun ageMs(now: Long): Long = (now - metadata.storedAt).coerceAtLeast(0L)
+
+        fun isFresh(now: Long): Boolean = ageMs(now) < metadata.maxAgeMs
+    }
+
+    private val lock = Any()
+
+    fun now(): Long = clock()
+
+    fun get(url: String): Entry? = synchronized(lock) {
+        val metaFile = metaFile(url)
+        val bodyFile = bodyFile(url)
+        if (!metaFile.exists() || !bodyFile.exists()) return null
+        return try {
+            val metadata = json.decodeFromString<Metadata>(metaFile.readText())
+            if (metadata.url != url) return null
+            val entry = Entry(metadata, bodyFile.readText())
+            metaFile.setLastModified(clock())
+            entry
+        } catch (e: Exception) {
+            AppLog.w(TAG, "Dropping unreadable cache entry for $url: ${e.message}")
+            removeLocked(url)
+            null
+        }
+    }
+
+    fun put(url: String, body: String, etag: String?, lastModified: String?, maxAgeMs: Long): Entry =
+        synchronized(lock) {
+            val metadata = Metadata(
+                url = url,
+                etag = etag,
+                lastModified = lastModified,
+                storedAt = clock(),
+                maxAgeMs = maxAgeMs
+            )
+            try {
+                directory.mkdirs()
+                writeAtomically(bodyFile(url), body)
+                writeAtomically(metaFile(url), json.encodeToString(Metadata.serializer(), metadata))
+                metaFile(url).setLastModified(metadata.storedAt)
+                trimLocked()
+            } catch (e: Exception) {
+                AppLog.w(TAG, "Failed to store cache entry for $url: ${e.message}")
+            }
+            Entry(metadata, body)
+        }
+
+    /**
+     * 304 Not Modified 后刷新条目的存储时间
+     */
+    fun touch(entry: Entry, maxAgeMs: Long): Entry = synchronized(lock) {
+        val metadata = entry.metadata.copy(storedAt = clock(), maxAgeMs = maxAgeMs)
+        try {
+            writeAtomically(metaFile(metadata.url), json.encodeToString(Metadata.serializer(), metadata))
+            metaFile(metadata.url).setLastModified(metadata.storedAt)
+        } catch (e: Exception) {
+            AppLog.w(TAG, "Failed to refresh cache entry for ${metadata.url}: ${e.message}")
+        }
+        Entry(metadata, entry.body)
+    }
+
+    fun remove(url: String) = synchronized(lock) { removeLocked(url) }
+
+    fun clear() = synchronized(lock) {
+        directory.listFiles()?.forEach { it.delete() }
+    }
+
+    private fun removeLocked(url: String) {
+        metaFile(url).delete()
+        bodyFile(url).delete()
+    }
+
+    private fun trimLocked() {
+        val entries = directory.listFiles { file -> file.name.endsWith(META_SUFFIX) } ?: return
+        if (entries.size <= maxEntries) return
+        for (file in entries.sortedBy { it.lastModified() }.take(entries.size - maxEntries)) {
+            val key = file.name.removeSuffix(META_SUFFIX)
+            file.delete()
+            File(directory, "$key$BODY_SUFFIX").delete()
+            AppLog.d(TAG, "Evicted cache entry $key")
+        }
+    }
+
+    private fun writeAtomically(target: File, content: String) {
+        val tmp = File(target.parentFile, "${target.name}.tmp")
+        tmp.writeText(content)
+        if (!tmp.renameTo(target)) {
+            tmp.delete()
+            throw IllegalStateException("Cannot rename ${tmp.name}")
+        }
+    }
+
+    private fun metaFile(url: String) = File(directory, "${keyOf(url)}$META_SUFFIX")
+
+    private fun bodyFile(url: String) = File(directory, "${keyOf(url)}$BODY_SUFFIX")
+
+    private fun keyOf(url: String): String {
+        val digest = MessageDigest.getInstance("SHA-256").digest(url.toByteArray(Charsets.UTF_8))
+        return digest.joinToString("") { "%02x".format(it) }
+    }
+
+    companion object {
+        private const val TAG = "HttpResponseCache"
+        private const val META_SUFFIX = ".meta"
+        private const val BODY_SUFFIX = ".body"
+
+        const val DEFAULT_MAX_ENTRIES = 256
+
+        private val json = Json {
+            ignoreUnknownKeys = true
+            encodeDefaults = true
+        }
+    }
+}
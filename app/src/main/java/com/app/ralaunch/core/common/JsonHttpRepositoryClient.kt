@@ -3,27 +3,68 @@ package com.app.ralaunch.core.common
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.withContext
 import kotlinx.serialization.json.Json
+import java.io.File
 import java.net.HttpURLConnection
 import java.net.URL
 
 /**
  * 共享 JSON HTTP 访问工具，统一超时和错误处理。
+ *
+ * 安装磁盘缓存后（[installCache]），GET 请求经由 [CachedHttpFetcher] 走条件请求与 stale-while-revalidate。
+ * [getText] / [getJson] 只返回服务器确认过的内容，网络失败即失败；[fetchText] / [fetchJson] 额外返回
+ * 带 [CachedHttpFetcher.Fetched.isStale] 标记的旧缓存，供多镜像调用方在所有镜像都失败后自行决定是否采用。
  */
 object JsonHttpRepositoryClient {
+    @Volatile
+    private var fetcher: CachedHttpFetcher? = null
+
+    /**
+     * 启用磁盘缓存（应用启动时调用一次）
+     */
+    fun installCache(directory: File) {
+        fetcher = CachedHttpFetcher(HttpResponseCache(directory))
+    }
+
     suspend fun getText(
         urlString: String,
         connectTimeoutMs: Int,
         readTimeoutMs: Int,
-        headers: Map<String, String> = emptyMap()
-    ): Result<String> = withContext(Dispatchers.IO) {
+        headers: Map<String, String> = emptyMap(),
+        forceRefresh: Boolean = false
+    ): Result<String> {
+        return fetchText(
+            urlString = urlString,
+            connectTimeoutMs = connectTimeoutMs,
+            readTimeoutMs = readTimeoutMs,
+            headers = headers,
+            forceRefresh = forceRefresh
+        ).mapCatching { it.requireFresh(urlString) }
+    }
+
+    suspend fun fetchText(
+        urlString: String,
+        connectTimeoutMs: Int,
+        readTimeoutMs: Int,
+        headers: Map<String, String> = emptyMap(),
+        forceRefresh: Boolean = false
+    ): Result<CachedHttpFetcher.Fetched<String>> = withContext(Dispatchers.IO) {
         runCatching {
+            fetcher?.let { cachedFetcher ->
+                return@runCatching cachedFetcher.getText(
+                    urlString = urlString,
+                    connectTimeoutMs = connectTimeoutMs,
+                    readTimeoutMs = readTimeoutMs,
+                    headers = headers,
+                    forceRefresh = forceRefresh
+                )
+            }
             val connection = openConnection(
                 urlString = urlString,
                 connectTimeoutMs = connectTimeoutMs,
                 readTimeoutMs = readTimeoutMs,
                 headers = headers
             )
-            connection.useInputStream()
+            CachedHttpFetcher.Fetched(connection.useInputStream())
         }
     }
 
@@ -32,18 +73,44 @@ object JsonHttpRepositoryClient {
         json: Json,
         connectTimeoutMs: Int,
         readTimeoutMs: Int,
-        headers: Map<String, String> = emptyMap()
+        headers: Map<String, String> = emptyMap(),
+        forceRefresh: Boolean = false
     ): Result<T> {
-        return getText(
+        return fetchJson<T>(
+            urlString = urlString,
+            json = json,
+            connectTimeoutMs = connectTimeoutMs,
+            readTimeoutMs = readTimeoutMs,
+            headers = headers,
+            forceRefresh = forceRefresh
+        ).mapCatching { it.requireFresh(urlString) }
+    }
+
+    suspend inline fun <reified T> fetchJson(
+        urlString: String,
+        json: Json,
+        connectTimeoutMs: Int,
+        readTimeoutMs: Int,
+        headers: Map<String, String> = emptyMap(),
+        forceRefresh: Boolean = false
+    ): Result<CachedHttpFetcher.Fetched<T>> {
+        return fetchText(
             urlString = urlString,
             connectTimeoutMs = connectTimeoutMs,
             readTimeoutMs = readTimeoutMs,
-            headers = headers
-        ).mapCatching { content ->
-            json.decodeFromString<T>(content)
+            headers = headers,
+            forceRefresh = forceRefresh
+        ).mapCatching { fetched ->
+            fetched.map { content -> json.decodeFromString<T>(content) }
         }
     }
 
+    @PublishedApi
+    internal fun <T> CachedHttpFetcher.Fetched<T>.requireFresh(urlString: String): T {
+        if (isStale) throw IllegalStateException("Network unavailable for $urlString")
+        return value
+    }
+
     fun openConnection(
         urlString: String,
         connectTimeoutMs: Int,
@@ -3,6 +3,7 @@ package com.app.ralaunch.core.common
 import com.app.ralaunch.core.model.BackgroundType
 import com.app.ralaunch.core.model.AppSettings
 import com.app.ralaunch.core.model.KeyboardType
+import com.app.ralaunch.core.model.MouseStickSettings
 import com.app.ralaunch.core.model.ThemeMode
 import com.app.ralaunch.core.di.contract.ISettingsRepositoryServiceV2
 import com.app.ralaunch.core.platform.runtime.RendererRegistry
@@ -112,6 +113,24 @@ object SettingsAccess {
         get() = settings.mouseRightStickRangeBottom
         set(value) = update { mouseRightStickRangeBottom = value }
 
+    @Volatile
+    private var mouseStickCache: Pair<AppSettings, MouseStickSettings>? = null
+
+    /**
+     * 触屏鼠标设置快照
+     *
+     * 每次更新设置时仓库都会替换 AppSettings 对象，这里按引用比较：
+     * 未变化时直接返回缓存，不复制整个设置对象。
+     */
+    val mouseStickSettings: MouseStickSettings
+        get() {
+            val source = settingsRepository.settings.value
+            mouseStickCache?.let { (cachedSource, snapshot) ->
+                if (cachedSource === source) return snapshot
+            }
+            return MouseStickSettings.from(source).also { mouseStickCache = source to it }
+        }
+
     // 开发者设置
     var isLogSystemEnabled: Boolean
         get() = settings.logSystemEnabled
@@ -3,8 +3,10 @@ package com.app.ralaunch.core.common.util
 import android.content.Context
 import com.app.ralaunch.R
 import com.app.ralaunch.core.di.contract.IRuntimeManagerServiceV2
+import com.app.ralaunch.core.extractor.ArchiveExtractor
 import com.app.ralaunch.core.logging.AppLog
 import com.app.ralaunch.core.platform.AppConstants
+import com.app.ralaunch.core.platform.runtime.RendererRegistry
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.withContext
 import org.koin.java.KoinJavaComponent
@@ -205,7 +207,12 @@ object AssetIntegrityChecker {
         var fixedCount = 0
         var failedCount = 0
         val errors = mutableListOf<String>()
-        val componentsToReextract = resolveAffectedComponents(context, fixableIssues)
+
+        // 优先按清单只重新解压出问题的文件，剩余问题才整体重新解压组件
+        val repairedIssues = repairFromManifest(context, fixableIssues, progressCallback)
+        fixedCount += repairedIssues.size
+        val remainingIssues = fixableIssues - repairedIssues.toSet()
+        val componentsToReextract = resolveAffectedComponents(context, remainingIssues)
         var needsComponentExtract = false
 
         if (componentsToReextract.isNotEmpty()) {
@@ -251,6 +258,11 @@ object AssetIntegrityChecker {
             }
         }
 
+        // 修复过的文件可能包含渲染器库，下次查询时重新探测兼容性
+        if (fixedCount > 0) {
+            RendererRegistry.invalidateCompatibilityCache()
+        }
+
         progressCallback?.invoke(100, context.getString(R.string.asset_fix_progress_completed))
 
         val message = buildString {
@@ -416,9 +428,106 @@ object AssetIntegrityChecker {
             )
         }
 
+        issues.addAll(checkManifest(context, dotnetRuntimeRoot, componentName, issues))
         return issues
     }
 
+    /**
+     * 按解压时生成的清单逐文件校验大小与哈希（没有清单的旧安装跳过）
+     *
+     * @param knownIssues 已由基础检查报告的问题，避免同一文件重复报告
+     */
+    private fun checkManifest(
+        context: Context,
+        componentRoot: File,
+        componentName: String,
+        knownIssues: List<CheckResult.Issue>
+    ): List<CheckResult.Issue> {
+        val manifest = IntegrityVerifier.readManifest(componentRoot) ?: return emptyList()
+        val result = IntegrityVerifier.verify(componentRoot, manifest)
+        AppLog.i(TAG, "清单校验: ${result.checkedFiles} 个文件，计算哈希 ${result.hashedFiles} 个，失败 ${result.failures.size} 个")
+
+        val reported = knownIssues.mapNotNullTo(HashSet()) { it.filePath }
+        return result.failures
+            .filter { it.file.absolutePath !in reported }
+            .map { failure ->
+                val fileName = failure.relativePath
+                when (failure.reason) {
+                    IntegrityVerifier.FailureReason.MISSING -> CheckResult.Issue(
+                        type = CheckResult.IssueType.MISSING_FILE,
+                        description = context.getString(R.string.asset_check_issue_missing_file, componentName, fileName),
+                        filePath = failure.file.absolutePath,
+                        canAutoFix = true
+                    )
+                    IntegrityVerifier.FailureReason.UNREADABLE -> CheckResult.Issue(
+                        type = CheckResult.IssueType.PERMISSION_ERROR,
+                        description = context.getString(R.string.asset_check_issue_permission_error, componentName, fileName),
+                        filePath = failure.file.absolutePath,
+                        canAutoFix = true
+                    )
+                    else -> CheckResult.Issue(
+                        type = CheckResult.IssueType.CORRUPTED_FILE,
+                        description = context.getString(R.string.asset_check_issue_hash_mismatch, componentName, fileName),
+                        filePath = failure.file.absolutePath,
+                        canAutoFix = true
+                    )
+                }
+            }
+    }
+
+    /**
+     * 只从原始归档重新解压出问题的文件
+     *
+     * @return 已修复的问题；无法按文件修复的问题（没有清单、不在清单中等）留给整体重新解压
+     */
+    private fun repairFromManifest(
+        context: Context,
+        issues: List<CheckResult.Issue>,
+        progressCallback: ((Int, String) -> Unit)?
+    ): List<CheckResult.Issue> {
+        val componentRoot = runtimeManager()
+            .getSelectedRuntime(IRuntimeManagerServiceV2.RuntimeType.DOTNET)
+            ?.rootPath?.toFile()?.absoluteFile?.normalize()
+            ?: return emptyList()
+        val manifest = IntegrityVerifier.readManifest(componentRoot) ?: return emptyList()
+        if (manifest.archive.isEmpty()) return emptyList()
+
+        val rootPrefix = componentRoot.path + File.separator
+        val repairable = issues.mapNotNull { issue ->
+            val path = issue.filePath?.let { File(it).absoluteFile.normalize().path } ?: return@mapNotNull null
+            if (!path.startsWith(rootPrefix)) return@mapNotNull null
+            val relativePath = path.substring(rootPrefix.length).replace(File.separatorChar, '/')
+            if (relativePath in manifest.files) relativePath to issue else null
+        }
+        if (repairable.isEmpty()) return emptyList()
+
+        progressCallback?.invoke(10, context.getString(R.string.asset_fix_progress_repair_files))
+        val targets = repairable.mapTo(HashSet()) { it.first }
+        val tempFile = File(context.cacheDir, "repair_${manifest.archive}")
+        return try {
+            ArchiveExtractor.copyAssetToFile(context, manifest.archive, tempFile)
+            val filter = ArchiveExtractor.EntryFilter { it in targets }
+            when {
+                manifest.archive.endsWith(".tar.xz") ->
+                    ArchiveExtractor.extractTarXz(tempFile, componentRoot, null, filter = filter)
+                manifest.archive.endsWith(".tar.gz") ->
+                    ArchiveExtractor.extractTarGz(tempFile, componentRoot, null, filter = filter)
+                else ->
+                    ArchiveExtractor.extractTar(tempFile, componentRoot, null, filter = filter)
+            }
+            IntegrityVerifier.forgetStamps(componentRoot, targets)
+            val stillFailing = IntegrityVerifier.verify(componentRoot, manifest)
+                .failures.mapTo(HashSet()) { it.relativePath }
+            AppLog.i(TAG, "按文件修复 ${targets.size} 个文件，仍失败 ${stillFailing.count { it in targets }} 个")
+            repairable.filter { it.first !in stillFailing }.map { it.second }
+        } catch (e: Exception) {
+            AppLog.w(TAG, "按文件修复失败，回退到整体重新解压: ${e.message}")
+            emptyList()
+        } finally {
+            FileUtils.deleteFileWithinRoot(tempFile, context.cacheDir)
+        }
+    }
+
     private fun hasValidDotNetLayout(dotnetDir: File): Boolean {
         val hostFxrLib = getHostFxrVersionDir(dotnetDir)?.let { File(it, "libhostfxr.so") }
         if (hostFxrLib == null || !hostFxrLib.exists() || hostFxrLib.length() <= 100_000) {
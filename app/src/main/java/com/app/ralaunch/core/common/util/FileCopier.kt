@@ -0,0 +1,239 @@
+package com.app.ralaunch.core.common.util
+
+import java.io.File
+import java.io.IOException
+import java.io.InputStream
+import java.io.OutputStream
+import java.nio.channels.FileChannel
+import java.nio.file.FileVisitOption
+import java.nio.file.FileVisitResult
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.SimpleFileVisitor
+import java.nio.file.StandardOpenOption
+import java.nio.file.attribute.BasicFileAttributes
+import java.util.EnumSet
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * 统一的文件复制引擎
+ *
+ * - 文件到文件：[FileChannel.transferTo]，Linux 上由内核完成（sendfile / copy_file_range），不经过用户态缓冲区
+ * - 流到流：从缓冲池借用大块缓冲区，避免每次复制都分配
+ * - 目录树：先串行创建全部目录，再由有界线程池并行复制文件
+ *
+ * 进度统一以字节回调；取消检查在每个块之间进行，取消时抛出 [CancelledException]。
+ */
+object FileCopier {
+
+    const val BUFFER_SIZE = 256 * 1024
+    private const val MAX_POOLED_BUFFERS = 8
+
+    /** 单次 transferTo 的上限，便于在块之间检查取消与汇报进度 */
+    private const val TRANSFER_CHUNK = 8L * 1024 * 1024
+
+    val DEFAULT_PARALLELISM = Runtime.getRuntime().availableProcessors().coerceIn(2, 4)
+
+    fun interface ProgressListener {
+        fun onProgress(copiedBytes: Long, totalBytes: Long)
+    }
+
+    class CancelledException : IOException("Copy cancelled")
+
+    data class Result(val files: Int, val bytes: Long)
+
+    private val bufferPool = ConcurrentLinkedQueue<ByteArray>()
+
+    private fun obtainBuffer(): ByteArray = bufferPool.poll() ?: ByteArray(BUFFER_SIZE)
+
+    private fun recycleBuffer(buffer: ByteArray) {
+        if (bufferPool.size < MAX_POOLED_BUFFERS) bufferPool.offer(buffer)
+    }
+
+    // ==================== 流 ====================
+
+    /**
+     * 流复制（不关闭两端的流）
+     *
+     * @return 复制的字节数
+     */
+    @JvmStatic
+    @JvmOverloads
+    @Throws(IOException::class)
+    fun copyStream(
+        input: InputStream,
+        output: OutputStream,
+        isCancelled: () -> Boolean = { false },
+        onBytes: ((Int) -> Unit)? = null
+    ): Long {
+        val buffer = obtainBuffer()
+        try {
+            var total = 0L
+            while (true) {
+                if (isCancelled()) throw CancelledException()
+                val read = input.read(buffer)
+                if (read < 0) break
+                output.write(buffer, 0, read)
+                total += read
+                onBytes?.invoke(read)
+            }
+            return total
+        } finally {
+            recycleBuffer(buffer)
+        }
+    }
+
+    /**
+     * 将流写入文件（覆盖已有内容，不关闭输入流）
+     */
+    @JvmStatic
+    @Throws(IOException::class)
+    fun copyStreamToFile(input: InputStream, target: File, isCancelled: () -> Boolean = { false }): Long {
+        target.parentFile?.let {
+            if (!it.exists() && !it.mkdirs()) throw IOException("Cannot create ${it.absolutePath}")
+        }
+        return target.outputStream().use { copyStream(input, it, isCancelled) }
+    }
+
+    // ==================== 文件 ====================
+
+    /**
+     * 复制单个文件（覆盖目标）
+     */
+    @JvmStatic
+    @JvmOverloads
+    @Throws(IOException::class)
+    fun copyFile(
+        source: File,
+        target: File,
+        isCancelled: () -> Boolean = { false },
+        onBytes: ((Long) -> Unit)? = null
+    ): Long {
+        FileChannel.open(source.toPath(), StandardOpenOption.READ).use { channel ->
+            return copyRange(channel, 0, channel.size(), target, isCancelled, onBytes)
+        }
+    }
+
+    /**
+     * 复制文件中的一段到新文件（如从容器文件切出子文件）
+     */
+    @JvmStatic
+    @Throws(IOException::class)
+    fun copyRange(source: File, offset: Long, size: Long, target: File): Long {
+        FileChannel.open(source.toPath(), StandardOpenOption.READ).use { channel ->
+            if (offset < 0 || size < 0 || offset + size > channel.size()) {
+                throw IOException("Range out of bounds for ${source.name}: $offset+$size > ${channel.size()}")
+            }
+            return copyRange(channel, offset, size, target, { false }, null)
+        }
+    }
+
+    private fun copyRange(
+        source: FileChannel,
+        offset: Long,
+        size: Long,
+        target: File,
+        isCancelled: () -> Boolean,
+        onBytes: ((Long) -> Unit)?
+    ): Long {
+        target.parentFile?.let {
+            if (!it.exists() && !it.mkdirs()) throw IOException("Cannot create ${it.absolutePath}")
+        }
+        FileChannel.open(
+            target.toPath(),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING
+        ).use { sink ->
+            var transferred = 0L
+            while (transferred < size) {
+                if (isCancelled()) throw CancelledException()
+                val n = source.transferTo(offset + transferred, minOf(TRANSFER_CHUNK, size - transferred), sink)
+                if (n <= 0) throw IOException("Short transfer while copying to ${target.name}")
+                transferred += n
+                onBytes?.invoke(n)
+            }
+            return transferred
+        }
+    }
+
+    // ==================== 目录 ====================
+
+    /**
+     * 复制目录内容到 [target]（合并到已有目录，同名文件覆盖）
+     *
+     * 与原先基于 `listFiles` 的递归复制一致，会跟随符号链接。
+     */
+    @JvmStatic
+    @JvmOverloads
+    @Throws(IOException::class)
+    fun copyDirectory(
+        source: File,
+        target: File,
+        progress: ProgressListener? = null,
+        isCancelled: () -> Boolean = { false },
+        parallelism: Int = DEFAULT_PARALLELISM
+    ): Result {
+        val sourceRoot = source.toPath().toAbsolutePath().normalize()
+        val targetRoot = target.toPath().toAbsolutePath().normalize()
+        if (targetRoot.startsWith(sourceRoot) && targetRoot != sourceRoot) {
+            throw IOException("Cannot copy $sourceRoot into its own subdirectory $targetRoot")
+        }
+
+        // 一次遍历：创建目录，收集文件与总大小
+        val files = ArrayList<Pair<Path, Long>>()
+        Files.walkFileTree(
+            sourceRoot,
+            EnumSet.of(FileVisitOption.FOLLOW_LINKS),
+            Int.MAX_VALUE,
+            object : SimpleFileVisitor<Path>() {
+                override fun preVisitDirectory(dir: Path, attrs: BasicFileAttributes): FileVisitResult {
+                    if (isCancelled()) throw CancelledException()
+                    Files.createDirectories(targetRoot.resolve(sourceRoot.relativize(dir).toString()))
+                    return FileVisitResult.CONTINUE
+                }
+
+                override fun visitFile(file: Path, attrs: BasicFileAttributes): FileVisitResult {
+                    if (attrs.isRegularFile) files.add(file to attrs.size())
+                    return FileVisitResult.CONTINUE
+                }
+            }
+        )
+
+        val totalBytes = files.sumOf { it.second }
+        val copied = AtomicLong()
+        val onBytes: (Long) -> Unit = { n -> progress?.onProgress(copied.addAndGet(n), totalBytes) }
+        val copyOne = { file: Path ->
+            copyFile(file.toFile(), targetRoot.resolve(sourceRoot.relativize(file).toString()).toFile(), isCancelled, onBytes)
+        }
+
+        if (parallelism <= 1 || files.size < 2) {
+            files.forEach { copyOne(it.first) }
+        } else {
+            val executor = Executors.newFixedThreadPool(parallelism.coerceAtMost(files.size))
+            try {
+                // 大文件优先提交，避免最后只剩一个线程在复制大文件
+                val futures: List<Future<Long>> = files.sortedByDescending { it.second }
+                    .map { (file, _) -> executor.submit<Long> { copyOne(file) } }
+                for (future in futures) {
+                    try {
+                        future.get()
+                    } catch (e: ExecutionException) {
+                        throw (e.cause as? IOException) ?: IOException(e.cause)
+                    }
+                }
+            } catch (e: InterruptedException) {
+                Thread.currentThread().interrupt()
+                throw CancelledException()
+            } finally {
+                executor.shutdownNow()
+            }
+        }
+
+        return Result(files.size, totalBytes)
+    }
+}
@@ -4,14 +4,10 @@ import com.app.ralaunch.core.logging.AppLog
 import java.io.File
 import java.io.IOException
 import java.nio.file.AccessDeniedException
-import java.nio.file.FileVisitResult
 import java.nio.file.Files
 import java.nio.file.LinkOption
 import java.nio.file.NoSuchFileException
 import java.nio.file.Path
-import java.nio.file.SimpleFileVisitor
-import java.nio.file.attribute.BasicFileAttributes
-import java.util.concurrent.atomic.AtomicBoolean
 import kotlin.io.path.absolute
 import kotlin.io.path.exists
 import kotlin.io.path.isDirectory
@@ -37,38 +33,8 @@ object FileUtils {
         if (!Files.exists(normalizedPath, LinkOption.NOFOLLOW_LINKS)) return true
         if (!Files.isReadable(normalizedPath)) return false
 
-        val allDeleted = AtomicBoolean(true)
-
         return try {
-            Files.walkFileTree(
-                normalizedPath,
-                object : SimpleFileVisitor<Path>() {
-                    override fun visitFile(file: Path, attrs: BasicFileAttributes): FileVisitResult {
-                        if (!deletePathWithRetry(file)) {
-                            allDeleted.set(false)
-                        }
-                        return FileVisitResult.CONTINUE
-                    }
-
-                    override fun visitFileFailed(file: Path, exc: IOException?): FileVisitResult {
-                        if (!deletePathWithRetry(file)) {
-                            allDeleted.set(false)
-                        }
-                        return FileVisitResult.CONTINUE
-                    }
-
-                    override fun postVisitDirectory(dir: Path, exc: IOException?): FileVisitResult {
-                        if (exc != null) {
-                            allDeleted.set(false)
-                        }
-                        if (!deletePathWithRetry(dir)) {
-                            allDeleted.set(false)
-                        }
-                        return FileVisitResult.CONTINUE
-                    }
-                }
-            )
-            allDeleted.get() && !Files.exists(normalizedPath, LinkOption.NOFOLLOW_LINKS)
+            TreeDeleter.DEFAULT.deleteTree(normalizedPath)
         } catch (e: NoSuchFileException) {
             true
         } catch (e: AccessDeniedException) {
@@ -105,6 +71,41 @@ object FileUtils {
         return deleteDirectoryRecursivelyWithinRoot(targetPath, rootPath)
     }
 
+    /**
+     * 先把目标原子移入回收目录（目标立即消失），再并行删除。
+     * 同样只允许删除根目录内的路径；回收目录不能位于目标之内。
+     * 无法原子移动时（如跨文件系统）退化为原地并行删除。
+     *
+     * @param trashDir 回收目录，应与目标位于同一文件系统
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun deleteDirectoryRecursivelyWithinRoot(
+        path: Path?,
+        allowedRoot: Path?,
+        trashDir: Path?,
+        listener: TreeDeleter.ProgressListener? = null
+    ): Boolean {
+        val normalizedTarget = normalizePath(path) ?: return false
+        val normalizedRoot = normalizePath(allowedRoot) ?: return false
+        val normalizedTrash = normalizePath(trashDir) ?: return false
+        if (!isStrictChildOf(normalizedTarget, normalizedRoot)) return false
+        if (normalizedTrash.startsWith(normalizedTarget)) return false
+        if (!Files.exists(normalizedTarget, LinkOption.NOFOLLOW_LINKS)) return true
+
+        val deleter = TreeDeleter.DEFAULT
+        val trashEntry = deleter.moveToTrash(normalizedTarget, normalizedTrash)
+        return try {
+            deleter.deleteTree(trashEntry ?: normalizedTarget, listener)
+        } catch (e: IOException) {
+            AppLog.w(TAG, "删除失败: $normalizedTarget")
+            false
+        } catch (e: SecurityException) {
+            AppLog.w(TAG, "删除失败（权限）: $normalizedTarget")
+            false
+        }
+    }
+
     /**
      * 仅当文件位于指定根目录内时才删除该文件。
      * 目录不会通过此接口删除。
@@ -146,7 +147,7 @@ object FileUtils {
     /**
      * 带重试机制的路径删除
      */
-    private fun deletePathWithRetry(path: Path): Boolean {
+    internal fun deletePathWithRetry(path: Path): Boolean {
         repeat(MAX_RETRY_ATTEMPTS) { attempt ->
             try {
                 if (!Files.exists(path, LinkOption.NOFOLLOW_LINKS)) return true
@@ -0,0 +1,226 @@
+package com.app.ralaunch.core.common.util
+
+import com.app.ralaunch.core.logging.AppLog
+import kotlinx.serialization.Serializable
+import kotlinx.serialization.encodeToString
+import kotlinx.serialization.json.Json
+import java.io.File
+import java.io.FileInputStream
+import java.io.IOException
+import java.security.MessageDigest
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executors
+
+/**
+ * 组件文件清单：解压归档时逐文件记录大小与 SHA-256
+ *
+ * @param archive 生成清单的归档名（修复时从该归档重新解压失败的文件）
+ * @param files 相对组件目录的路径（使用 `/` 分隔）到文件信息的映射
+ */
+@Serializable
+data class IntegrityManifest(
+    val version: Int = CURRENT_VERSION,
+    val archive: String = "",
+    val files: Map<String, Entry> = emptyMap()
+) {
+    @Serializable
+    data class Entry(
+        val size: Long,
+        val sha256: String
+    )
+
+    companion object {
+        const val CURRENT_VERSION = 1
+    }
+}
+
+/**
+ * 上一次校验通过时的文件状态；大小与修改时间都未变的文件不再计算哈希
+ */
+@Serializable
+data class IntegrityStamps(
+    val files: Map<String, Stamp> = emptyMap()
+) {
+    @Serializable
+    data class Stamp(
+        val size: Long,
+        val lastModified: Long
+    )
+}
+
+/**
+ * 基于清单的增量校验
+ */
+object IntegrityVerifier {
+
+    private const val TAG = "IntegrityVerifier"
+    private const val BUFFER_SIZE = 64 * 1024
+
+    const val MANIFEST_FILE = ".integrity_manifest.json"
+    const val STAMPS_FILE = ".integrity_stamps.json"
+
+    private val json = Json {
+        ignoreUnknownKeys = true
+        encodeDefaults = true
+    }
+
+    enum class FailureReason { MISSING, SIZE_MISMATCH, HASH_MISMATCH, UNREADABLE }
+
+    data class Failure(
+        val relativePath: String,
+        val file: File,
+        val reason: FailureReason
+    )
+
+    data class Result(
+        val checkedFiles: Int,
+        val hashedFiles: Int,
+        val failures: List<Failure>
+    ) {
+        val isValid: Boolean get() = failures.isEmpty()
+    }
+
+    /**
+     * 按清单校验组件目录
+     *
+     * 大小与修改时间命中上次校验记录的文件直接信任，其余文件由线程池并行计算 SHA-256；
+     * 校验结束后把通过的文件写回记录，供下次使用。
+     */
+    fun verify(
+        componentDir: File,
+        manifest: IntegrityManifest,
+        parallelism: Int = Runtime.getRuntime().availableProcessors().coerceIn(2, 4)
+    ): Result {
+        val stamps = readStamps(componentDir).files
+        val failures = ArrayList<Failure>()
+        val passed = HashMap<String, IntegrityStamps.Stamp>(manifest.files.size)
+        val toHash = ArrayList<Pair<String, IntegrityManifest.Entry>>()
+
+        for ((path, entry) in manifest.files) {
+            val file = File(componentDir, path)
+            if (!file.isFile) {
+                failures.add(Failure(path, file, FailureReason.MISSING))
+                continue
+            }
+            val size = file.length()
+            if (size != entry.size) {
+                failures.add(Failure(path, file, FailureReason.SIZE_MISMATCH))
+                continue
+            }
+            val stamp = IntegrityStamps.Stamp(size, file.lastModified())
+            if (stamps[path] == stamp) {
+                passed[path] = stamp
+            } else {
+                toHash.add(path to entry)
+            }
+        }
+
+        if (toHash.isNotEmpty()) {
+            val executor = Executors.newFixedThreadPool(parallelism.coerceAtMost(toHash.size))
+            try {
+                val futures = toHash.map { (path, entry) ->
+                    executor.submit<Failure?> {
+                        val file = File(componentDir, path)
+                        try {
+                            // 先记录 mtime 再计算哈希，避免把校验期间被改写的文件记为通过
+                            val lastModified = file.lastModified()
+                            if (sha256(file) == entry.sha256) {
+                                synchronized(passed) { passed[path] = IntegrityStamps.Stamp(entry.size, lastModified) }
+                                null
+                            } else {
+                                Failure(path, file, FailureReason.HASH_MISMATCH)
+                            }
+                        } catch (e: IOException) {
+                            Failure(path, file, FailureReason.UNREADABLE)
+                        }
+                    }
+                }
+                for ((index, future) in futures.withIndex()) {
+                    val failure = try {
+                        future.get()
+                    } catch (e: ExecutionException) {
+                        val path = toHash[index].first
+                        Failure(path, File(componentDir, path), FailureReason.UNREADABLE)
+                    }
+                    failure?.let { failures.add(it) }
+                }
+            } finally {
+                executor.shutdownNow()
+            }
+        }
+
+        writeStamps(componentDir, IntegrityStamps(passed))
+        failures.sortBy { it.relativePath }
+        return Result(
+            checkedFiles = manifest.files.size,
+            hashedFiles = toHash.size,
+            failures = failures
+        )
+    }
+
+    fun readManifest(componentDir: File): IntegrityManifest? {
+        val file = File(componentDir, MANIFEST_FILE)
+        if (!file.isFile) return null
+        return try {
+            json.decodeFromString<IntegrityManifest>(file.readText())
+                .takeIf { it.version == IntegrityManifest.CURRENT_VERSION }
+        } catch (e: Exception) {
+            AppLog.w(TAG, "Failed to read integrity manifest: ${e.message}")
+            null
+        }
+    }
+
+    fun writeManifest(componentDir: File, manifest: IntegrityManifest) {
+        writeAtomically(File(componentDir, MANIFEST_FILE), json.encodeToString(manifest))
+    }
+
+    /**
+     * 修复文件后调用：清除这些文件的校验记录，下次校验时重新计算哈希
+     */
+    fun forgetStamps(componentDir: File, relativePaths: Collection<String>) {
+        val stamps = readStamps(componentDir)
+        writeStamps(componentDir, IntegrityStamps(stamps.files - relativePaths.toSet()))
+    }
+
+    private fun readStamps(componentDir: File): IntegrityStamps {
+        val file = File(componentDir, STAMPS_FILE)
+        if (!file.isFile) return IntegrityStamps()
+        return try {
+            json.decodeFromString<IntegrityStamps>(file.readText())
+        } catch (e: Exception) {
+            IntegrityStamps()
+        }
+    }
+
+    private fun writeStamps(componentDir: File, stamps: IntegrityStamps) {
+        try {
+            writeAtomically(File(componentDir, STAMPS_FILE), json.encodeToString(stamps))
+        } catch (e: IOException) {
+            AppLog.w(TAG, "Failed to write integrity stamps: ${e.message}")
+        }
+    }
+
+    private fun writeAtomically(target: File, content: String) {
+        val tmp = File(target.parentFile, "${target.name}.tmp")
+        tmp.writeText(content)
+        if (!tmp.renameTo(target)) {
+            tmp.delete()
+            throw IOException("Cannot rename ${tmp.name}")
+        }
+    }
+
+    @Throws(IOException::class)
+    fun sha256(file: File): String {
+        val digest = MessageDigest.getInstance("SHA-256")
+        FileInputStream(file).use { input ->
+            val buffer = ByteArray(BUFFER_SIZE)
+            var len: Int
+            while (input.read(buffer).also { len = it } != -1) {
+                digest.update(buffer, 0, len)
+            }
+        }
+        return toHex(digest.digest())
+    }
+
+    fun toHex(bytes: ByteArray): String = bytes.joinToString("") { "%02x".format(it) }
+}
@@ -0,0 +1,181 @@
+package com.app.ralaunch.core.common.util
+
+import com.app.ralaunch.core.logging.AppLog
+import java.io.File
+import java.io.IOException
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * MonoMod 补丁分发任务
+ *
+ * - 补丁只解压一次，放在以内容哈希命名的共享目录 `<sharedRoot>/<version>` 中
+ * - 各游戏由有界线程池并行打补丁，补丁程序集只读入内存一次
+ * - 每个游戏成功后在游戏目录写入版本标记，标记与当前版本一致的游戏直接跳过；
+ *   任务中断后再次运行只会处理剩余的游戏
+ * - 全部成功后通过 [ProgressStore] 记录已完成的版本，下次启动不再遍历游戏
+ */
+class MonoModRollout(
+    private val sharedRoot: File,
+    private val progressStore: ProgressStore,
+    private val parallelism: Int = DEFAULT_PARALLELISM
+) {
+
+    interface ProgressStore {
+        fun completedVersion(): String?
+        fun markCompleted(version: String)
+    }
+
+    fun interface Patcher {
+        /**
+         * @return 替换的文件数，失败时返回负数
+         */
+        fun patch(gameDir: File, assemblies: Map<String, ByteArray>): Int
+    }
+
+    data class Report(
+        val patched: Int,
+        val skipped: Int,
+        val failed: Int
+    )
+
+    fun versionDir(version: String): File = File(sharedRoot, version)
+
+    fun isCompleted(version: String): Boolean =
+        progressStore.completedVersion() == version && versionDir(version).isDirectory
+
+    /**
+     * 确保当前版本的补丁目录存在
+     *
+     * 解压到临时目录后整体重命名，半途中断不会留下看似完整的版本目录；
+     * 同时清理共享目录中的旧版本与残留的临时目录。
+     */
+    @Throws(IOException::class)
+    fun prepare(version: String, extract: (File) -> Unit): File {
+        val target = versionDir(version)
+        if (!target.isDirectory) {
+            val staging = File(sharedRoot, "$version$STAGING_SUFFIX")
+            if (staging.exists()) FileUtils.deleteDirectoryRecursively(staging.toPath())
+            if (!staging.mkdirs()) throw IOException("Cannot create ${staging.absolutePath}")
+            extract(staging)
+            if (!staging.renameTo(target)) {
+                FileUtils.deleteDirectoryRecursively(staging.toPath())
+                throw IOException("Cannot rename ${staging.name} to ${target.name}")
+            }
+        }
+
+        sharedRoot.listFiles()?.forEach { entry ->
+            if (entry.name != version) {
+                AppLog.d(TAG, "清理旧补丁目录: ${entry.name}")
+                FileUtils.deleteDirectoryRecursively(entry.toPath())
+            }
+        }
+        return target
+    }
+
+    /**
+     * 将 [patchDir] 中的程序集应用到各游戏目录
+     */
+    fun rollout(version: String, patchDir: File, gameDirs: List<File>, patcher: Patcher): Report {
+        val pending = gameDirs.distinctBy { it.absolutePath }
+            .filter { it.isDirectory && readStamp(it) != version }
+        val skipped = gameDirs.size - pending.size
+
+        if (pending.isEmpty()) {
+            progressStore.markCompleted(version)
+            return Report(patched = 0, skipped = skipped, failed = 0)
+        }
+
+        val assemblies = loadAssemblies(patchDir)
+        if (assemblies.isEmpty()) {
+            AppLog.w(TAG, "补丁目录中没有程序集: $patchDir")
+            return Report(patched = 0, skipped = skipped, failed = pending.size)
+        }
+
+        val patched = AtomicInteger()
+        val patchOne = { gameDir: File ->
+            val count = try {
+                patcher.patch(gameDir, assemblies)
+            } catch (e: Exception) {
+                AppLog.e(TAG, "应用补丁失败: $gameDir", e)
+                -1
+            }
+            if (count >= 0 && writeStamp(gameDir, version)) patched.incrementAndGet()
+        }
+
+        if (parallelism <= 1 || pending.size < 2) {
+            pending.forEach(patchOne)
+        } else {
+            val executor = Executors.newFixedThreadPool(parallelism.coerceAtMost(pending.size))
+            try {
+                val futures = pending.map { gameDir -> executor.submit { patchOne(gameDir) } }
+                for (future in futures) {
+                    try {
+                        future.get()
+                    } catch (e: ExecutionException) {
+                        AppLog.w(TAG, "补丁任务失败: ${e.cause?.message}")
+                    }
+                }
+            } catch (e: InterruptedException) {
+                // 已完成的游戏写过标记，下次从剩余的游戏继续
+                Thread.currentThread().interrupt()
+            } finally {
+                executor.shutdownNow()
+            }
+        }
+
+        val report = Report(patched = patched.get(), skipped = skipped, failed = pending.size - patched.get())
+        if (report.failed == 0) progressStore.markCompleted(version)
+        AppLog.i(TAG, "MonoMod 分发完成: 已应用 ${report.patched}，跳过 ${report.skipped}，失败 ${report.failed}")
+        return report
+    }
+
+    private fun loadAssemblies(patchDir: File): Map<String, ByteArray> {
+        val assemblies = HashMap<String, ByteArray>()
+        patchDir.walkTopDown()
+            .filter { it.isFile && it.name.endsWith(".dll") }
+            .forEach { dll ->
+                try {
+                    assemblies[dll.name] = dll.readBytes()
+                } catch (e: IOException) {
+                    AppLog.w(TAG, "读取 DLL 失败: ${dll.name}")
+                }
+            }
+        return assemblies
+    }
+
+    fun readStamp(gameDir: File): String? {
+        val stamp = File(gameDir, STAMP_FILE)
+        return try {
+            if (stamp.isFile) stamp.readText().trim() else null
+        } catch (e: IOException) {
+            null
+        }
+    }
+
+    private fun writeStamp(gameDir: File, version: String): Boolean {
+        val stamp = File(gameDir, STAMP_FILE)
+        val tmp = File(gameDir, "$STAMP_FILE.tmp")
+        return try {
+            tmp.writeText(version)
+            tmp.renameTo(stamp) || run {
+                tmp.delete()
+                false
+            }
+        } catch (e: IOException) {
+            AppLog.w(TAG, "写入版本标记失败: $gameDir")
+            false
+        }
+    }
+
+    companion object {
+        private const val TAG = "MonoModRollout"
+        private const val STAGING_SUFFIX = ".staging"
+
+        const val STAMP_FILE = ".monomod_version"
+
+        /** 替换程序集以磁盘写入为主，少量线程即可 */
+        val DEFAULT_PARALLELISM = Runtime.getRuntime().availableProcessors().coerceIn(2, 4)
+    }
+}
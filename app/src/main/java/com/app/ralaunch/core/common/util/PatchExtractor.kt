@@ -7,47 +7,82 @@ import com.app.ralaunch.core.platform.runtime.AssemblyPatcher
 import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream
 import org.koin.java.KoinJavaComponent
 import java.io.BufferedInputStream
-import java.io.BufferedOutputStream
 import java.io.File
-import java.io.FileOutputStream
+import java.security.MessageDigest
+import java.util.concurrent.atomic.AtomicBoolean
 
 /**
  * 补丁提取工具
+ *
+ * MonoMod 分发以任务方式运行，见 [MonoModRollout]：版本号取自 assets 中 MonoMod.zip 的内容哈希。
  */
 object PatchExtractor {
     private const val TAG = "PatchExtractor"
     private const val PREFS_NAME = "patch_extractor_prefs"
     private const val KEY_MONOMOD_EXTRACTED = "monomod_extracted"
+    private const val KEY_MONOMOD_VERSION = "monomod_rollout_version"
+    private const val ASSETS_MONOMOD_ZIP = "MonoMod.zip"
 
-    @JvmStatic
-    fun extractPatchesIfNeeded(context: Context) {
-        val prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
-        var needExtractMonoMod = !prefs.getBoolean(KEY_MONOMOD_EXTRACTED, false)
+    /** 版本号取内容哈希的前 16 位 */
+    private const val VERSION_LENGTH = 16
 
-        if (!needExtractMonoMod) {
-            val monoModDir = File(context.filesDir, "MonoMod")
-            needExtractMonoMod = !monoModDir.exists() || !monoModDir.isDirectory ||
-                monoModDir.listFiles()?.isEmpty() != false
-        }
+    private val running = AtomicBoolean(false)
 
-        if (!needExtractMonoMod) return
+    @JvmStatic
+    fun extractPatchesIfNeeded(context: Context) {
+        if (!running.compareAndSet(false, true)) return
 
-        Thread {
+        Thread({
             try {
-                extractAndApplyMonoMod(context)
-                prefs.edit().putBoolean(KEY_MONOMOD_EXTRACTED, true).apply()
+                runMonoModRollout(context)
             } catch (e: Exception) {
                 AppLog.e(TAG, "提取失败", e)
+            } finally {
+                running.set(false)
             }
-        }.start()
+        }, "MonoModRollout").start()
     }
 
-    private fun extractAndApplyMonoMod(context: Context) {
-        val monoModDir = File(context.filesDir, "MonoMod")
-        if (monoModDir.exists()) FileUtils.deleteDirectoryRecursivelyWithinRoot(monoModDir, context.filesDir)
-        monoModDir.mkdirs()
+    private fun runMonoModRollout(context: Context) {
+        val prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
+        val rollout = MonoModRollout(
+            sharedRoot = File(context.filesDir, "MonoMod"),
+            progressStore = object : MonoModRollout.ProgressStore {
+                override fun completedVersion(): String? = prefs.getString(KEY_MONOMOD_VERSION, null)
+                override fun markCompleted(version: String) {
+                    prefs.edit()
+                        .putString(KEY_MONOMOD_VERSION, version)
+                        .remove(KEY_MONOMOD_EXTRACTED)
+                        .apply()
+                }
+            }
+        )
+
+        val version = assetVersion(context)
+        if (rollout.isCompleted(version)) return
 
-        context.assets.open("MonoMod.zip").use { inputStream ->
+        val patchDir = rollout.prepare(version) { staging -> extractMonoMod(context, staging) }
+        val gameDirs = installedGameDirectories() ?: return
+        rollout.rollout(version, patchDir, gameDirs) { gameDir, assemblies ->
+            AssemblyPatcher.applyMonoModPatches(gameDir.absolutePath, assemblies, false)
+        }
+    }
+
+    private fun assetVersion(context: Context): String {
+        val digest = MessageDigest.getInstance("SHA-256")
+        context.assets.open(ASSETS_MONOMOD_ZIP).use { input ->
+            val buffer = ByteArray(16384)
+            var len: Int
+            while (input.read(buffer).also { len = it } != -1) {
+                digest.update(buffer, 0, len)
+            }
+        }
+        return IntegrityVerifier.toHex(digest.digest()).take(VERSION_LENGTH)
+    }
+
+    private fun extractMonoMod(context: Context, monoModDir: File) {
+        val canonicalDestPath = monoModDir.canonicalPath
+        context.assets.open(ASSETS_MONOMOD_ZIP).use { inputStream ->
             BufferedInputStream(inputStream, 16384).use { bis ->
                 ZipArchiveInputStream(bis, "UTF-8", true, true).use { zis ->
                     generateSequence { zis.nextZipEntry }.forEach { entry ->
@@ -58,7 +93,6 @@ object PatchExtractor {
                         if (entryName.isEmpty()) return@forEach
 
                         val targetFile = File(monoModDir, entryName)
-                        val canonicalDestPath = monoModDir.canonicalPath
                         val canonicalEntryPath = targetFile.canonicalPath
                         if (!canonicalEntryPath.startsWith("$canonicalDestPath${File.separator}")) return@forEach
 
@@ -66,47 +100,33 @@ object PatchExtractor {
                             targetFile.mkdirs()
                         } else {
                             targetFile.parentFile?.mkdirs()
-                            FileOutputStream(targetFile).use { fos ->
-                                BufferedOutputStream(fos).use { bos ->
-                                    zis.copyTo(bos, 8192)
-                                }
-                            }
+                            FileCopier.copyStreamToFile(zis, targetFile)
                         }
                     }
                 }
             }
         }
-
-        applyMonoModToAllGames(context, monoModDir)
     }
 
-    private fun applyMonoModToAllGames(context: Context, monoModDir: File) {
-        try {
-            val gameRepository: IGameRepositoryServiceV3? = try {
-                KoinJavaComponent.getOrNull(IGameRepositoryServiceV3::class.java)
-            } catch (e: Exception) { null }
-            if (gameRepository == null) return
-            val games = gameRepository.games.value
-            if (games.isEmpty()) return
-
-            games.forEach { game ->
-                val gameDir = getGameDirectory(game.gameExePathRelative) ?: return@forEach
-                AssemblyPatcher.applyMonoModPatches(context, gameDir, false)
-            }
-        } catch (e: Exception) {
-            AppLog.e(TAG, "应用 MonoMod 补丁失败", e)
+    private fun installedGameDirectories(): List<File>? {
+        val gameRepository: IGameRepositoryServiceV3 = try {
+            KoinJavaComponent.getOrNull(IGameRepositoryServiceV3::class.java)
+        } catch (e: Exception) { null } ?: return null
+        return gameRepository.games.value.mapNotNull { game ->
+            getGameDirectory(game.gameExePathFull ?: game.gameExePathRelative)
         }
     }
 
-    private fun getGameDirectory(gamePath: String?): String? {
+    private fun getGameDirectory(gamePath: String?): File? {
         if (gamePath.isNullOrEmpty()) return null
-        return File(gamePath).parentFile?.takeIf { it.exists() }?.absolutePath
+        return File(gamePath).parentFile?.takeIf { it.exists() }
     }
 
     @JvmStatic
     fun resetExtractionStatus(context: Context) {
         context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE).edit()
             .remove(KEY_MONOMOD_EXTRACTED)
+            .remove(KEY_MONOMOD_VERSION)
             .apply()
     }
 }
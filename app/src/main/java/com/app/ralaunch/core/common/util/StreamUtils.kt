@@ -8,15 +8,14 @@ import java.io.OutputStream
  * 流操作工具类
  */
 object StreamUtils {
-    private const val DEFAULT_BUFFER_SIZE = 8192
 
     /**
-     * 使用默认缓冲区大小(8192字节)传输数据
+     * 使用 [FileCopier] 的池化缓冲区传输数据
      */
     @JvmStatic
     @Throws(IOException::class)
     fun transferTo(input: InputStream, output: OutputStream) {
-        transferTo(input, output, DEFAULT_BUFFER_SIZE)
+        FileCopier.copyStream(input, output)
     }
 
     /**
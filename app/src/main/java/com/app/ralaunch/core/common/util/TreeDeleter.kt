@@ -0,0 +1,170 @@
+package com.app.ralaunch.core.common.util
+
+import com.app.ralaunch.core.logging.AppLog
+import java.io.IOException
+import java.nio.file.AtomicMoveNotSupportedException
+import java.nio.file.FileVisitResult
+import java.nio.file.Files
+import java.nio.file.LinkOption
+import java.nio.file.NoSuchFileException
+import java.nio.file.Path
+import java.nio.file.SimpleFileVisitor
+import java.nio.file.StandardCopyOption
+import java.nio.file.attribute.BasicFileAttributes
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicLong
+import kotlin.io.path.listDirectoryEntries
+
+/**
+ * 并行目录删除引擎
+ *
+ * - [moveToTrash]：把目标原子重命名进回收目录，目标路径立即消失
+ * - [deleteTree]：单次遍历收集条目，文件由有界线程池分批并行删除，目录随后按后序删除
+ * - [emptyTrash]：继续删除回收目录中残留的条目（例如上次删除时进程被杀）
+ *
+ * 遍历不跟随符号链接，链接本身被删除而不会触及链接目标。
+ */
+class TreeDeleter(
+    private val parallelism: Int = DEFAULT_PARALLELISM
+) {
+
+    fun interface ProgressListener {
+        fun onProgress(deleted: Long, total: Long)
+    }
+
+    /**
+     * 将 [target] 原子移动到 [trashDir] 下的唯一名称
+     *
+     * @return 回收目录中的新路径；目标不存在或无法原子移动（如跨文件系统）时返回 null
+     */
+    fun moveToTrash(target: Path, trashDir: Path): Path? {
+        if (!Files.exists(target, LinkOption.NOFOLLOW_LINKS)) return null
+        return try {
+            Files.createDirectories(trashDir)
+            val entry = trashDir.resolve("${target.fileName}.${System.nanoTime()}")
+            Files.move(target, entry, StandardCopyOption.ATOMIC_MOVE)
+            entry
+        } catch (e: AtomicMoveNotSupportedException) {
+            AppLog.w(TAG, "无法原子移动到回收目录: $target")
+            null
+        } catch (e: IOException) {
+            AppLog.w(TAG, "移动到回收目录失败: $target")
+            null
+        } catch (e: SecurityException) {
+            null
+        }
+    }
+
+    /**
+     * 删除 [root] 及其全部内容
+     *
+     * @return 是否全部删除成功
+     */
+    @Throws(IOException::class)
+    fun deleteTree(root: Path, listener: ProgressListener? = null): Boolean {
+        if (!Files.exists(root, LinkOption.NOFOLLOW_LINKS)) return true
+        if (!Files.isDirectory(root, LinkOption.NOFOLLOW_LINKS)) {
+            return FileUtils.deletePathWithRetry(root).also { listener?.onProgress(1, 1) }
+        }
+
+        val files = ArrayList<Path>()
+        val directories = ArrayList<Path>()
+        val allDeleted = AtomicBoolean(true)
+
+        Files.walkFileTree(root, object : SimpleFileVisitor<Path>() {
+            override fun visitFile(file: Path, attrs: BasicFileAttributes): FileVisitResult {
+                files.add(file)
+                return FileVisitResult.CONTINUE
+            }
+
+            override fun visitFileFailed(file: Path, exc: IOException?): FileVisitResult {
+                if (exc !is NoSuchFileException) files.add(file)
+                return FileVisitResult.CONTINUE
+            }
+
+            override fun postVisitDirectory(dir: Path, exc: IOException?): FileVisitResult {
+                if (exc != null && exc !is NoSuchFileException) allDeleted.set(false)
+                // 后序：子目录总是排在父目录之前
+                directories.add(dir)
+                return FileVisitResult.CONTINUE
+            }
+        })
+
+        val total = (files.size + directories.size).toLong()
+        val deleted = AtomicLong()
+        fun deleteBatch(batch: List<Path>) {
+            for (file in batch) {
+                if (!FileUtils.deletePathWithRetry(file)) allDeleted.set(false)
+            }
+            listener?.onProgress(deleted.addAndGet(batch.size.toLong()), total)
+        }
+
+        if (parallelism <= 1 || files.size <= BATCH_SIZE) {
+            files.chunked(BATCH_SIZE).forEach(::deleteBatch)
+        } else {
+            val executor = Executors.newFixedThreadPool(parallelism)
+            try {
+                val futures: List<Future<*>> = files.chunked(BATCH_SIZE).map { batch ->
+                    executor.submit { deleteBatch(batch) }
+                }
+                for (future in futures) {
+                    try {
+                        future.get()
+                    } catch (e: ExecutionException) {
+                        allDeleted.set(false)
+                        AppLog.w(TAG, "删除任务失败: ${e.cause?.message}")
+                    }
+                }
+            } catch (e: InterruptedException) {
+                Thread.currentThread().interrupt()
+                return false
+            } finally {
+                executor.shutdownNow()
+            }
+        }
+
+        for (dir in directories) {
+            if (!FileUtils.deletePathWithRetry(dir)) allDeleted.set(false)
+            listener?.onProgress(deleted.incrementAndGet(), total)
+        }
+
+        return allDeleted.get() && !Files.exists(root, LinkOption.NOFOLLOW_LINKS)
+    }
+
+    /**
+     * 删除回收目录中的全部残留条目，回收目录本身保留
+     */
+    fun emptyTrash(trashDir: Path, listener: ProgressListener? = null): Boolean {
+        if (!Files.isDirectory(trashDir, LinkOption.NOFOLLOW_LINKS)) return true
+        val entries = try {
+            trashDir.listDirectoryEntries()
+        } catch (e: IOException) {
+            return false
+        }
+        var allDeleted = true
+        for (entry in entries) {
+            val ok = try {
+                deleteTree(entry, listener)
+            } catch (e: IOException) {
+                AppLog.w(TAG, "清理回收目录失败: $entry")
+                false
+            }
+            if (!ok) allDeleted = false
+        }
+        return allDeleted
+    }
+
+    companion object {
+        private const val TAG = "TreeDeleter"
+        private const val BATCH_SIZE = 256
+
+        /** 删除以元数据 I/O 为主，线程数超过核心数收益不大 */
+        val DEFAULT_PARALLELISM = Runtime.getRuntime().availableProcessors().coerceIn(2, 4)
+
+        @JvmStatic
+        val DEFAULT = TreeDeleter()
+    }
+}
@@ -31,7 +31,9 @@ import com.app.ralaunch.feature.controls.packs.vm.ControlPackViewModel
 import com.app.ralaunch.feature.controls.vm.ControlLayoutViewModel
 import com.app.ralaunch.feature.filebrowser.vm.FileBrowserViewModel
 import com.app.ralaunch.feature.gog.data.GogDownloader
+import com.app.ralaunch.feature.gog.data.GogManifestCache
 import com.app.ralaunch.feature.gog.data.api.GogAuthClient
+import com.app.ralaunch.feature.gog.data.api.GogGalaxyApi
 import com.app.ralaunch.feature.gog.data.api.GogWebsiteApi
 import com.app.ralaunch.feature.gog.domain.ModLoaderConfigManager
 import com.app.ralaunch.feature.gog.vm.GogViewModel
@@ -51,6 +53,7 @@ import org.koin.android.ext.koin.androidContext
 import org.koin.core.qualifier.named
 import org.koin.core.module.dsl.viewModel
 import org.koin.dsl.module
+import java.io.File
 
 private const val LOGCAT_FILE_LOGGER = "logcatFileLogger"
 
@@ -177,7 +180,11 @@ val appModule = module {
     }
 
     single {
-        GogWebsiteApi(get())
+        GogGalaxyApi(get(), GogManifestCache(File(androidContext().cacheDir, "gog_manifests")))
+    }
+
+    single {
+        GogWebsiteApi(get(), get())
     }
 
     single {
@@ -2,6 +2,7 @@ package com.app.ralaunch.core.di.service
 
 import com.app.ralaunch.core.logging.AppLog
 import com.app.ralaunch.core.common.util.FileUtils
+import com.app.ralaunch.core.common.util.TreeDeleter
 import com.app.ralaunch.core.di.contract.IGameRepositoryServiceV3
 import com.app.ralaunch.core.model.GameItem
 import com.app.ralaunch.core.model.GameList
@@ -13,6 +14,7 @@ import kotlinx.coroutines.sync.Mutex
 import kotlinx.coroutines.sync.withLock
 import kotlinx.serialization.encodeToString
 import kotlinx.serialization.json.Json
+import kotlin.concurrent.thread
 import kotlin.io.path.ExperimentalPathApi
 import kotlin.io.path.Path
 import kotlin.io.path.createDirectories
@@ -52,6 +54,10 @@ class GameRepositoryServiceV3(
     private val _gamesFlow = MutableStateFlow(loadGameList())
     override val games: StateFlow<List<GameItem>> = _gamesFlow.asStateFlow()
 
+    init {
+        resumePendingDeletions()
+    }
+
     override suspend fun getById(id: String): GameItem? = games.value.find { it.id == id }
 
     override suspend fun upsert(game: GameItem, index: Int) = mutateAndSave { list ->
@@ -105,13 +111,37 @@ class GameRepositoryServiceV3(
         return try {
             val gamesDir = gamesDirPathFull.toAbsolutePath().normalize()
             val gameDir = gamesDir.resolve(storageRootPathRelative).normalize()
-            FileUtils.deleteDirectoryRecursivelyWithinRoot(gameDir, gamesDir)
+            // 先原子移入回收目录，游戏目录立即消失，再并行删除
+            FileUtils.deleteDirectoryRecursivelyWithinRoot(gameDir, gamesDir, gamesDir.resolve(TRASH_DIR))
         } catch (e: Exception) {
             AppLog.e(TAG, "删除游戏文件时发生错误: ${e.message}", e)
             false
         }
     }
 
+    /**
+     * 继续删除上次未删完的回收目录条目（进程在删除途中被杀等）
+     *
+     * 回收目录为空时不启动线程；此后新移入的条目即使被同时处理也无妨，
+     * 删除时已不存在的路径按成功计。
+     */
+    private fun resumePendingDeletions() {
+        val trashDir = gamesDirPathFull.resolve(TRASH_DIR)
+        val hasLeftovers = try {
+            trashDir.isDirectory() && trashDir.listDirectoryEntries().isNotEmpty()
+        } catch (e: Exception) {
+            AppLog.w(TAG, "读取回收目录失败: ${e.message}")
+            false
+        }
+        if (!hasLeftovers) return
+
+        thread(name = "GameTrashCleaner", isDaemon = true) {
+            if (!TreeDeleter.DEFAULT.emptyTrash(trashDir)) {
+                AppLog.w(TAG, "清理残留游戏文件失败: $trashDir")
+            }
+        }
+    }
+
     private fun loadGameList(): List<GameItem> {
         return try {
             if (!gameListPathFull.exists()) return emptyList()
@@ -201,5 +231,6 @@ class GameRepositoryServiceV3(
 
     private companion object {
         const val TAG = "GameRepositoryServiceV3"
+        const val TRASH_DIR = ".trash"
     }
 }
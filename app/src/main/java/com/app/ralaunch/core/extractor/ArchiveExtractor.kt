@@ -4,6 +4,8 @@ import android.content.Context
 import android.system.Os
 import com.app.ralaunch.core.logging.AppLog
 import com.app.ralaunch.core.common.util.FileUtils
+import com.app.ralaunch.core.common.util.IntegrityManifest
+import com.app.ralaunch.core.common.util.IntegrityVerifier
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream
 import org.apache.commons.compress.compressors.xz.XZCompressorInputStream
 import java.io.BufferedInputStream
@@ -14,6 +16,8 @@ import java.io.FileOutputStream
 import java.io.IOException
 import java.nio.file.Files
 import java.nio.file.StandardCopyOption
+import java.security.DigestOutputStream
+import java.security.MessageDigest
 import java.util.zip.GZIPInputStream
 
 /**
@@ -27,14 +31,28 @@ object ArchiveExtractor {
         fun onProgress(processedFiles: Int, currentFile: String)
     }
 
+    /**
+     * 条目过滤（参数为去除前缀后的相对路径），返回 false 的条目不解压
+     */
+    fun interface EntryFilter {
+        fun accept(entryName: String): Boolean
+    }
+
     @JvmStatic
     @JvmOverloads
-    fun extractTarGz(archiveFile: File, targetDir: File, stripPrefix: String?, callback: ProgressCallback? = null): Int {
+    fun extractTarGz(
+        archiveFile: File,
+        targetDir: File,
+        stripPrefix: String?,
+        callback: ProgressCallback? = null,
+        filter: EntryFilter? = null,
+        manifest: MutableMap<String, IntegrityManifest.Entry>? = null
+    ): Int {
         FileInputStream(archiveFile).use { fis ->
             BufferedInputStream(fis).use { bis ->
                 GZIPInputStream(bis).use { gzipIn ->
                     TarArchiveInputStream(gzipIn).use { tarIn ->
-                        return extractTarEntries(tarIn, targetDir, stripPrefix, callback)
+                        return extractTarEntries(tarIn, targetDir, stripPrefix, callback, filter, manifest)
                     }
                 }
             }
@@ -43,12 +61,19 @@ object ArchiveExtractor {
 
     @JvmStatic
     @JvmOverloads
-    fun extractTarXz(archiveFile: File, targetDir: File, stripPrefix: String?, callback: ProgressCallback? = null): Int {
+    fun extractTarXz(
+        archiveFile: File,
+        targetDir: File,
+        stripPrefix: String?,
+        callback: ProgressCallback? = null,
+        filter: EntryFilter? = null,
+        manifest: MutableMap<String, IntegrityManifest.Entry>? = null
+    ): Int {
         FileInputStream(archiveFile).use { fis ->
             BufferedInputStream(fis).use { bis ->
                 XZCompressorInputStream(bis).use { xzIn ->
                     TarArchiveInputStream(xzIn).use { tarIn ->
-                        return extractTarEntries(tarIn, targetDir, stripPrefix, callback)
+                        return extractTarEntries(tarIn, targetDir, stripPrefix, callback, filter, manifest)
                     }
                 }
             }
@@ -57,19 +82,30 @@ object ArchiveExtractor {
 
     @JvmStatic
     @JvmOverloads
-    fun extractTar(archiveFile: File, targetDir: File, stripPrefix: String?, callback: ProgressCallback? = null): Int {
+    fun extractTar(
+        archiveFile: File,
+        targetDir: File,
+        stripPrefix: String?,
+        callback: ProgressCallback? = null,
+        filter: EntryFilter? = null,
+        manifest: MutableMap<String, IntegrityManifest.Entry>? = null
+    ): Int {
         FileInputStream(archiveFile).use { fis ->
             BufferedInputStream(fis).use { bis ->
                 TarArchiveInputStream(bis).use { tarIn ->
-                    return extractTarEntries(tarIn, targetDir, stripPrefix, callback)
+                    return extractTarEntries(tarIn, targetDir, stripPrefix, callback, filter, manifest)
                 }
             }
         }
     }
 
+    /**
+     * @param manifest 非空时记录每个普通文件的大小与 SHA-256（边写边算，不额外读盘）
+     */
     private fun extractTarEntries(
         tarIn: TarArchiveInputStream, targetDir: File,
-        stripPrefix: String?, callback: ProgressCallback?
+        stripPrefix: String?, callback: ProgressCallback?,
+        filter: EntryFilter?, manifest: MutableMap<String, IntegrityManifest.Entry>?
     ): Int {
         var processedFiles = 0
 
@@ -80,11 +116,17 @@ object ArchiveExtractor {
             val targetFile = File(targetDir, entryName)
 
             if (!isPathSafe(targetDir, targetFile)) return@forEach
+            if (filter != null && !entry.isDirectory && !filter.accept(entryName)) return@forEach
 
             when {
                 entry.isDirectory -> extractDirectory(targetFile)
                 entry.isSymbolicLink -> extractSymlink(targetDir, targetFile, entry.linkName)
-                else -> extractFile(tarIn, targetFile, entry.mode)
+                else -> {
+                    val sha256 = extractFile(tarIn, targetFile, entry.mode, hash = manifest != null)
+                    if (manifest != null && sha256 != null) {
+                        manifest[entryName] = IntegrityManifest.Entry(targetFile.length(), sha256)
+                    }
+                }
             }
 
             processedFiles++
@@ -153,17 +195,26 @@ object ArchiveExtractor {
         }
     }
 
-    private fun extractFile(tarIn: TarArchiveInputStream, targetFile: File, mode: Int) {
+    /**
+     * @return [hash] 为 true 时返回写入内容的 SHA-256
+     */
+    private fun extractFile(tarIn: TarArchiveInputStream, targetFile: File, mode: Int, hash: Boolean): String? {
         targetFile.parentFile?.takeIf { !it.exists() }?.mkdirs()
 
+        val digest = if (hash) MessageDigest.getInstance("SHA-256") else null
         FileOutputStream(targetFile).use { fos ->
             BufferedOutputStream(fos).use { bos ->
-                tarIn.copyTo(bos, BUFFER_SIZE)
+                if (digest != null) {
+                    DigestOutputStream(bos, digest).use { tarIn.copyTo(it, BUFFER_SIZE) }
+                } else {
+                    tarIn.copyTo(bos, BUFFER_SIZE)
+                }
             }
         }
 
         if ((mode and 0x40) != 0) targetFile.setExecutable(true, false)
         targetFile.setReadable(true, false)
+        return digest?.let { IntegrityVerifier.toHex(it.digest()) }
     }
 
     @JvmStatic
@@ -15,6 +15,23 @@ object AppLog {
         logger = null
     }
 
+    @JvmStatic
+    fun isLoggable(level: LogLevel): Boolean = activeLogger.isLoggable(level)
+
+    /**
+     * 仅在 VERBOSE 级别可输出时才构造消息，用于触摸分发等热路径
+     */
+    inline fun v(tag: String, message: () -> String) {
+        if (isLoggable(LogLevel.VERBOSE)) v(tag, message())
+    }
+
+    /**
+     * 仅在 DEBUG 级别可输出时才构造消息，用于触摸分发等热路径
+     */
+    inline fun d(tag: String, message: () -> String) {
+        if (isLoggable(LogLevel.DEBUG)) d(tag, message())
+    }
+
     @JvmStatic
     fun v(tag: String, message: String): Int = activeLogger.v(tag, message)
 
@@ -1,6 +1,13 @@
 package com.app.ralaunch.core.logging.contract
 
+import com.app.ralaunch.core.logging.LogLevel
+
 interface Logger {
+    /**
+     * 该级别的日志是否会被输出；用于跳过热路径上的日志消息构造
+     */
+    fun isLoggable(level: LogLevel): Boolean = true
+
     fun v(tag: String, message: String): Int
     fun v(tag: String, message: String, throwable: Throwable?): Int
     fun d(tag: String, message: String): Int
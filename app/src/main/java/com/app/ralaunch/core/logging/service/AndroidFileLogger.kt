@@ -92,6 +92,8 @@ class AndroidFileLogger(
         )
     }
 
+    override fun isLoggable(level: LogLevel): Boolean = logLevel().allows(level)
+
     override fun v(tag: String, message: String): Int {
         val result = writeToAndroidLog(LogLevel.VERBOSE, tag, message, null)
         write(LogLevel.VERBOSE, tag, message, null)
@@ -0,0 +1,33 @@
+package com.app.ralaunch.core.model
+
+/**
+ * 触屏鼠标（右摇杆鼠标、触控板双击）设置的只读快照
+ *
+ * 触摸移动每秒会触发数百次，这些路径只读取快照，不再逐项访问设置仓库。
+ * 范围阈值 0.0-1.0 表示从屏幕中心向各方向扩展的比例，1.0 为全屏。
+ */
+data class MouseStickSettings(
+    val speed: Int,
+    val rangeLeft: Float,
+    val rangeTop: Float,
+    val rangeRight: Float,
+    val rangeBottom: Float
+) {
+    /** 移动距离放大倍数 */
+    val moveRatio: Float get() = speed / 100f
+
+    fun minX(screenWidth: Float): Float = (0.5f - rangeLeft / 2) * screenWidth
+    fun maxX(screenWidth: Float): Float = (0.5f + rangeRight / 2) * screenWidth
+    fun minY(screenHeight: Float): Float = (0.5f - rangeTop / 2) * screenHeight
+    fun maxY(screenHeight: Float): Float = (0.5f + rangeBottom / 2) * screenHeight
+
+    companion object {
+        fun from(settings: AppSettings) = MouseStickSettings(
+            speed = settings.mouseRightStickSpeed,
+            rangeLeft = settings.mouseRightStickRangeLeft,
+            rangeTop = settings.mouseRightStickRangeTop,
+            rangeRight = settings.mouseRightStickRangeRight,
+            rangeBottom = settings.mouseRightStickRangeBottom
+        )
+    }
+}
@@ -0,0 +1,113 @@
+package com.app.ralaunch.core.platform.android.provider
+
+import android.provider.DocumentsContract.Document
+
+/**
+ * 行构建所需的 stat 字段（由 `Os.lstat` / `Os.stat` 的结果转换而来）
+ */
+data class FileStat(
+    val mode: Int,
+    val uid: Int,
+    val gid: Int,
+    val size: Long,
+    val lastModified: Long
+) {
+    val isDirectory: Boolean get() = (mode and S_IFMT) == S_IFDIR
+    val isSymlink: Boolean get() = (mode and S_IFMT) == S_IFLNK
+
+    companion object {
+        const val S_IFMT = 0xF000
+        const val S_IFDIR = 0x4000
+        const val S_IFLNK = 0xA000
+    }
+}
+
+/**
+ * 一行文档数据，与 MatrixCursor 解耦
+ */
+data class DocumentRow(
+    val documentId: String,
+    val displayName: String,
+    val size: Long,
+    val mimeType: String,
+    val lastModified: Long,
+    val flags: Int,
+    val filePath: String,
+    val extras: String?
+)
+
+/**
+ * 文档行构建器
+ *
+ * 只依赖一次 lstat 的结果（符号链接额外提供目标的 stat 与链接目标），
+ * 父目录是否可写由调用方在一次列目录中只计算一次后传入。
+ */
+class DocumentRowBuilder(
+    private val mimeTypeForExtension: (String) -> String?
+) {
+
+    /**
+     * @param lstat 条目本身的 lstat 结果
+     * @param targetStat 符号链接指向目标的 stat 结果；非链接或链接失效时为 null
+     * @param linkTarget 符号链接目标（readlink），仅在 [withExtras] 时写入扩展信息
+     * @param writable 条目（链接则为目标）是否可写
+     * @param parentWritable 父目录是否可写
+     * @param withExtras 是否附带 mode/uid/gid 扩展信息（主要目录不附带）
+     */
+    fun build(
+        documentId: String,
+        path: String,
+        displayName: String,
+        lstat: FileStat,
+        targetStat: FileStat?,
+        linkTarget: String?,
+        writable: Boolean,
+        parentWritable: Boolean,
+        withExtras: Boolean
+    ): DocumentRow {
+        // 与 File.isDirectory/length/lastModified 一致：跟随符号链接
+        val effective = targetStat ?: lstat
+
+        var flags = 0
+        if (writable) {
+            flags = flags or if (effective.isDirectory) Document.FLAG_DIR_SUPPORTS_CREATE else Document.FLAG_SUPPORTS_WRITE
+        }
+        if (parentWritable) {
+            flags = flags or Document.FLAG_SUPPORTS_DELETE or
+                    Document.FLAG_SUPPORTS_RENAME or
+                    Document.FLAG_SUPPORTS_MOVE
+        }
+
+        val extras = if (withExtras) {
+            buildString {
+                append(lstat.mode).append('|').append(lstat.uid).append('|').append(lstat.gid)
+                if (lstat.isSymlink && linkTarget != null) {
+                    append('|').append(linkTarget)
+                }
+            }
+        } else {
+            null
+        }
+
+        return DocumentRow(
+            documentId = documentId,
+            displayName = displayName,
+            size = if (lstat.isSymlink && targetStat == null) 0L else effective.size,
+            mimeType = mimeType(path, effective.isDirectory),
+            lastModified = if (lstat.isSymlink && targetStat == null) 0L else effective.lastModified,
+            flags = flags,
+            filePath = path,
+            extras = extras
+        )
+    }
+
+    fun mimeType(path: String, isDirectory: Boolean): String {
+        if (isDirectory) return Document.MIME_TYPE_DIR
+        val name = path.substringAfterLast('/')
+        val lastDot = name.lastIndexOf('.')
+        if (lastDot >= 0) {
+            mimeTypeForExtension(name.substring(lastDot + 1).lowercase())?.let { return it }
+        }
+        return "application/octet-stream"
+    }
+}
@@ -8,11 +8,13 @@ import android.net.Uri
 import android.os.Bundle
 import android.os.CancellationSignal
 import android.os.ParcelFileDescriptor
+import android.provider.DocumentsContract
 import android.provider.DocumentsContract.Document
 import android.provider.DocumentsContract.Root
 import android.provider.DocumentsProvider
 import android.system.ErrnoException
 import android.system.Os
+import android.system.StructStat
 import android.webkit.MimeTypeMap
 import com.app.ralaunch.R
 import com.app.ralaunch.core.common.util.FileUtils
@@ -20,6 +22,9 @@ import com.app.ralaunch.core.logging.AppLog
 import java.io.File
 import java.io.FileNotFoundException
 import java.io.IOException
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
 
 /**
  * RaLaunch 文档提供器
@@ -39,6 +44,22 @@ class RaLaunchDocumentsProvider : DocumentsProvider() {
     private var mAndroidDataDir: File? = null
     private var mAndroidObbDir: File? = null
 
+    private val mRowBuilder = DocumentRowBuilder { extension ->
+        MimeTypeMap.getSingleton().getMimeTypeFromExtension(extension)
+    }
+
+    /** 大目录的后台构建结果，按目录路径保存，交付一次后移除；未被取走的结果超时后丢弃 */
+    private val mPendingListings = ConcurrentHashMap<String, PendingListing>()
+    private val mListingExecutor: ExecutorService by lazy { Executors.newSingleThreadExecutor() }
+
+    private class PendingListing(val dirModified: Long) {
+        @Volatile
+        var rows: List<DocumentRow>? = null
+
+        @Volatile
+        var completedAt: Long = 0L
+    }
+
     override fun attachInfo(context: Context, info: ProviderInfo) {
         super.attachInfo(context, info)
 
@@ -115,14 +136,77 @@ class RaLaunchDocumentsProvider : DocumentsProvider() {
                 includeFile(result, "$docId/user_de_data", it)
             }
         } else {
-            parent.listFiles()?.forEach { file ->
-                includeFile(result, "$docId/${file.name}", file)
+            val names = parent.list() ?: emptyArray()
+            // 父目录可写性对所有子项相同，只计算一次
+            val parentWritable = parent.canWrite()
+            if (names.size <= PAGE_SIZE) {
+                for (name in names) {
+                    buildRow("$docId/$name", File(parent, name), parentWritable)?.let { addRow(result, it) }
+                }
+            } else {
+                queryLargeDirectory(result, parentDocumentId, docId, parent, names, parentWritable)
             }
         }
 
         return result
     }
 
+    /**
+     * 大目录分页：先返回第一页并标记 [DocumentsContract.EXTRA_LOADING]，
+     * 其余行在后台构建，完成后通知系统重新查询，届时一次性返回完整结果
+     */
+    private fun queryLargeDirectory(
+        result: MatrixCursor,
+        parentDocumentId: String,
+        docId: String,
+        parent: File,
+        names: Array<String>,
+        parentWritable: Boolean
+    ) {
+        val notifyUri = DocumentsContract.buildChildDocumentsUri(AUTHORITY, parentDocumentId)
+        val dirModified = parent.lastModified()
+        val key = parent.path
+        dropAbandonedListings()
+
+        val pending = mPendingListings[key]
+        if (pending != null && pending.dirModified == dirModified) {
+            val rows = pending.rows
+            if (rows != null) {
+                // 只交付一次：再次进入该目录时重新分页加载，得到最新内容
+                mPendingListings.remove(key, pending)
+                rows.forEach { addRow(result, it) }
+                return
+            }
+        } else {
+            val listing = PendingListing(dirModified)
+            mPendingListings[key] = listing
+            mListingExecutor.execute {
+                listing.rows = names.mapNotNull { name ->
+                    buildRow("$docId/$name", File(parent, name), parentWritable)
+                }
+                listing.completedAt = System.currentTimeMillis()
+                context?.contentResolver?.notifyChange(notifyUri, null, false)
+            }
+        }
+
+        for (i in 0 until PAGE_SIZE) {
+            val name = names[i]
+            buildRow("$docId/$name", File(parent, name), parentWritable)?.let { addRow(result, it) }
+        }
+        result.extras = Bundle().apply { putBoolean(DocumentsContract.EXTRA_LOADING, true) }
+        result.setNotificationUri(context!!.contentResolver, notifyUri)
+    }
+
+    /**
+     * 丢弃构建完成后一直没有被重新查询取走的结果（用户已离开该目录）
+     */
+    private fun dropAbandonedListings() {
+        val abandonedBefore = System.currentTimeMillis() - PENDING_LISTING_TTL_MS
+        mPendingListings.entries.removeIf { (_, listing) ->
+            listing.rows != null && listing.completedAt < abandonedBefore
+        }
+    }
+
     override fun openDocument(
         documentId: String,
         mode: String,
@@ -227,7 +311,7 @@ class RaLaunchDocumentsProvider : DocumentsProvider() {
 
     override fun getDocumentType(documentId: String): String {
         val file = getFileForDocId(documentId)
-        return if (file == null) Document.MIME_TYPE_DIR else getMimeTypeForFile(file)
+        return if (file == null) Document.MIME_TYPE_DIR else mRowBuilder.mimeType(file.path, file.isDirectory)
     }
 
     override fun isChildDocument(parentDocumentId: String, documentId: String): Boolean {
@@ -298,7 +382,6 @@ class RaLaunchDocumentsProvider : DocumentsProvider() {
         return out
     }
 
-    @Suppress("SameParameterValue")
     private fun includeFile(result: MatrixCursor, docId: String, file: File?) {
         var targetFile = file
         if (targetFile == null) {
@@ -318,67 +401,84 @@ class RaLaunchDocumentsProvider : DocumentsProvider() {
             return
         }
 
-        // 计算标志位
-        var flags = 0
-        if (targetFile.isDirectory) {
-            if (targetFile.canWrite()) {
-                flags = flags or Document.FLAG_DIR_SUPPORTS_CREATE
-            }
-        } else if (targetFile.canWrite()) {
-            flags = flags or Document.FLAG_SUPPORTS_WRITE
-        }
+        val parentWritable = targetFile.parentFile?.canWrite() ?: false
+        buildRow(docId, targetFile, parentWritable)?.let { addRow(result, it) }
+    }
 
-        targetFile.parentFile?.takeIf { it.canWrite() }?.let {
-            flags = flags or Document.FLAG_SUPPORTS_DELETE
-            flags = flags or Document.FLAG_SUPPORTS_RENAME
-            flags = flags or Document.FLAG_SUPPORTS_MOVE
+    /**
+     * 以一次 lstat 构建文档行；符号链接额外 stat 目标（及 readlink）
+     *
+     * @return 文件在列目录后被删除等情况下返回 null
+     */
+    private fun buildRow(docId: String, file: File, parentWritable: Boolean): DocumentRow? {
+        val path = file.path
+        val lstat = try {
+            toFileStat(Os.lstat(path))
+        } catch (e: ErrnoException) {
+            AppLog.w(TAG, "Failed to stat $path", e)
+            return null
         }
 
         // 确定显示名称
-        val path = targetFile.path
-        var addExtras = false
+        var withExtras = false
         val displayName = when (path) {
             mDataDir.path -> "data"
             mAndroidDataDir?.path -> "android_data"
             mAndroidObbDir?.path -> "android_obb"
             mUserDeDataDir?.path -> "user_de_data "
             else -> {
-                addExtras = true
-                targetFile.name
+                withExtras = true
+                file.name
             }
         }
 
-        result.newRow().apply {
-            add(Document.COLUMN_DOCUMENT_ID, docId)
-            add(Document.COLUMN_DISPLAY_NAME, displayName)
-            add(Document.COLUMN_SIZE, targetFile.length())
-            add(Document.COLUMN_MIME_TYPE, getMimeTypeForFile(targetFile))
-            add(Document.COLUMN_LAST_MODIFIED, targetFile.lastModified())
-            add(Document.COLUMN_FLAGS, flags)
-            add(COLUMN_FILE_PATH, targetFile.absolutePath)
-
-            // 添加扩展信息
-            if (addExtras) {
-                try {
-                    val stat = Os.lstat(path)
-                    val sb = StringBuilder()
-                    sb.append(stat.st_mode)
-                        .append("|").append(stat.st_uid)
-                        .append("|").append(stat.st_gid)
-
-                    // 如果是符号链接，添加链接目标
-                    @Suppress("OctalInteger")
-                    if ((stat.st_mode and 0x1F000) == 0xA000) { // S_IFLNK
-                        sb.append("|").append(Os.readlink(path))
-                    }
-                    add(COLUMN_FILE_EXTRAS, sb.toString())
-                } catch (e: Exception) {
-                    AppLog.w(TAG, "Failed to read file extras for $path", e)
-                }
+        var targetStat: FileStat? = null
+        var linkTarget: String? = null
+        if (lstat.isSymlink) {
+            targetStat = try { toFileStat(Os.stat(path)) } catch (e: ErrnoException) { null }
+            if (withExtras) {
+                linkTarget = try { Os.readlink(path) } catch (e: ErrnoException) { null }
             }
         }
+
+        // File.canWrite 走 access(W_OK) 并跟随符号链接（失效链接为 false），
+        // 在 FUSE / 作用域存储下比直接看权限位可靠
+        val writable = file.canWrite()
+
+        return mRowBuilder.build(
+            documentId = docId,
+            path = path,
+            displayName = displayName,
+            lstat = lstat,
+            targetStat = targetStat,
+            linkTarget = linkTarget,
+            writable = writable,
+            parentWritable = parentWritable,
+            withExtras = withExtras
+        )
     }
 
+    private fun addRow(result: MatrixCursor, row: DocumentRow) {
+        result.newRow().apply {
+            add(Document.COLUMN_DOCUMENT_ID, row.documentId)
+            add(Document.COLUMN_DISPLAY_NAME, row.displayName)
+            add(Document.COLUMN_SIZE, row.size)
+            add(Document.COLUMN_MIME_TYPE, row.mimeType)
+            add(Document.COLUMN_LAST_MODIFIED, row.lastModified)
+            add(Document.COLUMN_FLAGS, row.flags)
+            add(COLUMN_FILE_PATH, row.filePath)
+            row.extras?.let { add(COLUMN_FILE_EXTRAS, it) }
+        }
+    }
+
+    private fun toFileStat(stat: StructStat): FileStat = FileStat(
+        mode = stat.st_mode,
+        uid = stat.st_uid,
+        gid = stat.st_gid,
+        size = stat.st_size,
+        lastModified = stat.st_mtim.tv_sec * 1000 + stat.st_mtim.tv_nsec / 1_000_000
+    )
+
     private fun getFileForDocId(docId: String, checkExists: Boolean = true): File? {
         var filename = docId
 
@@ -448,6 +548,10 @@ class RaLaunchDocumentsProvider : DocumentsProvider() {
         const val METHOD_SET_PERMISSIONS = "ralaunch:setPermissions"
         const val METHOD_CREATE_SYMLINK = "ralaunch:createSymlink"
 
+        /** 子项超过该数量时分页返回 */
+        private const val PAGE_SIZE = 200
+        private const val PENDING_LISTING_TTL_MS = 60_000L
+
         private val DEFAULT_ROOT_PROJECTION = arrayOf(
             Root.COLUMN_ROOT_ID,
             Root.COLUMN_MIME_TYPES,
@@ -493,23 +597,5 @@ class RaLaunchDocumentsProvider : DocumentsProvider() {
                 false
             }
         }
-
-        private fun getMimeTypeForFile(file: File): String {
-            if (file.isDirectory) {
-                return Document.MIME_TYPE_DIR
-            }
-
-            val name = file.name
-            val lastDot = name.lastIndexOf('.')
-            if (lastDot >= 0) {
-                val extension = name.substring(lastDot + 1).lowercase()
-                val mime = MimeTypeMap.getSingleton().getMimeTypeFromExtension(extension)
-                if (mime != null) {
-                    return mime
-                }
-            }
-
-            return "application/octet-stream"
-        }
     }
 }
@@ -1,154 +1,363 @@
 package com.app.ralaunch.core.platform.network.easytier
 
 import com.app.ralaunch.core.logging.AppLog
-import org.json.JSONObject
+import com.google.gson.stream.JsonReader
+import com.google.gson.stream.JsonToken
+import java.io.StringReader
 
 /**
  * EasyTier 网络信息 JSON 解析器
+ *
+ * 使用流式 [JsonReader] 只解码用到的字段，其余子树直接跳过，
+ * 不再为每次轮询构建完整的 DOM。
  */
 internal object EasyTierJsonParser {
 
     private const val TAG = "EasyTierParser"
 
+    /**
+     * 流式解析过程中收集的原始路由信息
+     */
+    private data class RawRoute(
+        val peerId: Long,
+        val hostname: String,
+        val peerIp: String?,
+        val udpNatType: Int,
+        val isPublicServer: Boolean,
+        val tunnelProto: String,
+        val latencyUs: Long,
+        val lossRate: Float
+    )
+
+    private class RawConn(
+        val tunnelProto: String,
+        val latencyUs: Long,
+        val lossRate: Float
+    )
+
     /**
      * 解析网络信息 JSON
      * 优先从 peer_route_pairs 获取，其次从 routes 获取
      */
     fun parseNetworkInfo(jsonString: String): Map<String, NetworkInstanceInfo>? {
         return try {
-            val result = mutableMapOf<String, NetworkInstanceInfo>()
-            val json = JSONObject(jsonString)
-            val mapJson = json.optJSONObject("map") ?: return null
-
-            for (key in mapJson.keys()) {
-                val instanceJson = mapJson.getJSONObject(key)
-                val running = instanceJson.optBoolean("running", false)
-                val errorMsg = instanceJson.optString("error_msg", null)
-
-                val myNodeInfo = instanceJson.optJSONObject("my_node_info")
-                val virtualIpv4 = myNodeInfo?.optJSONObject("virtual_ipv4")
-                val virtualIp = parseIpv4(virtualIpv4)
-                val ipv4AddrStr = myNodeInfo?.optString("ipv4_addr", null)
-                val myPeerId = myNodeInfo?.optLong("peer_id", 0L) ?: 0L
-
-                AppLog.w("DEBUG_MULTIPLAYER", "RawMyNodeInfo: ${myNodeInfo?.toString()?.take(500)}")
-                AppLog.w("DEBUG_MULTIPLAYER", "ParseInfo: virtualIp=$virtualIp, ipv4_addr=$ipv4AddrStr, peerId=$myPeerId")
-
-                val peersList = mutableListOf<NetworkPeerInfo>()
-
-                // 方案1: 优先从 peer_route_pairs 获取
-                val peerRoutePairs = instanceJson.optJSONArray("peer_route_pairs")
-                if (peerRoutePairs != null && peerRoutePairs.length() > 0) {
-                    for (i in 0 until peerRoutePairs.length()) {
-                        val pair = peerRoutePairs.getJSONObject(i)
-                        val route = pair.optJSONObject("route") ?: continue
-                        val peer = pair.optJSONObject("peer")
-
-                        val peerId = route.optLong("peer_id", 0L)
-                        if (peerId == myPeerId || peerId == 0L) continue
-
-                        val hostname = route.optString("hostname", "")
-                        val peerIpv4 = route.optJSONObject("ipv4_addr")
-                        val peerIp = parseIpv4Addr(peerIpv4)
-
-                        if (hostname.lowercase().contains("host")) {
-                            AppLog.w("DEBUG_MULTIPLAYER", "HostRoute: ${route.toString().take(800)}")
-                        }
-                        val stunInfo = route.optJSONObject("stun_info")
-                        val udpNatType = stunInfo?.optInt("udp_nat_type", 0) ?: 0
-                        val natType = natTypeToString(udpNatType)
+            JsonReader(StringReader(jsonString)).use { reader ->
+                var result: Map<String, NetworkInstanceInfo>? = null
+                reader.beginObject()
+                while (reader.hasNext()) {
+                    if (reader.nextName() == "map" && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                        result = readInstanceMap(reader)
+                    } else {
+                        reader.skipValue()
+                    }
+                }
+                reader.endObject()
+                result
+            }
+        } catch (e: Exception) {
+            AppLog.e(TAG, "Failed to parse network info JSON", e)
+            null
+        }
+    }
 
-                        val featureFlag = route.optJSONObject("feature_flag")
-                        val isPublicServer = (featureFlag?.optBoolean("is_public_server", false) ?: false) ||
-                                hostname.startsWith("PublicServer_")
+    private fun readInstanceMap(reader: JsonReader): Map<String, NetworkInstanceInfo> {
+        val result = LinkedHashMap<String, NetworkInstanceInfo>()
+        reader.beginObject()
+        while (reader.hasNext()) {
+            val key = reader.nextName()
+            if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+                result[key] = readInstance(reader, key)
+            } else {
+                reader.skipValue()
+            }
+        }
+        reader.endObject()
+        return result
+    }
 
-                        if (isPublicServer) {
-                            AppLog.d(TAG, "Skipping public server: $hostname (peer_id=$peerId)")
-                            continue
-                        }
+    private fun readInstance(reader: JsonReader, key: String): NetworkInstanceInfo {
+        var running = false
+        var errorMsg: String? = null
+        var virtualIp: String? = null
+        var myPeerId = 0L
+        var pairRoutes: List<RawRoute> = emptyList()
+        var plainRoutes: List<RawRoute> = emptyList()
 
-                        var tunnelProto = "unknown"
-                        var latencyUs = 0L
-                        var lossRate = 0f
-                        if (peer != null) {
-                            val connsArray = peer.optJSONArray("conns")
-                            if (connsArray != null && connsArray.length() > 0) {
-                                val conn = connsArray.getJSONObject(0)
-                                val tunnel = conn.optJSONObject("tunnel")
-                                tunnelProto = tunnel?.optString("tunnel_type", "unknown") ?: "unknown"
-                                val stats = conn.optJSONObject("stats")
-                                latencyUs = stats?.optLong("latency_us", 0L) ?: 0L
-                                lossRate = conn.optDouble("loss_rate", 0.0).toFloat()
-                            }
+        reader.beginObject()
+        while (reader.hasNext()) {
+            when (reader.nextName()) {
+                "running" -> running = nextBooleanOr(reader, false)
+                "error_msg" -> errorMsg = nextStringOrNull(reader)
+                "my_node_info" -> {
+                    if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                        reader.skipValue()
+                        continue
+                    }
+                    reader.beginObject()
+                    while (reader.hasNext()) {
+                        when (reader.nextName()) {
+                            "virtual_ipv4" -> virtualIp = readIpv4Inet(reader, withPrefix = true)
+                            "peer_id" -> myPeerId = nextLongOr(reader, 0L)
+                            else -> reader.skipValue()
                         }
-
-                        peersList.add(NetworkPeerInfo(
-                            id = peerId.toString(),
-                            virtualIp = peerIp ?: "N/A",
-                            hostname = hostname.ifEmpty { "Peer-$peerId" },
-                            latency = if (latencyUs > 0) (latencyUs / 1000).toInt() else null,
-                            tunnelProto = tunnelProto,
-                            natType = natType,
-                            lossRate = lossRate
-                        ))
                     }
+                    reader.endObject()
                 }
+                "peer_route_pairs" -> pairRoutes = readArray(reader) { readPeerRoutePair(it) }
+                "routes" -> plainRoutes = readArray(reader) { readRoute(it) }
+                else -> reader.skipValue()
+            }
+        }
+        reader.endObject()
 
-                // 方案2: 如果 peer_route_pairs 为空，从 routes 获取
-                if (peersList.isEmpty()) {
-                    val routes = instanceJson.optJSONArray("routes")
-                    if (routes != null) {
-                        for (i in 0 until routes.length()) {
-                            val route = routes.getJSONObject(i)
-                            val peerId = route.optLong("peer_id", 0L)
-
-                            if (peerId == myPeerId || peerId == 0L) continue
-
-                            val hostname = route.optString("hostname", "")
-                            val peerIpv4 = route.optJSONObject("ipv4_addr")
-                            val peerIp = parseIpv4Addr(peerIpv4)
-                            val stunInfo = route.optJSONObject("stun_info")
-                            val udpNatType = stunInfo?.optInt("udp_nat_type", 0) ?: 0
-                            val natType = natTypeToString(udpNatType)
-
-                            val featureFlag = route.optJSONObject("feature_flag")
-                            val isPublicServer = (featureFlag?.optBoolean("is_public_server", false) ?: false) ||
-                                    hostname.startsWith("PublicServer_")
-
-                            if (isPublicServer) {
-                                AppLog.d(TAG, "Skipping public server: $hostname (peer_id=$peerId)")
-                                continue
-                            }
-
-                            peersList.add(NetworkPeerInfo(
-                                id = peerId.toString(),
-                                virtualIp = peerIp ?: "N/A",
-                                hostname = hostname.ifEmpty { "Peer-$peerId" },
-                                latency = null,
-                                tunnelProto = "unknown",
-                                natType = natType,
-                                lossRate = 0f
-                            ))
-                        }
-                    }
+        // 方案1: 优先从 peer_route_pairs 获取；方案2: 为空时从 routes 获取
+        var peersList = toPeers(pairRoutes, myPeerId)
+        if (peersList.isEmpty()) {
+            peersList = toPeers(plainRoutes, myPeerId)
+        }
+
+        AppLog.d(TAG, "Parsed ${peersList.size} peers from network info (virtualIp=$virtualIp, peerId=$myPeerId)")
+
+        return NetworkInstanceInfo(
+            instanceName = key,
+            running = running,
+            virtualIp = virtualIp,
+            peers = peersList,
+            errorMsg = errorMsg
+        )
+    }
+
+    private fun toPeers(routes: List<RawRoute>, myPeerId: Long): List<NetworkPeerInfo> {
+        val peers = ArrayList<NetworkPeerInfo>(routes.size)
+        for (route in routes) {
+            if (route.peerId == myPeerId || route.peerId == 0L) continue
+            if (route.isPublicServer || route.hostname.startsWith("PublicServer_")) {
+                AppLog.d(TAG, "Skipping public server: ${route.hostname} (peer_id=${route.peerId})")
+                continue
+            }
+            peers.add(NetworkPeerInfo(
+                id = route.peerId.toString(),
+                virtualIp = route.peerIp ?: "N/A",
+                hostname = route.hostname.ifEmpty { "Peer-${route.peerId}" },
+                latency = if (route.latencyUs > 0) (route.latencyUs / 1000).toInt() else null,
+                tunnelProto = route.tunnelProto,
+                natType = natTypeToString(route.udpNatType),
+                lossRate = route.lossRate
+            ))
+        }
+        return peers
+    }
+
+    private fun readPeerRoutePair(reader: JsonReader): RawRoute? {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue()
+            return null
+        }
+        var route: RawRoute? = null
+        var conn: RawConn? = null
+        reader.beginObject()
+        while (reader.hasNext()) {
+            when (reader.nextName()) {
+                "route" -> route = readRoute(reader)
+                "peer" -> conn = readFirstConn(reader)
+                else -> reader.skipValue()
+            }
+        }
+        reader.endObject()
+        // route 与 peer 的出现顺序不确定，读完整个对象后再合并
+        route ?: return null
+        return if (conn == null) route else route.copy(
+            tunnelProto = conn.tunnelProto,
+            latencyUs = conn.latencyUs,
+            lossRate = conn.lossRate
+        )
+    }
+
+    private fun readRoute(reader: JsonReader): RawRoute? {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue()
+            return null
+        }
+        var peerId = 0L
+        var hostname = ""
+        var peerIp: String? = null
+        var udpNatType = 0
+        var isPublicServer = false
+
+        reader.beginObject()
+        while (reader.hasNext()) {
+            when (reader.nextName()) {
+                "peer_id" -> peerId = nextLongOr(reader, 0L)
+                "hostname" -> hostname = nextStringOrNull(reader) ?: ""
+                "ipv4_addr" -> peerIp = readIpv4Inet(reader, withPrefix = false)
+                "stun_info" -> udpNatType = readIntField(reader, "udp_nat_type", 0)
+                "feature_flag" -> isPublicServer = readBooleanField(reader, "is_public_server", false)
+                else -> reader.skipValue()
+            }
+        }
+        reader.endObject()
+
+        return RawRoute(
+            peerId = peerId,
+            hostname = hostname,
+            peerIp = peerIp,
+            udpNatType = udpNatType,
+            isPublicServer = isPublicServer,
+            tunnelProto = "unknown",
+            latencyUs = 0L,
+            lossRate = 0f
+        )
+    }
+
+    /**
+     * 读取 peer 对象中 conns 数组的第一个连接
+     */
+    private fun readFirstConn(reader: JsonReader): RawConn? {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue()
+            return null
+        }
+        var conn: RawConn? = null
+        reader.beginObject()
+        while (reader.hasNext()) {
+            if (reader.nextName() == "conns" && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray()
+                while (reader.hasNext()) {
+                    if (conn == null) conn = readConn(reader) else reader.skipValue()
                 }
+                reader.endArray()
+            } else {
+                reader.skipValue()
+            }
+        }
+        reader.endObject()
+        return conn
+    }
 
-                AppLog.d(TAG, "Parsed ${peersList.size} peers from network info")
+    private fun readConn(reader: JsonReader): RawConn? {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue()
+            return null
+        }
+        var tunnelProto = "unknown"
+        var latencyUs = 0L
+        var lossRate = 0f
+        reader.beginObject()
+        while (reader.hasNext()) {
+            when (reader.nextName()) {
+                "tunnel" -> tunnelProto = readStringField(reader, "tunnel_type") ?: "unknown"
+                "stats" -> latencyUs = readLongField(reader, "latency_us", 0L)
+                "loss_rate" -> lossRate = nextDoubleOr(reader, 0.0).toFloat()
+                else -> reader.skipValue()
+            }
+        }
+        reader.endObject()
+        return RawConn(tunnelProto, latencyUs, lossRate)
+    }
 
-                result[key] = NetworkInstanceInfo(
-                    instanceName = key,
-                    running = running,
-                    virtualIp = virtualIp,
-                    peers = peersList,
-                    errorMsg = errorMsg
-                )
+    /**
+     * 读取 Ipv4Inet / Ipv4Addr 格式: {"address": {"addr": int}, "network_length": int}
+     */
+    private fun readIpv4Inet(reader: JsonReader, withPrefix: Boolean): String? {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue()
+            return null
+        }
+        var addr = 0L
+        var networkLength = 24
+        reader.beginObject()
+        while (reader.hasNext()) {
+            when (reader.nextName()) {
+                "address" -> addr = readLongField(reader, "addr", 0L)
+                // Ipv4Addr 直接以 addr 作为字段
+                "addr" -> addr = nextLongOr(reader, 0L)
+                "network_length" -> networkLength = nextIntOr(reader, 24)
+                else -> reader.skipValue()
             }
+        }
+        reader.endObject()
+        if (addr == 0L) return null
+        val ip = formatIpv4(addr)
+        return if (withPrefix) "$ip/$networkLength" else ip
+    }
 
-            result
-        } catch (e: Exception) {
-            AppLog.e(TAG, "Failed to parse network info JSON", e)
-            null
+    private inline fun <T : Any> readArray(reader: JsonReader, readItem: (JsonReader) -> T?): List<T> {
+        if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+            reader.skipValue()
+            return emptyList()
+        }
+        val items = ArrayList<T>()
+        reader.beginArray()
+        while (reader.hasNext()) {
+            readItem(reader)?.let { items.add(it) }
+        }
+        reader.endArray()
+        return items
+    }
+
+    private fun readIntField(reader: JsonReader, name: String, default: Int): Int =
+        readLongField(reader, name, default.toLong()).toInt()
+
+    private fun readLongField(reader: JsonReader, name: String, default: Long): Long {
+        var value = default
+        readObjectFields(reader) { field ->
+            if (field == name) value = nextLongOr(reader, default) else reader.skipValue()
+        }
+        return value
+    }
+
+    private fun readBooleanField(reader: JsonReader, name: String, default: Boolean): Boolean {
+        var value = default
+        readObjectFields(reader) { field ->
+            if (field == name) value = nextBooleanOr(reader, default) else reader.skipValue()
+        }
+        return value
+    }
+
+    private fun readStringField(reader: JsonReader, name: String): String? {
+        var value: String? = null
+        readObjectFields(reader) { field ->
+            if (field == name) value = nextStringOrNull(reader) else reader.skipValue()
+        }
+        return value
+    }
+
+    private inline fun readObjectFields(reader: JsonReader, onField: (String) -> Unit) {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue()
+            return
         }
+        reader.beginObject()
+        while (reader.hasNext()) {
+            onField(reader.nextName())
+        }
+        reader.endObject()
+    }
+
+    private fun nextLongOr(reader: JsonReader, default: Long): Long = when (reader.peek()) {
+        JsonToken.NUMBER, JsonToken.STRING -> {
+            val raw = reader.nextString()
+            raw.toLongOrNull() ?: raw.toDoubleOrNull()?.toLong() ?: default
+        }
+        else -> { reader.skipValue(); default }
+    }
+
+    private fun nextIntOr(reader: JsonReader, default: Int): Int = nextLongOr(reader, default.toLong()).toInt()
+
+    private fun nextDoubleOr(reader: JsonReader, default: Double): Double = when (reader.peek()) {
+        JsonToken.NUMBER, JsonToken.STRING -> reader.nextString().toDoubleOrNull() ?: default
+        else -> { reader.skipValue(); default }
+    }
+
+    private fun nextBooleanOr(reader: JsonReader, default: Boolean): Boolean = when (reader.peek()) {
+        JsonToken.BOOLEAN -> reader.nextBoolean()
+        JsonToken.STRING -> reader.nextString().toBooleanStrictOrNull() ?: default
+        else -> { reader.skipValue(); default }
+    }
+
+    private fun nextStringOrNull(reader: JsonReader): String? = when (reader.peek()) {
+        JsonToken.STRING, JsonToken.NUMBER -> reader.nextString()
+        else -> { reader.skipValue(); null }
     }
 
     /**
@@ -169,40 +378,12 @@ internal object EasyTierJsonParser {
     }
 
     /**
-     * 解析 IPv4 地址 (Ipv4Inet 格式)
-     */
-    fun parseIpv4(ipv4Json: JSONObject?): String? {
-        if (ipv4Json == null) return null
-        val addressJson = ipv4Json.optJSONObject("address") ?: return null
-        val addr = addressJson.optLong("addr", 0L)
-        if (addr == 0L) return null
-
-        val networkLength = ipv4Json.optInt("network_length", 24)
-        val ip = String.format(
-            "%d.%d.%d.%d",
-            (addr shr 24) and 0xFF,
-            (addr shr 16) and 0xFF,
-            (addr shr 8) and 0xFF,
-            addr and 0xFF
-        )
-        return "$ip/$networkLength"
-    }
-
-    /**
-     * 解析 IPv4 地址 (Ipv4Inet 格式: {"address": {"addr": int}})
+     * 将 32 位整型地址格式化为点分十进制
      */
-    fun parseIpv4Addr(ipv4Json: JSONObject?): String? {
-        if (ipv4Json == null) return null
-        val addressObj = ipv4Json.optJSONObject("address") ?: return null
-        val addr = addressObj.optLong("addr", 0L)
-        if (addr == 0L) return null
-
-        return String.format(
-            "%d.%d.%d.%d",
-            (addr shr 24) and 0xFF,
-            (addr shr 16) and 0xFF,
-            (addr shr 8) and 0xFF,
-            addr and 0xFF
-        )
+    fun formatIpv4(addr: Long): String = buildString(15) {
+        append((addr shr 24) and 0xFF).append('.')
+        append((addr shr 16) and 0xFF).append('.')
+        append((addr shr 8) and 0xFF).append('.')
+        append(addr and 0xFF)
     }
 }
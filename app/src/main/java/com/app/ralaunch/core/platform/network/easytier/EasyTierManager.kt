@@ -90,6 +90,8 @@ class EasyTierManager {
     private val _peers = MutableStateFlow<List<NetworkPeerInfo>>(emptyList())
     val peers: StateFlow<List<NetworkPeerInfo>> = _peers.asStateFlow()
     
+    private val peerTracker = EasyTierPeerTracker()
+    
     private val _errorMessage = MutableStateFlow<String?>(null)
     val errorMessage: StateFlow<String?> = _errorMessage.asStateFlow()
     
@@ -244,6 +246,7 @@ class EasyTierManager {
             hostFound = false
             _connectionState.value = EasyTierConnectionState.DISCONNECTED
             _virtualIp.value = null
+            peerTracker.reset()
             _peers.value = emptyList()
             _errorMessage.value = null
             
@@ -330,6 +333,8 @@ class EasyTierManager {
         try {
             val infosJson = EasyTierJNI.collectNetworkInfos()
             if (infosJson.isNullOrEmpty() || infosJson.length < 50) return
+            // 与上一次轮询内容完全相同时跳过解析
+            if (peerTracker.isSamePayload(infosJson)) return
             
             val networkInfo = parseNetworkInfo(infosJson)
             if (networkInfo.isNullOrEmpty()) return
@@ -356,10 +361,12 @@ class EasyTierManager {
                 }
             }
             
-            // 更新节点列表
-            _peers.value = instanceInfo.peers
-            
-            AppLog.d(TAG, "Network status: IP=${instanceInfo.virtualIp}, peers=${instanceInfo.peers.size}")
+            // 更新节点列表（未变化的节点沿用旧实例，列表不变时 StateFlow 不会重复通知）
+            val diff = peerTracker.apply(instanceInfo.peers)
+            _peers.value = diff.peers
+            if (!diff.isEmpty) {
+                AppLog.d(TAG, "Network status: IP=${instanceInfo.virtualIp}, peers=${diff.peers.size}, changes=${diff.events.size}")
+            }
             
             // 如果是加入者且在 FINDING_HOST 状态，检测房主
             if (!isCurrentHost && _connectionState.value == EasyTierConnectionState.FINDING_HOST) {
@@ -0,0 +1,117 @@
+package com.app.ralaunch.core.platform.network.easytier
+
+/**
+ * 节点变化事件
+ */
+sealed class PeerEvent {
+    abstract val peer: NetworkPeerInfo
+
+    data class Added(override val peer: NetworkPeerInfo) : PeerEvent()
+    data class Updated(val previous: NetworkPeerInfo, override val peer: NetworkPeerInfo) : PeerEvent()
+    data class Removed(override val peer: NetworkPeerInfo) : PeerEvent()
+}
+
+/**
+ * 一次轮询与上一次状态的差异
+ *
+ * @param peers 合并后的完整节点列表；未变化的节点沿用上一次的实例
+ */
+data class PeerDiff(
+    val peers: List<NetworkPeerInfo>,
+    val events: List<PeerEvent>
+) {
+    val isEmpty: Boolean get() = events.isEmpty()
+}
+
+/**
+ * EasyTier 节点增量状态
+ *
+ * 以 peer ID 为键保存上一次的节点表，每次轮询只产生新增/更新/移除事件；
+ * 同时记录原始 JSON 的哈希，内容完全相同的轮询直接跳过解析。
+ * 非线程安全，由监控协程串行调用。
+ */
+class EasyTierPeerTracker {
+
+    private var peersById = LinkedHashMap<String, NetworkPeerInfo>()
+    private var current: List<NetworkPeerInfo> = emptyList()
+    private var lastPayloadHash = 0L
+    private var hasPayload = false
+
+    val peers: List<NetworkPeerInfo> get() = current
+
+    /**
+     * 判断原始 JSON 与上一次是否相同；不同则记录新的哈希
+     *
+     * @return true 表示内容未变化，可以跳过本次解析
+     */
+    fun isSamePayload(payload: String): Boolean {
+        val hash = payloadHash(payload)
+        if (hasPayload && hash == lastPayloadHash) return true
+        lastPayloadHash = hash
+        hasPayload = true
+        return false
+    }
+
+    /**
+     * 将新的节点列表合并进当前状态
+     */
+    fun apply(newPeers: List<NetworkPeerInfo>): PeerDiff {
+        val next = LinkedHashMap<String, NetworkPeerInfo>(newPeers.size)
+        val events = ArrayList<PeerEvent>()
+        val merged = ArrayList<NetworkPeerInfo>(newPeers.size)
+
+        for (peer in newPeers) {
+            if (next.containsKey(peer.id)) continue
+            val previous = peersById[peer.id]
+            val kept = when {
+                previous == null -> {
+                    events.add(PeerEvent.Added(peer))
+                    peer
+                }
+                previous != peer -> {
+                    events.add(PeerEvent.Updated(previous, peer))
+                    peer
+                }
+                else -> previous
+            }
+            next[peer.id] = kept
+            merged.add(kept)
+        }
+        for ((id, peer) in peersById) {
+            if (!next.containsKey(id)) events.add(PeerEvent.Removed(peer))
+        }
+
+        peersById = next
+        // 内容与顺序均未变化时沿用旧列表实例，StateFlow 不会触发下游重组
+        if (events.isNotEmpty() || merged != current) {
+            current = merged
+        }
+        return PeerDiff(current, events)
+    }
+
+    /**
+     * 清空状态（断开连接时调用）
+     */
+    fun reset() {
+        peersById = LinkedHashMap()
+        current = emptyList()
+        lastPayloadHash = 0L
+        hasPayload = false
+    }
+
+    companion object {
+        private const val FNV_OFFSET = -0x340d631b7bdddcdbL
+        private const val FNV_PRIME = 0x100000001b3L
+
+        /**
+         * 64 位 FNV-1a 哈希（按 UTF-16 码元计算，无需先编码为字节）
+         */
+        fun payloadHash(payload: String): Long {
+            var hash = FNV_OFFSET
+            for (i in payload.indices) {
+                hash = (hash xor payload[i].code.toLong()) * FNV_PRIME
+            }
+            return hash
+        }
+    }
+}
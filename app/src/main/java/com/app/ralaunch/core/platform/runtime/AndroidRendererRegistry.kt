@@ -18,6 +18,11 @@ object AndroidRendererRegistry {
 
     fun getCompatibleRenderers(): List<RendererInfo> = RendererRegistry.getCompatibleRenderers()
 
+    fun getRendererDescriptor(rendererId: String): RendererDescriptor? =
+        RendererRegistry.getRendererDescriptor(rendererId)
+
+    fun invalidateCompatibilityCache() = RendererRegistry.invalidateCompatibilityCache()
+
     fun isKnownRendererId(id: String): Boolean = RendererRegistry.isKnownRendererId(id)
 
     fun isRendererCompatible(rendererId: String): Boolean = RendererRegistry.isRendererCompatible(rendererId)
@@ -79,7 +79,21 @@ object AssemblyPatcher {
                 if (verboseLog) AppLog.w(TAG, "MonoMod 目录为空或不存在")
                 return 0
             }
+            applyMonoModPatches(gameDirectory, patchAssemblies, verboseLog)
+        } catch (e: Exception) {
+            AppLog.e(TAG, "应用补丁失败", e)
+            -1
+        }
+    }
 
+    /**
+     * 使用已读入内存的补丁程序集替换游戏目录中的同名程序集
+     *
+     * 供批量分发使用：多个游戏共享同一份只读的 [patchAssemblies]
+     */
+    @JvmStatic
+    fun applyMonoModPatches(gameDirectory: String, patchAssemblies: Map<String, ByteArray>, verboseLog: Boolean): Int {
+        return try {
             val gameDir = File(gameDirectory)
             val gameAssemblies = findGameAssemblies(gameDir)
 
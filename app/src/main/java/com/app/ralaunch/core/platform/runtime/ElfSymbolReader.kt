@@ -0,0 +1,123 @@
+package com.app.ralaunch.core.platform.runtime
+
+import java.io.File
+import java.io.IOException
+import java.io.RandomAccessFile
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+
+/**
+ * ELF 动态符号表读取器
+ *
+ * 只解析节头表中的 .dynsym / .dynstr，用于在不 dlopen 的情况下确认
+ * 共享库是否导出了指定的入口符号（避免在启动器进程中执行库的构造函数）。
+ */
+object ElfSymbolReader {
+    private const val SHT_DYNSYM = 11
+    private const val SHN_UNDEF = 0
+    private const val ELFCLASS64 = 2
+    private const val ELFDATA2LSB = 1
+
+    /**
+     * 在库的动态符号表中查找已定义的符号
+     *
+     * @return 已找到的符号集合；文件不是 ELF 或缺少节头表时返回 null（无法判定）
+     */
+    @JvmStatic
+    fun findDefinedSymbols(library: File, wanted: Collection<String>): Set<String>? {
+        if (wanted.isEmpty()) return emptySet()
+        return try {
+            RandomAccessFile(library, "r").use { raf -> readDefinedSymbols(raf, wanted.toSet()) }
+        } catch (_: IOException) {
+            null
+        }
+    }
+
+    private fun readDefinedSymbols(raf: RandomAccessFile, wanted: Set<String>): Set<String>? {
+        val ident = ByteArray(16)
+        if (raf.read(ident) != ident.size) return null
+        if (ident[0].toInt() != 0x7F || ident[1] != 'E'.code.toByte() ||
+            ident[2] != 'L'.code.toByte() || ident[3] != 'F'.code.toByte()
+        ) {
+            return null
+        }
+        val is64 = ident[4].toInt() == ELFCLASS64
+        val order = if (ident[5].toInt() == ELFDATA2LSB) ByteOrder.LITTLE_ENDIAN else ByteOrder.BIG_ENDIAN
+
+        val header = readAt(raf, 0, if (is64) 64 else 52, order)
+        val shOff = if (is64) header.getLong(0x28) else header.getInt(0x20).toUInt().toLong()
+        val shEntSize = (if (is64) header.getShort(0x3A) else header.getShort(0x2E)).toInt() and 0xFFFF
+        val shNum = (if (is64) header.getShort(0x3C) else header.getShort(0x30)).toInt() and 0xFFFF
+        if (shOff <= 0 || shNum == 0 || shEntSize == 0) return null
+
+        val sections = readAt(raf, shOff, shEntSize * shNum, order)
+        val sectionHeaders = (0 until shNum).map { index ->
+            parseSectionHeader(sections, index * shEntSize, is64)
+        }
+        val dynsym = sectionHeaders.firstOrNull { it.type == SHT_DYNSYM } ?: return null
+        val dynstr = sectionHeaders.getOrNull(dynsym.link) ?: return null
+        if (dynsym.entSize <= 0 || dynsym.size <= 0 || dynstr.size <= 0) return null
+
+        val strings = readAt(raf, dynstr.offset, dynstr.size.toInt(), order)
+        val symbols = readAt(raf, dynsym.offset, dynsym.size.toInt(), order)
+        val found = HashSet<String>(wanted.size)
+        val count = (dynsym.size / dynsym.entSize).toInt()
+        for (i in 0 until count) {
+            val base = (i * dynsym.entSize).toInt()
+            val nameOffset = symbols.getInt(base)
+            val shndx = (if (is64) symbols.getShort(base + 6) else symbols.getShort(base + 14)).toInt() and 0xFFFF
+            if (shndx == SHN_UNDEF || nameOffset <= 0) continue
+            val name = readCString(strings, nameOffset) ?: continue
+            if (name in wanted) {
+                found.add(name)
+                if (found.size == wanted.size) break
+            }
+        }
+        return found
+    }
+
+    private data class SectionHeader(
+        val type: Int,
+        val offset: Long,
+        val size: Long,
+        val link: Int,
+        val entSize: Long
+    )
+
+    private fun parseSectionHeader(buffer: ByteBuffer, base: Int, is64: Boolean): SectionHeader {
+        return if (is64) {
+            SectionHeader(
+                type = buffer.getInt(base + 0x04),
+                offset = buffer.getLong(base + 0x18),
+                size = buffer.getLong(base + 0x20),
+                link = buffer.getInt(base + 0x28),
+                entSize = buffer.getLong(base + 0x38)
+            )
+        } else {
+            SectionHeader(
+                type = buffer.getInt(base + 0x04),
+                offset = buffer.getInt(base + 0x10).toUInt().toLong(),
+                size = buffer.getInt(base + 0x14).toUInt().toLong(),
+                link = buffer.getInt(base + 0x18),
+                entSize = buffer.getInt(base + 0x24).toUInt().toLong()
+            )
+        }
+    }
+
+    private fun readAt(raf: RandomAccessFile, offset: Long, length: Int, order: ByteOrder): ByteBuffer {
+        if (offset < 0 || length < 0 || offset + length > raf.length()) {
+            throw IOException("ELF section out of range: offset=$offset length=$length")
+        }
+        val bytes = ByteArray(length)
+        raf.seek(offset)
+        raf.readFully(bytes)
+        return ByteBuffer.wrap(bytes).order(order)
+    }
+
+    private fun readCString(buffer: ByteBuffer, offset: Int): String? {
+        if (offset >= buffer.limit()) return null
+        var end = offset
+        while (end < buffer.limit() && buffer.get(end).toInt() != 0) end++
+        return String(buffer.array(), offset, end - offset, Charsets.US_ASCII)
+    }
+}
@@ -0,0 +1,184 @@
+package com.app.ralaunch.core.platform.runtime
+
+import android.content.Context
+import android.os.Build
+import com.app.ralaunch.core.logging.AppLog
+import kotlinx.serialization.Serializable
+import kotlinx.serialization.json.Json
+import java.io.File
+
+/**
+ * 预先解析好的渲染器描述
+ *
+ * 启动路径直接读取这里的库路径，不再访问文件系统。
+ */
+@Serializable
+data class RendererDescriptor(
+    val rendererId: String,
+    val isCompatible: Boolean,
+    val eglLibraryPath: String? = null,
+    val glesLibraryPath: String? = null,
+    val missingLibraries: List<String> = emptyList(),
+    val missingSymbols: List<String> = emptyList()
+)
+
+/**
+ * 渲染器兼容性解析器
+ *
+ * 每个应用版本/安装只探测一次：检查库文件是否存在，并读取 ELF 动态符号表
+ * 确认渲染器需要的入口符号已导出。结果缓存在内存和 filesDir 中，
+ * 原生库目录变化时调用 [invalidate] 重新探测。
+ */
+object RendererCompatibilityResolver {
+    private const val TAG = "RendererCompatResolver"
+    private const val CACHE_FILE = "renderer_compat.json"
+    private const val RUNTIME_LIBS_DIR = "runtime_libs"
+
+    private val json = Json {
+        ignoreUnknownKeys = true
+        encodeDefaults = true
+    }
+
+    @Serializable
+    private data class CacheSnapshot(
+        val fingerprint: String,
+        val descriptors: List<RendererDescriptor>
+    )
+
+    private val lock = Any()
+
+    @Volatile
+    private var descriptors: Map<String, RendererDescriptor>? = null
+
+    /**
+     * 获取全部渲染器的描述（首次调用时探测或从磁盘缓存恢复）
+     *
+     * @param renderers 当前注册的全部渲染器；出现未缓存的渲染器时整体重新探测
+     */
+    @JvmStatic
+    fun resolve(context: Context, renderers: List<RendererInfo>): Map<String, RendererDescriptor> {
+        descriptors?.let { cached ->
+            if (renderers.all { it.id in cached }) return cached
+        }
+        synchronized(lock) {
+            descriptors?.let { cached ->
+                if (renderers.all { it.id in cached }) return cached
+            }
+            val fingerprint = buildFingerprint(context)
+            val cacheFile = File(context.filesDir, CACHE_FILE)
+            val restored = loadSnapshot(cacheFile, fingerprint)
+            val resolved = if (restored != null && renderers.all { it.id in restored }) {
+                restored
+            } else {
+                val probed = renderers.associate { it.id to probe(context, it) }
+                saveSnapshot(cacheFile, CacheSnapshot(fingerprint, probed.values.toList()))
+                AppLog.i(TAG, "Probed ${probed.size} renderers, compatible: " +
+                    probed.values.filter { it.isCompatible }.joinToString { it.rendererId })
+                probed
+            }
+            descriptors = resolved
+            return resolved
+        }
+    }
+
+    /**
+     * 丢弃缓存结果（原生库目录内容变化后调用）
+     */
+    @JvmStatic
+    fun invalidate(context: Context? = null) {
+        synchronized(lock) {
+            descriptors = null
+            context?.let { File(it.filesDir, CACHE_FILE).delete() }
+        }
+    }
+
+    private fun probe(context: Context, renderer: RendererInfo): RendererDescriptor {
+        if (Build.VERSION.SDK_INT < renderer.minAndroidVersion) {
+            return RendererDescriptor(rendererId = renderer.id, isCompatible = false)
+        }
+
+        val nativeLibDir = File(context.applicationInfo.nativeLibraryDir)
+        val runtimeLibsDir = File(context.filesDir, RUNTIME_LIBS_DIR)
+        val missingLibraries = mutableListOf<String>()
+        val missingSymbols = mutableListOf<String>()
+
+        fun locate(libraryName: String?, requiredSymbols: List<String>): String? {
+            if (libraryName == null) return null
+            val library = listOf(File(nativeLibDir, libraryName), File(runtimeLibsDir, libraryName))
+                .firstOrNull { it.isFile }
+            if (library == null) {
+                missingLibraries.add(libraryName)
+                return null
+            }
+            val found = ElfSymbolReader.findDefinedSymbols(library, requiredSymbols)
+            if (found != null) {
+                requiredSymbols.filterNotTo(missingSymbols) { it in found }
+            } else if (requiredSymbols.isNotEmpty()) {
+                AppLog.w(TAG, "Cannot read symbol table of ${library.absolutePath}, skipping symbol check")
+            }
+            return library.absolutePath
+        }
+
+        val sharedLibrary = renderer.glesLibrary != null && renderer.glesLibrary == renderer.eglLibrary
+        val eglPath = if (sharedLibrary) {
+            locate(renderer.eglLibrary, renderer.requiredEglSymbols + renderer.requiredGlesSymbols)
+        } else {
+            locate(renderer.eglLibrary, renderer.requiredEglSymbols)
+        }
+        val glesPath = if (sharedLibrary) eglPath else locate(renderer.glesLibrary, renderer.requiredGlesSymbols)
+
+        if (missingSymbols.isNotEmpty()) {
+            AppLog.w(TAG, "Renderer ${renderer.id} is missing symbols: ${missingSymbols.joinToString()}")
+        }
+
+        return RendererDescriptor(
+            rendererId = renderer.id,
+            isCompatible = missingLibraries.isEmpty() && missingSymbols.isEmpty(),
+            eglLibraryPath = eglPath,
+            glesLibraryPath = glesPath,
+            missingLibraries = missingLibraries,
+            missingSymbols = missingSymbols
+        )
+    }
+
+    private fun buildFingerprint(context: Context): String {
+        val packageInfo = runCatching {
+            context.packageManager.getPackageInfo(context.packageName, 0)
+        }.getOrNull()
+        val runtimeLibsDir = File(context.filesDir, RUNTIME_LIBS_DIR)
+        return listOf(
+            packageInfo?.longVersionCode ?: 0L,
+            packageInfo?.lastUpdateTime ?: 0L,
+            context.applicationInfo.nativeLibraryDir,
+            Build.VERSION.SDK_INT,
+            runtimeLibsDir.lastModified()
+        ).joinToString("|")
+    }
+
+    private fun loadSnapshot(file: File, fingerprint: String): Map<String, RendererDescriptor>? {
+        if (!file.exists()) return null
+        return try {
+            val snapshot = json.decodeFromString<CacheSnapshot>(file.readText())
+            if (snapshot.fingerprint != fingerprint) {
+                null
+            } else {
+                snapshot.descriptors.associateBy { it.rendererId }
+            }
+        } catch (e: Exception) {
+            AppLog.w(TAG, "Failed to read renderer cache, re-probing", e)
+            null
+        }
+    }
+
+    private fun saveSnapshot(file: File, snapshot: CacheSnapshot) {
+        try {
+            val tmp = File(file.parentFile, "${file.name}.tmp")
+            tmp.writeText(json.encodeToString(CacheSnapshot.serializer(), snapshot))
+            if (!tmp.renameTo(file)) {
+                tmp.delete()
+            }
+        } catch (e: Exception) {
+            AppLog.w(TAG, "Failed to write renderer cache", e)
+        }
+    }
+}
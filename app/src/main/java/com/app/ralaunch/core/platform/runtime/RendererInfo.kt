@@ -10,5 +10,7 @@ data class RendererInfo(
     val glesLibrary: String?,
     val needsPreload: Boolean,
     val minAndroidVersion: Int,
+    val requiredEglSymbols: List<String> = emptyList(),
+    val requiredGlesSymbols: List<String> = emptyList(),
     val configureEnv: (context: Context, env: MutableMap<String, String?>) -> Unit = { _, _ -> }
 )
@@ -22,7 +22,8 @@ object RendererLoader {
                 return false
             }
 
-            if (!AndroidRendererRegistry.isRendererCompatible(normalizedRenderer)) {
+            val descriptor = AndroidRendererRegistry.getRendererDescriptor(normalizedRenderer)
+            if (descriptor == null || !descriptor.isCompatible) {
                 AppLog.e(TAG, "Renderer is not compatible with this device")
                 return false
             }
@@ -32,7 +33,8 @@ object RendererLoader {
 
             if (rendererInfo.needsPreload && rendererInfo.eglLibrary != null) {
                 try {
-                    val eglLibPath = AndroidRendererRegistry.getRendererLibraryPath(rendererInfo.eglLibrary)
+                    val eglLibPath = descriptor.eglLibraryPath
+                        ?: AndroidRendererRegistry.getRendererLibraryPath(rendererInfo.eglLibrary)
                     EnvVarsManager.quickSetEnvVar("FNA3D_OPENGL_LIBRARY", eglLibPath)
                 } catch (e: UnsatisfiedLinkError) {
                     AppLog.e(TAG, "Failed to preload renderer library: ${e.message}")
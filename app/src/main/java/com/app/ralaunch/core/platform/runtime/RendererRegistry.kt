@@ -11,8 +11,6 @@ import kotlin.io.path.Path
 import org.koin.core.context.GlobalContext
 
 object RendererRegistry {
-    private const val RUNTIME_LIBS_DIR = "runtime_libs"
-
     const val ID_NATIVE = "native"
     const val ID_GL4ES = "gl4es"
     const val ID_GL4ES_ANGLE = "gl4es+angle"
@@ -43,7 +41,9 @@ object RendererRegistry {
                 eglLibrary = "libEGL_gl4es.so",
                 glesLibrary = "libGL_gl4es.so",
                 needsPreload = true,
-                minAndroidVersion = 0
+                minAndroidVersion = 0,
+                requiredEglSymbols = listOf("eglGetProcAddress", "eglCreateContext"),
+                requiredGlesSymbols = listOf("glGetString")
             ) { _, env ->
                 env["RALCORE_RENDERER"] = "gl4es"
                 env["LIBGL_ES"] = "3"
@@ -62,7 +62,9 @@ object RendererRegistry {
                 eglLibrary = "libEGL_gl4es.so",
                 glesLibrary = "libGL_gl4es.so",
                 needsPreload = true,
-                minAndroidVersion = 0
+                minAndroidVersion = 0,
+                requiredEglSymbols = listOf("eglGetProcAddress", "eglCreateContext"),
+                requiredGlesSymbols = listOf("glGetString")
             ) { _, env ->
                 env["RALCORE_RENDERER"] = "gl4es"
                 env["LIBGL_ES"] = "3"
@@ -81,7 +83,8 @@ object RendererRegistry {
                 eglLibrary = "libmobileglues.so",
                 glesLibrary = "libmobileglues.so",
                 needsPreload = true,
-                minAndroidVersion = 0
+                minAndroidVersion = 0,
+                requiredGlesSymbols = listOf("glGetString")
             ) { _, env ->
                 env["RALCORE_RENDERER"] = "mobileglues"
                 env["FNA3D_OPENGL_DRIVER"] = "mobileglues"
@@ -100,7 +103,9 @@ object RendererRegistry {
                 eglLibrary = "libEGL_angle.so",
                 glesLibrary = "libGLESv2_angle.so",
                 needsPreload = true,
-                minAndroidVersion = Build.VERSION_CODES.N
+                minAndroidVersion = Build.VERSION_CODES.N,
+                requiredEglSymbols = listOf("eglGetProcAddress", "eglCreateContext"),
+                requiredGlesSymbols = listOf("glGetString")
             ) { _, env ->
                 env["RALCORE_EGL"] = "libEGL_angle.so"
                 env["LIBGL_GLES"] = "libGLESv2_angle.so"
@@ -115,7 +120,8 @@ object RendererRegistry {
                 eglLibrary = "libOSMesa.so",
                 glesLibrary = "libOSMesa.so",
                 needsPreload = true,
-                minAndroidVersion = Build.VERSION_CODES.N
+                minAndroidVersion = Build.VERSION_CODES.N,
+                requiredEglSymbols = listOf("OSMesaCreateContextExt", "OSMesaMakeCurrent", "OSMesaGetProcAddress")
             ) { _, env ->
                 env["RALCORE_RENDERER"] = "vulkan_zink"
                 env["GALLIUM_DRIVER"] = "zink"
@@ -140,6 +146,7 @@ object RendererRegistry {
             }
             rendererStore[info.id] = info
         }
+        RendererCompatibilityResolver.invalidate()
     }
 
     @JvmStatic
@@ -176,41 +183,30 @@ object RendererRegistry {
     }
 
     @JvmStatic
-    fun getCompatibleRenderers(): MutableList<RendererInfo> {
-        val context = getGlobalContext()
-        val compatible = mutableListOf<RendererInfo>()
-        val nativeLibDir = File(context.applicationInfo.nativeLibraryDir)
-        val runtimeLibsDir = File(context.filesDir, RUNTIME_LIBS_DIR)
-
-        val renderers = synchronized(rendererStore) { rendererStore.values.toList() }
-        for (renderer in renderers) {
-            if (Build.VERSION.SDK_INT < renderer.minAndroidVersion) {
-                continue
-            }
-
-            var hasLibraries = true
-            if (renderer.eglLibrary != null) {
-                val eglLibNative = File(nativeLibDir, renderer.eglLibrary)
-                val eglLibRuntime = File(runtimeLibsDir, renderer.eglLibrary)
-                if (!eglLibNative.exists() && !eglLibRuntime.exists()) {
-                    hasLibraries = false
-                }
-            }
+    fun getAllRenderers(): List<RendererInfo> {
+        return synchronized(rendererStore) { rendererStore.values.toList() }
+    }
 
-            if (hasLibraries && renderer.glesLibrary != null && renderer.glesLibrary != renderer.eglLibrary) {
-                val glesLibNative = File(nativeLibDir, renderer.glesLibrary)
-                val glesLibRuntime = File(runtimeLibsDir, renderer.glesLibrary)
-                if (!glesLibNative.exists() && !glesLibRuntime.exists()) {
-                    hasLibraries = false
-                }
-            }
+    @JvmStatic
+    fun getCompatibleRenderers(): MutableList<RendererInfo> {
+        val descriptors = resolveDescriptors()
+        return getAllRenderers().filterTo(mutableListOf()) { descriptors[it.id]?.isCompatible == true }
+    }
 
-            if (hasLibraries) {
-                compatible.add(renderer)
-            }
-        }
+    /**
+     * 获取预先解析的渲染器描述（库路径与兼容性），不触发文件系统访问
+     */
+    @JvmStatic
+    fun getRendererDescriptor(rendererId: String): RendererDescriptor? {
+        return resolveDescriptors()[normalizeRendererId(rendererId)]
+    }
 
-        return compatible
+    /**
+     * 原生库目录（nativeLibraryDir / runtime_libs）变化后调用，下次查询时重新探测
+     */
+    @JvmStatic
+    fun invalidateCompatibilityCache() {
+        RendererCompatibilityResolver.invalidate(runCatching { getGlobalContext() }.getOrNull())
     }
 
     @JvmStatic
@@ -230,8 +226,7 @@ object RendererRegistry {
 
     @JvmStatic
     fun isRendererCompatible(rendererId: String): Boolean {
-        val normalized = normalizeRendererId(rendererId)
-        return getCompatibleRenderers().any { it.id == normalized }
+        return getRendererDescriptor(rendererId)?.isCompatible == true
     }
 
     @JvmStatic
@@ -251,6 +246,10 @@ object RendererRegistry {
         return envMap
     }
 
+    private fun resolveDescriptors(): Map<String, RendererDescriptor> {
+        return RendererCompatibilityResolver.resolve(getGlobalContext(), getAllRenderers())
+    }
+
     private fun getGlobalContext(): Context {
         val context: Context = GlobalContext.get().get(Context::class, null, null)
         return context.applicationContext
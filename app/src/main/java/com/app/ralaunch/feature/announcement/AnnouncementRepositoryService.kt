@@ -1,6 +1,7 @@
 package com.app.ralaunch.feature.announcement
 
 import android.content.Context
+import com.app.ralaunch.core.common.CachedHttpFetcher
 import com.app.ralaunch.core.common.JsonHttpRepositoryClient
 import com.app.ralaunch.core.logging.AppLog
 import com.app.ralaunch.core.common.util.LocaleManager
@@ -59,25 +60,33 @@ class AnnouncementRepositoryService(private val context: Context) {
             val primaryUrl = repoUrl
             val fallbackUrl = getFallbackRepoUrl(primaryUrl)
 
-            var result = tryFetchIndexFrom(primaryUrl)
-            if (result.isFailure) {
+            var result = tryFetchIndexFrom(primaryUrl, forceRefresh)
+            if (result.getOrNull()?.isStale != false) {
                 AppLog.i(TAG, "Primary source failed, trying fallback: $fallbackUrl")
-                result = tryFetchIndexFrom(fallbackUrl)
+                val fallback = tryFetchIndexFrom(fallbackUrl, forceRefresh)
+                // 两个源都不可用时才使用旧缓存，优先主源的旧缓存
+                if (fallback.getOrNull()?.isStale == false || (result.isFailure && fallback.isSuccess)) {
+                    result = fallback
+                }
             }
 
-            result.getOrNull()?.let { payload ->
+            result.getOrNull()?.let { fetched ->
+                val payload = fetched.value
                 cachedAnnouncements = payload.announcements
                 resolvedAnnouncements = payload.resolvedById
-                cacheTimestamp = System.currentTimeMillis()
+                // 旧缓存不刷新时间戳，下次请求仍会重新联网
+                if (!fetched.isStale) {
+                    cacheTimestamp = System.currentTimeMillis()
+                }
                 pruneMarkdownCache(payload.announcements)
-                AppLog.i(TAG, "Fetched announcements: ${payload.announcements.size}")
+                AppLog.i(TAG, "Fetched announcements: ${payload.announcements.size}, stale=${fetched.isStale}")
             }
 
             result.exceptionOrNull()?.let { error ->
                 AppLog.e(TAG, "Failed to fetch announcements", error)
             }
 
-            result.map { it.announcements }
+            result.map { it.value.announcements }
         }
     }
 
@@ -100,36 +109,36 @@ class AnnouncementRepositoryService(private val context: Context) {
             val primaryUrl = repoUrl
             val fallbackUrl = getFallbackRepoUrl(primaryUrl)
             var lastError: Throwable? = null
+            var staleContent: String? = null
 
             for (locale in resolved.readmeLocaleCandidates) {
                 val relativePath = "announcements/$announcementId/README.$locale.md"
-                val primaryResult = JsonHttpRepositoryClient.getText(
-                    urlString = "$primaryUrl/$relativePath",
-                    connectTimeoutMs = CONNECT_TIMEOUT,
-                    readTimeoutMs = READ_TIMEOUT
-                )
-
-                if (primaryResult.isSuccess) {
-                    val content = primaryResult.getOrThrow()
-                    markdownCache[announcementId] = content
-                    return@withContext Result.success(content)
-                }
-
-                lastError = primaryResult.exceptionOrNull() ?: lastError
-
-                val fallbackResult = JsonHttpRepositoryClient.getText(
-                    urlString = "$fallbackUrl/$relativePath",
-                    connectTimeoutMs = CONNECT_TIMEOUT,
-                    readTimeoutMs = READ_TIMEOUT
-                )
-
-                if (fallbackResult.isSuccess) {
-                    val content = fallbackResult.getOrThrow()
-                    markdownCache[announcementId] = content
-                    return@withContext Result.success(content)
+                for (baseUrl in listOf(primaryUrl, fallbackUrl)) {
+                    val result = JsonHttpRepositoryClient.fetchText(
+                        urlString = "$baseUrl/$relativePath",
+                        connectTimeoutMs = CONNECT_TIMEOUT,
+                        readTimeoutMs = READ_TIMEOUT,
+                        forceRefresh = forceRefresh
+                    )
+                    val fetched = result.getOrNull()
+                    if (fetched == null) {
+                        lastError = result.exceptionOrNull() ?: lastError
+                        continue
+                    }
+                    if (!fetched.isStale) {
+                        markdownCache[announcementId] = fetched.value
+                        return@withContext Result.success(fetched.value)
+                    }
+                    if (staleContent == null) {
+                        staleContent = fetched.value
+                    }
                 }
+            }
 
-                lastError = fallbackResult.exceptionOrNull() ?: lastError
+            // 所有镜像都失败后才采用旧缓存；不写入内存缓存，下次仍会重试
+            staleContent?.let { content ->
+                AppLog.w(TAG, "All sources failed, using stale markdown: $announcementId")
+                return@withContext Result.success(content)
             }
 
             val error = lastError ?: IllegalStateException("Failed to fetch README for $announcementId")
@@ -163,21 +172,27 @@ class AnnouncementRepositoryService(private val context: Context) {
         }
     }
 
-    private suspend fun tryFetchIndexFrom(baseUrl: String): Result<IndexPayload> {
-        return JsonHttpRepositoryClient.getJson<AnnouncementRepositoryDto>(
+    private suspend fun tryFetchIndexFrom(
+        baseUrl: String,
+        forceRefresh: Boolean
+    ): Result<CachedHttpFetcher.Fetched<IndexPayload>> {
+        return JsonHttpRepositoryClient.fetchJson<AnnouncementRepositoryDto>(
             urlString = "$baseUrl/$REPO_INDEX_FILE",
             json = json,
             connectTimeoutMs = CONNECT_TIMEOUT,
-            readTimeoutMs = READ_TIMEOUT
-        ).mapCatching { repository ->
-            val mapped = repository.announcements.mapNotNull { entry ->
-                mapAnnouncementEntry(entry)
-            }.sortedByDescending { it.sortKey }
-
-            IndexPayload(
-                announcements = mapped.map { it.item },
-                resolvedById = mapped.associate { it.item.id to it.resolvedAnnouncement }
-            )
+            readTimeoutMs = READ_TIMEOUT,
+            forceRefresh = forceRefresh
+        ).mapCatching { fetched ->
+            fetched.map { repository ->
+                val mapped = repository.announcements.mapNotNull { entry ->
+                    mapAnnouncementEntry(entry)
+                }.sortedByDescending { it.sortKey }
+
+                IndexPayload(
+                    announcements = mapped.map { it.item },
+                    resolvedById = mapped.associate { it.item.id to it.resolvedAnnouncement }
+                )
+            }
         }
     }
 
@@ -0,0 +1,154 @@
+package com.app.ralaunch.feature.controls
+
+import android.view.KeyEvent
+
+/**
+ * 按键码转换表
+ *
+ * 启动时按 [ControlData.KeyCode] 的 ordinal 生成只读数组，按键事件只需一次数组下标访问，
+ * 不再逐个分支匹配。映射关系只在 [ANDROID_KEYCODES] 中维护一份，单元测试会检查
+ * 按键选择列表中的每个键盘按键都有对应的 Android KeyCode。
+ */
+object KeyCodeTables {
+
+    /** 没有对应 Android KeyCode */
+    const val NO_KEYCODE = -1
+
+    /**
+     * SDL Scancode -> Android KeyCode
+     *
+     * SDLActivity.onNativeKeyDown 期望接收 Android KeyCode（如 KEYCODE_A=29），不是 Scancode 或 ASCII。
+     */
+    private val ANDROID_KEYCODES: List<Pair<ControlData.KeyCode, Int>> = listOf(
+        ControlData.KeyCode.KEYBOARD_A to KeyEvent.KEYCODE_A,
+        ControlData.KeyCode.KEYBOARD_B to KeyEvent.KEYCODE_B,
+        ControlData.KeyCode.KEYBOARD_C to KeyEvent.KEYCODE_C,
+        ControlData.KeyCode.KEYBOARD_D to KeyEvent.KEYCODE_D,
+        ControlData.KeyCode.KEYBOARD_E to KeyEvent.KEYCODE_E,
+        ControlData.KeyCode.KEYBOARD_F to KeyEvent.KEYCODE_F,
+        ControlData.KeyCode.KEYBOARD_G to KeyEvent.KEYCODE_G,
+        ControlData.KeyCode.KEYBOARD_H to KeyEvent.KEYCODE_H,
+        ControlData.KeyCode.KEYBOARD_I to KeyEvent.KEYCODE_I,
+        ControlData.KeyCode.KEYBOARD_J to KeyEvent.KEYCODE_J,
+        ControlData.KeyCode.KEYBOARD_K to KeyEvent.KEYCODE_K,
+        ControlData.KeyCode.KEYBOARD_L to KeyEvent.KEYCODE_L,
+        ControlData.KeyCode.KEYBOARD_M to KeyEvent.KEYCODE_M,
+        ControlData.KeyCode.KEYBOARD_N to KeyEvent.KEYCODE_N,
+        ControlData.KeyCode.KEYBOARD_O to KeyEvent.KEYCODE_O,
+        ControlData.KeyCode.KEYBOARD_P to KeyEvent.KEYCODE_P,
+        ControlData.KeyCode.KEYBOARD_Q to KeyEvent.KEYCODE_Q,
+        ControlData.KeyCode.KEYBOARD_R to KeyEvent.KEYCODE_R,
+        ControlData.KeyCode.KEYBOARD_S to KeyEvent.KEYCODE_S,
+        ControlData.KeyCode.KEYBOARD_T to KeyEvent.KEYCODE_T,
+        ControlData.KeyCode.KEYBOARD_U to KeyEvent.KEYCODE_U,
+        ControlData.KeyCode.KEYBOARD_V to KeyEvent.KEYCODE_V,
+        ControlData.KeyCode.KEYBOARD_W to KeyEvent.KEYCODE_W,
+        ControlData.KeyCode.KEYBOARD_X to KeyEvent.KEYCODE_X,
+        ControlData.KeyCode.KEYBOARD_Y to KeyEvent.KEYCODE_Y,
+        ControlData.KeyCode.KEYBOARD_Z to KeyEvent.KEYCODE_Z,
+
+        ControlData.KeyCode.KEYBOARD_1 to KeyEvent.KEYCODE_1,
+        ControlData.KeyCode.KEYBOARD_2 to KeyEvent.KEYCODE_2,
+        ControlData.KeyCode.KEYBOARD_3 to KeyEvent.KEYCODE_3,
+        ControlData.KeyCode.KEYBOARD_4 to KeyEvent.KEYCODE_4,
+        ControlData.KeyCode.KEYBOARD_5 to KeyEvent.KEYCODE_5,
+        ControlData.KeyCode.KEYBOARD_6 to KeyEvent.KEYCODE_6,
+        ControlData.KeyCode.KEYBOARD_7 to KeyEvent.KEYCODE_7,
+        ControlData.KeyCode.KEYBOARD_8 to KeyEvent.KEYCODE_8,
+        ControlData.KeyCode.KEYBOARD_9 to KeyEvent.KEYCODE_9,
+        ControlData.KeyCode.KEYBOARD_0 to KeyEvent.KEYCODE_0,
+
+        ControlData.KeyCode.KEYBOARD_RETURN to KeyEvent.KEYCODE_ENTER,
+        ControlData.KeyCode.KEYBOARD_ESCAPE to KeyEvent.KEYCODE_ESCAPE,
+        ControlData.KeyCode.KEYBOARD_BACKSPACE to KeyEvent.KEYCODE_DEL,
+        ControlData.KeyCode.KEYBOARD_TAB to KeyEvent.KEYCODE_TAB,
+        ControlData.KeyCode.KEYBOARD_SPACE to KeyEvent.KEYCODE_SPACE,
+
+        ControlData.KeyCode.KEYBOARD_MINUS to KeyEvent.KEYCODE_MINUS,
+        ControlData.KeyCode.KEYBOARD_EQUALS to KeyEvent.KEYCODE_EQUALS,
+        ControlData.KeyCode.KEYBOARD_LEFTBRACKET to KeyEvent.KEYCODE_LEFT_BRACKET,
+        ControlData.KeyCode.KEYBOARD_RIGHTBRACKET to KeyEvent.KEYCODE_RIGHT_BRACKET,
+        ControlData.KeyCode.KEYBOARD_BACKSLASH to KeyEvent.KEYCODE_BACKSLASH,
+        ControlData.KeyCode.KEYBOARD_SEMICOLON to KeyEvent.KEYCODE_SEMICOLON,
+        ControlData.KeyCode.KEYBOARD_APOSTROPHE to KeyEvent.KEYCODE_APOSTROPHE,
+        ControlData.KeyCode.KEYBOARD_GRAVE to KeyEvent.KEYCODE_GRAVE,
+        ControlData.KeyCode.KEYBOARD_COMMA to KeyEvent.KEYCODE_COMMA,
+        ControlData.KeyCode.KEYBOARD_PERIOD to KeyEvent.KEYCODE_PERIOD,
+        ControlData.KeyCode.KEYBOARD_SLASH to KeyEvent.KEYCODE_SLASH,
+
+        ControlData.KeyCode.KEYBOARD_CAPSLOCK to KeyEvent.KEYCODE_CAPS_LOCK,
+
+        ControlData.KeyCode.KEYBOARD_F1 to KeyEvent.KEYCODE_F1,
+        ControlData.KeyCode.KEYBOARD_F2 to KeyEvent.KEYCODE_F2,
+        ControlData.KeyCode.KEYBOARD_F3 to KeyEvent.KEYCODE_F3,
+        ControlData.KeyCode.KEYBOARD_F4 to KeyEvent.KEYCODE_F4,
+        ControlData.KeyCode.KEYBOARD_F5 to KeyEvent.KEYCODE_F5,
+        ControlData.KeyCode.KEYBOARD_F6 to KeyEvent.KEYCODE_F6,
+        ControlData.KeyCode.KEYBOARD_F7 to KeyEvent.KEYCODE_F7,
+        ControlData.KeyCode.KEYBOARD_F8 to KeyEvent.KEYCODE_F8,
+        ControlData.KeyCode.KEYBOARD_F9 to KeyEvent.KEYCODE_F9,
+        ControlData.KeyCode.KEYBOARD_F10 to KeyEvent.KEYCODE_F10,
+        ControlData.KeyCode.KEYBOARD_F11 to KeyEvent.KEYCODE_F11,
+        ControlData.KeyCode.KEYBOARD_F12 to KeyEvent.KEYCODE_F12,
+
+        ControlData.KeyCode.KEYBOARD_PRINTSCREEN to KeyEvent.KEYCODE_SYSRQ,
+        ControlData.KeyCode.KEYBOARD_SCROLLLOCK to KeyEvent.KEYCODE_SCROLL_LOCK,
+        ControlData.KeyCode.KEYBOARD_PAUSE to KeyEvent.KEYCODE_BREAK,
+        ControlData.KeyCode.KEYBOARD_INSERT to KeyEvent.KEYCODE_INSERT,
+        ControlData.KeyCode.KEYBOARD_HOME to KeyEvent.KEYCODE_MOVE_HOME,
+        ControlData.KeyCode.KEYBOARD_PAGEUP to KeyEvent.KEYCODE_PAGE_UP,
+        ControlData.KeyCode.KEYBOARD_DELETE to KeyEvent.KEYCODE_FORWARD_DEL,
+        ControlData.KeyCode.KEYBOARD_END to KeyEvent.KEYCODE_MOVE_END,
+        ControlData.KeyCode.KEYBOARD_PAGEDOWN to KeyEvent.KEYCODE_PAGE_DOWN,
+
+        ControlData.KeyCode.KEYBOARD_RIGHT to KeyEvent.KEYCODE_DPAD_RIGHT,
+        ControlData.KeyCode.KEYBOARD_LEFT to KeyEvent.KEYCODE_DPAD_LEFT,
+        ControlData.KeyCode.KEYBOARD_DOWN to KeyEvent.KEYCODE_DPAD_DOWN,
+        ControlData.KeyCode.KEYBOARD_UP to KeyEvent.KEYCODE_DPAD_UP,
+
+        ControlData.KeyCode.KEYBOARD_NUMLOCKCLEAR to KeyEvent.KEYCODE_NUM_LOCK,
+        ControlData.KeyCode.KEYBOARD_KP_DIVIDE to KeyEvent.KEYCODE_NUMPAD_DIVIDE,
+        ControlData.KeyCode.KEYBOARD_KP_MULTIPLY to KeyEvent.KEYCODE_NUMPAD_MULTIPLY,
+        ControlData.KeyCode.KEYBOARD_KP_MINUS to KeyEvent.KEYCODE_NUMPAD_SUBTRACT,
+        ControlData.KeyCode.KEYBOARD_KP_PLUS to KeyEvent.KEYCODE_NUMPAD_ADD,
+        ControlData.KeyCode.KEYBOARD_KP_ENTER to KeyEvent.KEYCODE_NUMPAD_ENTER,
+        ControlData.KeyCode.KEYBOARD_KP_1 to KeyEvent.KEYCODE_NUMPAD_1,
+        ControlData.KeyCode.KEYBOARD_KP_2 to KeyEvent.KEYCODE_NUMPAD_2,
+        ControlData.KeyCode.KEYBOARD_KP_3 to KeyEvent.KEYCODE_NUMPAD_3,
+        ControlData.KeyCode.KEYBOARD_KP_4 to KeyEvent.KEYCODE_NUMPAD_4,
+        ControlData.KeyCode.KEYBOARD_KP_5 to KeyEvent.KEYCODE_NUMPAD_5,
+        ControlData.KeyCode.KEYBOARD_KP_6 to KeyEvent.KEYCODE_NUMPAD_6,
+        ControlData.KeyCode.KEYBOARD_KP_7 to KeyEvent.KEYCODE_NUMPAD_7,
+        ControlData.KeyCode.KEYBOARD_KP_8 to KeyEvent.KEYCODE_NUMPAD_8,
+        ControlData.KeyCode.KEYBOARD_KP_9 to KeyEvent.KEYCODE_NUMPAD_9,
+        ControlData.KeyCode.KEYBOARD_KP_0 to KeyEvent.KEYCODE_NUMPAD_0,
+        ControlData.KeyCode.KEYBOARD_KP_PERIOD to KeyEvent.KEYCODE_NUMPAD_DOT,
+
+        ControlData.KeyCode.KEYBOARD_KP_EQUALS to KeyEvent.KEYCODE_NUMPAD_EQUALS,
+
+        ControlData.KeyCode.KEYBOARD_LCTRL to KeyEvent.KEYCODE_CTRL_LEFT,
+        ControlData.KeyCode.KEYBOARD_LSHIFT to KeyEvent.KEYCODE_SHIFT_LEFT,
+        ControlData.KeyCode.KEYBOARD_LALT to KeyEvent.KEYCODE_ALT_LEFT,
+        ControlData.KeyCode.KEYBOARD_LGUI to KeyEvent.KEYCODE_META_LEFT,
+        ControlData.KeyCode.KEYBOARD_RCTRL to KeyEvent.KEYCODE_CTRL_RIGHT,
+        ControlData.KeyCode.KEYBOARD_RSHIFT to KeyEvent.KEYCODE_SHIFT_RIGHT,
+        ControlData.KeyCode.KEYBOARD_RALT to KeyEvent.KEYCODE_ALT_RIGHT,
+        ControlData.KeyCode.KEYBOARD_RGUI to KeyEvent.KEYCODE_META_RIGHT
+    )
+
+    private val scancodes = IntArray(ControlData.KeyCode.entries.size) { ControlData.KeyCode.entries[it].code }
+
+    private val androidKeycodes = IntArray(ControlData.KeyCode.entries.size) { NO_KEYCODE }.also { table ->
+        for ((key, keycode) in ANDROID_KEYCODES) table[key.ordinal] = keycode
+    }
+
+    /**
+     * SDL Scancode（鼠标、手柄等非键盘按键为负数）
+     */
+    fun scancode(key: ControlData.KeyCode): Int = scancodes[key.ordinal]
+
+    /**
+     * Android KeyCode，没有对应按键时返回 [NO_KEYCODE]
+     */
+    fun androidKeycode(key: ControlData.KeyCode): Int = androidKeycodes[key.ordinal]
+}
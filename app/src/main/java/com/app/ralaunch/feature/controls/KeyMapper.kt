@@ -1,158 +1,258 @@
 package com.app.ralaunch.feature.controls
 
 import android.content.Context
+import androidx.annotation.StringRes
 import com.app.ralaunch.R
 import com.app.ralaunch.feature.controls.ControlData
 import org.koin.java.KoinJavaComponent
+import java.util.Locale
 
 /**
  * 按键映射辅助类
  * 提供按键码和按键名称的映射关系
+ *
+ * 显示名称按语言缓存：每种语言只解析一次字符串资源，之后按 ordinal 直接取数组。
  */
 object KeyMapper {
-    /**
-     * 获取所有可用的按键映射（KeyCode -> 显示名称）
-     * @param context 用于获取本地化字符串资源
-     */
-    fun getAllKeys(context: Context): Map<ControlData.KeyCode, String> {
-        val keys: MutableMap<ControlData.KeyCode, String> = LinkedHashMap()
 
+    /** 显示名称来源：固定文本或字符串资源 */
+    private sealed interface Label
+    private class Text(val text: String) : Label
+    private class Res(@StringRes val id: Int) : Label
+
+    /** 手柄按钮（顺序即显示顺序） */
+    private val XBOX_LABELS: List<Pair<ControlData.KeyCode, Label>> = listOf(
+        ControlData.KeyCode.XBOX_BUTTON_A to Text("A"),
+        ControlData.KeyCode.XBOX_BUTTON_B to Text("B"),
+        ControlData.KeyCode.XBOX_BUTTON_X to Text("X"),
+        ControlData.KeyCode.XBOX_BUTTON_Y to Text("Y"),
+        ControlData.KeyCode.XBOX_BUTTON_LB to Text("LB"),
+        ControlData.KeyCode.XBOX_BUTTON_RB to Text("RB"),
+        ControlData.KeyCode.XBOX_TRIGGER_LEFT to Text("LT"),
+        ControlData.KeyCode.XBOX_TRIGGER_RIGHT to Text("RT"),
+        ControlData.KeyCode.XBOX_BUTTON_BACK to Res(R.string.key_gamepad_back),
+        ControlData.KeyCode.XBOX_BUTTON_START to Res(R.string.key_gamepad_start),
+        ControlData.KeyCode.XBOX_BUTTON_GUIDE to Res(R.string.key_gamepad_guide),
+        ControlData.KeyCode.XBOX_BUTTON_LEFT_STICK to Text("L3"),
+        ControlData.KeyCode.XBOX_BUTTON_RIGHT_STICK to Text("R3"),
+        ControlData.KeyCode.XBOX_BUTTON_DPAD_UP to Res(R.string.key_gamepad_dpad_up),
+        ControlData.KeyCode.XBOX_BUTTON_DPAD_DOWN to Res(R.string.key_gamepad_dpad_down),
+        ControlData.KeyCode.XBOX_BUTTON_DPAD_LEFT to Res(R.string.key_gamepad_dpad_left),
+        ControlData.KeyCode.XBOX_BUTTON_DPAD_RIGHT to Res(R.string.key_gamepad_dpad_right)
+    )
+
+    /** 按键选择列表（顺序即显示顺序） */
+    private val ALL_KEY_LABELS: List<Pair<ControlData.KeyCode, Label>> = listOf(
         // 特殊功能
-        keys[ControlData.KeyCode.SPECIAL_KEYBOARD] = context.getString(R.string.key_keyboard)
-        keys[ControlData.KeyCode.SPECIAL_TOUCHPAD_RIGHT_BUTTON] = context.getString(R.string.key_touchpad_buttons)
+        ControlData.KeyCode.SPECIAL_KEYBOARD to Res(R.string.key_keyboard),
+        ControlData.KeyCode.SPECIAL_TOUCHPAD_RIGHT_BUTTON to Res(R.string.key_touchpad_buttons),
 
         // 鼠标按键
-        keys[ControlData.KeyCode.MOUSE_LEFT] = context.getString(R.string.key_mouse_left)
-        keys[ControlData.KeyCode.MOUSE_RIGHT] = context.getString(R.string.key_mouse_right)
-        keys[ControlData.KeyCode.MOUSE_MIDDLE] = context.getString(R.string.key_mouse_middle)
-        keys[ControlData.KeyCode.MOUSE_WHEEL_UP] = context.getString(R.string.key_mouse_wheel_up)
-        keys[ControlData.KeyCode.MOUSE_WHEEL_DOWN] = context.getString(R.string.key_mouse_wheel_down)
+        ControlData.KeyCode.MOUSE_LEFT to Res(R.string.key_mouse_left),
+        ControlData.KeyCode.MOUSE_RIGHT to Res(R.string.key_mouse_right),
+        ControlData.KeyCode.MOUSE_MIDDLE to Res(R.string.key_mouse_middle),
+        ControlData.KeyCode.MOUSE_WHEEL_UP to Res(R.string.key_mouse_wheel_up),
+        ControlData.KeyCode.MOUSE_WHEEL_DOWN to Res(R.string.key_mouse_wheel_down),
 
         // 手柄按钮
-        keys.putAll(getXboxButtons(context))
+        *XBOX_LABELS.toTypedArray(),
 
         // 常用键盘按键
-        keys[ControlData.KeyCode.KEYBOARD_SPACE] = context.getString(R.string.key_space)
-        keys[ControlData.KeyCode.KEYBOARD_RETURN] = context.getString(R.string.key_enter)
-        keys[ControlData.KeyCode.KEYBOARD_ESCAPE] = context.getString(R.string.key_escape)
+        ControlData.KeyCode.KEYBOARD_SPACE to Res(R.string.key_space),
+        ControlData.KeyCode.KEYBOARD_RETURN to Res(R.string.key_enter),
+        ControlData.KeyCode.KEYBOARD_ESCAPE to Res(R.string.key_escape),
 
         // 字母键 (完整的A-Z)
-        keys[ControlData.KeyCode.KEYBOARD_A] = "A"
-        keys[ControlData.KeyCode.KEYBOARD_B] = "B"
-        keys[ControlData.KeyCode.KEYBOARD_C] = "C"
-        keys[ControlData.KeyCode.KEYBOARD_D] = "D"
-        keys[ControlData.KeyCode.KEYBOARD_E] = "E"
-        keys[ControlData.KeyCode.KEYBOARD_F] = "F"
-        keys[ControlData.KeyCode.KEYBOARD_G] = "G"
-        keys[ControlData.KeyCode.KEYBOARD_H] = "H"
-        keys[ControlData.KeyCode.KEYBOARD_I] = "I"
-        keys[ControlData.KeyCode.KEYBOARD_J] = "J"
-        keys[ControlData.KeyCode.KEYBOARD_K] = "K"
-        keys[ControlData.KeyCode.KEYBOARD_L] = "L"
-        keys[ControlData.KeyCode.KEYBOARD_M] = "M"
-        keys[ControlData.KeyCode.KEYBOARD_N] = "N"
-        keys[ControlData.KeyCode.KEYBOARD_O] = "O"
-        keys[ControlData.KeyCode.KEYBOARD_P] = "P"
-        keys[ControlData.KeyCode.KEYBOARD_Q] = "Q"
-        keys[ControlData.KeyCode.KEYBOARD_R] = "R"
-        keys[ControlData.KeyCode.KEYBOARD_S] = "S"
-        keys[ControlData.KeyCode.KEYBOARD_T] = "T"
-        keys[ControlData.KeyCode.KEYBOARD_U] = "U"
-        keys[ControlData.KeyCode.KEYBOARD_V] = "V"
-        keys[ControlData.KeyCode.KEYBOARD_W] = "W"
-        keys[ControlData.KeyCode.KEYBOARD_X] = "X"
-        keys[ControlData.KeyCode.KEYBOARD_Y] = "Y"
-        keys[ControlData.KeyCode.KEYBOARD_Z] = "Z"
+        ControlData.KeyCode.KEYBOARD_A to Text("A"),
+        ControlData.KeyCode.KEYBOARD_B to Text("B"),
+        ControlData.KeyCode.KEYBOARD_C to Text("C"),
+        ControlData.KeyCode.KEYBOARD_D to Text("D"),
+        ControlData.KeyCode.KEYBOARD_E to Text("E"),
+        ControlData.KeyCode.KEYBOARD_F to Text("F"),
+        ControlData.KeyCode.KEYBOARD_G to Text("G"),
+        ControlData.KeyCode.KEYBOARD_H to Text("H"),
+        ControlData.KeyCode.KEYBOARD_I to Text("I"),
+        ControlData.KeyCode.KEYBOARD_J to Text("J"),
+        ControlData.KeyCode.KEYBOARD_K to Text("K"),
+        ControlData.KeyCode.KEYBOARD_L to Text("L"),
+        ControlData.KeyCode.KEYBOARD_M to Text("M"),
+        ControlData.KeyCode.KEYBOARD_N to Text("N"),
+        ControlData.KeyCode.KEYBOARD_O to Text("O"),
+        ControlData.KeyCode.KEYBOARD_P to Text("P"),
+        ControlData.KeyCode.KEYBOARD_Q to Text("Q"),
+        ControlData.KeyCode.KEYBOARD_R to Text("R"),
+        ControlData.KeyCode.KEYBOARD_S to Text("S"),
+        ControlData.KeyCode.KEYBOARD_T to Text("T"),
+        ControlData.KeyCode.KEYBOARD_U to Text("U"),
+        ControlData.KeyCode.KEYBOARD_V to Text("V"),
+        ControlData.KeyCode.KEYBOARD_W to Text("W"),
+        ControlData.KeyCode.KEYBOARD_X to Text("X"),
+        ControlData.KeyCode.KEYBOARD_Y to Text("Y"),
+        ControlData.KeyCode.KEYBOARD_Z to Text("Z"),
 
         // 数字键
-        keys[ControlData.KeyCode.KEYBOARD_1] = "1"
-        keys[ControlData.KeyCode.KEYBOARD_2] = "2"
-        keys[ControlData.KeyCode.KEYBOARD_3] = "3"
-        keys[ControlData.KeyCode.KEYBOARD_4] = "4"
-        keys[ControlData.KeyCode.KEYBOARD_5] = "5"
-        keys[ControlData.KeyCode.KEYBOARD_6] = "6"
-        keys[ControlData.KeyCode.KEYBOARD_7] = "7"
-        keys[ControlData.KeyCode.KEYBOARD_8] = "8"
-        keys[ControlData.KeyCode.KEYBOARD_9] = "9"
-        keys[ControlData.KeyCode.KEYBOARD_0] = "0"
+        ControlData.KeyCode.KEYBOARD_1 to Text("1"),
+        ControlData.KeyCode.KEYBOARD_2 to Text("2"),
+        ControlData.KeyCode.KEYBOARD_3 to Text("3"),
+        ControlData.KeyCode.KEYBOARD_4 to Text("4"),
+        ControlData.KeyCode.KEYBOARD_5 to Text("5"),
+        ControlData.KeyCode.KEYBOARD_6 to Text("6"),
+        ControlData.KeyCode.KEYBOARD_7 to Text("7"),
+        ControlData.KeyCode.KEYBOARD_8 to Text("8"),
+        ControlData.KeyCode.KEYBOARD_9 to Text("9"),
+        ControlData.KeyCode.KEYBOARD_0 to Text("0"),
 
         // 功能键 (F1-F12)
-        keys[ControlData.KeyCode.KEYBOARD_F1] = "F1"
-        keys[ControlData.KeyCode.KEYBOARD_F2] = "F2"
-        keys[ControlData.KeyCode.KEYBOARD_F3] = "F3"
-        keys[ControlData.KeyCode.KEYBOARD_F4] = "F4"
-        keys[ControlData.KeyCode.KEYBOARD_F5] = "F5"
-        keys[ControlData.KeyCode.KEYBOARD_F6] = "F6"
-        keys[ControlData.KeyCode.KEYBOARD_F7] = "F7"
-        keys[ControlData.KeyCode.KEYBOARD_F8] = "F8"
-        keys[ControlData.KeyCode.KEYBOARD_F9] = "F9"
-        keys[ControlData.KeyCode.KEYBOARD_F10] = "F10"
-        keys[ControlData.KeyCode.KEYBOARD_F11] = "F11"
-        keys[ControlData.KeyCode.KEYBOARD_F12] = "F12"
+        ControlData.KeyCode.KEYBOARD_F1 to Text("F1"),
+        ControlData.KeyCode.KEYBOARD_F2 to Text("F2"),
+        ControlData.KeyCode.KEYBOARD_F3 to Text("F3"),
+        ControlData.KeyCode.KEYBOARD_F4 to Text("F4"),
+        ControlData.KeyCode.KEYBOARD_F5 to Text("F5"),
+        ControlData.KeyCode.KEYBOARD_F6 to Text("F6"),
+        ControlData.KeyCode.KEYBOARD_F7 to Text("F7"),
+        ControlData.KeyCode.KEYBOARD_F8 to Text("F8"),
+        ControlData.KeyCode.KEYBOARD_F9 to Text("F9"),
+        ControlData.KeyCode.KEYBOARD_F10 to Text("F10"),
+        ControlData.KeyCode.KEYBOARD_F11 to Text("F11"),
+        ControlData.KeyCode.KEYBOARD_F12 to Text("F12"),
 
         // 修饰键 (左侧)
-        keys[ControlData.KeyCode.KEYBOARD_LSHIFT] = context.getString(R.string.key_shift_left)
-        keys[ControlData.KeyCode.KEYBOARD_LCTRL] = context.getString(R.string.key_ctrl_left)
-        keys[ControlData.KeyCode.KEYBOARD_LALT] = context.getString(R.string.key_alt_left)
+        ControlData.KeyCode.KEYBOARD_LSHIFT to Res(R.string.key_shift_left),
+        ControlData.KeyCode.KEYBOARD_LCTRL to Res(R.string.key_ctrl_left),
+        ControlData.KeyCode.KEYBOARD_LALT to Res(R.string.key_alt_left),
 
         // 修饰键 (右侧)
-        keys[ControlData.KeyCode.KEYBOARD_RSHIFT] = context.getString(R.string.key_shift_right)
-        keys[ControlData.KeyCode.KEYBOARD_RCTRL] = context.getString(R.string.key_ctrl_right)
-        keys[ControlData.KeyCode.KEYBOARD_RALT] = context.getString(R.string.key_alt_right)
+        ControlData.KeyCode.KEYBOARD_RSHIFT to Res(R.string.key_shift_right),
+        ControlData.KeyCode.KEYBOARD_RCTRL to Res(R.string.key_ctrl_right),
+        ControlData.KeyCode.KEYBOARD_RALT to Res(R.string.key_alt_right),
 
         // 其他常用键
-        keys[ControlData.KeyCode.KEYBOARD_TAB] = context.getString(R.string.key_tab)
-        keys[ControlData.KeyCode.KEYBOARD_CAPSLOCK] = context.getString(R.string.key_caps_lock)
-        keys[ControlData.KeyCode.KEYBOARD_BACKSPACE] = context.getString(R.string.key_backspace)
-        keys[ControlData.KeyCode.KEYBOARD_DELETE] = context.getString(R.string.key_delete)
-        keys[ControlData.KeyCode.KEYBOARD_INSERT] = context.getString(R.string.key_insert)
-        keys[ControlData.KeyCode.KEYBOARD_HOME] = context.getString(R.string.key_home)
-        keys[ControlData.KeyCode.KEYBOARD_END] = context.getString(R.string.key_end)
-        keys[ControlData.KeyCode.KEYBOARD_PAGEUP] = context.getString(R.string.key_page_up)
-        keys[ControlData.KeyCode.KEYBOARD_PAGEDOWN] = context.getString(R.string.key_page_down)
+        ControlData.KeyCode.KEYBOARD_TAB to Res(R.string.key_tab),
+        ControlData.KeyCode.KEYBOARD_CAPSLOCK to Res(R.string.key_caps_lock),
+        ControlData.KeyCode.KEYBOARD_BACKSPACE to Res(R.string.key_backspace),
+        ControlData.KeyCode.KEYBOARD_DELETE to Res(R.string.key_delete),
+        ControlData.KeyCode.KEYBOARD_INSERT to Res(R.string.key_insert),
+        ControlData.KeyCode.KEYBOARD_HOME to Res(R.string.key_home),
+        ControlData.KeyCode.KEYBOARD_END to Res(R.string.key_end),
+        ControlData.KeyCode.KEYBOARD_PAGEUP to Res(R.string.key_page_up),
+        ControlData.KeyCode.KEYBOARD_PAGEDOWN to Res(R.string.key_page_down),
 
         // 方向键
-        keys[ControlData.KeyCode.KEYBOARD_UP] = context.getString(R.string.key_arrow_up)
-        keys[ControlData.KeyCode.KEYBOARD_DOWN] = context.getString(R.string.key_arrow_down)
-        keys[ControlData.KeyCode.KEYBOARD_LEFT] = context.getString(R.string.key_arrow_left)
-        keys[ControlData.KeyCode.KEYBOARD_RIGHT] = context.getString(R.string.key_arrow_right)
+        ControlData.KeyCode.KEYBOARD_UP to Res(R.string.key_arrow_up),
+        ControlData.KeyCode.KEYBOARD_DOWN to Res(R.string.key_arrow_down),
+        ControlData.KeyCode.KEYBOARD_LEFT to Res(R.string.key_arrow_left),
+        ControlData.KeyCode.KEYBOARD_RIGHT to Res(R.string.key_arrow_right),
 
         // 符号键
-        keys[ControlData.KeyCode.KEYBOARD_MINUS] = "-"
-        keys[ControlData.KeyCode.KEYBOARD_EQUALS] = "="
-        keys[ControlData.KeyCode.KEYBOARD_LEFTBRACKET] = "["
-        keys[ControlData.KeyCode.KEYBOARD_RIGHTBRACKET] = "]"
-        keys[ControlData.KeyCode.KEYBOARD_BACKSLASH] = "\\"
-        keys[ControlData.KeyCode.KEYBOARD_SEMICOLON] = ";"
-        keys[ControlData.KeyCode.KEYBOARD_APOSTROPHE] = "'"
-        keys[ControlData.KeyCode.KEYBOARD_GRAVE] = "`"
-        keys[ControlData.KeyCode.KEYBOARD_COMMA] = ","
-        keys[ControlData.KeyCode.KEYBOARD_PERIOD] = "."
-        keys[ControlData.KeyCode.KEYBOARD_SLASH] = "/"
+        ControlData.KeyCode.KEYBOARD_MINUS to Text("-"),
+        ControlData.KeyCode.KEYBOARD_EQUALS to Text("="),
+        ControlData.KeyCode.KEYBOARD_LEFTBRACKET to Text("["),
+        ControlData.KeyCode.KEYBOARD_RIGHTBRACKET to Text("]"),
+        ControlData.KeyCode.KEYBOARD_BACKSLASH to Text("\\"),
+        ControlData.KeyCode.KEYBOARD_SEMICOLON to Text(";"),
+        ControlData.KeyCode.KEYBOARD_APOSTROPHE to Text("'"),
+        ControlData.KeyCode.KEYBOARD_GRAVE to Text("`"),
+        ControlData.KeyCode.KEYBOARD_COMMA to Text(","),
+        ControlData.KeyCode.KEYBOARD_PERIOD to Text("."),
+        ControlData.KeyCode.KEYBOARD_SLASH to Text("/"),
 
         // 小键盘数字键
-        keys[ControlData.KeyCode.KEYBOARD_KP_0] = context.getString(R.string.key_numpad_0)
-        keys[ControlData.KeyCode.KEYBOARD_KP_1] = context.getString(R.string.key_numpad_1)
-        keys[ControlData.KeyCode.KEYBOARD_KP_2] = context.getString(R.string.key_numpad_2)
-        keys[ControlData.KeyCode.KEYBOARD_KP_3] = context.getString(R.string.key_numpad_3)
-        keys[ControlData.KeyCode.KEYBOARD_KP_4] = context.getString(R.string.key_numpad_4)
-        keys[ControlData.KeyCode.KEYBOARD_KP_5] = context.getString(R.string.key_numpad_5)
-        keys[ControlData.KeyCode.KEYBOARD_KP_6] = context.getString(R.string.key_numpad_6)
-        keys[ControlData.KeyCode.KEYBOARD_KP_7] = context.getString(R.string.key_numpad_7)
-        keys[ControlData.KeyCode.KEYBOARD_KP_8] = context.getString(R.string.key_numpad_8)
-        keys[ControlData.KeyCode.KEYBOARD_KP_9] = context.getString(R.string.key_numpad_9)
+        ControlData.KeyCode.KEYBOARD_KP_0 to Res(R.string.key_numpad_0),
+        ControlData.KeyCode.KEYBOARD_KP_1 to Res(R.string.key_numpad_1),
+        ControlData.KeyCode.KEYBOARD_KP_2 to Res(R.string.key_numpad_2),
+        ControlData.KeyCode.KEYBOARD_KP_3 to Res(R.string.key_numpad_3),
+        ControlData.KeyCode.KEYBOARD_KP_4 to Res(R.string.key_numpad_4),
+        ControlData.KeyCode.KEYBOARD_KP_5 to Res(R.string.key_numpad_5),
+        ControlData.KeyCode.KEYBOARD_KP_6 to Res(R.string.key_numpad_6),
+        ControlData.KeyCode.KEYBOARD_KP_7 to Res(R.string.key_numpad_7),
+        ControlData.KeyCode.KEYBOARD_KP_8 to Res(R.string.key_numpad_8),
+        ControlData.KeyCode.KEYBOARD_KP_9 to Res(R.string.key_numpad_9),
 
         // 小键盘功能键
-        keys[ControlData.KeyCode.KEYBOARD_KP_PLUS] = context.getString(R.string.key_numpad_plus)
-        keys[ControlData.KeyCode.KEYBOARD_KP_MINUS] = context.getString(R.string.key_numpad_minus)
-        keys[ControlData.KeyCode.KEYBOARD_KP_MULTIPLY] = context.getString(R.string.key_numpad_multiply)
-        keys[ControlData.KeyCode.KEYBOARD_KP_DIVIDE] = context.getString(R.string.key_numpad_divide)
-        keys[ControlData.KeyCode.KEYBOARD_KP_PERIOD] = context.getString(R.string.key_numpad_period)
-        keys[ControlData.KeyCode.KEYBOARD_KP_ENTER] = context.getString(R.string.key_numpad_enter)
-
-        return keys
+        ControlData.KeyCode.KEYBOARD_KP_PLUS to Res(R.string.key_numpad_plus),
+        ControlData.KeyCode.KEYBOARD_KP_MINUS to Res(R.string.key_numpad_minus),
+        ControlData.KeyCode.KEYBOARD_KP_MULTIPLY to Res(R.string.key_numpad_multiply),
+        ControlData.KeyCode.KEYBOARD_KP_DIVIDE to Res(R.string.key_numpad_divide),
+        ControlData.KeyCode.KEYBOARD_KP_PERIOD to Res(R.string.key_numpad_period),
+        ControlData.KeyCode.KEYBOARD_KP_ENTER to Res(R.string.key_numpad_enter)
+    )
+
+    /** 游戏常用按键（用于快速选择） */
+    private val GAME_KEYS = listOf(
+        ControlData.KeyCode.MOUSE_LEFT,
+        ControlData.KeyCode.MOUSE_RIGHT,
+        ControlData.KeyCode.KEYBOARD_SPACE,
+        ControlData.KeyCode.KEYBOARD_E,
+        ControlData.KeyCode.KEYBOARD_H,
+        ControlData.KeyCode.KEYBOARD_ESCAPE,
+        ControlData.KeyCode.KEYBOARD_LSHIFT,
+        ControlData.KeyCode.KEYBOARD_LCTRL
+    )
+
+    /**
+     * 某一语言下的全部显示名称
+     *
+     * 不在按键选择列表中的按键，显示名称为“未知按键”文本。
+     */
+    internal class LabelTable(
+        val allKeys: Map<ControlData.KeyCode, String>,
+        val xboxButtons: Map<ControlData.KeyCode, String>,
+        val gameKeys: Map<ControlData.KeyCode, String>,
+        private val names: Array<String>
+    ) {
+        fun name(keycode: ControlData.KeyCode): String = names[keycode.ordinal]
+    }
+
+    /**
+     * 生成显示名称表
+     *
+     * @param resolve 解析字符串资源
+     * @param unknown 不在选择列表中的按键的显示名称
+     */
+    internal fun buildLabelTable(
+        resolve: (Int) -> String,
+        unknown: (ControlData.KeyCode) -> String
+    ): LabelTable {
+        val resolved = HashMap<Int, String>()
+        fun text(label: Label): String = when (label) {
+            is Text -> label.text
+            is Res -> resolved.getOrPut(label.id) { resolve(label.id) }
+        }
+
+        val allKeys = LinkedHashMap<ControlData.KeyCode, String>()
+        for ((keycode, label) in ALL_KEY_LABELS) allKeys[keycode] = text(label)
+        val xboxButtons = LinkedHashMap<ControlData.KeyCode, String>()
+        for ((keycode, label) in XBOX_LABELS) xboxButtons[keycode] = text(label)
+        val gameKeys = LinkedHashMap<ControlData.KeyCode, String>()
+        for (keycode in GAME_KEYS) gameKeys[keycode] = allKeys.getValue(keycode)
+
+        val names = Array(ControlData.KeyCode.entries.size) { ordinal ->
+            val keycode = ControlData.KeyCode.entries[ordinal]
+            allKeys[keycode] ?: unknown(keycode)
+        }
+        return LabelTable(allKeys, xboxButtons, gameKeys, names)
+    }
+
+    @Volatile
+    private var labelCache: Pair<Locale, LabelTable>? = null
+
+    private fun labels(context: Context): LabelTable {
+        val locale = context.resources.configuration.locales[0]
+        labelCache?.let { (cachedLocale, table) ->
+            if (cachedLocale == locale) return table
+        }
+        return buildLabelTable(
+            resolve = { context.getString(it) },
+            unknown = { context.getString(R.string.key_unknown, it.code.toString()) }
+        ).also { labelCache = locale to it }
     }
-    
+
+    /**
+     * 获取所有可用的按键映射（KeyCode -> 显示名称）
+     * @param context 用于获取本地化字符串资源
+     */
+    fun getAllKeys(context: Context): Map<ControlData.KeyCode, String> = labels(context).allKeys
+
     private fun getInjectedContextOrNull(): Context? {
         return runCatching { KoinJavaComponent.get<Context>(Context::class.java) }.getOrNull()
     }
@@ -181,10 +281,8 @@ object KeyMapper {
     /**
      * 根据按键码获取按键名称（本地化版本）
      */
-    fun getKeyName(context: Context, keycode: ControlData.KeyCode): String {
-        return getAllKeys(context)[keycode] ?: context.getString(R.string.key_unknown, keycode.code.toString())
-    }
-    
+    fun getKeyName(context: Context, keycode: ControlData.KeyCode): String = labels(context).name(keycode)
+
     /**
      * 根据按键码获取按键名称（向后兼容版本）
      */
@@ -197,19 +295,8 @@ object KeyMapper {
      * 获取游戏常用按键（用于快速选择）
      * @param context 用于获取本地化字符串资源
      */
-    fun getGameKeys(context: Context): Map<ControlData.KeyCode, String> {
-        val keys: MutableMap<ControlData.KeyCode, String> = LinkedHashMap()
-        keys[ControlData.KeyCode.MOUSE_LEFT] = context.getString(R.string.key_mouse_left)
-        keys[ControlData.KeyCode.MOUSE_RIGHT] = context.getString(R.string.key_mouse_right)
-        keys[ControlData.KeyCode.KEYBOARD_SPACE] = context.getString(R.string.key_space)
-        keys[ControlData.KeyCode.KEYBOARD_E] = "E"
-        keys[ControlData.KeyCode.KEYBOARD_H] = "H"
-        keys[ControlData.KeyCode.KEYBOARD_ESCAPE] = context.getString(R.string.key_escape)
-        keys[ControlData.KeyCode.KEYBOARD_LSHIFT] = context.getString(R.string.key_shift_left)
-        keys[ControlData.KeyCode.KEYBOARD_LCTRL] = context.getString(R.string.key_ctrl_left)
-        return keys
-    }
-    
+    fun getGameKeys(context: Context): Map<ControlData.KeyCode, String> = labels(context).gameKeys
+
     /**
      * 保留旧的属性访问器以保持向后兼容性
      */
@@ -226,27 +313,7 @@ object KeyMapper {
             ControlData.KeyCode.KEYBOARD_LCTRL to "Ctrl"
         )
 
-    fun getXboxButtons(context: Context): Map<ControlData.KeyCode, String> {
-        val keys: MutableMap<ControlData.KeyCode, String> = LinkedHashMap()
-        keys[ControlData.KeyCode.XBOX_BUTTON_A] = "A"
-        keys[ControlData.KeyCode.XBOX_BUTTON_B] = "B"
-        keys[ControlData.KeyCode.XBOX_BUTTON_X] = "X"
-        keys[ControlData.KeyCode.XBOX_BUTTON_Y] = "Y"
-        keys[ControlData.KeyCode.XBOX_BUTTON_LB] = "LB"
-        keys[ControlData.KeyCode.XBOX_BUTTON_RB] = "RB"
-        keys[ControlData.KeyCode.XBOX_TRIGGER_LEFT] = "LT"
-        keys[ControlData.KeyCode.XBOX_TRIGGER_RIGHT] = "RT"
-        keys[ControlData.KeyCode.XBOX_BUTTON_BACK] = context.getString(R.string.key_gamepad_back)
-        keys[ControlData.KeyCode.XBOX_BUTTON_START] = context.getString(R.string.key_gamepad_start)
-        keys[ControlData.KeyCode.XBOX_BUTTON_GUIDE] = context.getString(R.string.key_gamepad_guide)
-        keys[ControlData.KeyCode.XBOX_BUTTON_LEFT_STICK] = "L3"
-        keys[ControlData.KeyCode.XBOX_BUTTON_RIGHT_STICK] = "R3"
-        keys[ControlData.KeyCode.XBOX_BUTTON_DPAD_UP] = context.getString(R.string.key_gamepad_dpad_up)
-        keys[ControlData.KeyCode.XBOX_BUTTON_DPAD_DOWN] = context.getString(R.string.key_gamepad_dpad_down)
-        keys[ControlData.KeyCode.XBOX_BUTTON_DPAD_LEFT] = context.getString(R.string.key_gamepad_dpad_left)
-        keys[ControlData.KeyCode.XBOX_BUTTON_DPAD_RIGHT] = context.getString(R.string.key_gamepad_dpad_right)
-        return keys
-    }
+    fun getXboxButtons(context: Context): Map<ControlData.KeyCode, String> = labels(context).xboxButtons
 
     val xboxButtons: Map<ControlData.KeyCode, String>
         /**
@@ -0,0 +1,112 @@
+package com.app.ralaunch.feature.controls.bridges
+
+import android.os.Looper
+import android.view.Choreographer
+import com.app.ralaunch.feature.controls.ControlData
+
+/**
+ * 按帧合并运动输入的桥接包装
+ *
+ * 鼠标移动、绝对位置与摇杆值先交给 [MotionCoalescer]，每个 vsync 由 [Choreographer] 统一发送一次；
+ * 按键、鼠标按钮、滚轮等离散事件立即转发，转发前先发送已合并的运动，保证与原始顺序一致。
+ */
+class CoalescingInputBridge(
+    private val delegate: ControlInputBridge
+) : ControlInputBridge, Choreographer.FrameCallback {
+
+    private val coalescer = MotionCoalescer()
+    private var frameScheduled = false
+
+    override fun doFrame(frameTimeNanos: Long) {
+        frameScheduled = false
+        flush()
+    }
+
+    /**
+     * 立即发送已合并的运动
+     */
+    fun flush() {
+        coalescer.flush(delegate)
+    }
+
+    /**
+     * 发送剩余运动并取消帧回调（退出游戏时调用）
+     */
+    fun release() {
+        flush()
+        if (frameScheduled) {
+            Choreographer.getInstance().removeFrameCallback(this)
+            frameScheduled = false
+        }
+    }
+
+    private fun scheduleFlush() {
+        if (frameScheduled) return
+        if (Looper.myLooper() == null) {
+            // 没有 Looper 的线程无法使用 Choreographer，直接发送
+            flush()
+            return
+        }
+        frameScheduled = true
+        Choreographer.getInstance().postFrameCallback(this)
+    }
+
+    // ==================== 运动（合并） ====================
+
+    override fun sendMouseMove(deltaX: Float, deltaY: Float) {
+        coalescer.addMouseDelta(deltaX, deltaY)
+        scheduleFlush()
+    }
+
+    override fun sendMousePosition(x: Float, y: Float) {
+        coalescer.setMousePosition(x, y)
+        scheduleFlush()
+    }
+
+    override fun sendXboxLeftStick(x: Float, y: Float) {
+        coalescer.setLeftStick(x, y)
+        scheduleFlush()
+    }
+
+    override fun sendXboxRightStick(x: Float, y: Float) {
+        coalescer.setRightStick(x, y)
+        scheduleFlush()
+    }
+
+    // ==================== 离散事件（立即转发） ====================
+
+    override fun sendKey(keycode: ControlData.KeyCode, isDown: Boolean) {
+        flush()
+        delegate.sendKey(keycode, isDown)
+    }
+
+    override fun sendMouseButton(button: ControlData.KeyCode, isDown: Boolean) {
+        flush()
+        delegate.sendMouseButton(button, isDown)
+    }
+
+    override fun sendMouseWheel(scrollY: Float) {
+        flush()
+        delegate.sendMouseWheel(scrollY)
+    }
+
+    override fun sendXboxButton(xboxButton: ControlData.KeyCode, isDown: Boolean) {
+        flush()
+        delegate.sendXboxButton(xboxButton, isDown)
+    }
+
+    override fun sendXboxTrigger(xboxTrigger: ControlData.KeyCode, value: Float) {
+        flush()
+        delegate.sendXboxTrigger(xboxTrigger, value)
+    }
+
+    override fun startTextInput() {
+        flush()
+        delegate.startTextInput()
+    }
+
+    override fun stopTextInput() {
+        flush()
+        delegate.stopTextInput()
+    }
+}
@@ -0,0 +1,132 @@
+package com.app.ralaunch.feature.controls.bridges
+
+/**
+ * 连续运动输入的合并器
+ *
+ * 高刷新率触摸屏每帧会产生多次移动采样，而游戏每帧只读取一次输入状态。
+ * 在两次 [flush] 之间：
+ * - 相对鼠标移动累加，总位移不丢失
+ * - 绝对鼠标位置、左右摇杆只保留最后一次的值
+ *
+ * 绝对位置与相对移动交错时保持先后关系：位置之前的位移先发，位置之后的位移后发。
+ * 不做线程同步，调用方需在同一线程（主线程）使用。
+ */
+class MotionCoalescer {
+
+    // 最近一次绝对位置之前、之后累计的相对位移
+    private var beforeDx = 0f
+    private var beforeDy = 0f
+    private var hasBefore = false
+    private var afterDx = 0f
+    private var afterDy = 0f
+    private var hasAfter = false
+
+    private var mouseX = 0f
+    private var mouseY = 0f
+    private var hasMousePosition = false
+
+    private var leftX = 0f
+    private var leftY = 0f
+    private var hasLeftStick = false
+
+    private var rightX = 0f
+    private var rightY = 0f
+    private var hasRightStick = false
+
+    /** 自上次 [flush] 以来收到的采样数 */
+    var pendingSamples = 0
+        private set
+
+    val hasPending: Boolean get() = pendingSamples > 0
+
+    fun addMouseDelta(dx: Float, dy: Float) {
+        if (hasMousePosition) {
+            afterDx += dx
+            afterDy += dy
+            hasAfter = true
+        } else {
+            beforeDx += dx
+            beforeDy += dy
+            hasBefore = true
+        }
+        pendingSamples++
+    }
+
+    fun setMousePosition(x: Float, y: Float) {
+        if (hasAfter) {
+            // 上一个绝对位置被覆盖，其后的位移并入前段，保证总位移不变
+            beforeDx += afterDx
+            beforeDy += afterDy
+            hasBefore = true
+            afterDx = 0f
+            afterDy = 0f
+            hasAfter = false
+        }
+        mouseX = x
+        mouseY = y
+        hasMousePosition = true
+        pendingSamples++
+    }
+
+    fun setLeftStick(x: Float, y: Float) {
+        leftX = x
+        leftY = y
+        hasLeftStick = true
+        pendingSamples++
+    }
+
+    fun setRightStick(x: Float, y: Float) {
+        rightX = x
+        rightY = y
+        hasRightStick = true
+        pendingSamples++
+    }
+
+    /**
+     * 将合并后的运动发送到 [sink] 并清空
+     *
+     * @return 实际发送的调用数
+     */
+    fun flush(sink: ControlInputBridge): Int {
+        if (pendingSamples == 0) return 0
+        var sent = 0
+        if (hasBefore) {
+            sink.sendMouseMove(beforeDx, beforeDy)
+            sent++
+        }
+        if (hasMousePosition) {
+            sink.sendMousePosition(mouseX, mouseY)
+            sent++
+        }
+        if (hasAfter) {
+            sink.sendMouseMove(afterDx, afterDy)
+            sent++
+        }
+        if (hasLeftStick) {
+            sink.sendXboxLeftStick(leftX, leftY)
+            sent++
+        }
+        if (hasRightStick) {
+            sink.sendXboxRightStick(rightX, rightY)
+            sent++
+        }
+        clear()
+        return sent
+    }
+
+    /**
+     * 丢弃尚未发送的运动
+     */
+    fun clear() {
+        beforeDx = 0f
+        beforeDy = 0f
+        hasBefore = false
+        afterDx = 0f
+        afterDy = 0f
+        hasAfter = false
+        hasMousePosition = false
+        hasLeftStick = false
+        hasRightStick = false
+        pendingSamples = 0
+    }
+}
@@ -3,9 +3,9 @@ package com.app.ralaunch.feature.controls.bridges
 import android.os.Handler
 import android.os.Looper
 import com.app.ralaunch.core.logging.AppLog
-import android.view.KeyEvent
 import android.view.MotionEvent
 import com.app.ralaunch.feature.controls.ControlData
+import com.app.ralaunch.feature.controls.KeyCodeTables
 import org.libsdl.app.SDLActivity
 import org.libsdl.app.SDLControllerManager
 import org.libsdl.app.VirtualXboxController
@@ -17,145 +17,29 @@ import org.libsdl.app.VirtualXboxController
  * 注意：游戏使用触屏控制，鼠标按键通过虚拟触屏点实现
  */
 class SDLInputBridge : ControlInputBridge {
+    private val mainHandler = Handler(Looper.getMainLooper())
+
     /**
-     * 将SDL Scancode转换为Android KeyCode
+     * 将按键转换为Android KeyCode
      * SDLActivity.onNativeKeyDown期望接收Android KeyCode（如KEYCODE_A=29），不是ASCII！
      */
-    private fun scancodeToKeycode(scancode: Int): Int {
-        when (scancode) {
-            4 -> return KeyEvent.KEYCODE_A // 29
-            5 -> return KeyEvent.KEYCODE_B // 30
-            6 -> return KeyEvent.KEYCODE_C // 31
-            7 -> return KeyEvent.KEYCODE_D // 32
-            8 -> return KeyEvent.KEYCODE_E // 33
-            9 -> return KeyEvent.KEYCODE_F // 34
-            10 -> return KeyEvent.KEYCODE_G // 35
-            11 -> return KeyEvent.KEYCODE_H // 36
-            12 -> return KeyEvent.KEYCODE_I // 37
-            13 -> return KeyEvent.KEYCODE_J // 38
-            14 -> return KeyEvent.KEYCODE_K // 39
-            15 -> return KeyEvent.KEYCODE_L // 40
-            16 -> return KeyEvent.KEYCODE_M // 41
-            17 -> return KeyEvent.KEYCODE_N // 42
-            18 -> return KeyEvent.KEYCODE_O // 43
-            19 -> return KeyEvent.KEYCODE_P // 44
-            20 -> return KeyEvent.KEYCODE_Q // 45
-            21 -> return KeyEvent.KEYCODE_R // 46
-            22 -> return KeyEvent.KEYCODE_S // 47
-            23 -> return KeyEvent.KEYCODE_T // 48
-            24 -> return KeyEvent.KEYCODE_U // 49
-            25 -> return KeyEvent.KEYCODE_V // 50
-            26 -> return KeyEvent.KEYCODE_W // 51
-            27 -> return KeyEvent.KEYCODE_X // 52
-            28 -> return KeyEvent.KEYCODE_Y // 53
-            29 -> return KeyEvent.KEYCODE_Z // 54
-
-            30 -> return KeyEvent.KEYCODE_1 // 8
-            31 -> return KeyEvent.KEYCODE_2 // 9
-            32 -> return KeyEvent.KEYCODE_3 // 10
-            33 -> return KeyEvent.KEYCODE_4 // 11
-            34 -> return KeyEvent.KEYCODE_5 // 12
-            35 -> return KeyEvent.KEYCODE_6 // 13
-            36 -> return KeyEvent.KEYCODE_7 // 14
-            37 -> return KeyEvent.KEYCODE_8 // 15
-            38 -> return KeyEvent.KEYCODE_9 // 16
-            39 -> return KeyEvent.KEYCODE_0 // 7
-
-            40 -> return KeyEvent.KEYCODE_ENTER // 66
-            41 -> return KeyEvent.KEYCODE_ESCAPE // 111
-            42 -> return KeyEvent.KEYCODE_DEL // 67 (Backspace)
-            43 -> return KeyEvent.KEYCODE_TAB // 61
-            44 -> return KeyEvent.KEYCODE_SPACE // 62
-
-            45 -> return KeyEvent.KEYCODE_MINUS // 69
-            46 -> return KeyEvent.KEYCODE_EQUALS // 70
-            47 -> return KeyEvent.KEYCODE_LEFT_BRACKET // 71
-            48 -> return KeyEvent.KEYCODE_RIGHT_BRACKET // 72
-            49 -> return KeyEvent.KEYCODE_BACKSLASH // 73
-            51 -> return KeyEvent.KEYCODE_SEMICOLON // 74
-            52 -> return KeyEvent.KEYCODE_APOSTROPHE // 75
-            53 -> return KeyEvent.KEYCODE_GRAVE // 68
-            54 -> return KeyEvent.KEYCODE_COMMA // 55
-            55 -> return KeyEvent.KEYCODE_PERIOD // 56
-            56 -> return KeyEvent.KEYCODE_SLASH // 76
-
-            57 -> return KeyEvent.KEYCODE_CAPS_LOCK // 115
-
-            58 -> return KeyEvent.KEYCODE_F1 // 131
-            59 -> return KeyEvent.KEYCODE_F2 // 132
-            60 -> return KeyEvent.KEYCODE_F3 // 133
-            61 -> return KeyEvent.KEYCODE_F4 // 134
-            62 -> return KeyEvent.KEYCODE_F5 // 135
-            63 -> return KeyEvent.KEYCODE_F6 // 136
-            64 -> return KeyEvent.KEYCODE_F7 // 137
-            65 -> return KeyEvent.KEYCODE_F8 // 138
-            66 -> return KeyEvent.KEYCODE_F9 // 139
-            67 -> return KeyEvent.KEYCODE_F10 // 140
-            68 -> return KeyEvent.KEYCODE_F11 // 141
-            69 -> return KeyEvent.KEYCODE_F12 // 142
-
-            70 -> return KeyEvent.KEYCODE_SYSRQ // 120 (PrintScreen)
-            71 -> return KeyEvent.KEYCODE_SCROLL_LOCK // 116
-            72 -> return KeyEvent.KEYCODE_BREAK // 121 (Pause)
-            73 -> return KeyEvent.KEYCODE_INSERT // 124
-            74 -> return KeyEvent.KEYCODE_HOME // 122
-            75 -> return KeyEvent.KEYCODE_PAGE_UP // 92
-            76 -> return KeyEvent.KEYCODE_FORWARD_DEL // 112 (Delete)
-            77 -> return KeyEvent.KEYCODE_MOVE_END // 123
-            78 -> return KeyEvent.KEYCODE_PAGE_DOWN // 93
-
-            79 -> return KeyEvent.KEYCODE_DPAD_RIGHT // 22
-            80 -> return KeyEvent.KEYCODE_DPAD_LEFT // 21
-            81 -> return KeyEvent.KEYCODE_DPAD_DOWN // 20
-            82 -> return KeyEvent.KEYCODE_DPAD_UP // 19
-
-            83 -> return KeyEvent.KEYCODE_NUM_LOCK // 143
-            84 -> return KeyEvent.KEYCODE_NUMPAD_DIVIDE // 154
-            85 -> return KeyEvent.KEYCODE_NUMPAD_MULTIPLY // 155
-            86 -> return KeyEvent.KEYCODE_NUMPAD_SUBTRACT // 156
-            87 -> return KeyEvent.KEYCODE_NUMPAD_ADD // 157
-            88 -> return KeyEvent.KEYCODE_NUMPAD_ENTER // 160
-            89 -> return KeyEvent.KEYCODE_NUMPAD_1 // 145
-            90 -> return KeyEvent.KEYCODE_NUMPAD_2 // 146
-            91 -> return KeyEvent.KEYCODE_NUMPAD_3 // 147
-            92 -> return KeyEvent.KEYCODE_NUMPAD_4 // 148
-            93 -> return KeyEvent.KEYCODE_NUMPAD_5 // 149
-            94 -> return KeyEvent.KEYCODE_NUMPAD_6 // 150
-            95 -> return KeyEvent.KEYCODE_NUMPAD_7 // 151
-            96 -> return KeyEvent.KEYCODE_NUMPAD_8 // 152
-            97 -> return KeyEvent.KEYCODE_NUMPAD_9 // 153
-            98 -> return KeyEvent.KEYCODE_NUMPAD_0 // 144
-            99 -> return KeyEvent.KEYCODE_NUMPAD_DOT // 158
-
-            103 -> return KeyEvent.KEYCODE_NUMPAD_EQUALS // 161
-
-            224 -> return KeyEvent.KEYCODE_CTRL_LEFT // 113
-            225 -> return KeyEvent.KEYCODE_SHIFT_LEFT // 59
-            226 -> return KeyEvent.KEYCODE_ALT_LEFT // 57
-            227 -> return KeyEvent.KEYCODE_META_LEFT // 117
-            228 -> return KeyEvent.KEYCODE_CTRL_RIGHT // 114
-            229 -> return KeyEvent.KEYCODE_SHIFT_RIGHT // 60
-            230 -> return KeyEvent.KEYCODE_ALT_RIGHT // 58
-            231 -> return KeyEvent.KEYCODE_META_RIGHT // 118
-
-            else -> {
-                AppLog.w(TAG, "Unknown scancode: " + scancode + ", passing through")
-                return scancode // 未知的直接传递
-            }
-        }
+    private fun toAndroidKeycode(key: ControlData.KeyCode): Int {
+        val keycode = KeyCodeTables.androidKeycode(key)
+        if (keycode != KeyCodeTables.NO_KEYCODE) return keycode
+        AppLog.w(TAG, "Unknown scancode: " + key.code + ", passing through")
+        return key.code // 未知的直接传递
     }
 
     override fun sendKey(scancode: ControlData.KeyCode, isDown: Boolean) {
         try {
             // 将Scancode转换为Keycode
-            val keycode = scancodeToKeycode(scancode.code)
+            val keycode = toAndroidKeycode(scancode)
 
 
 //            AppLog.d(TAG, "sendKey: scancode=" + scancode + " -> keycode=" + keycode +
 //                  ", isDown=" + isDown + ", calling SDLActivity.onNativeKey" + (isDown ? "Down" : "Up"));
 
             // 确保在主线程上调用SDL方法（SDL的native方法需要在主线程调用）
-            val mainHandler = Handler(Looper.getMainLooper())
             val finalKeycode = keycode
             val finalIsDown = isDown
 
@@ -338,13 +338,14 @@ fun GameControlsOverlay(
             // ========== 布局切换回调 ==========
             
             override fun onSwitchPack(packId: String) {
-                // 切换控件包
-                packManager.setSelectedPackId(packId)
-                controlLayoutView.loadLayoutFromPackManager()
+                // 切换控件包（快速切换的布局已在游戏启动时预加载）
+                val newLayout = packManager.switchActivePack(packId)
+                if (newLayout != null) {
+                    controlLayoutView.loadLayout(newLayout)
+                }
                 
                 // 更新菜单状态
                 menuState.activePackId = packId
-                val newLayout = packManager.getPackLayout(packId)
                 currentLayout = newLayout
                 
                 hasUnsavedChanges = false
@@ -0,0 +1,240 @@
+package com.app.ralaunch.feature.controls.packs
+
+import com.app.ralaunch.core.common.util.FileCopier
+import com.app.ralaunch.core.common.util.TreeDeleter
+import com.app.ralaunch.core.logging.AppLog
+import org.apache.commons.compress.archivers.zip.DefaultBackingStoreSupplier
+import org.apache.commons.compress.archivers.zip.ParallelScatterZipCreator
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream
+import java.io.File
+import java.io.FileInputStream
+import java.io.IOException
+import java.nio.file.Files
+import java.nio.file.StandardCopyOption
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executors
+import java.util.zip.ZipEntry
+import java.util.zip.ZipFile
+
+/**
+ * 控件包归档读写
+ *
+ * - 安装：条目由有界线程池并行解压到暂存目录，校验 manifest 与布局后整体重命名到 installed/；
+ *   任何一步失败都只会删除暂存目录，已安装的同名包保持不变
+ * - 导出：已压缩的媒体文件（PNG、JPG、OGG 等）以 STORED 写入，
+ *   其余条目由 [ParallelScatterZipCreator] 在多个线程上并行压缩，再按顺序合并为一个 zip
+ *
+ * @param packsDir 已安装控件包目录
+ * @param workDir 暂存与回收目录所在位置，应与 [packsDir] 位于同一文件系统
+ */
+class ControlPackArchive(
+    private val packsDir: File,
+    private val workDir: File,
+    private val parallelism: Int = DEFAULT_PARALLELISM
+) {
+
+    companion object {
+        private const val TAG = "ControlPackArchive"
+
+        private const val STAGING_DIR_NAME = ".staging"
+        private const val TRASH_DIR_NAME = ".trash"
+
+        /** 本身已压缩、再次 deflate 几乎没有收益的格式 */
+        private val STORED_EXTENSIONS = setOf(
+            "png", "jpg", "jpeg", "webp", "gif",
+            "ogg", "mp3", "m4a", "opus", "zip"
+        )
+
+        val DEFAULT_PARALLELISM = Runtime.getRuntime().availableProcessors().coerceIn(2, 4)
+
+        private fun isValidPackId(id: String): Boolean =
+            id.isNotBlank() && !id.startsWith(".") && '/' !in id && '\\' !in id
+    }
+
+    private val stagingDir: File get() = File(workDir, STAGING_DIR_NAME)
+    private val trashDir: File get() = File(workDir, TRASH_DIR_NAME)
+
+    // ==================== 安装 ====================
+
+    /**
+     * 从 .zip 安装控件包
+     *
+     * 支持 manifest.json 位于根目录或某个子目录（如 pack_id/manifest.json），
+     * 后者会去掉该前缀目录。
+     */
+    @Throws(IOException::class)
+    fun install(packFile: File): ControlPackInfo {
+        ZipFile(packFile).use { zip ->
+            val entries = zip.entries().toList()
+
+            // 查找 manifest.json（支持子目录）
+            val manifestEntry = zip.getEntry(ControlPackInfo.MANIFEST_FILE_NAME)
+                ?: entries.find { entry ->
+                    entry.name.endsWith("/${ControlPackInfo.MANIFEST_FILE_NAME}") ||
+                        entry.name.endsWith("\\${ControlPackInfo.MANIFEST_FILE_NAME}")
+                }
+                ?: throw IOException("Invalid pack: missing manifest.json")
+            val prefix = manifestEntry.name.substringBeforeLast(ControlPackInfo.MANIFEST_FILE_NAME)
+
+            val manifestContent = zip.getInputStream(manifestEntry).bufferedReader().use { it.readText() }
+            val info = ControlPackInfo.fromJson(manifestContent)
+                ?: throw IOException("Invalid manifest.json")
+            if (!isValidPackId(info.id)) throw IOException("Invalid pack id: ${info.id}")
+
+            val staging = File(stagingDir, "${info.id}.${System.nanoTime()}")
+            try {
+                extract(zip, entries, prefix, staging)
+                validate(staging, info)
+                commit(staging, File(packsDir, info.id))
+            } finally {
+                if (staging.exists()) TreeDeleter.DEFAULT.deleteTree(staging.toPath())
+            }
+            return info
+        }
+    }
+
+    /**
+     * 先串行创建目录，再并行解压文件；拒绝解压到暂存目录之外的条目
+     */
+    private fun extract(zip: ZipFile, entries: List<ZipEntry>, prefix: String, staging: File) {
+        val root = staging.toPath().toAbsolutePath().normalize()
+        val normalizedPrefix = prefix.replace('\\', '/')
+        val files = ArrayList<Pair<ZipEntry, File>>(entries.size)
+        Files.createDirectories(root)
+
+        for (entry in entries) {
+            val name = entry.name.replace('\\', '/')
+            if (!name.startsWith(normalizedPrefix)) continue
+            val relative = name.removePrefix(normalizedPrefix)
+            if (relative.isEmpty()) continue
+
+            val target = root.resolve(relative).normalize()
+            if (!target.startsWith(root) || target == root) {
+                throw IOException("Illegal entry path: ${entry.name}")
+            }
+            if (entry.isDirectory) {
+                Files.createDirectories(target)
+            } else {
+                target.parent?.let { Files.createDirectories(it) }
+                files.add(entry to target.toFile())
+            }
+        }
+
+        val extractOne = { entry: ZipEntry, target: File ->
+            zip.getInputStream(entry).use { input -> FileCopier.copyStreamToFile(input, target) }
+        }
+        if (parallelism <= 1 || files.size < 2) {
+            files.forEach { (entry, target) -> extractOne(entry, target) }
+            return
+        }
+
+        val executor = Executors.newFixedThreadPool(parallelism.coerceAtMost(files.size))
+        try {
+            // 大条目优先，避免最后只剩一个线程在解压大纹理
+            val futures = files.sortedByDescending { it.first.size }
+                .map { (entry, target) -> executor.submit<Long> { extractOne(entry, target) } }
+            for (future in futures) {
+                try {
+                    future.get()
+                } catch (e: ExecutionException) {
+                    throw (e.cause as? IOException) ?: IOException(e.cause)
+                }
+            }
+        } catch (e: InterruptedException) {
+            Thread.currentThread().interrupt()
+            throw IOException("Pack extraction interrupted")
+        } finally {
+            executor.shutdownNow()
+        }
+    }
+
+    /**
+     * 校验解压结果：manifest 与压缩包中读到的一致，布局可以解析
+     */
+    private fun validate(staging: File, info: ControlPackInfo) {
+        val manifest = ControlPackInfo.fromFile(File(staging, ControlPackInfo.MANIFEST_FILE_NAME))
+        if (manifest?.id != info.id) throw IOException("Manifest mismatch after extraction: ${info.id}")
+
+        val layoutFile = File(staging, ControlPackInfo.LAYOUT_FILE_NAME)
+        if (!layoutFile.isFile) throw IOException("Invalid pack: missing ${ControlPackInfo.LAYOUT_FILE_NAME}")
+        ControlLayout.loadFrom(layoutFile) ?: throw IOException("Invalid ${ControlPackInfo.LAYOUT_FILE_NAME}")
+    }
+
+    /**
+     * 用暂存目录替换已安装的包：旧包先移入回收目录，重命名失败时移回原位
+     */
+    private fun commit(staging: File, target: File) {
+        val deleter = TreeDeleter.DEFAULT
+        val previous = if (target.exists()) {
+            deleter.moveToTrash(target.toPath(), trashDir.toPath())
+                ?: throw IOException("Cannot replace installed pack: ${target.name}")
+        } else {
+            null
+        }
+
+        target.parentFile?.mkdirs()
+        if (!staging.renameTo(target)) {
+            previous?.let { Files.move(it, target.toPath(), StandardCopyOption.ATOMIC_MOVE) }
+            throw IOException("Cannot move ${staging.name} into ${target.parentFile?.name}")
+        }
+
+        previous?.let {
+            if (!deleter.deleteTree(it)) AppLog.w(TAG, "Failed to delete replaced pack: $it")
+        }
+    }
+
+    // ==================== 导出 ====================
+
+    /**
+     * 导出控件包目录为 .zip（先写临时文件，完成后重命名为 [outputFile]）
+     *
+     * @return 写入的条目数
+     */
+    @Throws(IOException::class)
+    fun export(packDir: File, outputFile: File): Int {
+        if (!packDir.isDirectory) throw IOException("Pack not found: ${packDir.name}")
+
+        val files = packDir.walkTopDown()
+            .filter { it.isFile }
+            .map { it.relativeTo(packDir).path.replace('\\', '/') to it }
+            .sortedBy { it.first }
+            .toList()
+
+        outputFile.parentFile?.mkdirs()
+        val tmp = File(outputFile.parentFile, "${outputFile.name}.tmp")
+        val executor = Executors.newFixedThreadPool(parallelism.coerceAtLeast(1))
+        try {
+            // 各线程压缩到临时存储，最后顺序合并
+            val scratch = Files.createDirectories(stagingDir.toPath())
+            val creator = ParallelScatterZipCreator(executor, DefaultBackingStoreSupplier(scratch))
+            for ((name, file) in files) {
+                val entry = ZipArchiveEntry(name).apply {
+                    method = if (file.extension.lowercase() in STORED_EXTENSIONS) ZipEntry.STORED else ZipEntry.DEFLATED
+                    size = file.length()
+                    time = file.lastModified()
+                }
+                creator.addArchiveEntry(entry) { FileInputStream(file) }
+            }
+            ZipArchiveOutputStream(tmp).use { creator.writeTo(it) }
+        } catch (e: InterruptedException) {
+            Thread.currentThread().interrupt()
+            tmp.delete()
+            throw IOException("Pack export interrupted")
+        } catch (e: ExecutionException) {
+            tmp.delete()
+            throw (e.cause as? IOException) ?: IOException(e.cause)
+        } catch (e: IOException) {
+            tmp.delete()
+            throw e
+        } finally {
+            executor.shutdownNow()
+        }
+
+        if (!tmp.renameTo(outputFile)) {
+            tmp.delete()
+            throw IOException("Cannot rename ${tmp.name}")
+        }
+        return files.size
+    }
+}
@@ -6,14 +6,12 @@ import android.graphics.BitmapFactory
 import android.os.Environment
 import com.app.ralaunch.core.logging.AppLog
 import com.app.ralaunch.core.common.util.FileUtils
+import com.app.ralaunch.feature.controls.ControlData
+import com.app.ralaunch.feature.controls.textures.TextureLoader
 import kotlinx.serialization.Serializable
-import kotlinx.serialization.json.Json
 import java.io.File
-import java.io.FileInputStream
-import java.io.FileOutputStream
-import java.util.zip.ZipEntry
-import java.util.zip.ZipFile
-import java.util.zip.ZipOutputStream
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Executors
 
 /**
  * 控件包管理器
@@ -56,12 +54,6 @@ class ControlPackManager(private val context: Context) {
         
         /** 控件包文件扩展名 */
         const val PACK_EXTENSION = ".zip"
-        
-        private val json = Json {
-            prettyPrint = true
-            ignoreUnknownKeys = true
-            encodeDefaults = true
-        }
     }
     
     /**
@@ -111,62 +103,75 @@ class ControlPackManager(private val context: Context) {
     /** 管理器状态文件 */
     private val managerStateFile: File
         get() = File(packsRootDir, MANAGER_STATE_FILE)
+
+    /**
+     * 已安装包 ID 缓存，以 packsDir 的修改时间作为失效依据（目录增删会更新它）
+     */
+    @Volatile
+    private var cachedPackIds: List<String>? = null
+    @Volatile
+    private var cachedPackIdsStamp = 0L
+
+    /**
+     * 预加载的布局（游戏内快速切换用），取出即移除，避免编辑修改污染缓存
+     */
+    private class PreloadedLayout(
+        val layout: ControlLayout,
+        val lastModified: Long,
+        val length: Long
+    )
+
+    private val preloadedLayouts = ConcurrentHashMap<String, PreloadedLayout>()
+
+    /** 状态写入与布局预加载共用的后台线程 */
+    private val ioExecutor = Executors.newSingleThreadScheduledExecutor { runnable ->
+        Thread(runnable, TAG).apply { isDaemon = true }
+    }
+
+    /**
+     * 管理器状态，修改后延迟写回；游戏进程改写文件后会重新加载
+     */
+    private val stateStore = ControlPackStateStore({ managerStateFile }, ioExecutor)
     
     // ========== 状态管理 ==========
     
+    private fun currentState(): ManagerState = stateStore.current()
+
     /**
-     * 加载管理器状态
+     * 修改状态并安排延迟写入
      */
-    private fun loadManagerState(): ManagerState {
-        if (!managerStateFile.exists()) {
-            return ManagerState()
-        }
-        return try {
-            val content = managerStateFile.readText()
-            json.decodeFromString<ManagerState>(content)
-        } catch (e: Exception) {
-            AppLog.e(TAG, "Failed to load manager state", e)
-            ManagerState()
-        }
-    }
-    
+    private fun updateState(transform: (ManagerState) -> ManagerState) = stateStore.update(transform)
+
     /**
-     * 保存管理器状态
+     * 立即写入尚未保存的状态（如退出游戏前、启动器进入后台时）
      */
-    private fun saveManagerState(state: ManagerState) {
-        try {
-            managerStateFile.writeText(json.encodeToString(ManagerState.serializer(), state))
-        } catch (e: Exception) {
-            AppLog.e(TAG, "Failed to save manager state", e)
-        }
-    }
+    fun flushState() = stateStore.flush()
     
     /**
      * 获取当前选中的控件包 ID
      */
     fun getSelectedPackId(): String? {
-        val state = loadManagerState()
-        val packIds = listPackIds()
-        
-        // 如果选中的包不存在，选择第一个
-        if (state.selectedPackId == null || state.selectedPackId !in packIds) {
+        val selectedId = currentState().selectedPackId
+        if (selectedId != null && selectedId in installedPackIds()) {
+            return selectedId
+        }
+
+        // 缓存可能早于新安装的包，重新扫描后再判断；选中的包不存在时选择第一个
+        val packIds = installedPackIds(forceRefresh = true)
+        if (selectedId == null || selectedId !in packIds) {
             val firstId = packIds.firstOrNull()
             setSelectedPackId(firstId)
             return firstId
         }
-        return state.selectedPackId
+        return selectedId
     }
     
     /**
      * 设置当前选中的控件包 ID
      */
     fun setSelectedPackId(packId: String?) {
-        val currentState = loadManagerState()
-        val state = currentState.copy(
-            selectedPackId = packId,
-            lastModified = System.currentTimeMillis()
-        )
-        saveManagerState(state)
+        if (currentState().selectedPackId == packId) return
+        updateState { it.copy(selectedPackId = packId) }
     }
     
     // ========== 快速切换管理 ==========
@@ -175,10 +180,13 @@ class ControlPackManager(private val context: Context) {
      * 获取游戏内快速切换的控件包 ID 列表
      */
     fun getQuickSwitchPackIds(): List<String> {
-        val state = loadManagerState()
-        val installedIds = listPackIds()
+        val quickSwitchIds = currentState().quickSwitchPackIds
+        var installedIds = installedPackIds()
+        if (!installedIds.containsAll(quickSwitchIds)) {
+            installedIds = installedPackIds(forceRefresh = true)
+        }
         // 过滤掉已卸载的包
-        return state.quickSwitchPackIds.filter { it in installedIds }
+        return quickSwitchIds.filter { it in installedIds }
     }
     
     /**
@@ -192,12 +200,7 @@ class ControlPackManager(private val context: Context) {
      * 设置游戏内快速切换的控件包 ID 列表
      */
     fun setQuickSwitchPackIds(ids: List<String>) {
-        val currentState = loadManagerState()
-        val state = currentState.copy(
-            quickSwitchPackIds = ids,
-            lastModified = System.currentTimeMillis()
-        )
-        saveManagerState(state)
+        updateState { it.copy(quickSwitchPackIds = ids.toList()) }
     }
     
     /**
@@ -235,17 +238,82 @@ class ControlPackManager(private val context: Context) {
         setSelectedPackId(packId)
         return getPackLayout(packId)
     }
+
+    /**
+     * 在后台线程预加载快速切换列表中的布局：解析 JSON 并解码按钮纹理
+     * 游戏启动时调用，之后 [switchActivePack] 直接使用内存中的布局
+     */
+    fun preloadQuickSwitchLayouts() {
+        ioExecutor.execute {
+            val packIds = getQuickSwitchPackIds()
+            packIds.forEach { preloadLayout(it) }
+            AppLog.i(TAG, "Preloaded ${packIds.size} quick switch layouts")
+        }
+    }
+
+    private fun preloadLayout(packId: String) {
+        val layoutFile = File(File(packsDir, packId), ControlPackInfo.LAYOUT_FILE_NAME)
+        val lastModified = layoutFile.lastModified()
+        val length = layoutFile.length()
+        preloadedLayouts[packId]?.let {
+            if (it.lastModified == lastModified && it.length == length) return
+        }
+        val layout = try {
+            ControlLayout.loadFrom(layoutFile)?.also { it.id = packId }
+        } catch (e: Exception) {
+            AppLog.w(TAG, "Failed to preload layout: $packId", e)
+            null
+        } ?: return
+        preloadedLayouts[packId] = PreloadedLayout(layout, lastModified, length)
+        warmTextures(packId, layout)
+    }
+
+    /**
+     * 按控件的显示尺寸解码按钮纹理，使纹理缓存键与绘制时一致
+     */
+    private fun warmTextures(packId: String, layout: ControlLayout) {
+        val assetsDir = getPackAssetsDir(packId) ?: return
+        val loader = TextureLoader.getInstance(context)
+        val heightPixels = context.resources.displayMetrics.heightPixels
+        layout.controls.filterIsInstance<ControlData.Button>().forEach { button ->
+            val texture = button.texture
+            if (!texture.hasAnyTexture) return@forEach
+            val width = (button.width * heightPixels).toInt()
+            val height = (button.height * heightPixels).toInt()
+            listOf(texture.normal, texture.pressed, texture.toggled, texture.disabled)
+                .filter { it.enabled && it.path.isNotEmpty() }
+                .forEach { loader.loadPackTexture(assetsDir, it.path, width, height) }
+        }
+    }
     
     // ========== 包管理 ==========
     
     /**
      * 获取所有已安装的控件包 ID 列表
      */
-    fun listPackIds(): List<String> {
-        val dirs = packsDir.listFiles { file -> 
+    fun listPackIds(): List<String> = installedPackIds(forceRefresh = true)
+
+    /**
+     * 已安装包 ID（缓存），packsDir 修改时间变化或 [forceRefresh] 时重新扫描
+     */
+    private fun installedPackIds(forceRefresh: Boolean = false): List<String> {
+        val dir = packsDir
+        val stamp = dir.lastModified()
+        cachedPackIds?.let { ids ->
+            if (!forceRefresh && stamp == cachedPackIdsStamp) return ids
+        }
+        val dirs = dir.listFiles { file ->
             file.isDirectory && File(file, ControlPackInfo.MANIFEST_FILE_NAME).exists()
         }
-        return dirs?.map { it.name } ?: emptyList()
+        val ids = dirs?.map { it.name } ?: emptyList()
+        cachedPackIds = ids
+        cachedPackIdsStamp = stamp
+        return ids
+    }
+
+    private fun invalidatePack(packId: String) {
+        cachedPackIds = null
+        preloadedLayouts.remove(packId)
     }
     
     /**
@@ -299,6 +367,7 @@ class ControlPackManager(private val context: Context) {
      * 检查控件包是否已安装
      */
     fun isPackInstalled(packId: String): Boolean {
+        if (packId in installedPackIds()) return true
         val packDir = File(packsDir, packId)
         val manifestFile = File(packDir, ControlPackInfo.MANIFEST_FILE_NAME)
         return manifestFile.exists()
@@ -326,6 +395,16 @@ class ControlPackManager(private val context: Context) {
         val layoutFile = File(packDir, ControlPackInfo.LAYOUT_FILE_NAME)
         
         if (!layoutFile.exists()) return null
+
+        // 预加载的布局只使用一次；快速切换的包在后台重新预加载
+        preloadedLayouts.remove(packId)?.let { preloaded ->
+            if (preloaded.lastModified == layoutFile.lastModified() && preloaded.length == layoutFile.length()) {
+                if (packId in currentState().quickSwitchPackIds) {
+                    ioExecutor.execute { preloadLayout(packId) }
+                }
+                return preloaded.layout
+            }
+        }
         
         return try {
             ControlLayout.loadFrom(layoutFile)?.also { it.id = packId }
@@ -352,6 +431,7 @@ class ControlPackManager(private val context: Context) {
         
         val layoutFile = File(packDir, ControlPackInfo.LAYOUT_FILE_NAME)
         layout.saveTo(layoutFile)
+        invalidatePack(packId)
         
         // 更新 manifest
         val manifestFile = File(packDir, ControlPackInfo.MANIFEST_FILE_NAME)
@@ -397,6 +477,7 @@ class ControlPackManager(private val context: Context) {
         val layout = ControlLayout(name = name)
         layout.id = packId
         layout.saveTo(File(packDir, ControlPackInfo.LAYOUT_FILE_NAME))
+        invalidatePack(packId)
         
         AppLog.i(TAG, "Created new pack: $packId ($name)")
         return info
@@ -411,9 +492,10 @@ class ControlPackManager(private val context: Context) {
         
         return try {
             FileUtils.deleteDirectoryRecursivelyWithinRoot(packDir, packsDir)
+            invalidatePack(packId)
             
             // 如果删除的是当前选中的包，选择其他包
-            if (getSelectedPackId() == packId) {
+            if (currentState().selectedPackId == packId) {
                 setSelectedPackId(listPackIds().firstOrNull())
             }
             
@@ -558,76 +640,22 @@ class ControlPackManager(private val context: Context) {
      * 支持两种包结构:
      * 1. manifest.json 在根目录
      * 2. manifest.json 在子目录中 (如 pack_id/manifest.json)
+     *
+     * 并行解压到暂存目录并校验后整体替换，失败不会留下安装了一半的包
      */
     fun installFromFile(packFile: File): Result<ControlPackInfo> {
         return try {
-            ZipFile(packFile).use { zip ->
-                // 查找 manifest.json（支持子目录）
-                var manifestEntry = zip.getEntry(ControlPackInfo.MANIFEST_FILE_NAME)
-                var prefixToRemove = ""
-                
-                // 如果根目录没有 manifest.json，在子目录中查找
-                if (manifestEntry == null) {
-                    manifestEntry = zip.entries().asSequence().find { entry ->
-                        entry.name.endsWith("/${ControlPackInfo.MANIFEST_FILE_NAME}") ||
-                        entry.name.endsWith("\\${ControlPackInfo.MANIFEST_FILE_NAME}")
-                    }
-                    
-                    if (manifestEntry != null) {
-                        // 提取前缀目录 (如 "pack_123/")
-                        prefixToRemove = manifestEntry.name.substringBeforeLast(ControlPackInfo.MANIFEST_FILE_NAME)
-                        AppLog.i(TAG, "Found manifest in subdirectory: $prefixToRemove")
-                    }
-                }
-                
-                if (manifestEntry == null) {
-                    return Result.failure(Exception("Invalid pack: missing manifest.json"))
-                }
-                
-                val manifestContent = zip.getInputStream(manifestEntry).bufferedReader().readText()
-                val info = ControlPackInfo.fromJson(manifestContent)
-                    ?: return Result.failure(Exception("Invalid manifest.json"))
-                
-                // 创建目标目录
-                val packDir = File(packsDir, info.id)
-                if (packDir.exists()) {
-                    FileUtils.deleteDirectoryRecursivelyWithinRoot(packDir, packsDir)
-                }
-                packDir.mkdirs()
-                
-                // 解压所有文件（去掉前缀目录）
-                zip.entries().asSequence().forEach { entry ->
-                    var entryName = entry.name
-                    
-                    // 去掉前缀目录
-                    if (prefixToRemove.isNotEmpty() && entryName.startsWith(prefixToRemove)) {
-                        entryName = entryName.removePrefix(prefixToRemove)
-                    }
-                    
-                    // 跳过空名称（即前缀目录本身）
-                    if (entryName.isEmpty()) return@forEach
-                    
-                    val targetFile = File(packDir, entryName)
-                    if (entry.isDirectory) {
-                        targetFile.mkdirs()
-                    } else {
-                        targetFile.parentFile?.mkdirs()
-                        zip.getInputStream(entry).use { input ->
-                            FileOutputStream(targetFile).use { output ->
-                                input.copyTo(output)
-                            }
-                        }
-                    }
-                }
-                
-                AppLog.i(TAG, "Installed pack from file: ${info.name} (${info.id})")
-                Result.success(info)
-            }
+            val info = packArchive().install(packFile)
+            invalidatePack(info.id)
+            AppLog.i(TAG, "Installed pack from file: ${info.name} (${info.id})")
+            Result.success(info)
         } catch (e: Exception) {
             AppLog.e(TAG, "Failed to install pack from file", e)
             Result.failure(e)
         }
     }
+
+    private fun packArchive() = ControlPackArchive(packsDir, packsRootDir)
     
     /**
      * 从 JSON 文件导入布局（兼容旧格式）
@@ -677,6 +705,7 @@ class ControlPackManager(private val context: Context) {
     
     /**
      * 导出控件包为 .zip 文件
+     * 已压缩的媒体文件直接存储，其余条目并行压缩
      */
     fun exportToFile(packId: String, outputFile: File): Result<File> {
         return try {
@@ -685,16 +714,7 @@ class ControlPackManager(private val context: Context) {
                 return Result.failure(Exception("Pack not found: $packId"))
             }
             
-            ZipOutputStream(FileOutputStream(outputFile)).use { zip ->
-                packDir.walkTopDown().forEach { file ->
-                    if (file.isFile) {
-                        val entryName = file.relativeTo(packDir).path.replace('\\', '/')
-                        zip.putNextEntry(ZipEntry(entryName))
-                        FileInputStream(file).use { it.copyTo(zip) }
-                        zip.closeEntry()
-                    }
-                }
-            }
+            packArchive().export(packDir, outputFile)
             
             AppLog.i(TAG, "Exported pack to file: $packId -> ${outputFile.path}")
             Result.success(outputFile)
@@ -96,7 +96,8 @@ class ControlPackRepositoryService(private val context: Context) {
             urlString = "$repoUrl/$REPO_INDEX_FILE",
             json = json,
             connectTimeoutMs = CONNECT_TIMEOUT,
-            readTimeoutMs = READ_TIMEOUT
+            readTimeoutMs = READ_TIMEOUT,
+            forceRefresh = forceRefresh
         )
 
         result.getOrNull()?.let { repository ->
@@ -0,0 +1,138 @@
+package com.app.ralaunch.feature.controls.packs
+
+import com.app.ralaunch.core.logging.AppLog
+import com.app.ralaunch.feature.controls.packs.ControlPackManager.ManagerState
+import kotlinx.serialization.json.Json
+import java.io.File
+import java.io.IOException
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.ScheduledFuture
+import java.util.concurrent.TimeUnit
+
+/**
+ * 控件包管理器状态（pack_manager.json）的读写
+ *
+ * 启动器与游戏（`:game` 进程）各自持有一份内存状态，共用同一个文件：
+ * - 记录加载/保存时文件的修改时间与长度，文件被另一进程改写后下次读取会重新加载
+ * - 修改前先按同样规则刷新，避免用旧状态覆盖另一进程刚写入的内容
+ * - 修改后延迟 [saveDelayMs] 写回，短时间内的多次修改只写一次文件；尚未写回时以内存状态为准
+ *
+ * @param file 状态文件（每次访问时求值，目录可能被重新创建）
+ * @param executor 执行延迟写入的后台线程
+ */
+class ControlPackStateStore(
+    private val file: () -> File,
+    private val executor: ScheduledExecutorService,
+    private val saveDelayMs: Long = DEFAULT_SAVE_DELAY_MS
+) {
+
+    companion object {
+        private const val TAG = "ControlPackStateStore"
+
+        /** 状态写入的合并延迟 */
+        const val DEFAULT_SAVE_DELAY_MS = 500L
+
+        private val json = Json {
+            prettyPrint = true
+            ignoreUnknownKeys = true
+            encodeDefaults = true
+        }
+    }
+
+    /** 文件的修改时间与长度，用于判断是否被其他进程改写 */
+    private data class Stamp(val lastModified: Long, val length: Long)
+
+    /**
+     * 内存中的状态，视为不可变对象，修改时整体替换为 copy
+     */
+    private val stateLock = Any()
+    private var cachedState: ManagerState? = null
+    private var cachedStamp: Stamp? = null
+    private var pendingSave: ScheduledFuture<*>? = null
+    private val writeLock = Any()
+
+    /**
+     * 当前状态；文件自上次加载后被改写且本地没有未写回的修改时重新加载
+     */
+    fun current(): ManagerState = synchronized(stateLock) { refreshLocked() }
+
+    /**
+     * 基于最新状态修改并安排延迟写入
+     */
+    fun update(transform: (ManagerState) -> ManagerState) {
+        synchronized(stateLock) {
+            cachedState = transform(refreshLocked()).copy(lastModified = System.currentTimeMillis())
+            pendingSave?.cancel(false)
+            pendingSave = executor.schedule(Runnable { flush() }, saveDelayMs, TimeUnit.MILLISECONDS)
+        }
+    }
+
+    /**
+     * 立即写入尚未保存的状态
+     * 取快照与写文件在同一把锁内完成，延迟任务与手动调用并发时不会用旧快照覆盖新状态
+     */
+    fun flush() {
+        synchronized(writeLock) {
+            val state = synchronized(stateLock) {
+                val future = pendingSave ?: return
+                future.cancel(false)
+                pendingSave = null
+                cachedState
+            } ?: return
+            val stamp = save(state) ?: return
+            synchronized(stateLock) {
+                // 写入期间又有新修改时保持旧标记，下次刷新仍以内存状态为准
+                if (cachedState === state) cachedStamp = stamp
+            }
+        }
+    }
+
+    private fun refreshLocked(): ManagerState {
+        val target = file()
+        val stamp = stampOf(target)
+        val cached = cachedState
+        if (cached != null && (pendingSave != null || stamp == cachedStamp)) {
+            return cached
+        }
+        return load(target).also {
+            cachedState = it
+            cachedStamp = stamp
+        }
+    }
+
+    private fun load(target: File): ManagerState {
+        if (!target.exists()) {
+            return ManagerState()
+        }
+        return try {
+            json.decodeFromString<ManagerState>(target.readText())
+        } catch (e: Exception) {
+            AppLog.e(TAG, "Failed to load manager state", e)
+            ManagerState()
+        }
+    }
+
+    /**
+     * 临时文件 + 重命名，写入中断不会损坏原文件
+     *
+     * @return 写入后文件的标记，失败时为 null
+     */
+    private fun save(state: ManagerState): Stamp? {
+        val target = file()
+        val tmp = File(target.parentFile, "${target.name}.tmp")
+        return try {
+            tmp.writeText(json.encodeToString(ManagerState.serializer(), state))
+            if (!tmp.renameTo(target)) {
+                tmp.delete()
+                throw IOException("Cannot rename ${tmp.name}")
+            }
+            stampOf(target)
+        } catch (e: Exception) {
+            AppLog.e(TAG, "Failed to save manager state", e)
+            null
+        }
+    }
+
+    private fun stampOf(target: File): Stamp? =
+        if (target.exists()) Stamp(target.lastModified(), target.length()) else null
+}
@@ -0,0 +1,67 @@
+package com.app.ralaunch.feature.controls.ui
+
+import android.graphics.Canvas
+import android.graphics.Picture
+import android.util.SparseArray
+
+/**
+ * 虚拟控件静态外观的录制缓存
+ *
+ * 每个视觉状态（由控件自行编码为 Int，如 空闲/按下/切换、方向位掩码）只录制一次 [Picture]，
+ * 之后每帧只需回放；控件数据或尺寸变化时调用 [invalidate] / [setSize] 整体失效。
+ * 录制画布与 View 同尺寸（可四周外扩 overdraw 像素，用于超出 View 边界绘制的控件），
+ * 旋转等变换在回放时施加到目标画布上。
+ */
+class ControlDisplayListCache(
+    private val recorder: Recorder
+) {
+
+    fun interface Recorder {
+        fun record(canvas: Canvas, state: Int)
+    }
+
+    private val pictures = SparseArray<Picture>()
+    private var width = 0
+    private var height = 0
+    private var overdraw = 0
+
+    fun setSize(width: Int, height: Int, overdraw: Int = 0) {
+        if (this.width != width || this.height != height || this.overdraw != overdraw) {
+            this.width = width
+            this.height = height
+            this.overdraw = overdraw
+            invalidate()
+        }
+    }
+
+    fun invalidate() {
+        pictures.clear()
+    }
+
+    /**
+     * 回放 [state] 对应的录制内容，首次使用时录制
+     *
+     * @return 尺寸无效（尚未布局）时返回 false，调用方无需绘制
+     */
+    fun draw(canvas: Canvas, state: Int): Boolean {
+        if (width <= 0 || height <= 0) return false
+        var picture = pictures.get(state)
+        if (picture == null) {
+            picture = Picture()
+            val recording = picture.beginRecording(width + overdraw * 2, height + overdraw * 2)
+            recording.translate(overdraw.toFloat(), overdraw.toFloat())
+            recorder.record(recording, state)
+            picture.endRecording()
+            pictures.put(state, picture)
+        }
+        if (overdraw == 0) {
+            canvas.drawPicture(picture)
+        } else {
+            val saveCount = canvas.save()
+            canvas.translate(-overdraw.toFloat(), -overdraw.toFloat())
+            canvas.drawPicture(picture)
+            canvas.restoreToCount(saveCount)
+        }
+        return true
+    }
+}
@@ -0,0 +1,115 @@
+package com.app.ralaunch.feature.controls.ui
+
+/**
+ * 控件几何表
+ *
+ * 以扁平数组保存布局中每个控件的边界（父布局像素坐标）、可见性与脏标记，
+ * 命中测试与批量绘制共用同一份数据。下标与控件添加顺序一致，越靠后越在上层。
+ */
+class ControlGeometryTable {
+
+    var size = 0
+        private set
+
+    private var left = FloatArray(INITIAL_CAPACITY)
+    private var top = FloatArray(INITIAL_CAPACITY)
+    private var right = FloatArray(INITIAL_CAPACITY)
+    private var bottom = FloatArray(INITIAL_CAPACITY)
+    private var visible = BooleanArray(INITIAL_CAPACITY)
+    private var dirty = BooleanArray(INITIAL_CAPACITY)
+
+    private var dirtyCount = 0
+
+    val hasDirty: Boolean get() = dirtyCount > 0
+
+    /**
+     * 重置为 [count] 个控件，全部标记为脏
+     */
+    fun reset(count: Int) {
+        ensureCapacity(count)
+        for (i in 0 until count) {
+            left[i] = 0f
+            top[i] = 0f
+            right[i] = 0f
+            bottom[i] = 0f
+            visible[i] = false
+            dirty[i] = false
+        }
+        size = count
+        dirtyCount = 0
+        for (i in 0 until count) markDirty(i)
+    }
+
+    /**
+     * 更新控件边界；位置或可见性变化时标记为脏
+     */
+    fun set(index: Int, l: Float, t: Float, r: Float, b: Float, isVisible: Boolean) {
+        checkIndex(index)
+        if (left[index] == l && top[index] == t && right[index] == r && bottom[index] == b &&
+            visible[index] == isVisible
+        ) {
+            return
+        }
+        left[index] = l
+        top[index] = t
+        right[index] = r
+        bottom[index] = b
+        visible[index] = isVisible
+        markDirty(index)
+    }
+
+    fun isVisible(index: Int): Boolean = visible[index]
+    fun left(index: Int): Float = left[index]
+    fun top(index: Int): Float = top[index]
+
+    /**
+     * 查找包含该点的最上层可见控件
+     *
+     * 控件拒绝触摸时（如点在圆形按钮的角上），以其下标作为 [below] 再次调用即可继续向下查找。
+     *
+     * @param below 只查找下标小于该值的控件
+     * @return 控件下标，未命中时返回 -1
+     */
+    fun hitTest(x: Float, y: Float, below: Int = size): Int {
+        for (i in minOf(below, size) - 1 downTo 0) {
+            if (visible[i] && x >= left[i] && x < right[i] && y >= top[i] && y < bottom[i]) {
+                return i
+            }
+        }
+        return -1
+    }
+
+    fun markDirty(index: Int) {
+        checkIndex(index)
+        if (!dirty[index]) {
+            dirty[index] = true
+            dirtyCount++
+        }
+    }
+
+    fun isDirty(index: Int): Boolean = dirty[index]
+
+    fun clearAllDirty() {
+        for (i in 0 until size) dirty[i] = false
+        dirtyCount = 0
+    }
+
+    private fun checkIndex(index: Int) {
+        if (index < 0 || index >= size) throw IndexOutOfBoundsException("index=$index, size=$size")
+    }
+
+    private fun ensureCapacity(capacity: Int) {
+        if (capacity <= left.size) return
+        val newCapacity = maxOf(capacity, left.size * 2)
+        left = left.copyOf(newCapacity)
+        top = top.copyOf(newCapacity)
+        right = right.copyOf(newCapacity)
+        bottom = bottom.copyOf(newCapacity)
+        visible = visible.copyOf(newCapacity)
+        dirty = dirty.copyOf(newCapacity)
+    }
+
+    companion object {
+        private const val INITIAL_CAPACITY = 32
+    }
+}
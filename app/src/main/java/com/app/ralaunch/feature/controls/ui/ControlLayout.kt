@@ -5,6 +5,7 @@ import android.content.Context
 import android.graphics.Canvas
 import android.graphics.DashPathEffect
 import android.graphics.Paint
+import android.graphics.Picture
 import android.util.AttributeSet
 import android.view.MotionEvent
 import android.view.View
@@ -30,6 +31,12 @@ import kotlin.math.sqrt
  * - 每个触摸点 ID 只会分配给一个控件
  * - 未被任何控件接受的触摸点会转发给 SDLSurface
  *
+ * 渲染模式：
+ * - [RenderMode.VIEWS]：每个控件作为独立子 View 绘制（编辑器使用）
+ * - [RenderMode.BATCHED]：控件仍是子 View（负责状态、动画与 invalidate），
+ *   但由布局在同一个显示列表中统一绘制；每个控件的绘制结果录制为 [Picture]，
+ *   只有收到 invalidate 或位置变化的控件才重新录制
+ *
  * - 设计图基准：2560x1080px
  * - density 会在 Activity.onCreate() 中动态调整
  * - JSON 中的 px 值会自动通过 density 适配到不同屏幕
@@ -43,10 +50,50 @@ class ControlLayout : FrameLayout {
     var inputBridge: ControlInputBridge? = null
 
     /**
-     * 触摸点 ID 到控件的映射
-     * 用于集中管理哪些触摸点被哪些控件占用
+     * 控件边界表，命中测试与批量绘制共用，下标与 [mControls] 一致
      */
-    private val mPointerToControl: MutableMap<Int, ControlView> = HashMap()
+    private val mGeometry = ControlGeometryTable()
+
+    /**
+     * 触摸点分派，集中管理哪些触摸点被哪些控件占用
+     */
+    private val mTouchRouter = ControlTouchRouter(mGeometry, object : ControlTouchRouter.Listener {
+        override fun onPointerAcquired(pointerId: Int, control: ControlView) {
+            if (!control.controlData.isPassThrough) {
+                TouchPointerTracker.consumePointer(pointerId)
+            }
+        }
+
+        override fun onPointerReleased(pointerId: Int, control: ControlView) {
+            if (!control.controlData.isPassThrough) {
+                TouchPointerTracker.releasePointer(pointerId)
+            }
+        }
+
+        override fun onControlsInUseChanged(inUse: Boolean) {
+            mOnControlChangedListener?.onControlInUse(inUse)
+        }
+    })
+
+    enum class RenderMode { VIEWS, BATCHED }
+
+    /**
+     * 渲染模式，游戏内使用 [RenderMode.BATCHED]
+     */
+    var renderMode = RenderMode.VIEWS
+        set(value) {
+            if (field != value) {
+                field = value
+                invalidateBatch()
+                invalidate()
+            }
+        }
+
+    /** 批量渲染时每个控件的录制结果（父布局坐标），下标与 [mControls] 一致 */
+    private var mControlPictures = arrayOfNulls<Picture>(0)
+
+    /** 子 View 到 [mControls] 下标的映射，子控件 invalidate 时免去线性查找 */
+    private val mControlIndex = HashMap<View, Int>()
 
     /**
      * 获取当前布局
@@ -103,17 +150,103 @@ class ControlLayout : FrameLayout {
     }
 
     override fun dispatchDraw(canvas: Canvas) {
+        syncGeometry()
         // 拖拽时绘制网格和辅助线（在子 View 下方）
         if (mIsDraggingAny && mModifiable) {
             drawGrid(canvas)
         }
-        super.dispatchDraw(canvas)
+        if (isBatching() && canvas.isHardwareAccelerated) {
+            drawBatched(canvas)
+        } else {
+            super.dispatchDraw(canvas)
+        }
         // 拖拽时绘制吸附参考线（在子 View 上方）
         if (mIsDraggingAny && mModifiable) {
             drawSnapGuides(canvas)
         }
     }
 
+    private fun isBatching() = renderMode == RenderMode.BATCHED && !mModifiable
+
+    /**
+     * 在同一个画布上依次回放各控件的录制结果，只重新录制脏控件
+     *
+     * 录制使用整个布局大小的画布，控件超出自身边界的绘制（如轮盘展开）不会被裁剪。
+     */
+    private fun drawBatched(canvas: Canvas) {
+        val w = width
+        val h = height
+        if (w <= 0 || h <= 0) return
+        for (i in 0 until mGeometry.size) {
+            if (!mGeometry.isVisible(i)) continue
+            val child = mControls[i] as View
+            var picture = mControlPictures[i]
+            if (picture == null || mGeometry.isDirty(i)) {
+                picture = picture ?: Picture()
+                val recording = picture.beginRecording(w, h)
+                recording.translate(child.left.toFloat(), child.top.toFloat())
+                child.draw(recording)
+                picture.endRecording()
+                mControlPictures[i] = picture
+            }
+            canvas.drawPicture(picture)
+        }
+        mGeometry.clearAllDirty()
+    }
+
+    /**
+     * 子控件 invalidate 时只标记该控件，下一帧重新录制它
+     */
+    override fun onDescendantInvalidated(child: View, target: View) {
+        if (isBatching()) {
+            val index = mControlIndex[child] ?: -1
+            if (index in 0 until mGeometry.size) {
+                mGeometry.markDirty(index)
+            }
+            // 子 View 不再单独绘制，需重新生成本布局的显示列表
+            invalidate()
+        }
+        super.onDescendantInvalidated(child, target)
+    }
+
+    override fun onLayout(changed: Boolean, left: Int, top: Int, right: Int, bottom: Int) {
+        super.onLayout(changed, left, top, right, bottom)
+        syncGeometry()
+    }
+
+    /**
+     * 控件列表变化后重建边界表
+     */
+    private fun rebuildGeometry() {
+        mGeometry.reset(mControls.size)
+        mTouchRouter.setControls(mControls.toList())
+        mControlIndex.clear()
+        mControls.forEachIndexed { index, control -> mControlIndex[control as View] = index }
+        mControlPictures = arrayOfNulls(mControls.size)
+        syncGeometry()
+    }
+
+    /**
+     * 从子 View 同步边界与可见性（未变化的控件不会被标记为脏）
+     */
+    private fun syncGeometry() {
+        for (i in 0 until mGeometry.size) {
+            val child = mControls[i] as View
+            mGeometry.set(
+                i,
+                child.left.toFloat(),
+                child.top.toFloat(),
+                child.right.toFloat(),
+                child.bottom.toFloat(),
+                child.visibility == VISIBLE
+            )
+        }
+    }
+
+    private fun invalidateBatch() {
+        mControlPictures.fill(null)
+    }
+
     private fun drawGrid(canvas: Canvas) {
         val w = width.toFloat()
         val h = height.toFloat()
@@ -364,42 +497,18 @@ class ControlLayout : FrameLayout {
         val x = event.getX(actionIndex)
         val y = event.getY(actionIndex)
 
-        AppLog.d(TAG, "handlePointerDown: pointerId=$pointerId x=$x y=$y")
+        AppLog.d(TAG) { "handlePointerDown: pointerId=$pointerId x=$x y=$y" }
 
-        // 从后往前遍历控件（后添加的在上层），找到第一个接受触摸的控件
-        for (i in childCount - 1 downTo 0) {
-            val child = getChildAt(i)
-            val controlView = child as? ControlView ?: continue
-            if (child.visibility != VISIBLE) continue
-
-            // 获取控件边界并检查触摸点是否在内
-            val childRect = android.graphics.Rect()
-            child.getHitRect(childRect)
-            if (!childRect.contains(x.toInt(), y.toInt())) continue
-
-            // 转换为本地坐标并尝试让控件接受触摸
-            val localX = x - childRect.left
-            val localY = y - childRect.top
-
-            if (controlView.tryAcquireTouch(pointerId, localX, localY)) {
-                AppLog.d(TAG, "  Control ${controlView.javaClass.simpleName} accepted pointer $pointerId")
-                val wasEmpty = mPointerToControl.isEmpty()
-                mPointerToControl[pointerId] = controlView
-
-                // 通知控件正在被使用
-                if (wasEmpty) {
-                    mOnControlChangedListener?.onControlInUse(true)
-                }
-
-                if (!controlView.controlData.isPassThrough) {
-                    TouchPointerTracker.consumePointer(pointerId)
-                }
-                return true
-            }
+        // 从上层往下层查找第一个接受触摸的控件
+        val controlView = mTouchRouter.pointerDown(pointerId, x, y)
+        if (controlView != null) {
+            AppLog.d(TAG) { "  Control ${controlView.javaClass.simpleName} accepted pointer $pointerId" }
+            invalidateIfBatching()
+            return true
         }
 
         // 没有控件接受，转发给 SDLSurface
-        AppLog.d(TAG, "  No control accepted pointer $pointerId, forwarding to SDL")
+        AppLog.d(TAG) { "  No control accepted pointer $pointerId, forwarding to SDL" }
         mSDLSurface?.dispatchTouchEvent(event)
         return true
     }
@@ -409,19 +518,9 @@ class ControlLayout : FrameLayout {
      * 将移动事件分发给拥有对应触摸点的控件
      */
     private fun handlePointerMove(event: MotionEvent): Boolean {
-        // 遍历所有指针，分发给对应的控件
+        // 遍历所有指针，分发给对应的控件（外观变化由控件自行 invalidate）
         for (i in 0 until event.pointerCount) {
-            val pointerId = event.getPointerId(i)
-            mPointerToControl[pointerId]?.let { controlView ->
-                val view = controlView as View
-                val childRect = android.graphics.Rect()
-                view.getHitRect(childRect)
-                controlView.handleTouchMove(
-                    pointerId,
-                    event.getX(i) - childRect.left,
-                    event.getY(i) - childRect.top
-                )
-            }
+            mTouchRouter.pointerMove(event.getPointerId(i), event.getX(i), event.getY(i))
         }
 
         // 转发给 SDL（SDL 会过滤已消费的指针）
@@ -434,19 +533,11 @@ class ControlLayout : FrameLayout {
      * 释放控件的触摸点并清除映射
      */
     private fun handlePointerUp(event: MotionEvent, pointerId: Int): Boolean {
-        AppLog.d(TAG, "handlePointerUp: pointerId=$pointerId")
+        AppLog.d(TAG) { "handlePointerUp: pointerId=$pointerId" }
 
-        mPointerToControl.remove(pointerId)?.let { controlView ->
-            AppLog.d(TAG, "  Releasing pointer $pointerId from ${controlView.javaClass.simpleName}")
-            if (!controlView.controlData.isPassThrough) {
-                TouchPointerTracker.releasePointer(pointerId)
-            }
-            controlView.releaseTouch(pointerId)
-            
-            // 通知控件不再被使用
-            if (mPointerToControl.isEmpty()) {
-                mOnControlChangedListener?.onControlInUse(false)
-            }
+        mTouchRouter.pointerUp(pointerId)?.let { controlView ->
+            AppLog.d(TAG) { "  Released pointer $pointerId from ${controlView.javaClass.simpleName}" }
+            invalidateIfBatching()
         }
 
         mSDLSurface?.dispatchTouchEvent(event)
@@ -458,27 +549,23 @@ class ControlLayout : FrameLayout {
      * 通知所有控件取消并清除所有映射
      */
     private fun handleCancel(event: MotionEvent): Boolean {
-        AppLog.d(TAG, "handleCancel: clearing ${mPointerToControl.size} pointers")
+        AppLog.d(TAG) { "handleCancel: clearing ${mTouchRouter.activePointerCount} pointers" }
 
-        val hadPointers = mPointerToControl.isNotEmpty()
-        mPointerToControl.forEach { (pointerId, controlView) ->
-            if (!controlView.controlData.isPassThrough) {
-                TouchPointerTracker.releasePointer(pointerId)
-            }
-            controlView.cancelAllTouches()
-        }
-        mPointerToControl.clear()
-        
-        // 通知控件不再被使用
-        if (hadPointers) {
-            mOnControlChangedListener?.onControlInUse(false)
-        }
+        mTouchRouter.cancel()
+        invalidateIfBatching()
 
         mSDLSurface?.dispatchTouchEvent(event)
         return true
     }
 
 
+    /**
+     * 控件状态可能变化但未调用 invalidate 时，确保批量渲染刷新
+     */
+    private fun invalidateIfBatching() {
+        if (isBatching() && mGeometry.hasDirty) invalidate()
+    }
+
     /**
      * 加载控制布局配置
      * @return 是否成功加载布局
@@ -507,6 +594,7 @@ class ControlLayout : FrameLayout {
         val addedCount = visibleControls.mapNotNull { data ->
             createControlView(data)?.also { addControlView(it, data) }
         }.size
+        rebuildGeometry()
 
         if (addedCount == 0) {
             AppLog.w(TAG, "No visible controls were added, layout may appear empty")
@@ -766,16 +854,11 @@ class ControlLayout : FrameLayout {
      */
     fun clearControls() {
         // 清除所有触摸点映射并通知 SDL
-        mPointerToControl.forEach { (pointerId, controlView) ->
-            if (!controlView.controlData.isPassThrough) {
-                TouchPointerTracker.releasePointer(pointerId)
-            }
-            controlView.cancelAllTouches()
-        }
-        mPointerToControl.clear()
+        mTouchRouter.cancel()
 
         removeAllViews()
         mControls.clear()
+        rebuildGeometry()
     }
 
     var isControlsVisible: Boolean
@@ -803,6 +886,8 @@ class ControlLayout : FrameLayout {
         get() = mModifiable
         set(modifiable) {
             mModifiable = modifiable
+            // 编辑期间按独立 View 绘制，退出后重新录制
+            invalidateBatch()
             currentLayout?.let { layout ->
                 mControls.forEachIndexed { i, controlView ->
                     setupEditModeListeners(controlView as View, controlView, layout.controls[i])
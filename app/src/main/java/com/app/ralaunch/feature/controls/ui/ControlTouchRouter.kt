@@ -0,0 +1,130 @@
+package com.app.ralaunch.feature.controls.ui
+
+/**
+ * 触摸点到控件的分派逻辑（不依赖 Android View）
+ *
+ * 命中测试使用 [ControlGeometryTable]，控件通过 [ControlView] 接口接收本地坐标；
+ * 每个触摸点只归属一个控件；按下、抬起与取消会把相应控件标记为脏，供批量渲染只重绘这些控件
+ * （移动引起的外观变化由控件自行 invalidate）。
+ */
+class ControlTouchRouter(
+    private val geometry: ControlGeometryTable,
+    private val listener: Listener? = null
+) {
+
+    interface Listener {
+        /** 控件接受了触摸点 */
+        fun onPointerAcquired(pointerId: Int, control: ControlView)
+
+        /** 触摸点从控件释放（抬起或取消） */
+        fun onPointerReleased(pointerId: Int, control: ControlView)
+
+        /** 是否有控件正在被触摸的状态发生变化 */
+        fun onControlsInUseChanged(inUse: Boolean)
+    }
+
+    /** 与 [geometry] 下标一一对应 */
+    var controls: List<ControlView> = emptyList()
+        private set
+
+    /**
+     * 触摸点 ID 到控件下标的映射，以触摸点 ID 为下标，[NO_CONTROL] 表示未分配
+     * Android 的触摸点 ID 是从 0 开始的小整数，移动时只需一次数组访问
+     */
+    private var pointerSlots = IntArray(INITIAL_POINTER_SLOTS) { NO_CONTROL }
+
+    var activePointerCount = 0
+        private set
+
+    fun setControls(controls: List<ControlView>) {
+        require(controls.size == geometry.size) { "controls=${controls.size}, geometry=${geometry.size}" }
+        this.controls = controls
+        pointerSlots.fill(NO_CONTROL)
+        activePointerCount = 0
+    }
+
+    private fun slotOf(pointerId: Int): Int =
+        if (pointerId >= 0 && pointerId < pointerSlots.size) pointerSlots[pointerId] else NO_CONTROL
+
+    /**
+     * 按层级从上到下寻找接受该触摸点的控件
+     *
+     * @return 接受触摸的控件；没有控件接受时返回 null（调用方应转发给游戏）
+     */
+    fun pointerDown(pointerId: Int, x: Float, y: Float): ControlView? {
+        if (pointerId < 0) return null
+        var index = geometry.hitTest(x, y)
+        while (index >= 0) {
+            val control = controls[index]
+            if (control.tryAcquireTouch(pointerId, x - geometry.left(index), y - geometry.top(index))) {
+                if (pointerId >= pointerSlots.size) {
+                    val grown = IntArray(maxOf(pointerId + 1, pointerSlots.size * 2)) { NO_CONTROL }
+                    pointerSlots.copyInto(grown)
+                    pointerSlots = grown
+                }
+                val wasEmpty = activePointerCount == 0
+                if (pointerSlots[pointerId] == NO_CONTROL) activePointerCount++
+                pointerSlots[pointerId] = index
+                geometry.markDirty(index)
+                listener?.onPointerAcquired(pointerId, control)
+                if (wasEmpty) listener?.onControlsInUseChanged(true)
+                return control
+            }
+            index = geometry.hitTest(x, y, below = index)
+        }
+        return null
+    }
+
+    /**
+     * 将移动分发给拥有该触摸点的控件
+     *
+     * @return 触摸点是否归属某个控件
+     */
+    fun pointerMove(pointerId: Int, x: Float, y: Float): Boolean {
+        val index = slotOf(pointerId)
+        if (index == NO_CONTROL) return false
+        controls[index].handleTouchMove(pointerId, x - geometry.left(index), y - geometry.top(index))
+        return true
+    }
+
+    /**
+     * @return 释放的控件；触摸点不属于任何控件时返回 null
+     */
+    fun pointerUp(pointerId: Int): ControlView? {
+        val index = slotOf(pointerId)
+        if (index == NO_CONTROL) return null
+        pointerSlots[pointerId] = NO_CONTROL
+        activePointerCount--
+        val control = controls[index]
+        listener?.onPointerReleased(pointerId, control)
+        control.releaseTouch(pointerId)
+        geometry.markDirty(index)
+        if (activePointerCount == 0) listener?.onControlsInUseChanged(false)
+        return control
+    }
+
+    /**
+     * 取消全部触摸点
+     */
+    fun cancel() {
+        if (activePointerCount == 0) return
+        for (pointerId in pointerSlots.indices) {
+            val index = pointerSlots[pointerId]
+            if (index == NO_CONTROL) continue
+            pointerSlots[pointerId] = NO_CONTROL
+            val control = controls[index]
+            listener?.onPointerReleased(pointerId, control)
+            control.cancelAllTouches()
+            geometry.markDirty(index)
+        }
+        activePointerCount = 0
+        listener?.onControlsInUseChanged(false)
+    }
+
+    companion object {
+        private const val NO_CONTROL = -1
+
+        /** 覆盖 Android 的触摸点 ID 范围（0..31），更大的 ID 按需扩容 */
+        private const val INITIAL_POINTER_SLOTS = 32
+    }
+}
@@ -37,6 +37,11 @@ class VirtualButton(
 
     companion object {
         private const val TAG = "VirtualButton"
+
+        // 录制缓存的视觉状态位
+        private const val STATE_IDLE = 0
+        private const val STATE_ACTIVE = 1
+        private const val STATE_ALT_SYMBOL = 2
     }
 
     // 使用 Koin 延迟获取 VibrationManagerServiceV1
@@ -60,6 +65,8 @@ class VirtualButton(
         set(value) {
             field = value
             initPaints()
+            mClipPathDirty = true
+            mDisplayList.invalidate()
             invalidate()
         }
     
@@ -83,8 +90,13 @@ class VirtualButton(
     private lateinit var mBackgroundPaint: Paint
     private lateinit var mStrokePaint: Paint
     private lateinit var mTextPaint: TextPaint
+    private lateinit var mGlowPaint: Paint
+    private lateinit var mCorePaint: Paint
     private val mRectF = RectF()
     private val mClipPath = Path()
+    private var mClipPathDirty = true
+    private val mTextBounds = Rect()
+    private val mDisplayList = ControlDisplayListCache(::recordAppearance)
 
     // 按钮状态
     private var mIsPressed = false
@@ -146,11 +158,16 @@ class VirtualButton(
                 alpha = (castedData.textOpacity * 255).toInt()
             }
         }
+
+        mGlowPaint = Paint(mBackgroundPaint)
+        mCorePaint = Paint(mBackgroundPaint)
     }
 
     override fun onSizeChanged(w: Int, h: Int, oldw: Int, oldh: Int) {
         super.onSizeChanged(w, h, oldw, oldh)
         mRectF.set(0f, 0f, w.toFloat(), h.toFloat())
+        mClipPathDirty = true
+        mDisplayList.setSize(w, h)
     }
 
     override fun onDetachedFromWindow() {
@@ -311,28 +328,65 @@ class VirtualButton(
             canvas.rotate(castedData.rotation, centerX, centerY)
         }
 
-        val shape = castedData.shape
+        val hasTexture = castedData.texture.hasAnyTexture && assetsDir != null && textureLoader != null
+        if (hasTexture) {
+            // 纹理本身就是位图回放，直接绘制（纹理可能异步加载完成，不适合录制）
+            ensureClipPath()
+            TextureRenderer.renderButton(
+                canvas = canvas,
+                textureLoader = textureLoader!!,
+                assetsDir = assetsDir,
+                textureConfig = castedData.texture,
+                bounds = mRectF,
+                isPressed = mIsPressed,
+                isToggled = mIsToggled,
+                clipPath = mClipPath,
+                opacityMultiplier = castedData.opacity
+            )
+            when (castedData.shape) {
+                ControlData.Button.Shape.CIRCLE ->
+                    canvas.drawCircle(mRectF.centerX(), mRectF.centerY(), min(mRectF.width(), mRectF.height()) / 2f, mStrokePaint)
+                ControlData.Button.Shape.RECTANGLE -> if (applyStrokeStyle(mIsPressed || mIsToggled)) {
+                    val cornerRadius = dpToPx(castedData.cornerRadius)
+                    canvas.drawRoundRect(mRectF, cornerRadius, cornerRadius, mStrokePaint)
+                }
+                ControlData.Button.Shape.POLYGON -> if (applyStrokeStyle(mIsPressed || mIsToggled)) {
+                    canvas.drawPath(mClipPath, mStrokePaint)
+                }
+            }
+        } else {
+            mDisplayList.draw(canvas, visualState())
+        }
+
+        // 恢复旋转
+        if (castedData.rotation != 0f) {
+            canvas.restore()
+        }
+    }
+
+    /**
+     * 当前视觉状态：按下与切换的外观相同；触控板右键按钮的符号随共享状态变化
+     */
+    private fun visualState(): Int {
+        var state = if (mIsPressed || mIsToggled) STATE_ACTIVE else STATE_IDLE
+        if (castedData.keycode == ControlData.KeyCode.SPECIAL_TOUCHPAD_RIGHT_BUTTON &&
+            ControlsSharedState.isTouchPadRightButton
+        ) {
+            state = state or STATE_ALT_SYMBOL
+        }
+        return state
+    }
+
+    private fun ensureClipPath() {
+        if (!mClipPathDirty) return
+        mClipPathDirty = false
+
         val centerXDraw = mRectF.centerX()
         val centerYDraw = mRectF.centerY()
         val radius = min(mRectF.width(), mRectF.height()) / 2f
-        val hasTexture = castedData.texture.hasAnyTexture && assetsDir != null && textureLoader != null
-
-        // 动态计算阴影和发光效果 (适配深浅主题)
-        val elevation = if (mIsPressed || mIsToggled) dpToPx(2f) else dpToPx(4f)
-        val alphaMultiplier = if (mIsPressed || mIsToggled) 1.2f else 1.0f
-        
-        // 自动检测深浅色主题 (根据背景亮度)
-        val isDarkTheme = Color.luminance(castedData.bgColor) < 0.5f
-        // 如果用户设置了非透明的边框颜色，则使用用户设置的；否则自动计算
-        val userStrokeColor = castedData.strokeColor
-        val hasUserStrokeColor = (userStrokeColor ushr 24) > 0 // alpha > 0
-        val strokeColorValue = if (hasUserStrokeColor) userStrokeColor else (if (isDarkTheme) Color.WHITE else Color.BLACK)
-        // 使用用户设置的文本颜色
-        val textColorValue = castedData.textColor
 
-        // 更新裁剪路径
         mClipPath.reset()
-        when (shape) {
+        when (castedData.shape) {
             ControlData.Button.Shape.CIRCLE ->
                 mClipPath.addCircle(centerXDraw, centerYDraw, radius, Path.Direction.CW)
             ControlData.Button.Shape.RECTANGLE -> {
@@ -359,196 +413,134 @@ class VirtualButton(
                 }
             }
         }
+    }
+
+    /**
+     * 按状态配置描边画笔 (用户设置颜色或根据背景亮度自动适配深浅主题)
+     *
+     * @return 是否需要绘制描边
+     */
+    private fun applyStrokeStyle(active: Boolean): Boolean {
+        val alphaMultiplier = if (active) 1.2f else 1.0f
+        val isDarkTheme = Color.luminance(castedData.bgColor) < 0.5f
+        // 如果用户设置了非透明的边框颜色，则使用用户设置的；否则自动计算
+        val userStrokeColor = castedData.strokeColor
+        val hasUserStrokeColor = (userStrokeColor ushr 24) > 0 // alpha > 0
+        mStrokePaint.apply {
+            color = if (hasUserStrokeColor) userStrokeColor else (if (isDarkTheme) Color.WHITE else Color.BLACK)
+            strokeWidth = if (hasUserStrokeColor) dpToPx(castedData.strokeWidth) else dpToPx(1f)
+            alpha = if (hasUserStrokeColor) {
+                min(255, (castedData.borderOpacity * 255 * alphaMultiplier).toInt())
+            } else {
+                min(255, (castedData.borderOpacity * 255 * 0.6f * alphaMultiplier).toInt())
+            }
+        }
+        return castedData.strokeWidth > 0 || !hasUserStrokeColor
+    }
+
+    /**
+     * 录制无纹理时的静态外观（背景、描边、文字），每个视觉状态只执行一次
+     */
+    private fun recordAppearance(canvas: Canvas, state: Int) {
+        ensureClipPath()
+
+        val active = (state and STATE_ACTIVE) != 0
+        val shape = castedData.shape
+        val centerXDraw = mRectF.centerX()
+        val centerYDraw = mRectF.centerY()
+        val radius = min(mRectF.width(), mRectF.height()) / 2f
+
+        // 阴影和发光效果
+        val alphaMultiplier = if (active) 1.2f else 1.0f
+        val drawStroke = applyStrokeStyle(active)
+        mBackgroundPaint.alpha = min(255, (castedData.opacity * 255 * alphaMultiplier).toInt())
 
         when (shape) {
             ControlData.Button.Shape.RECTANGLE -> {
                 val cornerRadius = dpToPx(castedData.cornerRadius)
-                if (hasTexture) {
-                    TextureRenderer.renderButton(
-                        canvas = canvas,
-                        textureLoader = textureLoader!!,
-                        assetsDir = assetsDir,
-                        textureConfig = castedData.texture,
-                        bounds = mRectF,
-                        isPressed = mIsPressed,
-                        isToggled = mIsToggled,
-                        clipPath = mClipPath,
-                        opacityMultiplier = castedData.opacity
-                    )
-                } else {
-                    // 绘制具有深度感的背景
-                    mBackgroundPaint.alpha = min(255, (castedData.opacity * 255 * alphaMultiplier).toInt())
-                    canvas.drawRoundRect(mRectF, cornerRadius, cornerRadius, mBackgroundPaint)
-                }
-                
-                // 绘制描边 (用户设置颜色或自动计算)
-                mStrokePaint.apply {
-                    color = strokeColorValue
-                    strokeWidth = if (hasUserStrokeColor) dpToPx(castedData.strokeWidth) else dpToPx(1f)
-                    alpha = if (hasUserStrokeColor) {
-                        min(255, (castedData.borderOpacity * 255 * alphaMultiplier).toInt())
-                    } else {
-                        min(255, (castedData.borderOpacity * 255 * 0.6f * alphaMultiplier).toInt())
-                    }
-                }
-                if (castedData.strokeWidth > 0 || !hasUserStrokeColor) {
+                canvas.drawRoundRect(mRectF, cornerRadius, cornerRadius, mBackgroundPaint)
+                if (drawStroke) {
                     canvas.drawRoundRect(mRectF, cornerRadius, cornerRadius, mStrokePaint)
                 }
             }
             ControlData.Button.Shape.CIRCLE -> {
-                if (hasTexture) {
-                    TextureRenderer.renderButton(
-                        canvas = canvas,
-                        textureLoader = textureLoader!!,
-                        assetsDir = assetsDir,
-                        textureConfig = castedData.texture,
-                        bounds = mRectF,
-                        isPressed = mIsPressed,
-                        isToggled = mIsToggled,
-                        clipPath = mClipPath,
-                        opacityMultiplier = castedData.opacity
-                    )
-                    canvas.drawCircle(centerXDraw, centerYDraw, radius, mStrokePaint)
-                } else {
-                    when (castedData.mode) {
-                        ControlData.Button.Mode.KEYBOARD -> {
-                            mBackgroundPaint.alpha = min(255, (castedData.opacity * 255 * alphaMultiplier).toInt())
-                            canvas.drawCircle(centerXDraw, centerYDraw, radius, mBackgroundPaint)
-                            
-                            mStrokePaint.apply {
-                                color = strokeColorValue
-                                strokeWidth = if (hasUserStrokeColor) dpToPx(castedData.strokeWidth) else dpToPx(1f)
-                                alpha = if (hasUserStrokeColor) {
-                                    min(255, (castedData.borderOpacity * 255 * alphaMultiplier).toInt())
-                                } else {
-                                    min(255, (castedData.borderOpacity * 255 * 0.6f * alphaMultiplier).toInt())
-                                }
-                            }
-                            if (castedData.strokeWidth > 0 || !hasUserStrokeColor) {
-                                canvas.drawCircle(centerXDraw, centerYDraw, radius, mStrokePaint)
-                            }
-                        }
-                        ControlData.Button.Mode.GAMEPAD -> {
-                            val margin = 0.12f
-                            val outerRadius = radius * (1.0f - margin)
-                            val innerRadius = radius * (1.0f - 2.5f * margin)
-
-                            // 绘制外圈发光感
-                            val glowPaint = Paint(mBackgroundPaint).apply {
-                                color = if (mIsPressed || mIsToggled) castedData.bgColor else 0x327D7D7D
-                                alpha = (castedData.opacity * 255 * 0.4f).toInt()
-                            }
-                            canvas.drawCircle(centerXDraw, centerYDraw, outerRadius, glowPaint)
-
-                            // 绘制内层核心
-                            val corePaint = Paint(mBackgroundPaint).apply {
-                                color = if (mIsPressed || mIsToggled) -0x1 else -0x828283
-                                alpha = (castedData.opacity * 255).toInt()
-                            }
-                            canvas.drawCircle(centerXDraw, centerYDraw, innerRadius, corePaint)
+                when (castedData.mode) {
+                    ControlData.Button.Mode.KEYBOARD -> {
+                        canvas.drawCircle(centerXDraw, centerYDraw, radius, mBackgroundPaint)
+                        if (drawStroke) {
+                            canvas.drawCircle(centerXDraw, centerYDraw, radius, mStrokePaint)
                         }
                     }
+                    ControlData.Button.Mode.GAMEPAD -> {
+                        val margin = 0.12f
+                        val outerRadius = radius * (1.0f - margin)
+                        val innerRadius = radius * (1.0f - 2.5f * margin)
+
+                        // 外圈发光感
+                        mGlowPaint.color = if (active) castedData.bgColor else 0x327D7D7D
+                        mGlowPaint.alpha = (castedData.opacity * 255 * 0.4f).toInt()
+                        canvas.drawCircle(centerXDraw, centerYDraw, outerRadius, mGlowPaint)
+
+                        // 内层核心
+                        mCorePaint.color = if (active) -0x1 else -0x828283
+                        mCorePaint.alpha = (castedData.opacity * 255).toInt()
+                        canvas.drawCircle(centerXDraw, centerYDraw, innerRadius, mCorePaint)
+                    }
                 }
             }
             ControlData.Button.Shape.POLYGON -> {
-                if (hasTexture) {
-                    TextureRenderer.renderButton(
-                        canvas = canvas,
-                        textureLoader = textureLoader!!,
-                        assetsDir = assetsDir,
-                        textureConfig = castedData.texture,
-                        bounds = mRectF,
-                        isPressed = mIsPressed,
-                        isToggled = mIsToggled,
-                        clipPath = mClipPath,
-                        opacityMultiplier = castedData.opacity
-                    )
-                } else {
-                    // 绘制多边形背景
-                    mBackgroundPaint.alpha = min(255, (castedData.opacity * 255 * alphaMultiplier).toInt())
-                    canvas.drawPath(mClipPath, mBackgroundPaint)
-                }
-                
-                // 绘制多边形边框
-                mStrokePaint.apply {
-                    color = strokeColorValue
-                    strokeWidth = if (hasUserStrokeColor) dpToPx(castedData.strokeWidth) else dpToPx(1f)
-                    alpha = if (hasUserStrokeColor) {
-                        min(255, (castedData.borderOpacity * 255 * alphaMultiplier).toInt())
-                    } else {
-                        min(255, (castedData.borderOpacity * 255 * 0.6f * alphaMultiplier).toInt())
-                    }
-                }
-                if (castedData.strokeWidth > 0 || !hasUserStrokeColor) {
+                canvas.drawPath(mClipPath, mBackgroundPaint)
+                if (drawStroke) {
                     canvas.drawPath(mClipPath, mStrokePaint)
                 }
             }
         }
 
-        // 当有纹理背景时，隐藏文字
-        if (hasTexture) {
-            // 恢复旋转
-            if (castedData.rotation != 0f) {
-                canvas.restore()
-            }
-            return
-        }
-
         // 为特殊按键显示特殊符号，否则显示控件名称
         val displayText = when {
             castedData.keycode == ControlData.KeyCode.SPECIAL_TOUCHPAD_RIGHT_BUTTON ->
-                if (ControlsSharedState.isTouchPadRightButton) "◑" else "◐"
+                if ((state and STATE_ALT_SYMBOL) != 0) "◑" else "◐"
             else -> castedData.name
         }
+        if (displayText.isEmpty()) return
 
-        if (displayText.isNotEmpty()) {
-            canvas.save()
+        canvas.save()
 
-            // 根据控件形状设置裁剪区域
-            if (shape == ControlData.Button.Shape.CIRCLE) {
-                canvas.clipPath(Path().apply {
-                    addCircle(centerXDraw, centerYDraw, radius, Path.Direction.CW)
-                })
-            } else {
-                val padding = dpToPx(2f)
-                canvas.clipRect(padding, padding, width - padding, height - padding)
-            }
+        // 根据控件形状设置裁剪区域
+        if (shape == ControlData.Button.Shape.CIRCLE) {
+            canvas.clipPath(mClipPath)
+        } else {
+            val padding = dpToPx(2f)
+            canvas.clipRect(padding, padding, width - padding, height - padding)
+        }
 
-            // 更新文字颜色适配深浅主题
-            mTextPaint.color = textColorValue
-            mTextPaint.alpha = (castedData.textOpacity * 255).toInt()
-
-            // 计算文字大小
-            when {
-                castedData.mode == ControlData.Button.Mode.GAMEPAD -> {
-                    mTextPaint.textSize = 20f
-                    val textBounds = Rect()
-                    mTextPaint.getTextBounds(displayText, 0, displayText.length, textBounds)
-                    val textAspectRatio = textBounds.width() / max(textBounds.height(), 1).toFloat()
-                    mTextPaint.textSize = min(height / 2f, width / max(textAspectRatio, 1f))
-                }
-                castedData.keycode == ControlData.KeyCode.SPECIAL_TOUCHPAD_RIGHT_BUTTON -> {
-                    mTextPaint.textSize = dpToPx(32f)
-                }
-                else -> {
-                    mTextPaint.textSize = dpToPx(16f)
-                    val textWidth = mTextPaint.measureText(displayText)
-                    val availableWidth = width - dpToPx(4f)
-                    if (textWidth > availableWidth) {
-                        mTextPaint.textSize = mTextPaint.textSize * (availableWidth / textWidth)
-                    }
+        mTextPaint.color = castedData.textColor
+        mTextPaint.alpha = (castedData.textOpacity * 255).toInt()
+
+        // 计算文字大小
+        when {
+            castedData.mode == ControlData.Button.Mode.GAMEPAD -> {
+                mTextPaint.textSize = 20f
+                mTextPaint.getTextBounds(displayText, 0, displayText.length, mTextBounds)
+                val textAspectRatio = mTextBounds.width() / max(mTextBounds.height(), 1).toFloat()
+                mTextPaint.textSize = min(height / 2f, width / max(textAspectRatio, 1f))
+            }
+            castedData.keycode == ControlData.KeyCode.SPECIAL_TOUCHPAD_RIGHT_BUTTON -> {
+                mTextPaint.textSize = dpToPx(32f)
+            }
+            else -> {
+                mTextPaint.textSize = dpToPx(16f)
+                val textWidth = mTextPaint.measureText(displayText)
+                val availableWidth = width - dpToPx(4f)
+                if (textWidth > availableWidth) {
+                    mTextPaint.textSize = mTextPaint.textSize * (availableWidth / textWidth)
                 }
             }
-
-            val textY = height / 2f - ((mTextPaint.descent() + mTextPaint.ascent()) / 2)
-            canvas.drawText(displayText, width / 2f, textY, mTextPaint)
-            canvas.restore()
         }
 
-        // 恢复旋转
-        if (castedData.rotation != 0f) {
-            canvas.restore()
-        }
+        val textY = height / 2f - ((mTextPaint.descent() + mTextPaint.ascent()) / 2)
+        canvas.drawText(displayText, width / 2f, textY, mTextPaint)
+        canvas.restore()
     }
 
     private fun handlePress() {
@@ -50,6 +50,7 @@ class VirtualDPad(
         set(value) {
             field = value
             initPaints()
+            displayList.invalidate()
             invalidate()
         }
 
@@ -77,6 +78,9 @@ class VirtualDPad(
     private val paintRect: RectF = RectF()
     private val cornerPath: android.graphics.Path = android.graphics.Path()
 
+    /** 按方向按下状态（位掩码）缓存的静态外观 */
+    private val displayList = ControlDisplayListCache(::recordAppearance)
+
     // 按钮状态 - 4个方向
     private val buttonPressed = BooleanArray(4) { false }
     private var activePointerId = -1
@@ -125,6 +129,7 @@ class VirtualDPad(
     override fun onSizeChanged(w: Int, h: Int, oldw: Int, oldh: Int) {
         super.onSizeChanged(w, h, oldw, oldh)
         paintRect.set(0f, 0f, w.toFloat(), h.toFloat())
+        displayList.setSize(w, h)
     }
 
     // ==================== ControlView 接口方法 ====================
@@ -171,32 +176,50 @@ class VirtualDPad(
         // 映射到方向（对角方向会激活两个方向键）
         val activeDirections = getCellDirections(row, col)
 
-        // 更新按钮状态
-        updateButtonStates(activeDirections)
-
-        invalidate()
+        // 更新按钮状态，外观只在方向变化时重绘
+        if (updateButtonStates(activeDirections)) {
+            invalidate()
+        }
     }
 
-    private fun getCellDirections(row: Int, col: Int): Set<Int> {
+    /**
+     * 单元格对应的方向位掩码（位序号为方向索引）
+     */
+    private fun getCellDirections(row: Int, col: Int): Int {
         return when {
-            row == 0 && col == 0 -> setOf(DIR_UP, DIR_LEFT)     // 左上
-            row == 0 && col == 1 -> setOf(DIR_UP)                // 上
-            row == 0 && col == 2 -> setOf(DIR_UP, DIR_RIGHT)     // 右上
-            row == 1 && col == 0 -> setOf(DIR_LEFT)              // 左
-            row == 1 && col == 1 -> emptySet()                   // 中心，无方向
-            row == 1 && col == 2 -> setOf(DIR_RIGHT)             // 右
-            row == 2 && col == 0 -> setOf(DIR_DOWN, DIR_LEFT)    // 左下
-            row == 2 && col == 1 -> setOf(DIR_DOWN)              // 下
-            row == 2 && col == 2 -> setOf(DIR_DOWN, DIR_RIGHT)   // 右下
-            else -> emptySet()
+            row == 0 && col == 0 -> bit(DIR_UP) or bit(DIR_LEFT)     // 左上
+            row == 0 && col == 1 -> bit(DIR_UP)                       // 上
+            row == 0 && col == 2 -> bit(DIR_UP) or bit(DIR_RIGHT)    // 右上
+            row == 1 && col == 0 -> bit(DIR_LEFT)                     // 左
+            row == 1 && col == 1 -> 0                                 // 中心，无方向
+            row == 1 && col == 2 -> bit(DIR_RIGHT)                    // 右
+            row == 2 && col == 0 -> bit(DIR_DOWN) or bit(DIR_LEFT)   // 左下
+            row == 2 && col == 1 -> bit(DIR_DOWN)                     // 下
+            row == 2 && col == 2 -> bit(DIR_DOWN) or bit(DIR_RIGHT)  // 右下
+            else -> 0
         }
     }
 
-    private fun updateButtonStates(activeDirections: Set<Int>) {
+    private fun bit(direction: Int) = 1 shl direction
+
+    private fun pressedMask(): Int {
+        var mask = 0
+        for (i in buttonPressed.indices) {
+            if (buttonPressed[i]) mask = mask or bit(i)
+        }
+        return mask
+    }
+
+    /**
+     * @return 是否有方向状态发生变化
+     */
+    private fun updateButtonStates(activeDirections: Int): Boolean {
+        var changed = false
         for (i in buttonPressed.indices) {
-            val shouldBePressed = i in activeDirections
+            val shouldBePressed = (activeDirections and bit(i)) != 0
             if (buttonPressed[i] != shouldBePressed) {
                 buttonPressed[i] = shouldBePressed
+                changed = true
 
                 if (shouldBePressed) {
                     sendKeyDown(i)
@@ -206,6 +229,7 @@ class VirtualDPad(
                 }
             }
         }
+        return changed
     }
 
     private fun releaseAllButtons() {
@@ -281,6 +305,17 @@ class VirtualDPad(
             canvas.rotate(controlData.rotation, centerX, centerY)
         }
 
+        displayList.draw(canvas, pressedMask())
+
+        if (controlData.rotation != 0f) {
+            canvas.restore()
+        }
+    }
+
+    /**
+     * 录制指定按下状态下的网格外观，每种方向组合只执行一次
+     */
+    private fun recordAppearance(canvas: Canvas, pressedMask: Int) {
         val cornerRadius = dpToPx(controlData.cornerRadius)
 
         // 绘制3x3网格的9个单元格
@@ -296,7 +331,7 @@ class VirtualDPad(
 
                 // 判断该单元格是否应该高亮
                 val directions = getCellDirections(row, col)
-                val isPressed = directions.isNotEmpty() && directions.all { buttonPressed[it] }
+                val isPressed = directions != 0 && (pressedMask and directions) == directions
 
                 val btnPaint = if (isPressed) buttonPressedPaint else buttonPaint
 
@@ -373,10 +408,6 @@ class VirtualDPad(
             )
             canvas.drawRoundRect(paintRect, cornerRadius, cornerRadius, strokePaint)
         }
-
-        if (controlData.rotation != 0f) {
-            canvas.restore()
-        }
     }
 
     private fun dpToPx(dp: Float) = dp * resources.displayMetrics.density
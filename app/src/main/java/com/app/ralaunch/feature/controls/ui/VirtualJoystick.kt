@@ -41,6 +41,7 @@ class VirtualJoystick(
                 // 直接使用 stickKnobSize，0是有效值（可以让摇杆圆心不可见）
                 mStickRadius = mRadius * castedData.stickKnobSize
             }
+            displayList.invalidate()
             invalidate()
         }
 
@@ -54,6 +55,9 @@ class VirtualJoystick(
     private val knobBoundsRectF = RectF()
     private val bgClipPath = Path()
     private val knobClipPath = Path()
+
+    /** 无纹理时底座与摇杆头的静态外观；摇杆头以控件中心录制，回放时平移到当前位置 */
+    private val displayList = ControlDisplayListCache(::recordAppearance)
     
     /** 设置控件包资源目录（用于加载纹理） */
     override fun setPackAssetsDir(dir: File?) {
@@ -78,6 +82,11 @@ class VirtualJoystick(
         const val DIR_LEFT: Int = 6 // 左 (A)
         const val DIR_UP_LEFT: Int = 7 // 左上 (W+A)
 
+        // 录制缓存的图层
+        private const val LAYER_BASE = 0
+        private const val LAYER_KNOB_IDLE = 1
+        private const val LAYER_KNOB_ACTIVE = 2
+
         private const val STICK_BACKGROUND_SIZE = 0.75f // 背景圆占摇杆半径的比例
 
         // 死区（防止漂移）- 改为较小值以提高触摸灵敏度
@@ -256,6 +265,7 @@ class VirtualJoystick(
         // RadialGamePad 风格：摇杆圆心是半径的 50%（0.5f * radius）
         // 直接使用 stickKnobSize，0是有效值（可以让摇杆圆心不可见）
         mStickRadius = mRadius * castedData.stickKnobSize
+        displayList.setSize(w, h)
         resetStick()
     }
 
@@ -323,22 +333,42 @@ class VirtualJoystick(
                 canvas.drawCircle(mStickX, mStickY, mStickRadius, mStickPaint)
             }
         } else {
-            // 绘制具有深度感的背景 (自动适配深浅主题)
-            val bgAlpha = (castedData.opacity * 255).toInt()
-            val knobAlpha = (castedData.stickOpacity * 255).toInt()
-            
-            // 自动检测深浅色主题 (根据背景亮度)
-            val isDarkTheme = Color.luminance(castedData.bgColor) < 0.5f
+            displayList.draw(canvas, LAYER_BASE)
+
+            // 摇杆头是唯一随触摸移动的部分
+            canvas.save()
+            canvas.translate(mStickX - mCenterX, mStickY - mCenterY)
+            displayList.draw(canvas, if (mIsTouching) LAYER_KNOB_ACTIVE else LAYER_KNOB_IDLE)
+            canvas.restore()
+        }
+
+        // 恢复旋转
+        if (castedData.rotation != 0f) {
+            canvas.restore()
+        }
+    }
+
+    /**
+     * 录制无纹理时的图层：底座（阴影 + 边框）或位于控件中心的摇杆头
+     */
+    private fun recordAppearance(canvas: Canvas, layer: Int) {
+        val backgroundRadius = mRadius * STICK_BACKGROUND_SIZE
+        val bgAlpha = (castedData.opacity * 255).toInt()
+        val knobAlpha = (castedData.stickOpacity * 255).toInt()
+
+        // 自动检测深浅色主题 (根据背景亮度)
+        val isDarkTheme = Color.luminance(castedData.bgColor) < 0.5f
+
+        if (layer == LAYER_BASE) {
             // 如果用户设置了非透明的边框颜色，则使用用户设置的；否则自动计算
             val userStrokeColor = castedData.strokeColor
             val hasUserStrokeColor = (userStrokeColor ushr 24) > 0 // alpha > 0
             val baseStrokeColor = if (hasUserStrokeColor) userStrokeColor else (if (isDarkTheme) Color.WHITE else Color.BLACK)
-            val baseKnobColor = if (isDarkTheme) -0x828283 else Color.LTGRAY.toInt()
 
             // 绘制底座阴影/发光
             mBackgroundPaint.alpha = (bgAlpha * 0.8f).toInt()
             canvas.drawCircle(mCenterX, mCenterY, backgroundRadius, mBackgroundPaint)
-            
+
             // 绘制底座边框 (用户设置颜色或自动计算)
             mStrokePaint.apply {
                 color = baseStrokeColor
@@ -353,28 +383,24 @@ class VirtualJoystick(
             if (castedData.strokeWidth > 0 || !hasUserStrokeColor) {
                 canvas.drawCircle(mCenterX, mCenterY, backgroundRadius, mStrokePaint)
             }
+            return
+        }
 
-            // 绘制摇杆头 (增加按下时的发光感)
-            val knobColor = if (mIsTouching) 0xFF6200EE.toInt() else baseKnobColor
-            mStickPaint.apply {
-                color = knobColor
-                alpha = knobAlpha
-            }
-            canvas.drawCircle(mStickX, mStickY, mStickRadius, mStickPaint)
-            
-            // 摇杆头高光 (保持白色，增加通透感)
-            mStrokePaint.apply {
-                color = Color.WHITE
-                alpha = (knobAlpha * 0.4f).toInt()
-                strokeWidth = dpToPx(1f)
-            }
-            canvas.drawCircle(mStickX, mStickY, mStickRadius * 0.8f, mStrokePaint)
+        // 绘制摇杆头 (按下时的发光感)
+        val baseKnobColor = if (isDarkTheme) -0x828283 else Color.LTGRAY.toInt()
+        mStickPaint.apply {
+            color = if (layer == LAYER_KNOB_ACTIVE) 0xFF6200EE.toInt() else baseKnobColor
+            alpha = knobAlpha
         }
+        canvas.drawCircle(mCenterX, mCenterY, mStickRadius, mStickPaint)
 
-        // 恢复旋转
-        if (castedData.rotation != 0f) {
-            canvas.restore()
+        // 摇杆头高光 (保持白色，增加通透感)
+        mStrokePaint.apply {
+            color = Color.WHITE
+            alpha = (knobAlpha * 0.4f).toInt()
+            strokeWidth = dpToPx(1f)
         }
+        canvas.drawCircle(mCenterX, mCenterY, mStickRadius * 0.8f, mStrokePaint)
     }
 
     override fun isTouchInBounds(x: Float, y: Float): Boolean {
@@ -738,19 +764,19 @@ class VirtualJoystick(
             return
         }
 
-        // 获取设置管理器以读取鼠标速度
-        val settingsManager = SettingsAccess
-        val mouseMoveRatio = settingsManager.mouseRightStickSpeed.toFloat() / 100f
+        // 读取鼠标速度与范围（设置快照，未修改设置时不复制设置对象）
+        val mouseSettings = SettingsAccess.mouseStickSettings
+        val mouseMoveRatio = mouseSettings.moveRatio
 
         // 计算绝对鼠标位置（基于屏幕中心 + 摇杆偏移）
         var onScreenMouseX: Float = (mScreenWidth / 2) + (dx * mouseMoveRatio)
         var onScreenMouseY: Float = (mScreenHeight / 2) + (dy * mouseMoveRatio)
 
         // 计算用户设置的 range 边界（从中心扩展模式）
-        var minRangeX = (0.5f - settingsManager.mouseRightStickRangeLeft / 2) * mScreenWidth
-        var maxRangeX = (0.5f + settingsManager.mouseRightStickRangeRight / 2) * mScreenWidth
-        var minRangeY = (0.5f - settingsManager.mouseRightStickRangeTop / 2) * mScreenHeight
-        var maxRangeY = (0.5f + settingsManager.mouseRightStickRangeBottom / 2) * mScreenHeight
+        var minRangeX = mouseSettings.minX(mScreenWidth.toFloat())
+        var maxRangeX = mouseSettings.maxX(mScreenWidth.toFloat())
+        var minRangeY = mouseSettings.minY(mScreenHeight.toFloat())
+        var maxRangeY = mouseSettings.maxY(mScreenHeight.toFloat())
 
         // 验证范围有效性
         if (minRangeX >= maxRangeX || minRangeY >= maxRangeY) {
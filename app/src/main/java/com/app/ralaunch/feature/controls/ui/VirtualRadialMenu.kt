@@ -25,6 +25,7 @@ import com.app.ralaunch.core.di.service.VibrationManagerServiceV1
 import org.koin.java.KoinJavaComponent
 import java.io.File
 import kotlin.math.atan2
+import kotlin.math.ceil
 import kotlin.math.cos
 import kotlin.math.min
 import kotlin.math.sin
@@ -43,6 +44,10 @@ class VirtualRadialMenu(
 
     companion object {
         private const val TAG = "VirtualRadialMenu"
+
+        // 录制缓存状态：收起；完全展开时为 STATE_EXPANDED_BASE + 选中扇区 + 1
+        private const val STATE_COLLAPSED = 0
+        private const val STATE_EXPANDED_BASE = 1
     }
 
     // 震动管理器
@@ -70,6 +75,8 @@ class VirtualRadialMenu(
                 }
             }
             initPaints()
+            updateDisplayListSize()
+            mDisplayList.invalidate()
             invalidate()
         }
 
@@ -85,6 +92,8 @@ class VirtualRadialMenu(
         if (dir != null && textureLoader == null) {
             textureLoader = TextureLoader.getInstance(context)
         }
+        // 扇区图标来自资源目录，录制内容随之失效
+        mDisplayList.invalidate()
         invalidate()
     }
 
@@ -100,9 +109,16 @@ class VirtualRadialMenu(
     private lateinit var mEditorSelectedPaint: Paint       // 编辑器选中扇区画笔
     private lateinit var mEditorSelectedGlowPaint: Paint   // 编辑器选中扇区发光画笔
     private lateinit var mSectorIndexPaint: TextPaint       // 扇区序号画笔
+    private lateinit var mHintPaint: Paint                  // 收起时的扇区暗示线画笔
+    private lateinit var mIconPaint: Paint
+    private lateinit var mIndexBgPaint: Paint
+    private lateinit var mIndicatorPaint: Paint              // 触摸光点画笔（渐变以原点为中心，绘制时平移）
     private val mRectF = RectF()
     private val mSectorPath = Path()
 
+    /** 收起状态与完全展开状态（按选中扇区）的录制缓存；展开动画与编辑器预览期间实时绘制 */
+    private val mDisplayList = ControlDisplayListCache(::recordAppearance)
+
     // 状态
     private var mIsExpanded = false
     private var mExpandProgress = 0f // 0.0 = 收起, 1.0 = 展开
@@ -219,6 +235,38 @@ class VirtualRadialMenu(
             textAlign = Paint.Align.CENTER
             typeface = Typeface.DEFAULT
         }
+
+        mHintPaint = Paint(Paint.ANTI_ALIAS_FLAG).apply {
+            style = Paint.Style.STROKE
+            color = Color.argb((data.opacity * 80).toInt(), 255, 255, 255)
+            strokeWidth = dpToPx(0.5f)
+        }
+        mIconPaint = Paint(Paint.ANTI_ALIAS_FLAG)
+        mIndexBgPaint = Paint(Paint.ANTI_ALIAS_FLAG).apply {
+            style = Paint.Style.FILL
+        }
+        mIndicatorPaint = Paint(Paint.ANTI_ALIAS_FLAG).apply {
+            style = Paint.Style.FILL
+            shader = RadialGradient(
+                0f, 0f, dpToPx(12f),
+                intArrayOf(Color.argb(180, 255, 255, 255), Color.TRANSPARENT),
+                null, Shader.TileMode.CLAMP
+            )
+        }
+    }
+
+    override fun onSizeChanged(w: Int, h: Int, oldw: Int, oldh: Int) {
+        super.onSizeChanged(w, h, oldw, oldh)
+        updateDisplayListSize()
+    }
+
+    /**
+     * 展开后的轮盘超出 View 边界，录制区域按展开半径外扩
+     */
+    private fun updateDisplayListSize() {
+        val baseRadius = min(width, height) / 2f
+        val overdraw = (baseRadius * castedData.expandedScale - baseRadius).coerceAtLeast(0f)
+        mDisplayList.setSize(width, height, ceil(overdraw).toInt())
     }
 
     /**
@@ -250,16 +298,48 @@ class VirtualRadialMenu(
         val shouldShowExpanded = mExpandProgress > 0f || castedData.editorPreviewExpanded
 
         if (shouldShowExpanded) {
-            // 预览模式直接以100%展开绘制
-            val effectiveProgress = if (castedData.editorPreviewExpanded && mExpandProgress == 0f) 1f else mExpandProgress
-            val savedProgress = mExpandProgress
-            mExpandProgress = effectiveProgress
-            drawExpandedState(canvas, centerX, centerY, baseRadius)
-            mExpandProgress = savedProgress
+            if (mExpandProgress == 1f && !castedData.editorPreviewExpanded) {
+                // 完全展开：回放对应选中扇区的录制内容
+                mDisplayList.draw(canvas, STATE_EXPANDED_BASE + mSelectedSector + 1)
+            } else {
+                // 预览模式直接以100%展开绘制
+                val effectiveProgress = if (castedData.editorPreviewExpanded && mExpandProgress == 0f) 1f else mExpandProgress
+                val savedProgress = mExpandProgress
+                mExpandProgress = effectiveProgress
+                drawExpandedState(canvas, centerX, centerY, baseRadius)
+                mExpandProgress = savedProgress
+            }
+            drawTouchIndicator(canvas)
         } else {
             // 绘制收起状态
+            mDisplayList.draw(canvas, STATE_COLLAPSED)
+        }
+    }
+
+    private fun recordAppearance(canvas: Canvas, state: Int) {
+        val centerX = width / 2f
+        val centerY = height / 2f
+        val baseRadius = min(width, height) / 2f
+        if (state == STATE_COLLAPSED) {
             drawCollapsedState(canvas, centerX, centerY, baseRadius)
+            return
         }
+        // 录制时以完全展开、指定扇区选中的状态绘制
+        val savedSector = mSelectedSector
+        mSelectedSector = state - STATE_EXPANDED_BASE - 1
+        drawExpandedState(canvas, centerX, centerY, baseRadius)
+        mSelectedSector = savedSector
+    }
+
+    /**
+     * 触摸位置指示（柔和光点），随手指移动，不参与录制
+     */
+    private fun drawTouchIndicator(canvas: Canvas) {
+        if (mActivePointerId < 0 || mSelectedSector < 0) return
+        canvas.save()
+        canvas.translate(mCurrentTouchX, mCurrentTouchY)
+        canvas.drawCircle(0f, 0f, dpToPx(12f), mIndicatorPaint)
+        canvas.restore()
     }
 
     private fun drawCollapsedState(canvas: Canvas, centerX: Float, centerY: Float, radius: Float) {
@@ -280,12 +360,6 @@ class VirtualRadialMenu(
         mBackgroundPaint.shader = null
 
         // 绘制扇区暗示线（收起时提示这是轮盘）
-        val hintAlpha = (data.opacity * 80).toInt()
-        val hintPaint = Paint(Paint.ANTI_ALIAS_FLAG).apply {
-            style = Paint.Style.STROKE
-            color = Color.argb(hintAlpha, 255, 255, 255)
-            strokeWidth = dpToPx(0.5f)
-        }
         val hintRadius = radius * 0.6f
         val sectorCount = data.sectorCount
         for (i in 0 until sectorCount) {
@@ -294,7 +368,7 @@ class VirtualRadialMenu(
             val y1 = centerY + (hintRadius * 0.3f * sin(angle)).toFloat()
             val x2 = centerX + (hintRadius * cos(angle)).toFloat()
             val y2 = centerY + (hintRadius * sin(angle)).toFloat()
-            canvas.drawLine(x1, y1, x2, y2, hintPaint)
+            canvas.drawLine(x1, y1, x2, y2, mHintPaint)
         }
 
         // 绘制边框
@@ -420,14 +494,12 @@ class VirtualRadialMenu(
 
                 if (icon != null && !icon.isRecycled) {
                     // 绘制图标
-                    val iconPaint = Paint(Paint.ANTI_ALIAS_FLAG).apply {
-                        alpha = (255 * mExpandProgress).toInt()
-                    }
+                    mIconPaint.alpha = (255 * mExpandProgress).toInt()
                     canvas.drawBitmap(
                         icon,
                         labelX - icon.width / 2f,
                         labelY - icon.height / 2f - dpToPx(4f),
-                        iconPaint
+                        mIconPaint
                     )
                     // 图标下方绘制标签
                     val label = sector.label
@@ -470,16 +542,13 @@ class VirtualRadialMenu(
                     val indexY = centerY + (indexRadius * sin(midAngleRad)).toFloat()
                     
                     // 序号背景圆
-                    val indexBgPaint = Paint(Paint.ANTI_ALIAS_FLAG).apply {
-                        style = Paint.Style.FILL
-                        color = if (isEditorSelected) {
-                            Color.argb(200, 66, 165, 245) // 选中时蓝色
-                        } else {
-                            Color.argb(120, 0, 0, 0) // 未选中时黑色半透明
-                        }
+                    mIndexBgPaint.color = if (isEditorSelected) {
+                        Color.argb(200, 66, 165, 245) // 选中时蓝色
+                    } else {
+                        Color.argb(120, 0, 0, 0) // 未选中时黑色半透明
                     }
                     val indexCircleRadius = dpToPx(7f)
-                    canvas.drawCircle(indexX, indexY, indexCircleRadius, indexBgPaint)
+                    canvas.drawCircle(indexX, indexY, indexCircleRadius, mIndexBgPaint)
                     
                     // 序号文字
                     mSectorIndexPaint.textSize = dpToPx(8f)
@@ -546,19 +615,6 @@ class VirtualRadialMenu(
             canvas.drawCircle(centerX, centerY, expandedRadius - dpToPx(1f), mStrokePaint)
             canvas.drawCircle(centerX, centerY, deadZoneRadius, mStrokePaint)
         }
-
-        // 触摸位置指示（柔和光点）
-        if (mActivePointerId >= 0 && mSelectedSector >= 0) {
-            val indicatorPaint = Paint(Paint.ANTI_ALIAS_FLAG).apply {
-                style = Paint.Style.FILL
-                shader = RadialGradient(
-                    mCurrentTouchX, mCurrentTouchY, dpToPx(12f),
-                    intArrayOf(Color.argb(180, 255, 255, 255), Color.TRANSPARENT),
-                    null, Shader.TileMode.CLAMP
-                )
-            }
-            canvas.drawCircle(mCurrentTouchX, mCurrentTouchY, dpToPx(12f), indicatorPaint)
-        }
     }
 
     // 展开/收起动画
@@ -119,7 +119,7 @@ class VirtualTouchPad(
     private val settingsManager = SettingsAccess
 
     private val mouseMoveRatio
-        get() = settingsManager.mouseRightStickSpeed.toFloat() / 100f // 移动距离放大倍数
+        get() = settingsManager.mouseStickSettings.moveRatio // 移动距离放大倍数
 
     init {
         initPaints()
@@ -319,13 +319,14 @@ class VirtualTouchPad(
             TouchPadState.DOUBLE_CLICK -> {
                 // Double Click! Trigger centered movement and click!
                 // Calculate on-screen centered position
-                var onScreenMouseX: Float = (screenWidth / 2) + (centeredDeltaX * mouseMoveRatio)
-                var onScreenMouseY: Float = (screenHeight / 2) + (centeredDeltaY * mouseMoveRatio)
+                val mouseSettings = settingsManager.mouseStickSettings
+                var onScreenMouseX: Float = (screenWidth / 2) + (centeredDeltaX * mouseSettings.moveRatio)
+                var onScreenMouseY: Float = (screenHeight / 2) + (centeredDeltaY * mouseSettings.moveRatio)
                 // Sanity check
-                var minRangeX = (0.5f - settingsManager.mouseRightStickRangeLeft / 2) * screenWidth
-                var maxRangeX = (0.5f + settingsManager.mouseRightStickRangeRight / 2) * screenWidth
-                var minRangeY = (0.5f - settingsManager.mouseRightStickRangeTop / 2) * screenHeight
-                var maxRangeY = (0.5f + settingsManager.mouseRightStickRangeBottom / 2) * screenHeight
+                var minRangeX = mouseSettings.minX(screenWidth)
+                var maxRangeX = mouseSettings.maxX(screenWidth)
+                var minRangeY = mouseSettings.minY(screenHeight)
+                var maxRangeY = mouseSettings.maxY(screenHeight)
                 if (minRangeX >= maxRangeX || minRangeY >= maxRangeY) {
                     minRangeX = screenWidth * 0.5f
                     maxRangeX = screenWidth * 0.5f
@@ -408,13 +409,14 @@ class VirtualTouchPad(
                     idleDelayHandler.removeCallbacksAndMessages(null)
                     // Double Click! Trigger centered movement and click!
                     // Calculate on-screen centered position
-                    var onScreenMouseX: Float = (screenWidth / 2) + (centeredDeltaX * mouseMoveRatio)
-                    var onScreenMouseY: Float = (screenHeight / 2) + (centeredDeltaY * mouseMoveRatio)
+                    val mouseSettings = settingsManager.mouseStickSettings
+                    var onScreenMouseX: Float = (screenWidth / 2) + (centeredDeltaX * mouseSettings.moveRatio)
+                    var onScreenMouseY: Float = (screenHeight / 2) + (centeredDeltaY * mouseSettings.moveRatio)
                     // Sanity check
-                    var minRangeX = (0.5f - settingsManager.mouseRightStickRangeLeft / 2) * screenWidth
-                    var maxRangeX = (0.5f + settingsManager.mouseRightStickRangeRight / 2) * screenWidth
-                    var minRangeY = (0.5f - settingsManager.mouseRightStickRangeTop / 2) * screenHeight
-                    var maxRangeY = (0.5f + settingsManager.mouseRightStickRangeBottom / 2) * screenHeight
+                    var minRangeX = mouseSettings.minX(screenWidth)
+                    var maxRangeX = mouseSettings.maxX(screenWidth)
+                    var minRangeY = mouseSettings.minY(screenHeight)
+                    var maxRangeY = mouseSettings.maxY(screenHeight)
                     if (minRangeX >= maxRangeX || minRangeY >= maxRangeY) {
                         minRangeX = screenWidth * 0.5f
                         maxRangeX = screenWidth * 0.5f
@@ -0,0 +1,160 @@
+package com.app.ralaunch.feature.filebrowser
+
+import java.io.IOException
+import java.nio.file.DirectoryIteratorException
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.attribute.BasicFileAttributes
+
+/**
+ * 目录扫描器
+ *
+ * 每个条目只通过一次 [Files.readAttributes] 取得类型、大小与修改时间，
+ * 结果按 [pageSize] 分页回调；整个目录列表按目录 mtime 缓存，目录未变化时直接复用。
+ * 不负责线程切换，由调用方放到 IO 调度器上执行。
+ */
+class DirectoryScanner(
+    private val pageSize: Int = DEFAULT_PAGE_SIZE,
+    private val maxCachedDirectories: Int = DEFAULT_MAX_CACHED_DIRECTORIES
+) {
+
+    fun interface PageListener {
+        /**
+         * @param page 本页新增条目（未排序、未按扩展名过滤）
+         */
+        fun onPage(page: List<FileItemData>)
+    }
+
+    private class CachedListing(val lastModified: Long, val entries: List<FileItemData>)
+
+    private val cache = object : LinkedHashMap<String, CachedListing>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, CachedListing>): Boolean =
+            size > maxCachedDirectories
+    }
+
+    /**
+     * 扫描目录下所有非隐藏条目
+     *
+     * 缓存命中时只回调一页完整列表；[isCancelled] 返回 true 时提前结束，且不写入缓存。
+     *
+     * @return 完整条目列表；目录不存在或不可读时返回 null
+     */
+    fun scan(
+        directory: Path,
+        listener: PageListener? = null,
+        isCancelled: () -> Boolean = { false }
+    ): List<FileItemData>? {
+        val key = directory.toAbsolutePath().toString()
+        val dirAttrs = try {
+            Files.readAttributes(directory, BasicFileAttributes::class.java)
+        } catch (e: IOException) {
+            return null
+        }
+        if (!dirAttrs.isDirectory) return null
+        val dirModified = dirAttrs.lastModifiedTime().toMillis()
+
+        synchronized(cache) { cache[key] }?.let { cached ->
+            if (cached.lastModified == dirModified) {
+                listener?.onPage(cached.entries)
+                return cached.entries
+            }
+        }
+
+        val entries = ArrayList<FileItemData>()
+        var pageStart = 0
+        try {
+            Files.newDirectoryStream(directory).use { stream ->
+                for (entry in stream) {
+                    if (isCancelled()) return null
+                    val name = entry.fileName?.toString() ?: continue
+                    // 与 File.isHidden 在 Unix 上的语义一致
+                    if (name.startsWith(".")) continue
+                    val attrs = try {
+                        Files.readAttributes(entry, BasicFileAttributes::class.java)
+                    } catch (e: IOException) {
+                        // 失效的符号链接等，跳过
+                        continue
+                    }
+                    if (!attrs.isDirectory && !attrs.isRegularFile) continue
+                    entries.add(
+                        FileItemData(
+                            name = name,
+                            path = entry.toAbsolutePath().toString(),
+                            isDirectory = attrs.isDirectory,
+                            size = if (attrs.isDirectory) 0 else attrs.size(),
+                            lastModified = attrs.lastModifiedTime().toMillis()
+                        )
+                    )
+                    if (entries.size - pageStart >= pageSize) {
+                        listener?.onPage(entries.subList(pageStart, entries.size).toList())
+                        pageStart = entries.size
+                    }
+                }
+            }
+        } catch (e: IOException) {
+            return null
+        } catch (e: DirectoryIteratorException) {
+            return null
+        }
+        if (pageStart < entries.size || entries.isEmpty()) {
+            listener?.onPage(entries.subList(pageStart, entries.size).toList())
+        }
+
+        synchronized(cache) { cache[key] = CachedListing(dirModified, entries) }
+        return entries
+    }
+
+    fun invalidate(directory: Path) {
+        synchronized(cache) { cache.remove(directory.toAbsolutePath().toString()) }
+    }
+
+    fun clear() {
+        synchronized(cache) { cache.clear() }
+    }
+
+    companion object {
+        const val DEFAULT_PAGE_SIZE = 256
+        const val DEFAULT_MAX_CACHED_DIRECTORIES = 16
+    }
+}
+
+/**
+ * 增量搜索
+ *
+ * 新关键字包含上一次的关键字时（继续输入），只在上一次的结果中继续筛选；
+ * 否则（删字、换词或数据源变化）从完整列表重新筛选。
+ */
+class IncrementalSearch {
+
+    private var source: List<FileItemData> = emptyList()
+    private var lastQuery = ""
+    private var lastResult: List<FileItemData> = emptyList()
+
+    /**
+     * 替换数据源，之后的搜索从头开始
+     */
+    fun setSource(files: List<FileItemData>) {
+        source = files
+        lastQuery = ""
+        lastResult = files
+    }
+
+    fun filter(query: String): List<FileItemData> {
+        if (query.isBlank()) {
+            lastQuery = ""
+            lastResult = source
+            return source
+        }
+        if (query.equals(lastQuery, ignoreCase = true)) return lastResult
+
+        val base = if (lastQuery.isNotEmpty() && query.contains(lastQuery, ignoreCase = true)) {
+            lastResult
+        } else {
+            source
+        }
+        val result = base.filter { it.name.contains(query, ignoreCase = true) }
+        lastQuery = query
+        lastResult = result
+        return result
+    }
+}
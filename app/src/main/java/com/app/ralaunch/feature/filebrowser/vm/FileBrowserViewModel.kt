@@ -2,22 +2,34 @@ package com.app.ralaunch.feature.filebrowser.vm
 
 import android.os.Environment
 import androidx.lifecycle.ViewModel
+import androidx.lifecycle.viewModelScope
+import com.app.ralaunch.feature.filebrowser.DirectoryScanner
 import com.app.ralaunch.feature.filebrowser.FileBrowserUiState
 import com.app.ralaunch.feature.filebrowser.FileItemData
+import com.app.ralaunch.feature.filebrowser.IncrementalSearch
 import com.app.ralaunch.feature.filebrowser.SortMode
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.StateFlow
 import kotlinx.coroutines.flow.asStateFlow
 import kotlinx.coroutines.flow.update
+import kotlinx.coroutines.isActive
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.withContext
 import java.io.File
 
-class FileBrowserViewModel : ViewModel() {
+class FileBrowserViewModel(
+    private val scanner: DirectoryScanner = DirectoryScanner()
+) : ViewModel() {
     private val _uiState = MutableStateFlow(FileBrowserUiState())
     val uiState: StateFlow<FileBrowserUiState> = _uiState.asStateFlow()
 
     private var allowedExtensions: List<String> = emptyList()
     private var allFiles: List<FileItemData> = emptyList()
+    private val search = IncrementalSearch()
     private var initializedKey: String? = null
+    private var loadJob: Job? = null
 
     fun initialize(
         initialPath: String,
@@ -59,8 +71,7 @@ class FileBrowserViewModel : ViewModel() {
 
     fun onSortModeChange(sortMode: SortMode) {
         _uiState.update { it.copy(sortMode = sortMode) }
-        allFiles = sortFiles(allFiles, sortMode)
-        refreshVisibleFiles()
+        setAllFiles(sortFiles(allFiles, sortMode))
     }
 
     fun onFileClick(file: FileItemData) {
@@ -77,76 +88,83 @@ class FileBrowserViewModel : ViewModel() {
     }
 
     private fun loadDirectory(path: String) {
+        loadJob?.cancel()
         _uiState.update { it.copy(isLoading = true) }
 
         val directory = File(path)
-        if (!directory.exists() || !directory.isDirectory) {
-            _uiState.update { it.copy(isLoading = false) }
-            return
-        }
-
-        val newFiles = mutableListOf<FileItemData>()
-
-        directory.parentFile?.let { parent ->
-            if (!isRootDirectory(directory)) {
-                newFiles.add(
-                    FileItemData(
-                        name = "..",
-                        path = parent.absolutePath,
-                        isDirectory = true,
-                        isParent = true
-                    )
+        val parentItem = directory.parentFile
+            ?.takeIf { !isRootDirectory(directory) }
+            ?.let { parent ->
+                FileItemData(
+                    name = "..",
+                    path = parent.absolutePath,
+                    isDirectory = true,
+                    isParent = true
                 )
             }
+        val extensions = allowedExtensions.map { it.lowercase() }
+
+        loadJob = viewModelScope.launch {
+            val accumulated = ArrayList<FileItemData>()
+            var firstPage = true
+            val entries = withContext(Dispatchers.IO) {
+                scanner.scan(
+                    directory = directory.toPath(),
+                    listener = { page ->
+                        // 分页推送到界面，大目录无需等待扫描结束
+                        val visible = page.filter { it.isDirectory || isFileAllowed(it.name, extensions) }
+                        accumulated.addAll(visible)
+                        val snapshot = buildList {
+                            parentItem?.let { add(it) }
+                            addAll(accumulated)
+                        }
+                        val switchDirectory = firstPage
+                        firstPage = false
+                        launch(Dispatchers.Main.immediate) {
+                            publishFiles(directory, snapshot, switchDirectory, isLoading = true)
+                        }
+                    },
+                    isCancelled = { !isActive }
+                )
+            }
+            if (entries == null) {
+                _uiState.update { it.copy(isLoading = false) }
+                return@launch
+            }
+            val files = buildList {
+                parentItem?.let { add(it) }
+                entries.filterTo(this) { it.isDirectory || isFileAllowed(it.name, extensions) }
+            }
+            publishFiles(directory, files, switchDirectory = firstPage, isLoading = false)
         }
+    }
 
-        directory.listFiles()?.let { dirFiles ->
-            dirFiles.filter { it.isDirectory && !it.isHidden }
-                .forEach {
-                    newFiles.add(
-                        FileItemData(
-                            name = it.name,
-                            path = it.absolutePath,
-                            isDirectory = true,
-                            size = 0,
-                            lastModified = it.lastModified()
-                        )
-                    )
-                }
-
-            dirFiles.filter { it.isFile && !it.isHidden && isFileAllowed(it, allowedExtensions) }
-                .forEach {
-                    newFiles.add(
-                        FileItemData(
-                            name = it.name,
-                            path = it.absolutePath,
-                            isDirectory = false,
-                            size = it.length(),
-                            lastModified = it.lastModified()
-                        )
-                    )
-                }
+    private fun publishFiles(
+        directory: File,
+        files: List<FileItemData>,
+        switchDirectory: Boolean,
+        isLoading: Boolean
+    ) {
+        if (switchDirectory) {
+            _uiState.update {
+                it.copy(
+                    currentPath = directory.absolutePath,
+                    selectedFile = null
+                )
+            }
         }
+        _uiState.update { it.copy(isLoading = isLoading) }
+        setAllFiles(sortFiles(files, _uiState.value.sortMode))
+    }
 
-        allFiles = sortFiles(newFiles, _uiState.value.sortMode)
-        _uiState.update {
-            it.copy(
-                currentPath = directory.absolutePath,
-                selectedFile = null,
-                isLoading = false
-            )
-        }
+    private fun setAllFiles(files: List<FileItemData>) {
+        allFiles = files
+        search.setSource(files)
         refreshVisibleFiles()
     }
 
     private fun refreshVisibleFiles() {
-        val query = _uiState.value.searchQuery
-        val filteredFiles = if (query.isBlank()) {
-            allFiles
-        } else {
-            allFiles.filter { it.name.contains(query, ignoreCase = true) }
-        }
-
+        val filteredFiles = search.filter(_uiState.value.searchQuery)
         _uiState.update { it.copy(files = filteredFiles) }
     }
 
@@ -168,10 +186,10 @@ class FileBrowserViewModel : ViewModel() {
         return directory.absolutePath == "/" || directory.absolutePath == externalStorage.absolutePath
     }
 
-    private fun isFileAllowed(file: File, allowedExtensions: List<String>): Boolean {
-        if (allowedExtensions.isEmpty()) return true
-        val fileName = file.name.lowercase()
-        return allowedExtensions.any { fileName.endsWith(it.lowercase()) }
+    private fun isFileAllowed(name: String, lowercaseExtensions: List<String>): Boolean {
+        if (lowercaseExtensions.isEmpty()) return true
+        val fileName = name.lowercase()
+        return lowercaseExtensions.any { fileName.endsWith(it) }
     }
 
     private fun sortFiles(files: List<FileItemData>, sortMode: SortMode): List<FileItemData> {
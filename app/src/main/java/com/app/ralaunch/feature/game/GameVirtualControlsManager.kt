@@ -8,6 +8,7 @@ import androidx.compose.ui.platform.ComposeView
 import androidx.lifecycle.setViewTreeLifecycleOwner
 import androidx.savedstate.setViewTreeSavedStateRegistryOwner
 import com.app.ralaunch.R
+import com.app.ralaunch.feature.controls.bridges.CoalescingInputBridge
 import com.app.ralaunch.feature.controls.bridges.SDLInputBridge
 import com.app.ralaunch.feature.controls.editors.ui.GameControlsOverlay
 import com.app.ralaunch.feature.controls.packs.ControlPackManager
@@ -34,6 +35,7 @@ class GameVirtualControlsManager {
         private set
     var inputBridge: SDLInputBridge? = null
         private set
+    private var motionBridge: CoalescingInputBridge? = null
     private var fpsDisplayView: FPSDisplayView? = null
     private var settingsManager: SettingsAccess? = null
     private var composeOverlay: ComposeView? = null
@@ -58,14 +60,20 @@ class GameVirtualControlsManager {
     ) {
         try {
             settingsManager = SettingsAccess
-            inputBridge = SDLInputBridge()
+            val sdlBridge = SDLInputBridge()
+            inputBridge = sdlBridge
+            // 摇杆与触控板的移动按帧合并后再发送到 SDL
+            motionBridge = CoalescingInputBridge(sdlBridge)
             onExitGameCallback = onExitGame
 
             controlLayout = ControlLayout(activity).apply {
-                this.inputBridge = this@GameVirtualControlsManager.inputBridge
+                this.inputBridge = this@GameVirtualControlsManager.motionBridge
+                renderMode = ControlLayout.RenderMode.BATCHED
                 loadLayoutFromPackManager()
             }
             disableClippingRecursive(controlLayout!!)
+            // 后台预加载快速切换布局，游戏内切换时无需读盘解析
+            KoinJavaComponent.get<ControlPackManager>(ControlPackManager::class.java).preloadQuickSwitchLayouts()
 
             val params = ViewGroup.LayoutParams(
                 ViewGroup.LayoutParams.MATCH_PARENT,
@@ -121,7 +129,10 @@ class GameVirtualControlsManager {
                         packManager = packManager,
                         settingsManager = settings,
                         toggleFloatingBallEvent = toggleFloatingBallEvent,
-                        onExitGame = { onExitGameCallback?.invoke() },
+                        onExitGame = {
+                            packManager.flushState()
+                            onExitGameCallback?.invoke()
+                        },
                         onEditModeChanged = { inEditMode -> 
                             isInEditMode = inEditMode
                             control.isModifiable = inEditMode
@@ -226,6 +237,7 @@ class GameVirtualControlsManager {
     }
 
     fun stop() {
+        motionBridge?.release()
         fpsDisplayView?.stop()
         com.app.ralaunch.core.common.ConsoleManager.stop()
     }
@@ -0,0 +1,414 @@
+package com.app.ralaunch.feature.gog.data
+
+import com.app.ralaunch.core.common.util.FileCopier
+import com.app.ralaunch.core.logging.AppLog
+import com.app.ralaunch.feature.gog.data.model.GogDepotChunk
+import com.app.ralaunch.feature.gog.data.model.GogDepotItem
+import java.io.File
+import java.io.IOException
+import java.io.InputStream
+import java.io.RandomAccessFile
+import java.net.HttpURLConnection
+import java.net.URL
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
+import java.nio.file.StandardOpenOption
+import java.security.MessageDigest
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicReference
+import java.util.zip.DataFormatException
+import java.util.zip.Inflater
+
+/**
+ * Galaxy v2 Depot 分块安装器
+ *
+ * 按 [GogGalaxyApi.getDepotItems] 给出的清单直接从 CDN 下载压缩块：
+ * - 多个连接并行获取块，zlib 解压后分别校验压缩前/解压后的 MD5
+ * - 目标文件预分配长度，每个块写入其解压偏移处
+ * - 已在磁盘上且 MD5 正确的块直接复用；多个文件共享的块只下载一次
+ * - `sfcRef` 项从小文件容器中切出，容器用完即删除
+ *
+ * 中途失败或取消后再次调用会自动跳过已写好的块。
+ *
+ * @param chunkUrl 由压缩块 MD5 生成下载地址（通常为 secure link 基址 + galaxy 路径）
+ * @param headersProvider 每次建立连接时提供的请求头
+ */
+class GogDepotInstaller(
+    private val chunkUrl: (compressedMd5: String) -> String,
+    private val connectionCount: Int = DEFAULT_CONNECTIONS,
+    private val maxChunkRetries: Int = GogConstants.MAX_RETRIES,
+    private val retryDelayMs: Long = GogConstants.RETRY_DELAY_MS.toLong(),
+    private val timeoutMs: Int = GogConstants.DOWNLOAD_TIMEOUT_MS,
+    private val headersProvider: () -> Map<String, String> = { emptyMap() }
+) {
+
+    /** 块内容与清单中的 MD5 不符 */
+    class ChunkVerificationException(val chunkMd5: String, message: String) : IOException(message)
+
+    /** 一次安装的统计信息 */
+    data class Result(
+        val filesWritten: Int,
+        val chunksDownloaded: Int,
+        val chunksReused: Int,
+        val bytesDownloaded: Long
+    )
+
+    /** 块的一个写入目标 */
+    private class Placement(val file: File, val offset: Long)
+
+    /** 需要下载的唯一块及其全部写入目标 */
+    private class ChunkTask(val chunk: GogDepotChunk, val placements: MutableList<Placement>)
+
+    /**
+     * 安装清单中的全部项目
+     *
+     * @param progress 以压缩字节数报告进度
+     * @param isCancelled 取消检查，在每个块开始前与读取数据时调用
+     */
+    @Throws(IOException::class)
+    fun install(
+        items: List<GogDepotItem>,
+        installDir: File,
+        progress: GogDownloader.DownloadProgress? = null,
+        isCancelled: () -> Boolean = { false }
+    ): Result {
+        if (!installDir.exists() && !installDir.mkdirs()) {
+            throw IOException("Cannot create ${installDir.absolutePath}")
+        }
+        val root = installDir.canonicalFile
+        val container = items.firstOrNull { it.isSmallFilesContainer && it.chunks.isNotEmpty() }
+        val containerFile = container?.let { File(File(root, SFC_DIR), it.md5.ifEmpty { "container" }) }
+        val sfcItems = if (container != null) items.filter { it.isInSFC && !it.isSmallFilesContainer } else emptyList()
+
+        // 1. 规划：预分配文件、复用已有块、按压缩 MD5 合并共享块
+        val tasks = LinkedHashMap<String, ChunkTask>()
+        var reused = 0
+        var filesWritten = 0
+        for (item in items) {
+            if (isCancelled()) throw DownloadCancelledException()
+            val target = when {
+                item.isSmallFilesContainer -> if (item === container) containerFile!! else continue
+                item.isInSFC && container != null -> continue
+                else -> resolveTarget(root, item.path)
+            }
+            val hadContent = prepareFile(target, item.totalSizeUncompressed)
+            if (item !== container) filesWritten++
+            if (item.chunks.isEmpty()) continue
+
+            RandomAccessFile(target, "r").use { raf ->
+                for (chunk in item.chunks) {
+                    // 新建的文件不可能已有块，跳过逐块 MD5
+                    if (hadContent && isChunkPresent(raf, chunk)) {
+                        reused++
+                        continue
+                    }
+                    tasks.getOrPut(chunk.md5Compressed.ifEmpty { chunk.md5Uncompressed }) {
+                        ChunkTask(chunk, mutableListOf())
+                    }.placements.add(Placement(target, chunk.offsetUncompressed))
+                }
+            }
+        }
+
+        val totalCompressed = tasks.values.sumOf { it.chunk.sizeCompressed }
+        AppLog.i(TAG, "Depot plan: $filesWritten files, ${tasks.size} chunks to download " +
+            "($totalCompressed bytes), $reused chunks reused")
+
+        // 2. 并行下载、解压、校验并写入
+        val downloaded = AtomicLong(0)
+        if (tasks.isNotEmpty()) {
+            downloadChunks(tasks.values.toList(), totalCompressed, downloaded, progress, isCancelled)
+        }
+
+        // 3. 从小文件容器切出 sfcRef 项
+        if (containerFile != null) {
+            for (item in sfcItems) {
+                if (isCancelled()) throw DownloadCancelledException()
+                sliceFromContainer(containerFile, resolveTarget(root, item.path), item.sfcOffset, item.sfcSize)
+                filesWritten++
+            }
+            containerFile.delete()
+            containerFile.parentFile?.delete()
+        }
+
+        progress?.onProgress(totalCompressed, totalCompressed, 0)
+        return Result(
+            filesWritten = filesWritten,
+            chunksDownloaded = tasks.size,
+            chunksReused = reused,
+            bytesDownloaded = downloaded.get()
+        )
+    }
+
+    // ==================== 规划 ====================
+
+    private fun resolveTarget(root: File, relativePath: String): File {
+        val normalized = relativePath.replace('\\', '/').trimStart('/')
+        val target = File(root, normalized).canonicalFile
+        if (!target.path.startsWith(root.path + File.separator)) {
+            throw IOException("Depot item escapes install directory: $relativePath")
+        }
+        return target
+    }
+
+    /**
+     * 创建并预分配目标文件
+     *
+     * @return 文件在预分配前是否已有内容（决定是否需要检查可复用的块）
+     */
+    private fun prepareFile(target: File, size: Long): Boolean {
+        target.parentFile?.let {
+            if (!it.exists() && !it.mkdirs()) throw IOException("Cannot create ${it.absolutePath}")
+        }
+        RandomAccessFile(target, "rw").use { raf ->
+            val existing = raf.length()
+            if (existing != size) raf.setLength(size)
+            return existing > 0
+        }
+    }
+
+    /**
+     * 检查文件中对应偏移处是否已经是该块的解压内容
+     */
+    private fun isChunkPresent(raf: RandomAccessFile, chunk: GogDepotChunk): Boolean {
+        if (chunk.md5Uncompressed.isEmpty()) return false
+        if (chunk.offsetUncompressed + chunk.sizeUncompressed > raf.length()) return false
+        val buffer = ByteArray(chunk.sizeUncompressed.toInt())
+        raf.seek(chunk.offsetUncompressed)
+        raf.readFully(buffer)
+        return md5Hex(buffer, buffer.size).equals(chunk.md5Uncompressed, ignoreCase = true)
+    }
+
+    // ==================== 下载 ====================
+
+    private fun downloadChunks(
+        tasks: List<ChunkTask>,
+        totalCompressed: Long,
+        downloaded: AtomicLong,
+        progress: GogDownloader.DownloadProgress?,
+        isCancelled: () -> Boolean
+    ) {
+        val pending = ConcurrentLinkedQueue(tasks)
+        val failure = AtomicReference<IOException?>(null)
+        // 任一块彻底失败后，其余连接在下一次读取时停止
+        val aborted = { isCancelled() || failure.get() != null }
+        val channels = ConcurrentHashMap<File, FileChannel>()
+        val workers = minOf(connectionCount, tasks.size).coerceAtLeast(1)
+        val latch = CountDownLatch(workers)
+        val executor = Executors.newFixedThreadPool(workers)
+
+        try {
+            repeat(workers) {
+                executor.execute {
+                    val inflater = Inflater()
+                    try {
+                        while (failure.get() == null) {
+                            val task = pending.poll() ?: break
+                            if (isCancelled()) throw DownloadCancelledException()
+                            val data = fetchChunkWithRetry(task.chunk, inflater, downloaded, aborted)
+                            for (placement in task.placements) {
+                                val channel = channels.computeIfAbsent(placement.file) {
+                                    FileChannel.open(it.toPath(), StandardOpenOption.WRITE)
+                                }
+                                writeFully(channel, data, placement.offset)
+                            }
+                        }
+                    } catch (e: IOException) {
+                        failure.compareAndSet(null, e)
+                    } catch (e: Exception) {
+                        failure.compareAndSet(null, IOException(e.message, e))
+                    } finally {
+                        inflater.end()
+                        latch.countDown()
+                    }
+                }
+            }
+            executor.shutdown()
+
+            var lastTime = System.currentTimeMillis()
+            var lastDownloaded = 0L
+            while (!latch.await(PROGRESS_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                val now = System.currentTimeMillis()
+                val current = downloaded.get()
+                val speed = if (now > lastTime) (current - lastDownloaded) * 1000 / (now - lastTime) else 0
+                progress?.onProgress(current, totalCompressed, speed)
+                lastTime = now
+                lastDownloaded = current
+            }
+        } finally {
+            executor.shutdownNow()
+            channels.values.forEach { channel ->
+                try {
+                    channel.force(false)
+                    channel.close()
+                } catch (e: IOException) {
+                    AppLog.w(TAG, "Failed to close depot file: ${e.message}")
+                }
+            }
+        }
+
+        failure.get()?.let { throw it }
+    }
+
+    private fun fetchChunkWithRetry(
+        chunk: GogDepotChunk,
+        inflater: Inflater,
+        downloaded: AtomicLong,
+        isCancelled: () -> Boolean
+    ): ByteArray {
+        var attempt = 0
+        while (true) {
+            var counted = 0L
+            try {
+                val compressed = fetchCompressed(chunk, isCancelled) { bytes ->
+                    counted += bytes
+                    downloaded.addAndGet(bytes.toLong())
+                }
+                return inflateAndVerify(chunk, compressed, inflater)
+            } catch (e: DownloadCancelledException) {
+                downloaded.addAndGet(-counted)
+                throw e
+            } catch (e: HttpStatusException) {
+                downloaded.addAndGet(-counted)
+                throw e
+            } catch (e: IOException) {
+                downloaded.addAndGet(-counted)
+                attempt++
+                if (attempt > maxChunkRetries) throw e
+                AppLog.w(TAG, "Chunk ${chunk.md5Compressed} failed (attempt $attempt): ${e.message}")
+                SegmentedDownloader.waitBeforeRetry(retryDelayMs, isCancelled)
+            }
+        }
+    }
+
+    private fun fetchCompressed(
+        chunk: GogDepotChunk,
+        isCancelled: () -> Boolean,
+        onBytes: (Int) -> Unit
+    ): ByteArray {
+        val conn = URL(chunkUrl(chunk.md5Compressed)).openConnection() as HttpURLConnection
+        conn.instanceFollowRedirects = true
+        conn.connectTimeout = timeoutMs
+        conn.readTimeout = timeoutMs
+        headersProvider().forEach { (key, value) -> conn.setRequestProperty(key, value) }
+        try {
+            val code = conn.responseCode
+            if (code >= 400) throw HttpStatusException(code)
+            val expected = chunk.sizeCompressed.toInt()
+            val data = ByteArray(expected)
+            conn.inputStream.use { input ->
+                val read = readFully(input, data, isCancelled, onBytes)
+                if (read != expected || input.read() != -1) {
+                    throw IOException("Chunk ${chunk.md5Compressed} size mismatch: expected $expected bytes")
+                }
+            }
+            return data
+        } finally {
+            conn.disconnect()
+        }
+    }
+
+    private fun readFully(
+        input: InputStream,
+        target: ByteArray,
+        isCancelled: () -> Boolean,
+        onBytes: (Int) -> Unit
+    ): Int {
+        var offset = 0
+        while (offset < target.size) {
+            if (isCancelled()) throw DownloadCancelledException()
+            val read = input.read(target, offset, minOf(BUFFER_SIZE, target.size - offset))
+            if (read == -1) break
+            offset += read
+            onBytes(read)
+        }
+        return offset
+    }
+
+    private fun inflateAndVerify(chunk: GogDepotChunk, compressed: ByteArray, inflater: Inflater): ByteArray {
+        if (chunk.md5Compressed.isNotEmpty()) {
+            val actual = md5Hex(compressed, compressed.size)
+            if (!actual.equals(chunk.md5Compressed, ignoreCase = true)) {
+                throw ChunkVerificationException(
+                    chunk.md5Compressed,
+                    "Compressed MD5 mismatch: expected ${chunk.md5Compressed}, got $actual"
+                )
+            }
+        }
+
+        val output = ByteArray(chunk.sizeUncompressed.toInt())
+        inflater.reset()
+        inflater.setInput(compressed)
+        var produced = 0
+        try {
+            while (produced < output.size && !inflater.finished()) {
+                val n = inflater.inflate(output, produced, output.size - produced)
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) break
+                produced += n
+            }
+        } catch (e: DataFormatException) {
+            throw ChunkVerificationException(chunk.md5Compressed, "Corrupt zlib stream: ${e.message}")
+        }
+        if (produced != output.size || !inflater.finished()) {
+            throw ChunkVerificationException(
+                chunk.md5Compressed,
+                "Inflated size mismatch: expected ${output.size}, got $produced"
+            )
+        }
+
+        if (chunk.md5Uncompressed.isNotEmpty()) {
+            val actual = md5Hex(output, output.size)
+            if (!actual.equals(chunk.md5Uncompressed, ignoreCase = true)) {
+                throw ChunkVerificationException(
+                    chunk.md5Compressed,
+                    "Uncompressed MD5 mismatch: expected ${chunk.md5Uncompressed}, got $actual"
+                )
+            }
+        }
+        return output
+    }
+
+    private fun writeFully(channel: FileChannel, data: ByteArray, position: Long) {
+        val buffer = ByteBuffer.wrap(data)
+        var pos = position
+        while (buffer.hasRemaining()) {
+            pos += channel.write(buffer, pos)
+        }
+    }
+
+    // ==================== 小文件容器 ====================
+
+    private fun sliceFromContainer(container: File, target: File, offset: Long, size: Long) {
+        FileCopier.copyRange(container, offset, size, target)
+    }
+
+    companion object {
+        private const val TAG = "GogDepotInstaller"
+        private const val SFC_DIR = ".galaxy_sfc"
+        private const val BUFFER_SIZE = 64 * 1024
+        private const val PROGRESS_INTERVAL_MS = 500L
+
+        const val DEFAULT_CONNECTIONS = 4
+
+        /**
+         * 将 CDN 基址与块 MD5 拼接为 Galaxy 块地址（`ab/cd/abcd...`）
+         */
+        @JvmStatic
+        fun galaxyChunkUrl(baseUrl: String, compressedMd5: String): String {
+            val path = if (compressedMd5.length >= 4) {
+                "${compressedMd5.substring(0, 2)}/${compressedMd5.substring(2, 4)}/$compressedMd5"
+            } else compressedMd5
+            return "${baseUrl.trimEnd('/')}/$path"
+        }
+
+        private fun md5Hex(data: ByteArray, length: Int): String {
+            val digest = MessageDigest.getInstance("MD5")
+            digest.update(data, 0, length)
+            return digest.digest().joinToString("") { "%02x".format(it) }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.app.ralaunch.feature.gog.data
+
+import java.io.IOException
+
+/** 下载被取消，`.part` 与状态文件会被保留用于续传 */
+class DownloadCancelledException : IOException("Download cancelled")
+
+/** 服务器返回错误状态码 */
+class HttpStatusException(val code: Int) : IOException("HTTP $code")
@@ -45,83 +45,16 @@ class GogDownloader(private val authClient: GogAuthClient) {
     }
 
     /**
-     * 重置取消状态
+     * 重置取消状态，仅在用户发起新的下载时调用
      */
     fun reset() {
         isCancelled = false
     }
 
-    /**
-     * 下载文件（带认证）
-     */
-    @Throws(IOException::class)
-    fun downloadWithAuth(
-        urlString: String,
-        targetFile: File,
-        progress: DownloadProgress? = null
-    ) {
-        reset()
-        
-        targetFile.parentFile?.let {
-            if (!it.exists() && !it.mkdirs()) {
-                throw IOException(authClient.localize(R.string.gog_error_cannot_create_download_dir, it.absolutePath))
-            }
-        }
-
-        executeWithRetry({
-            val accessToken = authClient.getAccessToken()
-            val conn = URL(urlString).openConnection() as HttpURLConnection
-            try {
-                conn.instanceFollowRedirects = true
-                accessToken?.let { conn.setRequestProperty("Authorization", "Bearer $it") }
-                conn.connectTimeout = GogConstants.DOWNLOAD_TIMEOUT_MS
-                conn.readTimeout = GogConstants.DOWNLOAD_TIMEOUT_MS
-
-                val code = conn.responseCode
-                if (code >= 400) throw IOException(authClient.localize(R.string.gog_error_download_failed, code))
-
-                val total = conn.contentLengthLong
-                var lastTime = System.currentTimeMillis()
-                var lastDownloaded = 0L
-
-                conn.inputStream.use { input ->
-                    FileOutputStream(targetFile).use { output ->
-                        val buffer = ByteArray(8192)
-                        var downloaded = 0L
-                        var len: Int
-                        
-                        while (input.read(buffer).also { len = it } != -1) {
-                            if (isCancelled) {
-                                throw IOException(authClient.localize(R.string.gog_download_cancelled))
-                            }
-                            
-                            output.write(buffer, 0, len)
-                            downloaded += len
-                            
-                            // 计算速度
-                            val currentTime = System.currentTimeMillis()
-                            val timeDiff = currentTime - lastTime
-                            if (timeDiff >= 1000) {
-                                val bytesPerSecond = ((downloaded - lastDownloaded) * 1000) / timeDiff
-                                progress?.onProgress(downloaded, total, bytesPerSecond)
-                                lastTime = currentTime
-                                lastDownloaded = downloaded
-                            }
-                        }
-                        
-                        // 最终回调
-                        progress?.onProgress(downloaded, total, 0)
-                    }
-                }
-            } finally {
-                conn.disconnect()
-            }
-            null
-        }, "download ${targetFile.name}")
-    }
-
     /**
      * 下载游戏文件
+     *
+     * 使用分段并行下载，支持断点续传；清单提供 md5 时校验下载结果
      */
     @Throws(IOException::class)
     fun downloadGameFile(
@@ -135,146 +68,68 @@ class GogDownloader(private val authClient: GogAuthClient) {
         val downloadUrl = gameFile.manualUrl.ifEmpty {
             throw IOException(authClient.localize(R.string.gog_cannot_get_download_link))
         }
-        
-        downloadWithAuth(downloadUrl, targetFile, progress)
+
+        if (!targetDir.exists() && !targetDir.mkdirs()) {
+            throw IOException(authClient.localize(R.string.gog_error_cannot_create_download_dir, targetDir.absolutePath))
+        }
+
+        val expectedMd5 = fetchExpectedMd5(gameFile)
+        val segmentedDownloader = SegmentedDownloader(
+            headersProvider = {
+                authClient.getAccessToken()?.let { mapOf("Authorization" to "Bearer $it") } ?: emptyMap()
+            }
+        )
+
+        try {
+            segmentedDownloader.download(
+                url = downloadUrl,
+                targetFile = targetFile,
+                expectedMd5 = expectedMd5,
+                progress = progress,
+                isCancelled = { isCancelled }
+            )
+        } catch (e: DownloadCancelledException) {
+            throw IOException(authClient.localize(R.string.gog_download_cancelled), e)
+        } catch (e: SegmentedDownloader.ChecksumMismatchException) {
+            AppLog.e(TAG, "Checksum mismatch for $fileName: ${e.message}")
+            throw IOException(authClient.localize(R.string.gog_error_checksum_mismatch), e)
+        } catch (e: HttpStatusException) {
+            throw IOException(authClient.localize(R.string.gog_error_download_failed, e.code), e)
+        } catch (e: java.net.UnknownHostException) {
+            throw IOException(authClient.localize(R.string.gog_error_dns_failed), e)
+        } catch (e: java.net.SocketTimeoutException) {
+            throw IOException(authClient.localize(R.string.gog_error_connection_timeout), e)
+        }
         return targetFile
     }
 
     /**
-     * 带断点续传的下载
+     * 从 downlink 的 checksum 清单中读取整文件 md5（不可用时返回 null）
      */
-    @Throws(IOException::class)
-    fun downloadWithResume(
-        urlString: String,
-        targetFile: File,
-        progress: DownloadProgress? = null
-    ) {
-        reset()
-        
-        targetFile.parentFile?.let {
-            if (!it.exists() && !it.mkdirs()) {
-                throw IOException(authClient.localize(R.string.gog_error_cannot_create_download_dir, it.absolutePath))
-            }
-        }
-
-        val existingSize = if (targetFile.exists()) targetFile.length() else 0L
-
-        executeWithRetry({
-            val accessToken = authClient.getAccessToken()
-            val conn = URL(urlString).openConnection() as HttpURLConnection
+    private fun fetchExpectedMd5(gameFile: GogGameFile): String? {
+        if (gameFile.checksumUrl.isEmpty()) return null
+        return try {
+            val conn = URL(gameFile.checksumUrl).openConnection() as HttpURLConnection
             try {
                 conn.instanceFollowRedirects = true
-                accessToken?.let { conn.setRequestProperty("Authorization", "Bearer $it") }
-                
-                // 断点续传
-                if (existingSize > 0) {
-                    conn.setRequestProperty("Range", "bytes=$existingSize-")
-                }
-                
-                conn.connectTimeout = GogConstants.DOWNLOAD_TIMEOUT_MS
-                conn.readTimeout = GogConstants.DOWNLOAD_TIMEOUT_MS
-
-                val code = conn.responseCode
-                
-                val total: Long
-                val append: Boolean
-                
-                when (code) {
-                    206 -> {
-                        // 服务器支持断点续传
-                        val contentRange = conn.getHeaderField("Content-Range")
-                        total = if (contentRange != null && contentRange.contains("/")) {
-                            contentRange.substringAfter("/").toLongOrNull() ?: (existingSize + conn.contentLengthLong)
-                        } else {
-                            existingSize + conn.contentLengthLong
-                        }
-                        append = true
-                    }
-                    200 -> {
-                        // 服务器不支持断点续传，从头开始
-                        total = conn.contentLengthLong
-                        append = false
-                    }
-                    else -> {
-                        throw IOException(authClient.localize(R.string.gog_error_download_failed, code))
-                    }
-                }
-
-                var lastTime = System.currentTimeMillis()
-                var lastDownloaded = if (append) existingSize else 0L
-
-                conn.inputStream.use { input ->
-                    FileOutputStream(targetFile, append).use { output ->
-                        val buffer = ByteArray(8192)
-                        var downloaded = lastDownloaded
-                        var len: Int
-                        
-                        while (input.read(buffer).also { len = it } != -1) {
-                            if (isCancelled) {
-                                throw IOException(authClient.localize(R.string.gog_download_cancelled))
-                            }
-                            
-                            output.write(buffer, 0, len)
-                            downloaded += len
-                            
-                            val currentTime = System.currentTimeMillis()
-                            val timeDiff = currentTime - lastTime
-                            if (timeDiff >= 1000) {
-                                val bytesPerSecond = ((downloaded - lastDownloaded) * 1000) / timeDiff
-                                progress?.onProgress(downloaded, total, bytesPerSecond)
-                                lastTime = currentTime
-                                lastDownloaded = downloaded
-                            }
-                        }
-                        
-                        progress?.onProgress(downloaded, total, 0)
-                    }
-                }
+                authClient.getAccessToken()?.let { conn.setRequestProperty("Authorization", "Bearer $it") }
+                conn.connectTimeout = GogConstants.CONNECT_TIMEOUT_MS
+                conn.readTimeout = GogConstants.READ_TIMEOUT_MS
+                if (conn.responseCode != HttpURLConnection.HTTP_OK) return null
+                val xml = conn.inputStream.bufferedReader().use { it.readText() }
+                CHECKSUM_MD5_REGEX.find(xml)?.groupValues?.get(1)
             } finally {
                 conn.disconnect()
             }
+        } catch (e: Exception) {
+            AppLog.w(TAG, "Failed to fetch checksum for ${gameFile.getFileName()}: ${e.message}")
             null
-        }, "download ${targetFile.name}")
-    }
-
-    // ==================== 重试机制 ====================
-
-    @Throws(IOException::class)
-    private fun <T> executeWithRetry(operation: () -> T, operationName: String): T {
-        var retries = 0
-        var lastException: IOException? = null
-
-        while (retries <= GogConstants.MAX_RETRIES) {
-            try {
-                return operation()
-            } catch (e: java.net.UnknownHostException) {
-                lastException = IOException(authClient.localize(R.string.gog_error_dns_failed), e)
-            } catch (e: java.net.SocketTimeoutException) {
-                lastException = IOException(authClient.localize(R.string.gog_error_connection_timeout), e)
-            } catch (e: java.net.ConnectException) {
-                lastException = IOException(authClient.localize(R.string.gog_error_network_failed), e)
-            } catch (e: IOException) {
-                if (isCancelled) throw e
-                lastException = e
-            }
-
-            retries++
-            if (retries <= GogConstants.MAX_RETRIES) {
-                try {
-                    Thread.sleep(GogConstants.RETRY_DELAY_MS.toLong())
-                } catch (ie: InterruptedException) {
-                    Thread.currentThread().interrupt()
-                    throw IOException(authClient.localize(R.string.gog_error_retry_interrupted), ie)
-                }
-            }
         }
-
-        AppLog.e(TAG, "$operationName - All retries failed")
-        throw lastException ?: IOException(authClient.localize(R.string.common_unknown_error))
     }
 
     companion object {
         private const val TAG = "GogDownloader"
+        private val CHECKSUM_MD5_REGEX = Regex("""<file\b[^>]*\bmd5="([0-9a-fA-F]{32})"""")
         
         /**
          * 格式化下载速度
@@ -0,0 +1,237 @@
+package com.app.ralaunch.feature.gog.data
+
+import com.app.ralaunch.core.common.HttpResponseCache
+import com.app.ralaunch.core.common.util.FileCopier
+import com.app.ralaunch.core.logging.AppLog
+import java.io.File
+import java.io.IOException
+import java.io.InputStream
+import java.nio.ByteBuffer
+import java.nio.channels.Channels
+import java.nio.channels.FileChannel
+import java.nio.file.StandardOpenOption
+import java.security.DigestInputStream
+import java.security.MessageDigest
+
+/**
+ * GOG 清单磁盘缓存
+ *
+ * - v2 depot 清单/meta 按哈希寻址、内容不可变：以哈希为文件名保存解压后的 JSON，
+ *   旁路 `.md5` 记录内容校验值，读取时校验，损坏即丢弃；总大小超过 [maxBytes] 时按最近访问淘汰
+ * - v1 清单与构建列表会变化：借用 [HttpResponseCache] 按 URL 保存并设置过期时间
+ */
+class GogManifestCache(
+    private val directory: File,
+    private val maxBytes: Long = DEFAULT_MAX_BYTES,
+    private val expiringTtlMs: Long = DEFAULT_EXPIRING_TTL_MS,
+    private val clock: () -> Long = System::currentTimeMillis
+) {
+
+    private val contentDir = File(directory, CONTENT_DIR)
+    private val expiring = HttpResponseCache(File(directory, EXPIRING_DIR), clock = clock)
+    private val lock = Any()
+
+    // ==================== 按哈希寻址 ====================
+
+    /**
+     * 读取哈希对应的解压后清单，不存在或校验失败时返回 null
+     */
+    fun getContent(hash: String): String? =
+        openContent(hash)?.use { String(it.readBytes(), Charsets.UTF_8) }
+
+    /**
+     * 以流的形式打开哈希对应的清单（先流式校验 MD5，不把整个文件读入内存）
+     *
+     * 锁内只读取校验值并打开文件；校验在锁外对已打开的句柄进行，
+     * 期间其他线程替换或淘汰该条目不影响本次读取。
+     */
+    fun openContent(hash: String): InputStream? {
+        val key = keyOf(hash) ?: return null
+        val dataFile = File(contentDir, key)
+        val checksumFile = File(contentDir, "$key$CHECKSUM_SUFFIX")
+        val channel: FileChannel
+        val expected: String
+        synchronized(lock) {
+            if (!dataFile.isFile || !checksumFile.isFile) return null
+            try {
+                expected = checksumFile.readText().trim()
+                channel = FileChannel.open(dataFile.toPath(), StandardOpenOption.READ)
+                // 用 mtime 记录最近访问时间，供 LRU 淘汰
+                dataFile.setLastModified(clock())
+            } catch (e: IOException) {
+                AppLog.w(TAG, "Failed to read manifest cache entry $key: ${e.message}")
+                return null
+            }
+        }
+        return try {
+            if (md5Hex(channel) != expected) {
+                channel.close()
+                AppLog.w(TAG, "Manifest cache entry $key is corrupt, dropping")
+                synchronized(lock) { removeLocked(key) }
+                return null
+            }
+            channel.position(0)
+            Channels.newInputStream(channel).buffered()
+        } catch (e: IOException) {
+            channel.close()
+            AppLog.w(TAG, "Failed to read manifest cache entry $key: ${e.message}")
+            null
+        }
+    }
+
+    /**
+     * 保存解压后的清单
+     */
+    fun putContent(hash: String, content: String) {
+        putContent(hash, content.byteInputStream(Charsets.UTF_8))
+    }
+
+    /**
+     * 从流中保存解压后的清单，边写边计算 MD5
+     *
+     * 网络流写入独立的临时文件时不持锁，只有写校验值、重命名与淘汰在锁内完成。
+     *
+     * @return 是否写入成功
+     */
+    fun putContent(hash: String, input: InputStream): Boolean {
+        val key = keyOf(hash) ?: return false
+        var tmp: File? = null
+        return try {
+            contentDir.mkdirs()
+            // 同一哈希可能被并发写入，每次使用独立的临时文件
+            val staging = File.createTempFile("$key.", TMP_SUFFIX, contentDir).also { tmp = it }
+            val digest = MessageDigest.getInstance("MD5")
+            DigestInputStream(input, digest).use { source ->
+                FileCopier.copyStreamToFile(source, staging)
+            }
+            if (staging.length() == 0L) {
+                staging.delete()
+                return false
+            }
+            val checksum = toHex(digest.digest()).toByteArray()
+            synchronized(lock) {
+                val dataFile = File(contentDir, key)
+                writeAtomically(File(contentDir, "$key$CHECKSUM_SUFFIX"), checksum)
+                if (!staging.renameTo(dataFile)) {
+                    throw IOException("Cannot rename ${staging.name}")
+                }
+                dataFile.setLastModified(clock())
+                deleteAbandonedStagingLocked()
+                trimLocked()
+            }
+            true
+        } catch (e: IOException) {
+            AppLog.w(TAG, "Failed to store manifest $key: ${e.message}")
+            tmp?.delete()
+            false
+        }
+    }
+
+    /**
+     * 命中缓存则直接返回，否则调用 [loader] 获取并写入缓存
+     */
+    inline fun getOrLoadContent(hash: String, loader: () -> String): String {
+        getContent(hash)?.let { return it }
+        val content = loader()
+        if (content.isNotEmpty()) putContent(hash, content)
+        return content
+    }
+
+    // ==================== 带过期的条目 ====================
+
+    /**
+     * 读取未过期的 v1 清单 / 构建列表
+     */
+    fun getExpiring(url: String): String? {
+        val entry = expiring.get(url) ?: return null
+        return if (entry.isFresh(clock())) entry.body else null
+    }
+
+    fun putExpiring(url: String, body: String) {
+        expiring.put(url, body, etag = null, lastModified = null, maxAgeMs = expiringTtlMs)
+    }
+
+    inline fun getOrLoadExpiring(url: String, loader: () -> String): String {
+        getExpiring(url)?.let { return it }
+        val body = loader()
+        if (body.isNotEmpty()) putExpiring(url, body)
+        return body
+    }
+
+    fun clear() = synchronized(lock) {
+        contentDir.listFiles()?.forEach { it.delete() }
+        expiring.clear()
+    }
+
+    // ==================== 内部 ====================
+
+    private fun trimLocked() {
+        val entries = contentDir.listFiles { file -> !file.name.endsWith(CHECKSUM_SUFFIX) && !file.name.endsWith(TMP_SUFFIX) }
+            ?: return
+        var total = entries.sumOf { it.length() }
+        if (total <= maxBytes) return
+        for (file in entries.sortedBy { it.lastModified() }) {
+            if (total <= maxBytes) break
+            total -= file.length()
+            removeLocked(file.name)
+            AppLog.d(TAG, "Evicted manifest ${file.name}")
+        }
+    }
+
+    /**
+     * 清理进程中断后残留的临时文件（按真实时间判断，正在写入的文件不会被误删）
+     */
+    private fun deleteAbandonedStagingLocked() {
+        val abandonedBefore = System.currentTimeMillis() - ABANDONED_STAGING_MS
+        contentDir.listFiles { file -> file.name.endsWith(TMP_SUFFIX) && file.lastModified() < abandonedBefore }
+            ?.forEach { it.delete() }
+    }
+
+    private fun removeLocked(key: String) {
+        File(contentDir, key).delete()
+        File(contentDir, "$key$CHECKSUM_SUFFIX").delete()
+    }
+
+    private fun writeAtomically(target: File, bytes: ByteArray) {
+        val tmp = File(target.parentFile, "${target.name}$TMP_SUFFIX")
+        tmp.writeBytes(bytes)
+        if (!tmp.renameTo(target)) {
+            tmp.delete()
+            throw IOException("Cannot rename ${tmp.name}")
+        }
+    }
+
+    /**
+     * 哈希或 galaxy 路径（`ab/cd/abcd...`）统一为文件名，拒绝非十六进制内容
+     */
+    private fun keyOf(hash: String): String? {
+        val key = hash.substringAfterLast('/').lowercase()
+        return key.takeIf { it.isNotEmpty() && it.all { c -> c in '0'..'9' || c in 'a'..'f' } }
+    }
+
+    private fun md5Hex(channel: FileChannel): String {
+        val digest = MessageDigest.getInstance("MD5")
+        val buffer = ByteBuffer.allocate(BUFFER_SIZE)
+        while (channel.read(buffer) != -1) {
+            buffer.flip()
+            digest.update(buffer)
+            buffer.clear()
+        }
+        return toHex(digest.digest())
+    }
+
+    private fun toHex(bytes: ByteArray): String = bytes.joinToString("") { "%02x".format(it) }
+
+    companion object {
+        private const val TAG = "GogManifestCache"
+        private const val CONTENT_DIR = "v2"
+        private const val EXPIRING_DIR = "expiring"
+        private const val CHECKSUM_SUFFIX = ".md5"
+        private const val TMP_SUFFIX = ".tmp"
+        private const val BUFFER_SIZE = 64 * 1024
+        private const val ABANDONED_STAGING_MS = 60 * 60 * 1000L
+
+        const val DEFAULT_MAX_BYTES = 64L * 1024 * 1024
+        const val DEFAULT_EXPIRING_TTL_MS = 60 * 60 * 1000L
+    }
+}
@@ -0,0 +1,450 @@
+package com.app.ralaunch.feature.gog.data
+
+import com.app.ralaunch.core.logging.AppLog
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.File
+import java.io.FileInputStream
+import java.io.FileOutputStream
+import java.io.IOException
+import java.io.InputStream
+import java.io.RandomAccessFile
+import java.net.HttpURLConnection
+import java.net.URL
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
+import java.nio.file.StandardOpenOption
+import java.security.MessageDigest
+import java.util.BitSet
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicReference
+
+/**
+ * 分段并行下载引擎
+ *
+ * 将文件按固定大小切分为若干段，通过多个 Range 连接并行下载到预分配的 `.part` 文件中，
+ * 每完成一段就把段位图持久化到 `.part.state`，崩溃或断网后可从已完成的段继续。
+ * 服务器不支持 Range 时退化为单连接下载。
+ *
+ * @param connectionCount 并行连接数
+ * @param segmentSize 每段字节数
+ * @param headersProvider 每次建立连接时提供的请求头（如 Authorization）
+ */
+class SegmentedDownloader(
+    private val connectionCount: Int = DEFAULT_CONNECTIONS,
+    private val segmentSize: Long = DEFAULT_SEGMENT_SIZE,
+    private val maxSegmentRetries: Int = GogConstants.MAX_RETRIES,
+    private val retryDelayMs: Long = GogConstants.RETRY_DELAY_MS.toLong(),
+    private val timeoutMs: Int = GogConstants.DOWNLOAD_TIMEOUT_MS,
+    private val headersProvider: () -> Map<String, String> = { emptyMap() }
+) {
+
+    /** 下载完成但 MD5 与清单不符，`.part` 与状态文件已被删除 */
+    class ChecksumMismatchException(val expected: String, val actual: String) :
+        IOException("MD5 mismatch: expected $expected, got $actual")
+
+    /**
+     * 下载文件
+     *
+     * @param expectedMd5 期望的 MD5（十六进制），为空时跳过校验
+     * @param isCancelled 取消检查，在每次读取缓冲区时调用
+     */
+    @Throws(IOException::class)
+    fun download(
+        url: String,
+        targetFile: File,
+        expectedMd5: String? = null,
+        progress: GogDownloader.DownloadProgress? = null,
+        isCancelled: () -> Boolean = { false }
+    ) {
+        val partFile = File(targetFile.path + PART_SUFFIX)
+        val stateFile = File(targetFile.path + STATE_SUFFIX)
+
+        val probe = probe(url)
+        if (probe.totalSize <= 0 || !probe.acceptsRanges) {
+            AppLog.i(TAG, "Server does not support ranged download, falling back to single stream")
+            stateFile.delete()
+            downloadSingleStream(url, partFile, progress, isCancelled)
+        } else {
+            downloadSegments(url, partFile, stateFile, probe.totalSize, progress, isCancelled)
+        }
+
+        if (!expectedMd5.isNullOrBlank()) {
+            val actual = md5Of(partFile)
+            if (!actual.equals(expectedMd5, ignoreCase = true)) {
+                partFile.delete()
+                stateFile.delete()
+                throw ChecksumMismatchException(expectedMd5, actual)
+            }
+        }
+
+        if (targetFile.exists() && !targetFile.delete()) {
+            throw IOException("Cannot replace ${targetFile.absolutePath}")
+        }
+        if (!partFile.renameTo(targetFile)) {
+            throw IOException("Cannot move ${partFile.name} to ${targetFile.name}")
+        }
+        stateFile.delete()
+    }
+
+    // ==================== 分段下载 ====================
+
+    private fun downloadSegments(
+        url: String,
+        partFile: File,
+        stateFile: File,
+        totalSize: Long,
+        progress: GogDownloader.DownloadProgress?,
+        isCancelled: () -> Boolean
+    ) {
+        val segmentCount = ((totalSize + segmentSize - 1) / segmentSize).toInt()
+        val state = loadState(stateFile, totalSize, segmentCount)
+            ?.takeIf { partFile.exists() && partFile.length() == totalSize }
+            ?: SegmentState(totalSize, segmentSize, segmentCount, BitSet(segmentCount))
+
+        RandomAccessFile(partFile, "rw").use { raf ->
+            if (raf.length() != totalSize) raf.setLength(totalSize)
+        }
+
+        val pending = ConcurrentLinkedQueue<Int>()
+        var alreadyDone = 0L
+        for (index in 0 until segmentCount) {
+            if (state.completed.get(index)) {
+                alreadyDone += segmentLength(index, totalSize)
+            } else {
+                pending.add(index)
+            }
+        }
+        if (alreadyDone > 0) {
+            AppLog.i(TAG, "Resuming ${partFile.name}: ${state.completed.cardinality()}/$segmentCount segments done")
+        }
+        saveState(stateFile, state)
+
+        val downloaded = AtomicLong(alreadyDone)
+        val failure = AtomicReference<IOException?>(null)
+        // 任一段彻底失败后，其余连接在下一次读取时停止，而不是把手头的段下载完
+        val aborted = { isCancelled() || failure.get() != null }
+        val workers = minOf(connectionCount, pending.size).coerceAtLeast(1)
+        val latch = CountDownLatch(workers)
+        val executor = Executors.newFixedThreadPool(workers)
+
+        FileChannel.open(partFile.toPath(), StandardOpenOption.WRITE).use { channel ->
+            repeat(workers) {
+                executor.execute {
+                    try {
+                        while (failure.get() == null) {
+                            val index = pending.poll() ?: break
+                            downloadSegmentWithRetry(url, channel, index, totalSize, downloaded, aborted)
+                            synchronized(state) {
+                                state.completed.set(index)
+                                saveState(stateFile, state)
+                            }
+                        }
+                    } catch (e: IOException) {
+                        failure.compareAndSet(null, e)
+                    } catch (e: Exception) {
+                        failure.compareAndSet(null, IOException(e.message, e))
+                    } finally {
+                        latch.countDown()
+                    }
+                }
+            }
+            executor.shutdown()
+
+            var lastTime = System.currentTimeMillis()
+            var lastDownloaded = downloaded.get()
+            while (!latch.await(PROGRESS_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                val now = System.currentTimeMillis()
+                val current = downloaded.get()
+                val speed = if (now > lastTime) (current - lastDownloaded) * 1000 / (now - lastTime) else 0
+                progress?.onProgress(current, totalSize, speed)
+                lastTime = now
+                lastDownloaded = current
+            }
+            channel.force(false)
+        }
+
+        failure.get()?.let { throw it }
+        progress?.onProgress(totalSize, totalSize, 0)
+    }
+
+    private fun downloadSegmentWithRetry(
+        url: String,
+        channel: FileChannel,
+        index: Int,
+        totalSize: Long,
+        downloaded: AtomicLong,
+        isCancelled: () -> Boolean
+    ) {
+        var attempt = 0
+        while (true) {
+            var written = 0L
+            try {
+                downloadSegment(url, channel, index, totalSize, isCancelled) { bytes ->
+                    written += bytes
+                    downloaded.addAndGet(bytes.toLong())
+                }
+                return
+            } catch (e: DownloadCancelledException) {
+                downloaded.addAndGet(-written)
+                throw e
+            } catch (e: HttpStatusException) {
+                downloaded.addAndGet(-written)
+                throw e
+            } catch (e: IOException) {
+                downloaded.addAndGet(-written)
+                attempt++
+                if (attempt > maxSegmentRetries) throw e
+                AppLog.w(TAG, "Segment $index failed (attempt $attempt): ${e.message}")
+                waitBeforeRetry(retryDelayMs, isCancelled)
+            }
+        }
+    }
+
+    private fun downloadSegment(
+        url: String,
+        channel: FileChannel,
+        index: Int,
+        totalSize: Long,
+        isCancelled: () -> Boolean,
+        onBytes: (Int) -> Unit
+    ) {
+        val start = index * segmentSize
+        val end = start + segmentLength(index, totalSize) - 1
+        val conn = openConnection(url)
+        try {
+            conn.setRequestProperty("Range", "bytes=$start-$end")
+            val code = conn.responseCode
+            if (code != HttpURLConnection.HTTP_PARTIAL) {
+                if (code >= 400) throw HttpStatusException(code)
+                throw IOException("Server ignored Range request for segment $index (HTTP $code)")
+            }
+            conn.inputStream.use { input ->
+                val written = copyToChannel(input, channel, start, end - start + 1, isCancelled, onBytes)
+                if (written != end - start + 1) {
+                    throw IOException("Segment $index truncated: $written/${end - start + 1} bytes")
+                }
+            }
+        } finally {
+            conn.disconnect()
+        }
+    }
+
+    private fun copyToChannel(
+        input: InputStream,
+        channel: FileChannel,
+        position: Long,
+        length: Long,
+        isCancelled: () -> Boolean,
+        onBytes: (Int) -> Unit
+    ): Long {
+        val buffer = ByteArray(BUFFER_SIZE)
+        var offset = 0L
+        while (offset < length) {
+            if (isCancelled()) throw DownloadCancelledException()
+            val toRead = minOf(buffer.size.toLong(), length - offset).toInt()
+            val read = input.read(buffer, 0, toRead)
+            if (read == -1) break
+            val byteBuffer = ByteBuffer.wrap(buffer, 0, read)
+            var pos = position + offset
+            while (byteBuffer.hasRemaining()) {
+                pos += channel.write(byteBuffer, pos)
+            }
+            offset += read
+            onBytes(read)
+        }
+        return offset
+    }
+
+    private fun segmentLength(index: Int, totalSize: Long): Long {
+        val start = index * segmentSize
+        return minOf(segmentSize, totalSize - start)
+    }
+
+    // ==================== 单连接回退 ====================
+
+    private fun downloadSingleStream(
+        url: String,
+        partFile: File,
+        progress: GogDownloader.DownloadProgress?,
+        isCancelled: () -> Boolean
+    ) {
+        var attempt = 0
+        while (true) {
+            try {
+                val conn = openConnection(url)
+                try {
+                    val code = conn.responseCode
+                    if (code >= 400) throw HttpStatusException(code)
+                    val total = conn.contentLengthLong
+                    var downloaded = 0L
+                    var lastTime = System.currentTimeMillis()
+                    var lastDownloaded = 0L
+                    conn.inputStream.use { input ->
+                        FileOutputStream(partFile).use { output ->
+                            val buffer = ByteArray(BUFFER_SIZE)
+                            var len: Int
+                            while (input.read(buffer).also { len = it } != -1) {
+                                if (isCancelled()) throw DownloadCancelledException()
+                                output.write(buffer, 0, len)
+                                downloaded += len
+                                val now = System.currentTimeMillis()
+                                if (now - lastTime >= PROGRESS_INTERVAL_MS) {
+                                    progress?.onProgress(downloaded, total, (downloaded - lastDownloaded) * 1000 / (now - lastTime))
+                                    lastTime = now
+                                    lastDownloaded = downloaded
+                                }
+                            }
+                        }
+                    }
+                    if (total > 0 && downloaded != total) {
+                        throw IOException("Download truncated: $downloaded/$total bytes")
+                    }
+                    progress?.onProgress(downloaded, total, 0)
+                    return
+                } finally {
+                    conn.disconnect()
+                }
+            } catch (e: DownloadCancelledException) {
+                throw e
+            } catch (e: HttpStatusException) {
+                throw e
+            } catch (e: IOException) {
+                attempt++
+                if (attempt > maxSegmentRetries) throw e
+                AppLog.w(TAG, "Single stream download failed (attempt $attempt): ${e.message}")
+                waitBeforeRetry(retryDelayMs, isCancelled)
+            }
+        }
+    }
+
+    // ==================== 探测 ====================
+
+    private data class ProbeResult(val totalSize: Long, val acceptsRanges: Boolean)
+
+    private fun probe(url: String): ProbeResult {
+        val conn = openConnection(url)
+        try {
+            conn.setRequestProperty("Range", "bytes=0-0")
+            val code = conn.responseCode
+            if (code >= 400) throw HttpStatusException(code)
+            return if (code == HttpURLConnection.HTTP_PARTIAL) {
+                val total = conn.getHeaderField("Content-Range")
+                    ?.substringAfter('/', "")
+                    ?.toLongOrNull() ?: -1L
+                ProbeResult(total, total > 0)
+            } else {
+                ProbeResult(conn.contentLengthLong, false)
+            }
+        } finally {
+            conn.disconnect()
+        }
+    }
+
+    private fun openConnection(url: String): HttpURLConnection {
+        val conn = URL(url).openConnection() as HttpURLConnection
+        conn.instanceFollowRedirects = true
+        conn.connectTimeout = timeoutMs
+        conn.readTimeout = timeoutMs
+        headersProvider().forEach { (key, value) -> conn.setRequestProperty(key, value) }
+        return conn
+    }
+
+    // ==================== 续传状态 ====================
+
+    private class SegmentState(
+        val totalSize: Long,
+        val segmentSize: Long,
+        val segmentCount: Int,
+        val completed: BitSet
+    )
+
+    private fun loadState(stateFile: File, totalSize: Long, segmentCount: Int): SegmentState? {
+        if (!stateFile.exists()) return null
+        return try {
+            DataInputStream(FileInputStream(stateFile).buffered()).use { input ->
+                if (input.readInt() != STATE_MAGIC) return null
+                val storedTotal = input.readLong()
+                val storedSegmentSize = input.readLong()
+                val storedCount = input.readInt()
+                val bits = ByteArray(input.readInt())
+                input.readFully(bits)
+                if (storedTotal != totalSize || storedSegmentSize != segmentSize || storedCount != segmentCount) {
+                    AppLog.i(TAG, "Stale resume state for ${stateFile.name}, restarting")
+                    return null
+                }
+                SegmentState(storedTotal, storedSegmentSize, storedCount, BitSet.valueOf(bits))
+            }
+        } catch (e: IOException) {
+            AppLog.w(TAG, "Failed to read resume state: ${e.message}")
+            null
+        }
+    }
+
+    private fun saveState(stateFile: File, state: SegmentState) {
+        val tmp = File(stateFile.path + ".tmp")
+        DataOutputStream(FileOutputStream(tmp).buffered()).use { output ->
+            val bits = state.completed.toByteArray()
+            output.writeInt(STATE_MAGIC)
+            output.writeLong(state.totalSize)
+            output.writeLong(state.segmentSize)
+            output.writeInt(state.segmentCount)
+            output.writeInt(bits.size)
+            output.write(bits)
+        }
+        if (!tmp.renameTo(stateFile)) {
+            throw IOException("Cannot persist resume state: ${stateFile.absolutePath}")
+        }
+    }
+
+    companion object {
+        private const val TAG = "SegmentedDownloader"
+        private const val PART_SUFFIX = ".part"
+        private const val STATE_SUFFIX = ".part.state"
+        private const val STATE_MAGIC = 0x52414453 // "RADS"
+        private const val BUFFER_SIZE = 64 * 1024
+        private const val PROGRESS_INTERVAL_MS = 500L
+        private const val RETRY_POLL_MS = 100L
+
+        const val DEFAULT_CONNECTIONS = 4
+        const val DEFAULT_SEGMENT_SIZE = 8L * 1024 * 1024
+
+        /**
+         * 重试前等待 [delayMs]，期间分片检查取消，取消时立即抛出 [DownloadCancelledException]
+         *
+         * 同时供 [GogDepotInstaller] 的块重试使用。
+         */
+        @JvmStatic
+        internal fun waitBeforeRetry(delayMs: Long, isCancelled: () -> Boolean) {
+            val deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMs)
+            while (true) {
+                if (isCancelled()) throw DownloadCancelledException()
+                val remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())
+                if (remainingMs <= 0) return
+                try {
+                    Thread.sleep(minOf(remainingMs, RETRY_POLL_MS))
+                } catch (ie: InterruptedException) {
+                    Thread.currentThread().interrupt()
+                    throw IOException("Retry interrupted", ie)
+                }
+            }
+        }
+
+        @JvmStatic
+        fun md5Of(file: File): String {
+            val digest = MessageDigest.getInstance("MD5")
+            FileInputStream(file).use { input ->
+                val buffer = ByteArray(BUFFER_SIZE)
+                var len: Int
+                while (input.read(buffer).also { len = it } != -1) {
+                    digest.update(buffer, 0, len)
+                }
+            }
+            return digest.digest().joinToString("") { "%02x".format(it) }
+        }
+    }
+}
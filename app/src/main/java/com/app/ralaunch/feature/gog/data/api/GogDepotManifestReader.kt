@@ -0,0 +1,204 @@
+package com.app.ralaunch.feature.gog.data.api
+
+import com.app.ralaunch.feature.gog.data.model.GogDepotChunk
+import com.app.ralaunch.feature.gog.data.model.GogDepotItem
+import com.google.gson.stream.JsonReader
+import com.google.gson.stream.JsonToken
+import java.io.IOException
+import java.io.Reader
+
+/**
+ * v2 Depot 清单流式解码器
+ *
+ * 用 [JsonReader] 逐个读取 `depot.items` 与 `depot.smallFilesContainer`，
+ * 每解码完一个项目就交给 [Consumer]，内存占用只与单个项目的块数有关，与清单大小无关。
+ */
+object GogDepotManifestReader {
+
+    fun interface Consumer {
+        fun onItem(item: GogDepotItem)
+    }
+
+    /**
+     * 读取整个清单
+     *
+     * 没有 `chunks` 的项目（目录、链接等）会被跳过，与 [GogGalaxyApi.getDepotItems] 的行为一致。
+     */
+    @Throws(IOException::class)
+    fun read(reader: Reader, isDependency: Boolean, consumer: Consumer) {
+        val json = JsonReader(reader)
+        json.beginObject()
+        while (json.hasNext()) {
+            if (json.nextName() == "depot" && json.peek() == JsonToken.BEGIN_OBJECT) {
+                readDepot(json, isDependency, consumer)
+            } else {
+                json.skipValue()
+            }
+        }
+        json.endObject()
+    }
+
+    private fun readDepot(json: JsonReader, isDependency: Boolean, consumer: Consumer) {
+        json.beginObject()
+        while (json.hasNext()) {
+            when (json.nextName()) {
+                "items" -> {
+                    if (json.peek() != JsonToken.BEGIN_ARRAY) {
+                        json.skipValue()
+                        continue
+                    }
+                    json.beginArray()
+                    while (json.hasNext()) {
+                        readItem(json, isDependency)?.let { consumer.onItem(it) }
+                    }
+                    json.endArray()
+                }
+                "smallFilesContainer" -> readSmallFilesContainer(json, isDependency)?.let { consumer.onItem(it) }
+                else -> json.skipValue()
+            }
+        }
+        json.endObject()
+    }
+
+    private fun readItem(json: JsonReader, isDependency: Boolean): GogDepotItem? {
+        if (json.peek() != JsonToken.BEGIN_OBJECT) {
+            json.skipValue()
+            return null
+        }
+        var path = ""
+        var md5: String? = null
+        var chunks: ChunkList? = null
+        var sfcOffset = 0L
+        var sfcSize = 0L
+        var hasSfcRef = false
+
+        json.beginObject()
+        while (json.hasNext()) {
+            when (json.nextName()) {
+                "path" -> path = nextString(json) ?: ""
+                "md5" -> md5 = nextString(json)
+                "chunks" -> chunks = readChunks(json)
+                "sfcRef" -> {
+                    if (json.peek() != JsonToken.BEGIN_OBJECT) {
+                        json.skipValue()
+                        continue
+                    }
+                    hasSfcRef = true
+                    json.beginObject()
+                    while (json.hasNext()) {
+                        when (json.nextName()) {
+                            "offset" -> sfcOffset = nextLong(json)
+                            "size" -> sfcSize = nextLong(json)
+                            else -> json.skipValue()
+                        }
+                    }
+                    json.endObject()
+                }
+                else -> json.skipValue()
+            }
+        }
+        json.endObject()
+
+        val chunkList = chunks ?: return null
+        return GogDepotItem(
+            path = path.replace("\\", "/"),
+            chunks = chunkList.chunks,
+            totalSizeCompressed = chunkList.totalCompressed,
+            totalSizeUncompressed = chunkList.totalUncompressed,
+            md5 = md5 ?: chunkList.chunks.firstOrNull()?.md5Uncompressed ?: "",
+            isDependency = isDependency,
+            isInSFC = hasSfcRef,
+            sfcOffset = sfcOffset,
+            sfcSize = sfcSize
+        )
+    }
+
+    private fun readSmallFilesContainer(json: JsonReader, isDependency: Boolean): GogDepotItem? {
+        if (json.peek() != JsonToken.BEGIN_OBJECT) {
+            json.skipValue()
+            return null
+        }
+        var md5: String? = null
+        var chunks: ChunkList? = null
+        json.beginObject()
+        while (json.hasNext()) {
+            when (json.nextName()) {
+                "md5" -> md5 = nextString(json)
+                "chunks" -> chunks = readChunks(json)
+                else -> json.skipValue()
+            }
+        }
+        json.endObject()
+
+        val chunkList = chunks?.takeIf { it.chunks.isNotEmpty() } ?: return null
+        return GogDepotItem(
+            path = "galaxy_smallfilescontainer",
+            chunks = chunkList.chunks,
+            totalSizeCompressed = chunkList.totalCompressed,
+            totalSizeUncompressed = chunkList.totalUncompressed,
+            md5 = md5 ?: chunkList.chunks.first().md5Uncompressed,
+            isDependency = isDependency,
+            isSmallFilesContainer = true
+        )
+    }
+
+    private class ChunkList(
+        val chunks: List<GogDepotChunk>,
+        val totalCompressed: Long,
+        val totalUncompressed: Long
+    )
+
+    private fun readChunks(json: JsonReader): ChunkList? {
+        if (json.peek() != JsonToken.BEGIN_ARRAY) {
+            json.skipValue()
+            return null
+        }
+        val chunks = ArrayList<GogDepotChunk>(1)
+        var totalCompressed = 0L
+        var totalUncompressed = 0L
+        json.beginArray()
+        while (json.hasNext()) {
+            if (json.peek() != JsonToken.BEGIN_OBJECT) {
+                json.skipValue()
+                continue
+            }
+            var compressedMd5 = ""
+            var md5 = ""
+            var compressedSize = 0L
+            var size = 0L
+            json.beginObject()
+            while (json.hasNext()) {
+                when (json.nextName()) {
+                    "compressedMd5" -> compressedMd5 = nextString(json) ?: ""
+                    "md5" -> md5 = nextString(json) ?: ""
+                    "compressedSize" -> compressedSize = nextLong(json)
+                    "size" -> size = nextLong(json)
+                    else -> json.skipValue()
+                }
+            }
+            json.endObject()
+            chunks.add(GogDepotChunk(
+                md5Compressed = compressedMd5,
+                md5Uncompressed = md5,
+                sizeCompressed = compressedSize,
+                sizeUncompressed = size,
+                offsetCompressed = totalCompressed,
+                offsetUncompressed = totalUncompressed
+            ))
+            totalCompressed += compressedSize
+            totalUncompressed += size
+        }
+        json.endArray()
+        return ChunkList(chunks, totalCompressed, totalUncompressed)
+    }
+
+    private fun nextString(json: JsonReader): String? = when (json.peek()) {
+        JsonToken.STRING, JsonToken.NUMBER -> json.nextString()
+        else -> { json.skipValue(); null }
+    }
+
+    private fun nextLong(json: JsonReader): Long = when (json.peek()) {
+        JsonToken.NUMBER, JsonToken.STRING -> json.nextString().let { it.toLongOrNull() ?: it.toDoubleOrNull()?.toLong() ?: 0L }
+        else -> { json.skipValue(); 0L }
+    }
+}
@@ -1,6 +1,7 @@
 package com.app.ralaunch.feature.gog.data.api
 
 import com.app.ralaunch.feature.gog.data.GogConstants
+import com.app.ralaunch.feature.gog.data.GogManifestCache
 import com.app.ralaunch.feature.gog.data.model.*
 import com.app.ralaunch.core.logging.AppLog
 import org.json.JSONObject
@@ -10,13 +11,19 @@ import java.net.URL
 import java.net.URLEncoder
 import java.nio.charset.StandardCharsets
 import java.util.zip.GZIPInputStream
+import java.util.zip.InflaterInputStream
 
 /**
  * GOG Galaxy API 客户端
  * 处理产品构建、清单、依赖等 Galaxy 特定功能
  * 借鉴 lgogdownloader 的 galaxyapi.h 设计
+ *
+ * @param manifestCache 清单磁盘缓存；为 null 时每次都从网络获取
  */
-class GogGalaxyApi(private val authClient: GogAuthClient) {
+class GogGalaxyApi(
+    private val authClient: GogAuthClient,
+    private val manifestCache: GogManifestCache? = null
+) {
 
     // ==================== 产品构建 ====================
 
@@ -30,7 +37,7 @@ class GogGalaxyApi(private val authClient: GogAuthClient) {
         generation: String = "2"
     ): JSONObject {
         val url = "${GogConstants.CONTENT_SYSTEM_URL}/products/$productId/os/$platform/builds?generation=$generation"
-        return getResponseJson(url)
+        return getExpiringJson(url)
     }
 
     /**
@@ -64,7 +71,7 @@ class GogGalaxyApi(private val authClient: GogAuthClient) {
      * 获取 V1 清单
      */
     @Throws(IOException::class)
-    fun getManifestV1(manifestUrl: String): JSONObject = getResponseJson(manifestUrl)
+    fun getManifestV1(manifestUrl: String): JSONObject = getExpiringJson(manifestUrl)
 
     /**
      * 获取 V1 清单（通过参数构建 URL）
@@ -77,7 +84,7 @@ class GogGalaxyApi(private val authClient: GogAuthClient) {
         platform: String = "linux"
     ): JSONObject {
         val url = "${GogConstants.CDN_URL}/content-system/v1/manifests/$productId/$platform/$buildId/$manifestId.json"
-        return getResponseJson(url)
+        return getExpiringJson(url)
     }
 
     /**
@@ -85,16 +92,20 @@ class GogGalaxyApi(private val authClient: GogAuthClient) {
      */
     @Throws(IOException::class)
     fun getManifestV2(manifestHash: String, isDependency: Boolean = false): JSONObject {
-        val hash = if (manifestHash.isNotEmpty() && !manifestHash.contains("/")) {
-            hashToGalaxyPath(manifestHash)
-        } else manifestHash
-
-        val url = if (isDependency) {
-            "${GogConstants.CDN_URL}/content-system/v2/dependencies/meta/$hash"
-        } else {
-            "${GogConstants.CDN_URL}/content-system/v2/meta/$hash"
-        }
-        return getResponseJson(url)
+        val hash = toGalaxyPath(manifestHash)
+        val url = manifestV2Url(hash, isDependency)
+        // v2 meta 按哈希寻址、内容不可变，命中缓存时不再下载与解压
+        val content = manifestCache?.getOrLoadContent(hash) { getResponseText(url) } ?: getResponseText(url)
+        return if (content.isEmpty()) JSONObject() else JSONObject(content)
+    }
+
+    private fun toGalaxyPath(manifestHash: String): String =
+        if (manifestHash.isNotEmpty() && !manifestHash.contains("/")) hashToGalaxyPath(manifestHash) else manifestHash
+
+    private fun manifestV2Url(galaxyPath: String, isDependency: Boolean): String = if (isDependency) {
+        "${GogConstants.CDN_URL}/content-system/v2/dependencies/meta/$galaxyPath"
+    } else {
+        "${GogConstants.CDN_URL}/content-system/v2/meta/$galaxyPath"
     }
 
     // ==================== Depot 项目 ====================
@@ -104,92 +115,45 @@ class GogGalaxyApi(private val authClient: GogAuthClient) {
      */
     @Throws(IOException::class)
     fun getDepotItems(hash: String, isDependency: Boolean = false): List<GogDepotItem> {
-        val json = getManifestV2(hash, isDependency)
         val items = mutableListOf<GogDepotItem>()
-        
-        val depot = json.optJSONObject("depot") ?: return items
-
-        // 处理小文件容器
-        depot.optJSONObject("smallFilesContainer")?.let { sfc ->
-            val chunksArray = sfc.optJSONArray("chunks")
-            if (chunksArray != null && chunksArray.length() > 0) {
-                val chunks = mutableListOf<GogDepotChunk>()
-                var totalCompressed = 0L
-                var totalUncompressed = 0L
-
-                for (i in 0 until chunksArray.length()) {
-                    val chunkJson = chunksArray.getJSONObject(i)
-                    val chunk = GogDepotChunk(
-                        md5Compressed = chunkJson.optString("compressedMd5", ""),
-                        md5Uncompressed = chunkJson.optString("md5", ""),
-                        sizeCompressed = chunkJson.optLong("compressedSize", 0),
-                        sizeUncompressed = chunkJson.optLong("size", 0),
-                        offsetCompressed = totalCompressed,
-                        offsetUncompressed = totalUncompressed
-                    )
-                    totalCompressed += chunk.sizeCompressed
-                    totalUncompressed += chunk.sizeUncompressed
-                    chunks.add(chunk)
-                }
-
-                items.add(GogDepotItem(
-                    path = "galaxy_smallfilescontainer",
-                    chunks = chunks,
-                    totalSizeCompressed = totalCompressed,
-                    totalSizeUncompressed = totalUncompressed,
-                    md5 = sfc.optString("md5", chunks.firstOrNull()?.md5Uncompressed ?: ""),
-                    isDependency = isDependency,
-                    isSmallFilesContainer = true
-                ))
-            }
-        }
+        forEachDepotItem(hash, isDependency) { items.add(it) }
+        // 保持原有顺序：小文件容器在前
+        items.sortBy { if (it.isSmallFilesContainer) 0 else 1 }
+        return items
+    }
 
-        // 处理常规项目
-        val itemsArray = depot.optJSONArray("items")
-        if (itemsArray != null) {
-            for (i in 0 until itemsArray.length()) {
-                val itemJson = itemsArray.getJSONObject(i)
-                val chunksArray = itemJson.optJSONArray("chunks") ?: continue
-
-                val chunks = mutableListOf<GogDepotChunk>()
-                var totalCompressed = 0L
-                var totalUncompressed = 0L
-
-                for (j in 0 until chunksArray.length()) {
-                    val chunkJson = chunksArray.getJSONObject(j)
-                    val chunk = GogDepotChunk(
-                        md5Compressed = chunkJson.optString("compressedMd5", ""),
-                        md5Uncompressed = chunkJson.optString("md5", ""),
-                        sizeCompressed = chunkJson.optLong("compressedSize", 0),
-                        sizeUncompressed = chunkJson.optLong("size", 0),
-                        offsetCompressed = totalCompressed,
-                        offsetUncompressed = totalUncompressed
-                    )
-                    totalCompressed += chunk.sizeCompressed
-                    totalUncompressed += chunk.sizeUncompressed
-                    chunks.add(chunk)
+    /**
+     * 流式遍历 Depot 项目，不在内存中保留整个清单
+     *
+     * 有缓存时先把解压后的清单流式写入缓存，再从缓存文件读取。
+     */
+    @Throws(IOException::class)
+    fun forEachDepotItem(
+        hash: String,
+        isDependency: Boolean = false,
+        consumer: GogDepotManifestReader.Consumer
+    ) {
+        val galaxyPath = toGalaxyPath(hash)
+        val url = manifestV2Url(galaxyPath, isDependency)
+        val cache = manifestCache
+        if (cache != null) {
+            val cached = cache.openContent(galaxyPath)
+                ?: run {
+                    withResponseStream(url) { cache.putContent(galaxyPath, it) }
+                    cache.openContent(galaxyPath)
                 }
-
-                var path = itemJson.optString("path", "")
-                path = path.replace("\\", "/")
-
-                val sfcRef = itemJson.optJSONObject("sfcRef")
-
-                items.add(GogDepotItem(
-                    path = path,
-                    chunks = chunks,
-                    totalSizeCompressed = totalCompressed,
-                    totalSizeUncompressed = totalUncompressed,
-                    md5 = itemJson.optString("md5", chunks.firstOrNull()?.md5Uncompressed ?: ""),
-                    isDependency = isDependency,
-                    isInSFC = sfcRef != null,
-                    sfcOffset = sfcRef?.optLong("offset", 0) ?: 0,
-                    sfcSize = sfcRef?.optLong("size", 0) ?: 0
-                ))
+            if (cached != null) {
+                cached.use { readManifest(it, isDependency, consumer) }
+                return
             }
         }
+        withResponseStream(url) { readManifest(it, isDependency, consumer) }
+    }
 
-        return items
+    private fun readManifest(input: InputStream, isDependency: Boolean, consumer: GogDepotManifestReader.Consumer) {
+        InputStreamReader(input, StandardCharsets.UTF_8).use { reader ->
+            GogDepotManifestReader.read(reader, isDependency, consumer)
+        }
     }
 
     // ==================== 链接 ====================
@@ -203,6 +167,26 @@ class GogGalaxyApi(private val authClient: GogAuthClient) {
         return getResponseJson(url)
     }
 
+    /**
+     * 获取 Depot 块地址生成器（供 GogDepotInstaller 使用）
+     *
+     * secure link 返回 `url_format` 模板与参数，这里预先替换除 `{path}` 外的参数，
+     * 之后每个块只需拼接 galaxy 路径。
+     */
+    @Throws(IOException::class)
+    fun getDepotChunkUrlResolver(productId: String): (String) -> String {
+        val link = getSecureLink(productId, "/")
+        val endpoint = link.optJSONArray("urls")?.optJSONObject(0)
+            ?: throw IOException("No secure link for product $productId")
+        val parameters = endpoint.optJSONObject("parameters") ?: JSONObject()
+        var template = endpoint.optString("url_format", "")
+        for (key in parameters.keys()) {
+            if (key != "path") template = template.replace("{$key}", parameters.optString(key))
+        }
+        val basePath = parameters.optString("path", "").trimEnd('/')
+        return { compressedMd5 -> template.replace("{path}", "$basePath/${hashToGalaxyPath(compressedMd5)}") }
+    }
+
     /**
      * 获取依赖下载链接
      */
@@ -286,6 +270,34 @@ class GogGalaxyApi(private val authClient: GogAuthClient) {
 
     @Throws(IOException::class)
     private fun getResponseJson(urlString: String): JSONObject {
+        val response = getResponseText(urlString)
+        return if (response.isEmpty()) JSONObject() else JSONObject(response)
+    }
+
+    /**
+     * v1 清单与构建列表会更新，缓存带过期时间
+     */
+    @Throws(IOException::class)
+    private fun getExpiringJson(urlString: String): JSONObject {
+        val response = manifestCache?.getOrLoadExpiring(urlString) { getResponseText(urlString) }
+            ?: getResponseText(urlString)
+        return if (response.isEmpty()) JSONObject() else JSONObject(response)
+    }
+
+    /**
+     * 获取响应文本；失败时返回空字符串（不会写入缓存）
+     */
+    @Throws(IOException::class)
+    private fun getResponseText(urlString: String): String =
+        withResponseStream(urlString) { input -> String(input.readBytes(), StandardCharsets.UTF_8) } ?: ""
+
+    /**
+     * 打开响应流并交给 [block] 处理；非 200 响应返回 null
+     *
+     * 流已按 Content-Encoding（gzip）与魔数（v2 meta 的 zlib）解压。
+     */
+    @Throws(IOException::class)
+    private fun <T> withResponseStream(urlString: String, block: (InputStream) -> T): T? {
         val accessToken = authClient.getAccessToken()
         val conn = URL(urlString).openConnection() as HttpURLConnection
         try {
@@ -301,30 +313,35 @@ class GogGalaxyApi(private val authClient: GogAuthClient) {
                 if (contentEncoding?.contains("gzip") == true) {
                     inputStream = GZIPInputStream(inputStream)
                 }
-                val response = readResponse(inputStream)
-                return if (response.isEmpty()) JSONObject() else JSONObject(response)
+                return decodeBody(inputStream).use(block)
             } else {
                 AppLog.w(TAG, "API请求失败，响应码: ${conn.responseCode}")
-                return JSONObject()
+                return null
             }
         } catch (e: Exception) {
             if (e is IOException) throw e
             AppLog.e(TAG, "获取JSON响应失败: $urlString", e)
-            return JSONObject()
+            return null
         } finally {
             conn.disconnect()
         }
     }
 
-    @Throws(IOException::class)
-    private fun readResponse(inputStream: InputStream?): String {
-        inputStream ?: return ""
-        return BufferedReader(InputStreamReader(inputStream, StandardCharsets.UTF_8)).use { reader ->
-            buildString { var line: String?; while (reader.readLine().also { line = it } != null) append(line) }
-        }
+    /**
+     * v2 meta 为 zlib 压缩数据，按魔数识别后解压
+     */
+    private fun decodeBody(inputStream: InputStream): InputStream {
+        val buffered = BufferedInputStream(inputStream, BUFFER_SIZE)
+        buffered.mark(2)
+        val b0 = buffered.read()
+        val b1 = buffered.read()
+        buffered.reset()
+        val isZlib = b0 == 0x78 && b1 != -1 && ((b0 shl 8) or b1) % 31 == 0
+        return if (isZlib) InflaterInputStream(buffered) else buffered
     }
 
     companion object {
         private const val TAG = "GogGalaxyApi"
+        private const val BUFFER_SIZE = 64 * 1024
     }
 }
@@ -17,9 +17,10 @@ import java.util.zip.GZIPInputStream
  * 处理用户数据、游戏列表、产品信息等
  * 借鉴 lgogdownloader 的 website.h 设计
  */
-class GogWebsiteApi(private val authClient: GogAuthClient) {
-
-    private val galaxyApi = GogGalaxyApi(authClient)
+class GogWebsiteApi(
+    private val authClient: GogAuthClient,
+    private val galaxyApi: GogGalaxyApi = GogGalaxyApi(authClient)
+) {
 
     // ==================== 用户数据 ====================
 
@@ -272,10 +273,12 @@ class GogWebsiteApi(private val authClient: GogAuthClient) {
                     var path = firstFile.optString("path", "")
 
                     val downlinkJsonUrl = firstFile.optString("downlink", "")
+                    var checksumUrl = ""
                     if (downlinkJsonUrl.isNotEmpty()) {
                         try {
                             val downlinkJson = getResponseJson(downlinkJsonUrl)
                             val downlinkUrl = downlinkJson.optString("downlink", "")
+                            checksumUrl = downlinkJson.optString("checksum", "")
                             if (downlinkUrl.isNotEmpty()) {
                                 manualUrl = downlinkUrl
                                 path = galaxyApi.getPathFromDownlinkUrl(downlinkUrl, gamename)
@@ -298,7 +301,8 @@ class GogWebsiteApi(private val authClient: GogAuthClient) {
                         gamename = gamename,
                         platform = GogConstants.Platform.fromCode(os),
                         languageId = GogConstants.Language.fromCode(language),
-                        galaxyDownlinkJsonUrl = downlinkJsonUrl
+                        galaxyDownlinkJsonUrl = downlinkJsonUrl,
+                        checksumUrl = checksumUrl
                     ))
                 }
             } catch (e: Exception) {
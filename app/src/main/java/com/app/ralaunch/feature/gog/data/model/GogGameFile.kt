@@ -20,7 +20,9 @@ data class GogGameFile(
     val platform: Int = GogConstants.Platform.LINUX,
     val languageId: Int = GogConstants.Language.EN,
     val typeId: Int = GogConstants.FileType.BASE_INSTALLER,
-    val galaxyDownlinkJsonUrl: String = ""
+    val galaxyDownlinkJsonUrl: String = "",
+    /** downlink 返回的校验清单（XML，含整文件 md5） */
+    val checksumUrl: String = ""
 ) {
     /**
      * 获取格式化的文件大小
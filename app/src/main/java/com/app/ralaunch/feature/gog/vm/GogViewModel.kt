@@ -214,6 +214,8 @@ class GogViewModel(
             downloadDir.mkdirs()
         }
 
+        // 新的下载由用户发起时才清除取消状态，下载开始前的取消请求不会被吞掉
+        downloader.reset()
         viewModelScope.launch(Dispatchers.IO) {
             var downloadedGamePath: String? = null
             var downloadedModLoaderPath: String? = null
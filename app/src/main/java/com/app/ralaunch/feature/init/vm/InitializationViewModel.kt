@@ -6,9 +6,12 @@ import androidx.lifecycle.ViewModel
 import androidx.lifecycle.viewModelScope
 import com.app.ralaunch.R
 import com.app.ralaunch.core.common.util.FileUtils
+import com.app.ralaunch.core.common.util.IntegrityManifest
+import com.app.ralaunch.core.common.util.IntegrityVerifier
 import com.app.ralaunch.core.di.contract.IRuntimeManagerServiceV2
 import com.app.ralaunch.core.extractor.ArchiveExtractor
 import com.app.ralaunch.core.platform.AppConstants
+import com.app.ralaunch.core.platform.runtime.RendererRegistry
 import com.app.ralaunch.feature.init.model.ComponentState
 import com.app.ralaunch.feature.init.model.InitStep
 import com.app.ralaunch.feature.init.model.InitUiState
@@ -161,14 +164,20 @@ class InitializationViewModel(
                 )
             }
 
+            // 解压时逐文件记录大小与哈希，作为之后增量校验与按文件修复的依据
+            val manifestFiles = LinkedHashMap<String, IntegrityManifest.Entry>()
             when {
                 component.fileName.endsWith(".tar.xz") ->
-                    ArchiveExtractor.extractTarXz(tempFile, stagingDir.toFile(), null, callback)
+                    ArchiveExtractor.extractTarXz(tempFile, stagingDir.toFile(), null, callback, manifest = manifestFiles)
                 component.fileName.endsWith(".tar.gz") ->
-                    ArchiveExtractor.extractTarGz(tempFile, stagingDir.toFile(), null, callback)
+                    ArchiveExtractor.extractTarGz(tempFile, stagingDir.toFile(), null, callback, manifest = manifestFiles)
                 else ->
-                    ArchiveExtractor.extractTar(tempFile, stagingDir.toFile(), null, callback)
+                    ArchiveExtractor.extractTar(tempFile, stagingDir.toFile(), null, callback, manifest = manifestFiles)
             }
+            IntegrityVerifier.writeManifest(
+                stagingDir.toFile(),
+                IntegrityManifest(archive = component.fileName, files = manifestFiles)
+            )
 
             val runtimeVersion = when (runtimeType) {
                 IRuntimeManagerServiceV2.RuntimeType.DOTNET -> runtimeManager.detectDotNetRuntimeVersion(stagingDir)
@@ -189,6 +198,10 @@ class InitializationViewModel(
             FileUtils.deleteFileWithinRoot(tempFile, appContext.cacheDir)
             updateComponent(index, 100, true, appContext.getString(R.string.init_complete))
         }
+        // 组件中的原生库已变化，渲染器兼容性需要重新探测
+        if (components.any { it.needsExtraction }) {
+            RendererRegistry.invalidateCompatibilityCache()
+        }
     }
 
     private fun updateComponent(index: Int, progress: Int, installed: Boolean, status: String) {
@@ -1,6 +1,7 @@
 package com.app.ralaunch.feature.installer
 
 import android.content.Context
+import com.app.ralaunch.core.common.util.FileCopier
 import com.app.ralaunch.core.logging.AppLog
 import com.app.ralaunch.core.platform.runtime.AssemblyPatcher
 import org.koin.java.KoinJavaComponent
@@ -242,18 +243,7 @@ abstract class BaseInstallPlugin : GameInstallPlugin {
      * @param target 目标目录
      */
     protected fun copyDirectory(source: File, target: File) {
-        if (!target.exists()) {
-            target.mkdirs()
-        }
-
-        source.listFiles()?.forEach { file ->
-            val targetFile = File(target, file.name)
-            if (file.isDirectory) {
-                copyDirectory(file, targetFile)
-            } else {
-                file.copyTo(targetFile, overwrite = true)
-            }
-        }
+        FileCopier.copyDirectory(source, target, isCancelled = { isCancelled })
     }
 
     /**
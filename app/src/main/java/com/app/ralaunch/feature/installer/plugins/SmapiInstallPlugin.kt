@@ -4,6 +4,7 @@ import android.os.Environment
 import com.app.ralaunch.core.logging.AppLog
 import com.app.ralaunch.R
 import com.app.ralaunch.RaLaunchApp
+import com.app.ralaunch.core.common.util.FileCopier
 import com.app.ralaunch.core.common.util.FileUtils
 import com.app.ralaunch.feature.installer.*
 import kotlinx.coroutines.CoroutineScope
@@ -12,7 +13,6 @@ import kotlinx.coroutines.launch
 import kotlinx.coroutines.withContext
 import java.io.File
 import java.io.FileInputStream
-import java.io.RandomAccessFile
 import java.util.zip.ZipInputStream
 
 /**
@@ -197,6 +197,8 @@ class SmapiInstallPlugin : BaseInstallPlugin() {
                     callback.onComplete(finalGameItem)
                 }
                 
+            } catch (e: FileCopier.CancelledException) {
+                withContext(Dispatchers.Main) { callback.onCancelled() }
             } catch (e: Exception) {
                 withContext(Dispatchers.Main) {
                     callback.onError(
@@ -277,15 +279,7 @@ class SmapiInstallPlugin : BaseInstallPlugin() {
                         88
                     )
                 }
-                patchDllsToArm64(outputDir)
-                
-                withContext(Dispatchers.Main) {
-                    callback.onProgress(
-                        RaLaunchApp.getInstance().getString(R.string.install_patch_config),
-                        90
-                    )
-                }
-                patchJsonConfigs(outputDir)
+                patchGameTree(outputDir, callback, 88)
             }
         }
     }
@@ -392,7 +386,7 @@ class SmapiInstallPlugin : BaseInstallPlugin() {
                     88
                 )
             }
-            gameDepsJson.copyTo(smapiDepsJson, overwrite = true)
+            FileCopier.copyFile(gameDepsJson, smapiDepsJson)
         }
         
         withContext(Dispatchers.Main) {
@@ -409,15 +403,7 @@ class SmapiInstallPlugin : BaseInstallPlugin() {
                 90
             )
         }
-        patchDllsToArm64(outputDir)
-        
-        withContext(Dispatchers.Main) {
-            callback.onProgress(
-                RaLaunchApp.getInstance().getString(R.string.install_patch_config),
-                93
-            )
-        }
-        patchJsonConfigs(outputDir)
+        patchGameTree(outputDir, callback, 90)
     }
     
     private fun copyInstallerFiles(tempDir: File, outputDir: File) {
@@ -443,21 +429,21 @@ class SmapiInstallPlugin : BaseInstallPlugin() {
                                     targetFile.mkdirs()
                                 } else {
                                     targetFile.parentFile?.mkdirs()
-                                    targetFile.outputStream().use { out -> zis.copyTo(out) }
+                                    FileCopier.copyStreamToFile(zis, targetFile)
                                 }
                                 entry = zis.nextEntry
                             }
                         }
                     } catch (e: Exception) {
-                        file.copyTo(File(outputDir, file.name), overwrite = true)
+                        FileCopier.copyFile(file, File(outputDir, file.name))
                     }
                 }
                 file.name.lowercase() == "stardewmoddingapi.dll" -> {
-                    file.copyTo(File(outputDir, file.name), overwrite = true)
+                    FileCopier.copyFile(file, File(outputDir, file.name))
                 }
                 file.extension.lowercase() in listOf("dll", "config", "json") && 
                 !file.name.lowercase().contains("smapi.installer") -> {
-                    file.copyTo(File(outputDir, file.name), overwrite = true)
+                    FileCopier.copyFile(file, File(outputDir, file.name))
                 }
             }
         }
@@ -470,101 +456,27 @@ class SmapiInstallPlugin : BaseInstallPlugin() {
         return tempDir.walkTopDown().firstOrNull { it.name.lowercase() == "install.dat" }
     }
     
-    // ==================== ARM64 修补逻辑 ====================
-    
-    private fun patchDllsToArm64(gameDir: File) {
-        val coreDlls = listOf(
-            "Stardew Valley.dll", "MonoGame.Framework.dll", "xTile.dll",
-            "StardewValley.GameData.dll", "BmFont.dll", "Lidgren.Network.dll",
-            "Steamworks.NET.dll", "StardewModdingAPI.dll"
-        )
-        
-        coreDlls.forEach { dllName ->
-            val dllFile = File(gameDir, dllName)
-            if (dllFile.exists()) patchPeArchitecture(dllFile)
-        }
-        
-        listOf("Mods", "smapi-internal").forEach { subDir ->
-            File(gameDir, subDir).takeIf { it.exists() && it.isDirectory }
-                ?.walkTopDown()
-                ?.filter { it.isFile && it.extension.lowercase() == "dll" }
-                ?.forEach { patchPeArchitecture(it) }
-        }
-    }
+    // ==================== ARM64 / 配置修补 ====================
     
-    private fun patchPeArchitecture(file: File) {
-        try {
-            RandomAccessFile(file, "rw").use { raf ->
-                raf.seek(0x85)
-                val archByte = raf.readByte().toInt() and 0xFF
-                if (archByte == 0x86) {
-                    raf.seek(0x85)
-                    raf.writeByte(0xAA)
-                }
-            }
-        } catch (e: Exception) { /* 忽略 */ }
-    }
-    
-    // ==================== JSON 配置修补 ====================
-    
-    private fun patchJsonConfigs(gameDir: File) {
-        gameDir.walkTopDown()
-            .filter { it.isFile && it.name.endsWith(".deps.json") }
-            .forEach { patchDepsJson(it) }
-        
-        gameDir.walkTopDown()
-            .filter { it.isFile && it.name.endsWith(".runtimeconfig.json") }
-            .forEach { patchRuntimeConfigJson(it) }
-    }
-    
-    private fun patchDepsJson(file: File) {
-        try {
-            var content = file.readText()
-            content = content.replace(Regex("/linux-x64"), "")
-            content = content.replace(Regex("/win-x64"), "")
-            content = content.replace(Regex("/osx-x64"), "")
-            content = content.replace(
-                Regex("runtimepack\\.Microsoft\\.NETCore\\.App\\.Runtime\\.(linux|win|osx)-x64"),
-                "runtimepack.Microsoft.NETCore.App.Runtime"
-            )
-            file.writeText(content)
-        } catch (e: Exception) { /* 忽略 */ }
-    }
-    
-    private fun patchRuntimeConfigJson(file: File) {
-        try {
-            val content = file.readText()
-            
-            if (content.contains("includedFrameworks")) {
-                val nameMatch = Regex("\"name\"\\s*:\\s*\"([^\"]+)\"").find(content)
-                val versionMatch = Regex("\"includedFrameworks\"[^\\]]*\"version\"\\s*:\\s*\"([^\"]+)\"").find(content)
-                
-                if (nameMatch != null && versionMatch != null) {
-                    val newContent = """
-{
-  "runtimeOptions": {
-    "tfm": "net6.0",
-    "framework": {
-      "name": "${nameMatch.groupValues[1]}",
-      "version": "${versionMatch.groupValues[1]}"
-    },
-    "rollForward": "latestMajor",
-    "configProperties": {
-      "System.Reflection.Metadata.MetadataUpdater.IsSupported": false,
-      "System.Runtime.TieredCompilation": false
-    }
-  }
-}
-""".trimIndent()
-                    file.writeText(newContent)
+    /**
+     * 一次遍历游戏目录，修补 x64 程序集与 deps / runtimeconfig 配置
+     * 已修补的文件会被跳过，重复安装不会再次改写；进度在 [startProgress] 到 91 之间推进
+     */
+    private fun patchGameTree(gameDir: File, callback: InstallCallback, startProgress: Int) {
+        val message = RaLaunchApp.getInstance().getString(R.string.install_patch_arm64)
+        // 仅在主线程读写：多个工作线程投递的任务可能乱序到达，只显示比上次更大的进度
+        var lastShown = 0
+        SmapiTreePatcher.patch(gameDir, isCancelled = { isCancelled }) { done, total ->
+            // 每个文件都会回调，约 2% 推送一次，避免为每个文件切换到主线程
+            if (!isCancelled && (done == total || done % maxOf(1, total / 50) == 0)) {
+                val progressInt = startProgress + (91 - startProgress) * done / total
+                CoroutineScope(Dispatchers.Main).launch {
+                    if (done > lastShown) {
+                        lastShown = done
+                        callback.onProgress("$message ($done/$total)", progressInt)
+                    }
                 }
-            } else if (!content.contains("rollForward")) {
-                val newContent = content.replace(
-                    Regex("(\"framework\"\\s*:\\s*\\{[^}]+\\})"),
-                    "$1,\n    \"rollForward\": \"latestMajor\""
-                )
-                if (newContent != content) file.writeText(newContent)
             }
-        } catch (e: Exception) { /* 忽略 */ }
+        }
     }
 }
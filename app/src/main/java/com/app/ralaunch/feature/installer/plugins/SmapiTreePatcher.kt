@@ -0,0 +1,441 @@
+package com.app.ralaunch.feature.installer.plugins
+
+import com.app.ralaunch.core.common.util.FileCopier
+import com.app.ralaunch.core.logging.AppLog
+import com.google.gson.stream.JsonReader
+import com.google.gson.stream.JsonToken
+import com.google.gson.stream.JsonWriter
+import java.io.File
+import java.io.IOException
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.nio.channels.FileChannel
+import java.nio.file.StandardOpenOption
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * SMAPI 安装后的游戏目录修补
+ *
+ * - 只遍历一次目录树，每个文件按类型（PE 程序集 / runtimeconfig / deps / 其他）分类一次，
+ *   再交给有界线程池处理
+ * - PE 程序集：校验 MZ / PE 头后，只按位置改写 COFF 头中的 Machine 字段（x64 -> ARM64）
+ * - JSON：用 [JsonReader] / [JsonWriter] 流式改写，写入临时文件后替换原文件
+ * - 每一步都可重复执行：已修补的文件不会再次写入
+ */
+internal object SmapiTreePatcher {
+
+    private const val TAG = "SmapiTreePatcher"
+
+    /** 游戏根目录下需要修补的核心程序集 */
+    private val CORE_DLLS = setOf(
+        "Stardew Valley.dll", "MonoGame.Framework.dll", "xTile.dll",
+        "StardewValley.GameData.dll", "BmFont.dll", "Lidgren.Network.dll",
+        "Steamworks.NET.dll", "StardewModdingAPI.dll"
+    )
+
+    /** 其中所有程序集都需要修补的子目录 */
+    private val DLL_SUBDIRS = setOf("Mods", "smapi-internal")
+
+    const val MACHINE_AMD64 = 0x8664
+    const val MACHINE_ARM64 = 0xAA64
+
+    private const val E_LFANEW_OFFSET = 0x3C
+    private const val PE_SIGNATURE = 0x00004550 // "PE\0\0"（小端）
+
+    private val RID_SUFFIXES = listOf("/linux-x64", "/win-x64", "/osx-x64")
+    private val RUNTIME_PACK_REGEX =
+        Regex("runtimepack\\.Microsoft\\.NETCore\\.App\\.Runtime\\.(linux|win|osx)-x64")
+    private const val RUNTIME_PACK = "runtimepack.Microsoft.NETCore.App.Runtime"
+
+    private const val TMP_SUFFIX = ".tmp"
+
+    enum class FileKind { PE_ASSEMBLY, RUNTIME_CONFIG, DEPS, OTHER }
+
+    /** 各类文件中实际被改写的数量 */
+    data class Report(
+        val assemblies: Int,
+        val runtimeConfigs: Int,
+        val depsFiles: Int,
+        val failed: Int
+    )
+
+    fun classify(gameDir: File, file: File): FileKind {
+        val name = file.name
+        return when {
+            name.endsWith(".runtimeconfig.json") -> FileKind.RUNTIME_CONFIG
+            name.endsWith(".deps.json") -> FileKind.DEPS
+            name.endsWith(".dll", ignoreCase = true) -> {
+                val parent = file.parentFile
+                if (parent == gameDir) {
+                    if (name in CORE_DLLS) FileKind.PE_ASSEMBLY else FileKind.OTHER
+                } else {
+                    val top = file.relativeTo(gameDir).path.substringBefore(File.separatorChar)
+                    if (top in DLL_SUBDIRS) FileKind.PE_ASSEMBLY else FileKind.OTHER
+                }
+            }
+            else -> FileKind.OTHER
+        }
+    }
+
+    /**
+     * 遍历 [gameDir] 并修补所有需要修补的文件
+     *
+     * @param onProgress 每处理完一个文件回调一次（已完成数, 总数），可能在工作线程上调用
+     * @throws FileCopier.CancelledException [isCancelled] 返回 true 或线程被中断时抛出，已修补的文件保持修补状态
+     */
+    fun patch(
+        gameDir: File,
+        isCancelled: () -> Boolean = { false },
+        parallelism: Int = FileCopier.DEFAULT_PARALLELISM,
+        onProgress: (done: Int, total: Int) -> Unit = { _, _ -> }
+    ): Report {
+        val tasks = ArrayList<Pair<FileKind, File>>()
+        gameDir.walkTopDown()
+            .onEnter { !isCancelled() }
+            .filter { it.isFile && !it.name.endsWith(TMP_SUFFIX) }
+            .forEach { file ->
+                val kind = classify(gameDir, file)
+                if (kind != FileKind.OTHER) tasks.add(kind to file)
+            }
+        if (isCancelled()) throw FileCopier.CancelledException()
+
+        val counts = Array(FileKind.entries.size) { AtomicInteger() }
+        val failed = AtomicInteger()
+        val done = AtomicInteger()
+        val runOne = { (kind, file): Pair<FileKind, File> ->
+            if (isCancelled()) throw FileCopier.CancelledException()
+            try {
+                val changed = when (kind) {
+                    FileKind.PE_ASSEMBLY -> patchPeArchitecture(file)
+                    FileKind.RUNTIME_CONFIG -> patchRuntimeConfigJson(file)
+                    FileKind.DEPS -> patchDepsJson(file)
+                    FileKind.OTHER -> false
+                }
+                if (changed) counts[kind.ordinal].incrementAndGet()
+            } catch (e: Exception) {
+                AppLog.w(TAG, "修补失败: ${file.path}: ${e.message}")
+                failed.incrementAndGet()
+            }
+            onProgress(done.incrementAndGet(), tasks.size)
+        }
+
+        if (parallelism <= 1 || tasks.size < 2) {
+            tasks.forEach(runOne)
+        } else {
+            val executor = Executors.newFixedThreadPool(parallelism.coerceAtMost(tasks.size))
+            try {
+                val futures: List<Future<*>> = tasks.map { task -> executor.submit { runOne(task) } }
+                for (future in futures) {
+                    try {
+                        future.get()
+                    } catch (e: ExecutionException) {
+                        (e.cause as? FileCopier.CancelledException)?.let { throw it }
+                        AppLog.w(TAG, "修补任务失败: ${e.cause?.message}")
+                        failed.incrementAndGet()
+                    }
+                }
+            } catch (e: InterruptedException) {
+                Thread.currentThread().interrupt()
+                throw FileCopier.CancelledException()
+            } finally {
+                executor.shutdownNow()
+            }
+        }
+
+        val report = Report(
+            assemblies = counts[FileKind.PE_ASSEMBLY.ordinal].get(),
+            runtimeConfigs = counts[FileKind.RUNTIME_CONFIG.ordinal].get(),
+            depsFiles = counts[FileKind.DEPS.ordinal].get(),
+            failed = failed.get()
+        )
+        AppLog.i(TAG, "修补完成: 共 ${tasks.size} 个文件, $report")
+        return report
+    }
+
+    // ==================== PE ====================
+
+    /**
+     * 把 x64 程序集的 Machine 字段改为 ARM64
+     *
+     * 非 PE 文件、非 x64 程序集（包括已修补的）不做改动。
+     * @return 是否写入了文件
+     */
+    @Throws(IOException::class)
+    fun patchPeArchitecture(file: File): Boolean {
+        FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE).use { channel ->
+            val size = channel.size()
+            if (size < E_LFANEW_OFFSET + 4) return false
+
+            val buffer = ByteBuffer.allocate(6).order(ByteOrder.LITTLE_ENDIAN)
+            if (!readFully(channel, buffer, 0, 2)) return false
+            if (buffer.get(0) != 'M'.code.toByte() || buffer.get(1) != 'Z'.code.toByte()) return false
+
+            if (!readFully(channel, buffer, E_LFANEW_OFFSET.toLong(), 4)) return false
+            val peOffset = buffer.getInt(0).toLong() and 0xFFFFFFFFL
+            // PE 签名 (4) + Machine (2)
+            if (peOffset + 6 > size) return false
+
+            if (!readFully(channel, buffer, peOffset, 6)) return false
+            if (buffer.getInt(0) != PE_SIGNATURE) return false
+            val machine = buffer.getShort(4).toInt() and 0xFFFF
+            if (machine != MACHINE_AMD64) return false
+
+            buffer.clear()
+            buffer.putShort(MACHINE_ARM64.toShort()).flip()
+            var position = peOffset + 4
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position)
+            }
+            return true
+        }
+    }
+
+    private fun readFully(channel: FileChannel, buffer: ByteBuffer, position: Long, length: Int): Boolean {
+        buffer.clear().limit(length)
+        var offset = position
+        while (buffer.hasRemaining()) {
+            val read = channel.read(buffer, offset)
+            if (read < 0) return false
+            offset += read
+        }
+        return true
+    }
+
+    // ==================== deps.json ====================
+
+    internal fun rewriteDepsString(value: String): String {
+        var result = value
+        for (suffix in RID_SUFFIXES) {
+            if (result.contains(suffix)) result = result.replace(suffix, "")
+        }
+        if (result.contains("runtimepack.")) result = result.replace(RUNTIME_PACK_REGEX, RUNTIME_PACK)
+        return result
+    }
+
+    /**
+     * 去掉 deps.json 中 x64 运行时标识，使依赖解析落到通用 RID
+     *
+     * 属性名与字符串值都会改写。
+     * @return 是否写入了文件
+     */
+    @Throws(IOException::class)
+    fun patchDepsJson(file: File): Boolean {
+        var changed = false
+        return rewriteJson(file) { reader, writer ->
+            copyValue(reader, writer, { name ->
+                rewriteDepsString(name).also { if (it != name) changed = true }
+            }, { value ->
+                rewriteDepsString(value).also { if (it != value) changed = true }
+            })
+            changed
+        }
+    }
+
+    // ==================== runtimeconfig.json ====================
+
+    /**
+     * 修补 runtimeconfig.json
+     *
+     * - 自包含配置（含 `includedFrameworks`）：改写为依赖共享框架的配置
+     * - 其他配置：缺少 `rollForward` 时在 `framework` 之后补上 `"rollForward": "latestMajor"`
+     * @return 是否写入了文件
+     */
+    @Throws(IOException::class)
+    fun patchRuntimeConfigJson(file: File): Boolean {
+        val state = RuntimeConfigState()
+        val rewritten = rewriteJson(file) { reader, writer ->
+            copyRuntimeConfig(reader, writer, state)
+            !state.hasIncludedFrameworks && !state.hasRollForward && state.rollForwardInserted
+        }
+        if (rewritten || !state.hasIncludedFrameworks) return rewritten
+
+        val name = state.frameworkName ?: return false
+        val version = state.frameworkVersion ?: return false
+        writeAtomically(file) { writer -> writeFrameworkDependentConfig(writer, name, version) }
+        return true
+    }
+
+    private class RuntimeConfigState {
+        var hasIncludedFrameworks = false
+        var hasRollForward = false
+        var rollForwardInserted = false
+        var frameworkName: String? = null
+        var frameworkVersion: String? = null
+
+        /** 复制时经过的属性名：任意位置出现 rollForward 都视为已配置 */
+        val trackName: (String) -> String = { name ->
+            if (name == "rollForward") hasRollForward = true
+            name
+        }
+    }
+
+    private fun copyRuntimeConfig(reader: JsonReader, writer: JsonWriter, state: RuntimeConfigState) {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            copyValue(reader, writer)
+            return
+        }
+        reader.beginObject()
+        writer.beginObject()
+        while (reader.hasNext()) {
+            val name = state.trackName(reader.nextName())
+            writer.name(name)
+            if (name == "runtimeOptions" && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                copyRuntimeOptions(reader, writer, state)
+            } else {
+                copyValue(reader, writer, state.trackName)
+            }
+        }
+        reader.endObject()
+        writer.endObject()
+    }
+
+    private fun copyRuntimeOptions(reader: JsonReader, writer: JsonWriter, state: RuntimeConfigState) {
+        reader.beginObject()
+        writer.beginObject()
+        while (reader.hasNext()) {
+            val name = state.trackName(reader.nextName())
+            writer.name(name)
+            when {
+                name == "includedFrameworks" -> {
+                    state.hasIncludedFrameworks = true
+                    readIncludedFrameworks(reader, writer, state)
+                }
+                name == "framework" && reader.peek() == JsonToken.BEGIN_OBJECT -> {
+                    copyValue(reader, writer)
+                    writer.name("rollForward").value("latestMajor")
+                    state.rollForwardInserted = true
+                }
+                else -> copyValue(reader, writer, state.trackName)
+            }
+        }
+        reader.endObject()
+        writer.endObject()
+    }
+
+    /** 原样复制 includedFrameworks，同时记下第一个框架的名称与版本 */
+    private fun readIncludedFrameworks(reader: JsonReader, writer: JsonWriter, state: RuntimeConfigState) {
+        if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+            copyValue(reader, writer)
+            return
+        }
+        reader.beginArray()
+        writer.beginArray()
+        while (reader.hasNext()) {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT || state.frameworkName != null) {
+                copyValue(reader, writer)
+                continue
+            }
+            reader.beginObject()
+            writer.beginObject()
+            var name: String? = null
+            var version: String? = null
+            while (reader.hasNext()) {
+                val key = reader.nextName()
+                writer.name(key)
+                if ((key == "name" || key == "version") && reader.peek() == JsonToken.STRING) {
+                    val value = reader.nextString()
+                    writer.value(value)
+                    if (key == "name") name = value else version = value
+                } else {
+                    copyValue(reader, writer)
+                }
+            }
+            reader.endObject()
+            writer.endObject()
+            if (name != null && version != null) {
+                state.frameworkName = name
+                state.frameworkVersion = version
+            }
+        }
+        reader.endArray()
+        writer.endArray()
+    }
+
+    private fun writeFrameworkDependentConfig(writer: JsonWriter, name: String, version: String) {
+        writer.beginObject()
+        writer.name("runtimeOptions").beginObject()
+        writer.name("tfm").value("net6.0")
+        writer.name("framework").beginObject()
+        writer.name("name").value(name)
+        writer.name("version").value(version)
+        writer.endObject()
+        writer.name("rollForward").value("latestMajor")
+        writer.name("configProperties").beginObject()
+        writer.name("System.Reflection.Metadata.MetadataUpdater.IsSupported").value(false)
+        writer.name("System.Runtime.TieredCompilation").value(false)
+        writer.endObject()
+        writer.endObject()
+        writer.endObject()
+    }
+
+    // ==================== 流式读写 ====================
+
+    /**
+     * 逐个 token 复制一个 JSON 值，可改写属性名与字符串值；数字按原文复制
+     */
+    private fun copyValue(
+        reader: JsonReader,
+        writer: JsonWriter,
+        mapName: (String) -> String = { it },
+        mapString: (String) -> String = { it }
+    ) {
+        var depth = 0
+        do {
+            when (reader.peek()) {
+                JsonToken.BEGIN_OBJECT -> { reader.beginObject(); writer.beginObject(); depth++ }
+                JsonToken.END_OBJECT -> { reader.endObject(); writer.endObject(); depth-- }
+                JsonToken.BEGIN_ARRAY -> { reader.beginArray(); writer.beginArray(); depth++ }
+                JsonToken.END_ARRAY -> { reader.endArray(); writer.endArray(); depth-- }
+                JsonToken.NAME -> writer.name(mapName(reader.nextName()))
+                JsonToken.STRING -> writer.value(mapString(reader.nextString()))
+                JsonToken.NUMBER -> writer.jsonValue(reader.nextString())
+                JsonToken.BOOLEAN -> writer.value(reader.nextBoolean())
+                JsonToken.NULL -> { reader.nextNull(); writer.nullValue() }
+                JsonToken.END_DOCUMENT, null -> return
+            }
+        } while (depth > 0)
+    }
+
+    /**
+     * 流式读取 [file] 并写入同目录临时文件
+     *
+     * [transform] 返回 true 时用临时文件替换原文件，否则丢弃临时文件、原文件保持不变。
+     */
+    private fun rewriteJson(file: File, transform: (JsonReader, JsonWriter) -> Boolean): Boolean {
+        val tmp = File(file.parentFile, file.name + TMP_SUFFIX)
+        try {
+            val changed = JsonReader(file.bufferedReader()).use { reader ->
+                JsonWriter(tmp.bufferedWriter()).use { writer ->
+                    writer.setIndent("  ")
+                    transform(reader, writer)
+                }
+            }
+            if (changed) replaceWith(tmp, file)
+            return changed
+        } finally {
+            tmp.delete()
+        }
+    }
+
+    private fun writeAtomically(file: File, write: (JsonWriter) -> Unit) {
+        val tmp = File(file.parentFile, file.name + TMP_SUFFIX)
+        try {
+            JsonWriter(tmp.bufferedWriter()).use { writer ->
+                writer.setIndent("  ")
+                write(writer)
+            }
+            replaceWith(tmp, file)
+        } finally {
+            tmp.delete()
+        }
+    }
+
+    private fun replaceWith(tmp: File, file: File) {
+        if (!tmp.renameTo(file)) {
+            throw IOException("Cannot replace ${file.path}")
+        }
+    }
+}
@@ -101,6 +101,7 @@ import com.app.ralaunch.core.theme.AppThemeState
 import com.app.ralaunch.core.theme.RaLaunchTheme
 import com.app.ralaunch.core.ui.BaseActivity
 import com.app.ralaunch.feature.announcement.ui.AnnouncementScreenWrapper
+import com.app.ralaunch.feature.controls.packs.ControlPackManager
 import com.app.ralaunch.feature.controls.packs.ui.ControlStoreScreenWrapper
 import com.app.ralaunch.feature.controls.ui.ControlLayoutScreenWrapper
 import com.app.ralaunch.feature.filebrowser.ui.FileBrowserScreenWrapper
@@ -126,6 +127,7 @@ import kotlinx.coroutines.Job
 import kotlinx.coroutines.delay
 import kotlinx.coroutines.isActive
 import kotlinx.coroutines.launch
+import org.koin.android.ext.android.inject
 import org.koin.compose.KoinContext
 import org.koin.compose.viewmodel.koinViewModel
 import java.io.File
@@ -137,6 +139,7 @@ class MainActivityCompose : BaseActivity() {
     // Managers
     private lateinit var themeManager: ThemeManagerServiceV1
     private lateinit var permissionManager: PermissionManagerServiceV1
+    private val controlPackManager: ControlPackManager by inject()
 
     private val navState = NavState()
     private var activeUpdateDownloadId: Long = -1L
@@ -207,6 +210,8 @@ class MainActivityCompose : BaseActivity() {
 
     override fun onPause() {
         super.onPause()
+        // 进入后台后进程可能被回收，立即写回控件包的延迟状态
+        controlPackManager.flushState()
     }
 
     override fun onDestroy() {
@@ -152,7 +152,8 @@ class LauncherUpdateChecker(
             json = json,
             connectTimeoutMs = CONNECT_TIMEOUT_MS,
             readTimeoutMs = READ_TIMEOUT_MS,
-            headers = headers
+            headers = headers,
+            forceRefresh = true
         ).mapCatching { cfg -> resolveRelease(cfg) }
         primary.getOrNull()?.let { return Result.success(it) }
         primaryError = primary.exceptionOrNull()
@@ -162,7 +163,8 @@ class LauncherUpdateChecker(
             json = json,
             connectTimeoutMs = CONNECT_TIMEOUT_MS,
             readTimeoutMs = READ_TIMEOUT_MS,
-            headers = headers
+            headers = headers,
+            forceRefresh = true
         ).mapCatching { cfg -> resolveRelease(cfg) }
         fallback.getOrNull()?.let { return Result.success(it) }
         fallbackError = fallback.exceptionOrNull()
@@ -191,7 +193,8 @@ class LauncherUpdateChecker(
             json = json,
             connectTimeoutMs = CONNECT_TIMEOUT_MS,
             readTimeoutMs = READ_TIMEOUT_MS,
-            headers = headers
+            headers = headers,
+            forceRefresh = true
         )
         latestResult.getOrNull()
             ?.takeIf { !it.draft && !it.prerelease && it.tagName.isNotBlank() }
@@ -203,7 +206,8 @@ class LauncherUpdateChecker(
             json = json,
             connectTimeoutMs = CONNECT_TIMEOUT_MS,
             readTimeoutMs = READ_TIMEOUT_MS,
-            headers = headers
+            headers = headers,
+            forceRefresh = true
         )
         releasesResult.getOrNull()
             ?.firstOrNull { !it.draft && !it.prerelease && it.tagName.isNotBlank() }
@@ -1,14 +1,43 @@
 package com.app.ralaunch.feature.script
 
 import org.mozilla.javascript.Context
+import org.mozilla.javascript.Script
 import org.mozilla.javascript.Scriptable
 import org.mozilla.javascript.ScriptableObject
 import org.mozilla.javascript.Undefined
 import org.mozilla.javascript.Wrapper
+import java.security.MessageDigest
 import kotlin.io.path.Path
 import kotlin.io.path.readText
 
-class JavaScriptExecutor {
+/**
+ * Rhino-based JavaScript executor.
+ *
+ * Compiled scripts are cached by source name and content hash, so repeated evaluations skip the
+ * parse step. Script files are additionally tracked by mtime/size and only re-read when changed.
+ * Every run gets a cheap child scope on top of one sealed standard-object scope.
+ *
+ * @param maxCachedScripts upper bound of compiled scripts kept in memory (least recently used first out).
+ */
+class JavaScriptExecutor(
+    private val maxCachedScripts: Int = DEFAULT_MAX_CACHED_SCRIPTS
+) {
+
+    private data class FileStamp(
+        val lastModified: Long,
+        val size: Long,
+        val script: Script
+    )
+
+    private val compiledScripts = object : LinkedHashMap<String, Script>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, Script>): Boolean =
+            size > maxCachedScripts
+    }
+
+    private val fileScripts = object : LinkedHashMap<String, FileStamp>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, FileStamp>): Boolean =
+            size > maxCachedScripts
+    }
 
     private val sharedScope: ScriptableObject by lazy {
         withContext { context ->
@@ -40,12 +69,7 @@ class JavaScriptExecutor {
         return withContext { context ->
             configureContext(context)
 
-            val scope = createExecutionScope(context)
-            bindings.forEach { (key, value) ->
-                ScriptableObject.putProperty(scope, key, Context.javaToJS(value, scope))
-            }
-
-            normalizeResult(context.evaluateString(scope, script, sourceName, 1, null))
+            run(context, compile(context, script, sourceName), bindings)
         }
     }
 
@@ -118,11 +142,74 @@ class JavaScriptExecutor {
         scriptPath: String,
         bindings: Map<String, Any?> = emptyMap()
     ) {
-        eval(
-            script = Path(scriptPath).readText(),
-            bindings = bindings,
-            sourceName = Path(scriptPath).toAbsolutePath().toString()
-        )
+        withContext { context ->
+            configureContext(context)
+
+            run(context, compileFile(context, scriptPath), bindings)
+        }
+    }
+
+    /**
+     * Drops every compiled script held by this executor.
+     */
+    fun clearCache() {
+        synchronized(compiledScripts) { compiledScripts.clear() }
+        synchronized(fileScripts) { fileScripts.clear() }
+    }
+
+    internal val cachedScriptCount: Int
+        get() = synchronized(compiledScripts) { compiledScripts.size }
+
+    private fun run(context: Context, script: Script, bindings: Map<String, Any?>): Any? {
+        val scope = createExecutionScope(context)
+        bindings.forEach { (key, value) ->
+            ScriptableObject.putProperty(scope, key, Context.javaToJS(value, scope))
+        }
+
+        return normalizeResult(script.exec(context, scope))
+    }
+
+    private fun compile(context: Context, source: String, sourceName: String): Script {
+        val key = "$sourceName:${contentHash(source)}"
+        synchronized(compiledScripts) {
+            compiledScripts[key]?.let { return it }
+        }
+        // Compile outside the lock; a concurrent duplicate compile is harmless.
+        val script = context.compileString(source, sourceName, 1, null)
+        synchronized(compiledScripts) {
+            return compiledScripts.getOrPut(key) { script }
+        }
+    }
+
+    private fun compileFile(context: Context, scriptPath: String): Script {
+        val path = Path(scriptPath).toAbsolutePath()
+        val file = path.toFile()
+        val lastModified = file.lastModified()
+        val size = file.length()
+        val cacheKey = path.toString()
+
+        synchronized(fileScripts) {
+            fileScripts[cacheKey]
+                ?.takeIf { it.lastModified == lastModified && it.size == size }
+                ?.let { return it.script }
+        }
+
+        val script = compile(context, path.readText(), cacheKey)
+        synchronized(fileScripts) {
+            fileScripts[cacheKey] = FileStamp(lastModified, size, script)
+        }
+        return script
+    }
+
+    private fun contentHash(source: String): String {
+        val digest = MessageDigest.getInstance("SHA-256").digest(source.toByteArray(Charsets.UTF_8))
+        val hex = CharArray(digest.size * 2)
+        digest.forEachIndexed { index, byte ->
+            val value = byte.toInt() and 0xFF
+            hex[index * 2] = HEX_DIGITS[value ushr 4]
+            hex[index * 2 + 1] = HEX_DIGITS[value and 0x0F]
+        }
+        return String(hex)
     }
 
     private fun createExecutionScope(context: Context): Scriptable {
@@ -166,6 +253,9 @@ class JavaScriptExecutor {
 
     companion object {
         const val DEFAULT_SOURCE_NAME = "inline-script"
+        const val DEFAULT_MAX_CACHED_SCRIPTS = 64
+
+        private val HEX_DIGITS = "0123456789abcdef".toCharArray()
     }
 }
 
@@ -20,6 +20,7 @@ import android.hardware.usb.*;
 import android.os.Handler;
 import android.os.Looper;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -52,6 +53,8 @@ public class HIDDeviceManager {
 
     private Context mContext;
     private HashMap<Integer, HIDDevice> mDevicesById = new HashMap<Integer, HIDDevice>();
+    /* Copy-on-write view of mDevicesById for lock-free lookups from native calls; republished under the lock */
+    private volatile HIDDevice[] mDeviceTable = new HIDDevice[0];
     private HashMap<BluetoothDevice, HIDDeviceBLESteamController> mBluetoothDevices = new HashMap<BluetoothDevice, HIDDeviceBLESteamController>();
     private int mNextDeviceId = 0;
     private SharedPreferences mSharedPreferences = null;
@@ -279,22 +282,27 @@ public class HIDDeviceManager {
     }
 
     private void handleUsbDeviceDetached(UsbDevice usbDevice) {
-        List<Integer> devices = new ArrayList<Integer>();
-        for (HIDDevice device : mDevicesById.values()) {
-            if (usbDevice.equals(device.getDevice())) {
-                devices.add(device.getId());
+        // Only unlink under the lock; shutdown joins the input thread and SDL may call back in
+        List<HIDDevice> devices = new ArrayList<HIDDevice>();
+        synchronized (this) {
+            Iterator<HIDDevice> iterator = mDevicesById.values().iterator();
+            while (iterator.hasNext()) {
+                HIDDevice device = iterator.next();
+                if (usbDevice.equals(device.getDevice())) {
+                    devices.add(device);
+                    iterator.remove();
+                }
             }
+            publishDeviceTable();
         }
-        for (int id : devices) {
-            HIDDevice device = mDevicesById.get(id);
-            mDevicesById.remove(id);
+        for (HIDDevice device : devices) {
             device.shutdown();
-            HIDDeviceDisconnected(id);
+            HIDDeviceDisconnected(device.getId());
         }
     }
 
     private void handleUsbDevicePermission(UsbDevice usbDevice, boolean permission_granted) {
-        for (HIDDevice device : mDevicesById.values()) {
+        for (HIDDevice device : mDeviceTable) {
             if (usbDevice.equals(device.getDevice())) {
                 boolean opened = false;
                 if (permission_granted) {
@@ -322,6 +330,7 @@ public class HIDDeviceManager {
                     HIDDeviceUSB device = new HIDDeviceUSB(this, usbDevice, interface_index);
                     int id = device.getId();
                     mDevicesById.put(id, device);
+                    publishDeviceTable();
                     HIDDeviceConnected(id, device.getIdentifier(), device.getVendorId(), device.getProductId(), device.getSerialNumber(), device.getVersion(), device.getManufacturerName(), device.getProductName(), usbInterface.getId(), usbInterface.getInterfaceClass(), usbInterface.getInterfaceSubclass(), usbInterface.getInterfaceProtocol());
                 }
             }
@@ -453,6 +462,7 @@ public class HIDDeviceManager {
             int id = device.getId();
             mBluetoothDevices.put(bluetoothDevice, device);
             mDevicesById.put(id, device);
+            publishDeviceTable();
 
             // The Steam Controller will mark itself connected once initialization is complete
         }
@@ -468,6 +478,7 @@ public class HIDDeviceManager {
             int id = device.getId();
             mBluetoothDevices.remove(bluetoothDevice);
             mDevicesById.remove(id);
+            publishDeviceTable();
             device.shutdown();
             HIDDeviceDisconnected(id);
         }
@@ -495,16 +506,15 @@ public class HIDDeviceManager {
                 device.shutdown();
             }
             mDevicesById.clear();
+            publishDeviceTable();
             mBluetoothDevices.clear();
             HIDDeviceReleaseCallback();
         }
     }
 
     public void setFrozen(boolean frozen) {
-        synchronized (this) {
-            for (HIDDevice device : mDevicesById.values()) {
-                device.setFrozen(frozen);
-            }
+        for (HIDDevice device : mDeviceTable) {
+            device.setFrozen(frozen);
         }
     }
 
@@ -512,14 +522,19 @@ public class HIDDeviceManager {
     //////////////////////////////////////////////////////////////////////////////////////////////////////
     //////////////////////////////////////////////////////////////////////////////////////////////////////
 
-    private HIDDevice getDevice(int id) {
-        synchronized (this) {
-            HIDDevice result = mDevicesById.get(id);
-            if (result == null) {
+    /* Must be called with the manager lock held, after every change to mDevicesById */
+    private void publishDeviceTable() {
+        mDeviceTable = mDevicesById.values().toArray(new HIDDevice[0]);
+    }
 
+    private HIDDevice getDevice(int id) {
+        // Only a handful of devices are ever attached, so a scan of the snapshot beats hashing and locking
+        for (HIDDevice device : mDeviceTable) {
+            if (device.getId() == id) {
+                return device;
             }
-            return result;
         }
+        return null;
     }
 
     //////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -653,5 +668,10 @@ public class HIDDeviceManager {
     native void HIDDeviceDisconnected(int deviceID);
 
     native void HIDDeviceInputReport(int deviceID, byte[] report);
+    /*
+     * Delivers count reports packed by HIDInputReportQueue into the first size bytes of reports.
+     * Records as long as scratch are copied into it instead of a new array.
+     */
+    native void HIDDeviceInputReportBatch(int deviceID, ByteBuffer reports, int size, int count, byte[] scratch);
     native void HIDDeviceFeatureReport(int deviceID, byte[] report);
 }
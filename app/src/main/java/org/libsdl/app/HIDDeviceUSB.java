@@ -3,12 +3,17 @@ package org.libsdl.app;
 import android.hardware.usb.*;
 import android.os.Build;
 import android.util.Log;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.concurrent.TimeoutException;
 
 class HIDDeviceUSB implements HIDDevice {
 
     private static final String TAG = "hidapi";
 
+    /* Reports that are already waiting when one is read are handed to native code together, up to this many */
+    private static final int MAX_BATCHED_REPORTS = 16;
+
     protected HIDDeviceManager mManager;
     protected UsbDevice mDevice;
     protected int mInterfaceIndex;
@@ -276,34 +281,72 @@ class HIDDeviceUSB implements HIDDevice {
         @Override
         public void run() {
             int packetSize = mInputEndpoint.getMaxPacketSize();
-            byte[] packet = new byte[packetSize];
+            ByteBuffer packet = ByteBuffer.allocateDirect(packetSize);
+            HIDInputReportQueue reports = new HIDInputReportQueue(packetSize, MAX_BATCHED_REPORTS);
+            UsbRequest request = new UsbRequest();
+            if (!request.initialize(mConnection, mInputEndpoint)) {
+                Log.w(TAG, "Unable to initialize input request on device " + getDeviceName());
+                return;
+            }
+            boolean queued = false;
             while (mRunning) {
-                int r;
+                if (!queued) {
+                    packet.clear();
+                    if (!request.queue(packet)) {
+                        Log.w(TAG, "Unable to queue input request on device " + getDeviceName());
+                        break;
+                    }
+                    queued = true;
+                }
+                UsbRequest completed;
                 try
                 {
-                    r = mConnection.bulkTransfer(mInputEndpoint, packet, packetSize, 1000);
+                    completed = waitForInput(reports);
                 }
                 catch (Exception e)
                 {
-
+                    Log.w(TAG, "Input request failed on device " + getDeviceName() + ": " + e);
                     break;
                 }
-                if (r < 0) {
-                    // Could be a timeout or an I/O error
+                if (completed == null) {
+                    // Timed out, the request is still queued
+                    continue;
                 }
-                if (r > 0) {
-                    byte[] data;
-                    if (r == packetSize) {
-                        data = packet;
-                    } else {
-                        data = Arrays.copyOfRange(packet, 0, r);
-                    }
+                queued = false;
+                packet.flip();
+                if (mFrozen) {
+                    reports.clear();
+                } else if (packet.hasRemaining() && !reports.add(packet)) {
+                    reports.flush(mManager, mDeviceId);
+                    reports.add(packet);
+                }
+            }
+            // Deliver what already arrived before the request goes away
+            if (!mFrozen) {
+                reports.flush(mManager, mDeviceId);
+            }
+            request.cancel();
+            request.close();
+        }
 
-                    if (!mFrozen) {
-                        mManager.HIDDeviceInputReport(mDeviceId, data);
-                    }
+        /*
+         * Takes a report that has already arrived without waiting. Only when the next one is not
+         * there yet does it flush the queued reports and then block, so a report is never held
+         * back waiting for another.
+         */
+        private UsbRequest waitForInput(HIDInputReportQueue reports) throws Exception {
+            if (!reports.isEmpty()) {
+                try {
+                    return mConnection.requestWait(0);
+                } catch (TimeoutException e) {
+                    reports.flush(mManager, mDeviceId);
                 }
             }
+            try {
+                return mConnection.requestWait(1000);
+            } catch (TimeoutException e) {
+                return null;
+            }
         }
     }
 }
@@ -0,0 +1,61 @@
+package org.libsdl.app;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Packs back-to-back input reports of one device into a reusable direct buffer so that
+ * they reach native code in a single JNI call, without allocating per report.
+ *
+ * Each record is a native-order 16-bit length followed by the report bytes.
+ * Not thread safe: a device feeds its queue from one thread at a time.
+ */
+class HIDInputReportQueue {
+
+    static final int RECORD_HEADER_SIZE = 2;
+
+    private final ByteBuffer mBuffer;
+    private int mCount;
+    /* Reused by native code for records of this length, so fixed-size reports need no new array */
+    private byte[] mScratch = new byte[0];
+
+    HIDInputReportQueue(int maxReportSize, int maxReports) {
+        mBuffer = ByteBuffer.allocateDirect((RECORD_HEADER_SIZE + maxReportSize) * maxReports)
+                .order(ByteOrder.nativeOrder());
+    }
+
+    /** Queues the remaining bytes of report. Returns false when it does not fit; flush and try again. */
+    boolean add(ByteBuffer report) {
+        int length = report.remaining();
+        if (length <= 0 || length > 0xFFFF || mBuffer.remaining() < RECORD_HEADER_SIZE + length) {
+            return false;
+        }
+        if (mScratch.length != length) {
+            mScratch = new byte[length];
+        }
+        mBuffer.putShort((short) length);
+        mBuffer.put(report);
+        mCount++;
+        return true;
+    }
+
+    boolean isEmpty() {
+        return mCount == 0;
+    }
+
+    /** Hands every queued report to native code in one call and empties the queue. */
+    void flush(HIDDeviceManager manager, int deviceId) {
+        if (mCount == 0) {
+            return;
+        }
+        if (manager != null) {
+            manager.HIDDeviceInputReportBatch(deviceId, mBuffer, mBuffer.position(), mCount, mScratch);
+        }
+        clear();
+    }
+
+    void clear() {
+        mBuffer.clear();
+        mCount = 0;
+    }
+}
@@ -10,6 +10,7 @@ import android.os.Build;
 import android.os.VibrationEffect;
 import android.os.Vibrator;
 import android.os.VibratorManager;
+import android.util.SparseArray;
 import android.view.InputDevice;
 import android.view.KeyEvent;
 import android.view.MotionEvent;
@@ -35,6 +36,9 @@ public class SDLControllerManager
                                           float value);
     public static native void onNativeHat(int device_id, int hat_id,
                                           int x, int y);
+    /* Batched onNativeJoy: forwards count (axis, value) pairs in order with one JNI transition */
+    public static native void onNativeJoyBatch(int device_id, int[] axes,
+                                               float[] values, int count);
 
     protected static SDLJoystickHandler mJoystickHandler;
     protected static SDLHapticHandler mHapticHandler;
@@ -168,6 +172,17 @@ class SDLJoystickHandler_API16 extends SDLJoystickHandler {
         public String desc;
         public ArrayList<InputDevice.MotionRange> axes;
         public ArrayList<InputDevice.MotionRange> hats;
+
+        /* Last values sent to SDL, used to drop unchanged axes/hats */
+        float[] lastAxisValues;
+        int[] lastHatValues;
+
+        void resetState() {
+            lastAxisValues = new float[axes.size()];
+            java.util.Arrays.fill(lastAxisValues, Float.NaN);
+            lastHatValues = new int[hats.size()];
+            java.util.Arrays.fill(lastHatValues, Integer.MIN_VALUE);
+        }
     }
     static class RangeComparator implements Comparator<InputDevice.MotionRange> {
         @Override
@@ -214,11 +229,37 @@ class SDLJoystickHandler_API16 extends SDLJoystickHandler {
         }
     }
 
+    /* Axis changes smaller than this are not forwarded (SDL quantizes to 1/32767 anyway) */
+    static final float AXIS_EPSILON = 1.0f / 16384.0f;
+
     protected final ArrayList<SDLJoystick> mJoysticks;
+    protected final SparseArray<SDLJoystick> mJoysticksById;
+
+    /* Reused batch buffers for onNativeJoyBatch, only touched on the input thread */
+    private int[] mBatchAxes = new int[16];
+    private float[] mBatchValues = new float[16];
+    private int mBatchCount;
 
     public SDLJoystickHandler_API16() {
 
         mJoysticks = new ArrayList<SDLJoystick>();
+        mJoysticksById = new SparseArray<SDLJoystick>();
+    }
+
+    protected void registerJoystick(SDLJoystick joystick) {
+        joystick.resetState();
+        mJoysticks.add(joystick);
+        mJoysticksById.put(joystick.device_id, joystick);
+    }
+
+    protected void unregisterJoystick(int device_id) {
+        mJoysticksById.remove(device_id);
+        for (int i = 0; i < mJoysticks.size(); i++) {
+            if (mJoysticks.get(i).device_id == device_id) {
+                mJoysticks.remove(i);
+                break;
+            }
+        }
     }
 
     @Override
@@ -258,7 +299,7 @@ class SDLJoystickHandler_API16 extends SDLJoystickHandler {
                         }
                     }
 
-                    mJoysticks.add(joystick);
+                    registerJoystick(joystick);
                     SDLControllerManager.nativeAddJoystick(joystick.device_id, joystick.name, joystick.desc,
                             getVendorId(joystickDevice), getProductId(joystickDevice), false,
                             getButtonMask(joystickDevice), joystick.axes.size(), getAxisMask(joystick.axes), joystick.hats.size()/2, 0, can_rumble);
@@ -285,23 +326,13 @@ class SDLJoystickHandler_API16 extends SDLJoystickHandler {
         if (removedDevices != null) {
             for (int device_id : removedDevices) {
                 SDLControllerManager.nativeRemoveJoystick(device_id);
-                for (int i = 0; i < mJoysticks.size(); i++) {
-                    if (mJoysticks.get(i).device_id == device_id) {
-                        mJoysticks.remove(i);
-                        break;
-                    }
-                }
+                unregisterJoystick(device_id);
             }
         }
     }
 
     protected SDLJoystick getJoystick(int device_id) {
-        for (SDLJoystick joystick : mJoysticks) {
-            if (joystick.device_id == device_id) {
-                return joystick;
-            }
-        }
-        return null;
+        return mJoysticksById.get(device_id);
     }
 
     @Override
@@ -311,22 +342,63 @@ class SDLJoystickHandler_API16 extends SDLJoystickHandler {
         if (action == MotionEvent.ACTION_MOVE) {
             SDLJoystick joystick = getJoystick(event.getDeviceId());
             if (joystick != null) {
-                for (int i = 0; i < joystick.axes.size(); i++) {
-                    InputDevice.MotionRange range = joystick.axes.get(i);
-                    /* Normalize the value to -1...1 */
-                    float value = (event.getAxisValue(range.getAxis(), actionPointerIndex) - range.getMin()) / range.getRange() * 2.0f - 1.0f;
-                    SDLControllerManager.onNativeJoy(joystick.device_id, i, value);
+                if (joystick.lastAxisValues == null || joystick.lastAxisValues.length != joystick.axes.size()
+                        || joystick.lastHatValues.length != joystick.hats.size()) {
+                    joystick.resetState();
+                }
+
+                /* Batched historical samples first (oldest to newest), then the current sample */
+                mBatchCount = 0;
+                int historySize = event.getHistorySize();
+                for (int h = 0; h < historySize; h++) {
+                    collectAxes(joystick, event, actionPointerIndex, h);
                 }
+                collectAxes(joystick, event, actionPointerIndex, -1);
+                if (mBatchCount > 0) {
+                    SDLControllerManager.onNativeJoyBatch(joystick.device_id, mBatchAxes, mBatchValues, mBatchCount);
+                }
+
                 for (int i = 0; i < joystick.hats.size() / 2; i++) {
                     int hatX = Math.round(event.getAxisValue(joystick.hats.get(2 * i).getAxis(), actionPointerIndex));
                     int hatY = Math.round(event.getAxisValue(joystick.hats.get(2 * i + 1).getAxis(), actionPointerIndex));
-                    SDLControllerManager.onNativeHat(joystick.device_id, i, hatX, hatY);
+                    if (joystick.lastHatValues[2 * i] != hatX || joystick.lastHatValues[2 * i + 1] != hatY) {
+                        joystick.lastHatValues[2 * i] = hatX;
+                        joystick.lastHatValues[2 * i + 1] = hatY;
+                        SDLControllerManager.onNativeHat(joystick.device_id, i, hatX, hatY);
+                    }
                 }
             }
         }
         return true;
     }
 
+    /**
+     * Appends axes that moved more than AXIS_EPSILON since the last value sent to SDL.
+     * @param historyPos historical sample index, or -1 for the current sample.
+     */
+    private void collectAxes(SDLJoystick joystick, MotionEvent event, int pointerIndex, int historyPos) {
+        float[] last = joystick.lastAxisValues;
+        for (int i = 0; i < joystick.axes.size(); i++) {
+            InputDevice.MotionRange range = joystick.axes.get(i);
+            float raw = historyPos < 0
+                    ? event.getAxisValue(range.getAxis(), pointerIndex)
+                    : event.getHistoricalAxisValue(range.getAxis(), pointerIndex, historyPos);
+            /* Normalize the value to -1...1 */
+            float value = (raw - range.getMin()) / range.getRange() * 2.0f - 1.0f;
+            if (!Float.isNaN(last[i]) && Math.abs(value - last[i]) < AXIS_EPSILON) {
+                continue;
+            }
+            last[i] = value;
+            if (mBatchCount == mBatchAxes.length) {
+                mBatchAxes = java.util.Arrays.copyOf(mBatchAxes, mBatchCount * 2);
+                mBatchValues = java.util.Arrays.copyOf(mBatchValues, mBatchCount * 2);
+            }
+            mBatchAxes[mBatchCount] = i;
+            mBatchValues[mBatchCount] = value;
+            mBatchCount++;
+        }
+    }
+
     public String getJoystickDescriptor(InputDevice joystickDevice) {
         String desc = joystickDevice.getDescriptor();
 
@@ -609,7 +681,7 @@ class SDLJoyStickHandler_API19_VirtualJoystick extends SDLJoystickHandler_API19
                         }
                     }
 
-                    mJoysticks.add(joystick);
+                    registerJoystick(joystick);
                     SDLControllerManager.nativeAddJoystick(
                         joystick.device_id,
                         joystick.name,
@@ -653,12 +725,7 @@ class SDLJoyStickHandler_API19_VirtualJoystick extends SDLJoystickHandler_API19
         if (removedDevices != null) {
             for (int device_id : removedDevices) {
                 SDLControllerManager.nativeRemoveJoystick(device_id);
-                for (int i = 0; i < mJoysticks.size(); i++) {
-                    if (mJoysticks.get(i).device_id == device_id) {
-                        mJoysticks.remove(i);
-                        break;
-                    }
-                }
+                unregisterJoystick(device_id);
             }
         }
 
@@ -671,7 +738,7 @@ class SDLJoyStickHandler_API19_VirtualJoystick extends SDLJoystickHandler_API19
     private void registerVirtualControllerOnce() {
         if (!virtualJoystickAdded) {
             virtualJoystickAdded = true;
-            mJoysticks.add(virtualJoystick);
+            registerJoystick(virtualJoystick);
 
             /* Check VIBRATOR_SERVICE */
             Vibrator vib = (Vibrator) SDL.getContext().getSystemService(Context.VIBRATOR_SERVICE);
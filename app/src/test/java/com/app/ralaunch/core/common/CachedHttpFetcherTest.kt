@@ -0,0 +1,243 @@
+package com.app.ralaunch.core.common
+
+import com.app.ralaunch.core.common.util.NoOpLoggerRule
+import com.sun.net.httpserver.HttpExchange
+import com.sun.net.httpserver.HttpServer
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import java.io.File
+import java.net.InetSocketAddress
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicReference
+import kotlin.io.path.createTempDirectory
+
+class CachedHttpFetcherTest {
+
+    @get:Rule
+    val logs = NoOpLoggerRule()
+
+    private lateinit var server: HttpServer
+    private lateinit var cacheDir: File
+    private var now = 1_000_000L
+
+    @Volatile
+    private var body = """{"version":1}"""
+
+    @Volatile
+    private var etag = "\"v1\""
+
+    @Volatile
+    private var gate: CountDownLatch? = null
+
+    @Volatile
+    private var failing = false
+
+    private val hits = AtomicInteger(0)
+    private val notModified = AtomicInteger(0)
+
+    @Before
+    fun setUp() {
+        cacheDir = createTempDirectory("http-cache-").toFile()
+        server = HttpServer.create(InetSocketAddress("127.0.0.1", 0), 0)
+        server.createContext("/index.json") { exchange -> serve(exchange) }
+        server.executor = Executors.newCachedThreadPool()
+        server.start()
+    }
+
+    @After
+    fun tearDown() {
+        server.stop(0)
+        cacheDir.deleteRecursively()
+    }
+
+    @Test
+    fun `serves fresh entry without touching network`() = runBlocking {
+        val fetcher = newFetcher()
+
+        assertEquals(body, fetcher.getText(url(), TIMEOUT, TIMEOUT).value)
+        now += 1_000
+        assertEquals(body, fetcher.getText(url(), TIMEOUT, TIMEOUT).value)
+
+        assertEquals(1, hits.get())
+    }
+
+    @Test
+    fun `revalidates stale entry in background with etag`() = runBlocking {
+        val fetcher = newFetcher()
+        fetcher.getText(url(), TIMEOUT, TIMEOUT).value
+
+        now += MAX_AGE_MS + 1
+        assertEquals(body, fetcher.getText(url(), TIMEOUT, TIMEOUT).value)
+        awaitHits(2)
+
+        assertEquals(1, notModified.get())
+        now += 1_000
+        assertEquals(body, fetcher.getText(url(), TIMEOUT, TIMEOUT).value)
+        assertEquals(2, hits.get())
+    }
+
+    @Test
+    fun `stale response is replaced after background refresh`() = runBlocking {
+        val fetcher = newFetcher()
+        val original = fetcher.getText(url(), TIMEOUT, TIMEOUT).value
+
+        body = """{"version":2}"""
+        etag = "\"v2\""
+        now += MAX_AGE_MS + 1
+
+        assertEquals(original, fetcher.getText(url(), TIMEOUT, TIMEOUT).value)
+        awaitHits(2)
+        Thread.sleep(50)
+        assertEquals(body, fetcher.getText(url(), TIMEOUT, TIMEOUT).value)
+    }
+
+    @Test
+    fun `collapses concurrent requests for same url`() = runBlocking {
+        val fetcher = newFetcher()
+        val latch = CountDownLatch(1)
+        gate = latch
+
+        val results = (1..8).map {
+            async(Dispatchers.IO) { fetcher.getText(url(), TIMEOUT, TIMEOUT).value }
+        }
+        Thread.sleep(200)
+        latch.countDown()
+
+        assertEquals(List(8) { body }, results.awaitAll())
+        assertEquals(1, hits.get())
+    }
+
+    @Test
+    fun `force refresh sends conditional request`() = runBlocking {
+        val fetcher = newFetcher()
+        fetcher.getText(url(), TIMEOUT, TIMEOUT).value
+
+        assertEquals(body, fetcher.getText(url(), TIMEOUT, TIMEOUT, forceRefresh = true).value)
+
+        assertEquals(2, hits.get())
+        assertEquals(1, notModified.get())
+    }
+
+    @Test
+    fun `failed force refresh flags cached copy as stale`() = runBlocking {
+        val fetcher = newFetcher()
+        val original = fetcher.getText(url(), TIMEOUT, TIMEOUT).value
+
+        failing = true
+        assertEquals(
+            CachedHttpFetcher.Fetched(original, isStale = true),
+            fetcher.getText(url(), TIMEOUT, TIMEOUT, forceRefresh = true)
+        )
+
+        now += MAX_AGE_MS + CachedHttpFetcher.DEFAULT_MAX_STALE_MS
+        assertTrue(runCatching { fetcher.getText(url(), TIMEOUT, TIMEOUT, forceRefresh = true) }.isFailure)
+    }
+
+    @Test
+    fun `headers are part of the cache key`() = runBlocking {
+        val fetcher = newFetcher()
+        val anonymous = fetcher.getText(url(), TIMEOUT, TIMEOUT).value
+        val authorized = fetcher.getText(url(), TIMEOUT, TIMEOUT, headers = mapOf("Authorization" to "Bearer a")).value
+
+        assertEquals(body, anonymous)
+        assertEquals("authorized:$body", authorized)
+        assertEquals(2, hits.get())
+        assertEquals(authorized, fetcher.getText(url(), TIMEOUT, TIMEOUT, headers = mapOf("Authorization" to "Bearer a")).value)
+        assertEquals(2, hits.get())
+        assertFalse(cacheDir.listFiles().orEmpty().any { it.readText().contains("Bearer") })
+    }
+
+    @Test
+    fun `cancelled force refresh does not fall back to cached copy`() = runBlocking {
+        val fetcher = newFetcher()
+        fetcher.getText(url(), TIMEOUT, TIMEOUT).value
+        val latch = CountDownLatch(1)
+        gate = latch
+        val returned = AtomicReference<CachedHttpFetcher.Fetched<String>?>()
+
+        val job = launch(Dispatchers.IO) {
+            returned.set(fetcher.getText(url(), TIMEOUT, TIMEOUT, forceRefresh = true))
+        }
+        delay(200)
+        job.cancel()
+        job.join()
+        latch.countDown()
+
+        assertTrue(job.isCancelled)
+        assertNull(returned.get())
+    }
+
+    @Test
+    fun `evicts least recently used entries beyond the bound`() {
+        val cache = HttpResponseCache(cacheDir, maxEntries = 2) { now }
+        cache.put("a", "A", null, null, MAX_AGE_MS)
+        now += 1_000
+        cache.put("b", "B", null, null, MAX_AGE_MS)
+        now += 1_000
+        assertNotNull(cache.get("a"))
+        now += 1_000
+        cache.put("c", "C", null, null, MAX_AGE_MS)
+
+        assertNull(cache.get("b"))
+        assertEquals("A", cache.get("a")?.body)
+        assertEquals("C", cache.get("c")?.body)
+        assertEquals(4, cacheDir.listFiles().orEmpty().size)
+    }
+
+    private fun newFetcher() = CachedHttpFetcher(
+        cache = HttpResponseCache(cacheDir) { now },
+        defaultMaxAgeMs = MAX_AGE_MS
+    )
+
+    private fun url() = "http://127.0.0.1:${server.address.port}/index.json"
+
+    private fun awaitHits(expected: Int) {
+        val deadline = System.currentTimeMillis() + 5_000
+        while (hits.get() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10)
+        }
+        Thread.sleep(50)
+    }
+
+    private fun serve(exchange: HttpExchange) {
+        exchange.use {
+            gate?.await(5, TimeUnit.SECONDS)
+            hits.incrementAndGet()
+            if (failing) {
+                exchange.sendResponseHeaders(500, -1)
+                return
+            }
+            if (exchange.requestHeaders.getFirst("If-None-Match") == etag) {
+                notModified.incrementAndGet()
+                exchange.sendResponseHeaders(304, -1)
+                return
+            }
+            val authorized = exchange.requestHeaders.getFirst("Authorization") != null
+            val bytes = (if (authorized) "authorized:$body" else body).toByteArray()
+            exchange.responseHeaders.add("ETag", etag)
+            exchange.sendResponseHeaders(200, bytes.size.toLong())
+            exchange.responseBody.write(bytes)
+        }
+    }
+
+    private companion object {
+        const val TIMEOUT = 5_000
+        const val MAX_AGE_MS = 60_000L
+    }
+}
@@ -0,0 +1,111 @@
+package com.app.ralaunch.core.common.util
+
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Assert.fail
+import org.junit.Test
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.File
+import java.util.concurrent.atomic.AtomicLong
+import kotlin.random.Random
+
+class FileCopierTest {
+
+    private fun populate(root: File, dirs: Int, filesPerDir: Int, fileSize: Int): Long {
+        val random = Random(42)
+        var total = 0L
+        repeat(dirs) { d ->
+            val dir = File(root, "dir$d/sub").apply { mkdirs() }
+            repeat(filesPerDir) { f ->
+                File(dir, "file$f.bin").writeBytes(random.nextBytes(fileSize))
+                total += fileSize
+            }
+        }
+        File(root, "empty").mkdirs()
+        return total
+    }
+
+    @Test
+    fun `copyStream copies all bytes across pooled buffers`() {
+        val data = Random(1).nextBytes(FileCopier.BUFFER_SIZE * 3 + 17)
+        val output = ByteArrayOutputStream()
+
+        val copied = FileCopier.copyStream(ByteArrayInputStream(data), output)
+
+        assertEquals(data.size.toLong(), copied)
+        assertArrayEquals(data, output.toByteArray())
+    }
+
+    @Test
+    fun `copyRange slices part of a container file`() = withTempDir("file-copier-") { dir ->
+        val container = File(dir, "container").apply { writeText("0123456789") }
+        val target = File(dir, "out/slice.txt")
+
+        FileCopier.copyRange(container, 3, 4, target)
+
+        assertEquals("3456", target.readText())
+        try {
+            FileCopier.copyRange(container, 8, 4, File(dir, "bad"))
+            fail("expected out of range failure")
+        } catch (e: java.io.IOException) {
+            // expected
+        }
+    }
+
+    @Test
+    fun `copyDirectory mirrors tree overwrites and reports progress`() = withTempDir("file-copier-") { dir ->
+        val source = File(dir, "src")
+        val target = File(dir, "dst")
+        val total = populate(source, dirs = 4, filesPerDir = 10, fileSize = 4096)
+        File(target, "dir0/sub").mkdirs()
+        File(target, "dir0/sub/file0.bin").writeText("stale")
+        val reported = AtomicLong()
+
+        val result = FileCopier.copyDirectory(source, target, progress = { copied, _ -> reported.accumulateAndGet(copied, ::maxOf) })
+
+        assertEquals(40, result.files)
+        assertEquals(total, result.bytes)
+        assertEquals(total, reported.get())
+        assertTrue(File(target, "empty").isDirectory)
+        assertArrayEquals(
+            File(source, "dir3/sub/file9.bin").readBytes(),
+            File(target, "dir3/sub/file9.bin").readBytes()
+        )
+        assertEquals(4096L, File(target, "dir0/sub/file0.bin").length())
+    }
+
+    @Test(expected = FileCopier.CancelledException::class)
+    fun `copyDirectory stops when cancelled`() = withTempDir("file-copier-") { dir ->
+        val source = File(dir, "src")
+        populate(source, dirs = 2, filesPerDir = 2, fileSize = 16)
+        FileCopier.copyDirectory(source, File(dir, "dst"), isCancelled = { true })
+    }
+
+    @Test
+    fun `parallel copyDirectory matches a serial copyTo of a wide tree`() = withTempDir("file-copier-") { dir ->
+        val source = File(dir, "src")
+        val total = populate(source, dirs = 16, filesPerDir = 32, fileSize = 8 * 1024)
+
+        fun serialCopy(from: File, to: File) {
+            to.mkdirs()
+            from.listFiles()?.forEach { file ->
+                val targetFile = File(to, file.name)
+                if (file.isDirectory) serialCopy(file, targetFile) else file.copyTo(targetFile, overwrite = true)
+            }
+        }
+        serialCopy(source, File(dir, "serial"))
+
+        val result = FileCopier.copyDirectory(source, File(dir, "engine"))
+
+        assertEquals(16 * 32, result.files)
+        assertEquals(total, result.bytes)
+        val serial = File(dir, "serial").walkTopDown().filter { it.isFile }.map { it.relativeTo(File(dir, "serial")) }.toSortedSet()
+        val engine = File(dir, "engine").walkTopDown().filter { it.isFile }.map { it.relativeTo(File(dir, "engine")) }.toSortedSet()
+        assertEquals(serial, engine)
+        for (relative in serial) {
+            assertArrayEquals(File(File(dir, "serial"), relative.path).readBytes(), File(File(dir, "engine"), relative.path).readBytes())
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.app.ralaunch.core.common.util
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.io.File
+import kotlin.io.path.createTempDirectory
+
+class IntegrityVerifierTest {
+
+    private fun manifestOf(dir: File, vararg paths: String) = IntegrityManifest(
+        archive = "dotnet.tar.xz",
+        files = paths.associateWith { path ->
+            val file = File(dir, path)
+            IntegrityManifest.Entry(file.length(), IntegrityVerifier.sha256(file))
+        }
+    )
+
+    private fun withComponent(block: (File) -> Unit) {
+        val dir = createTempDirectory("integrity-").toFile()
+        try {
+            File(dir, "shared/8.0.0").mkdirs()
+            File(dir, "shared/8.0.0/libcoreclr.so").writeText("coreclr".repeat(100))
+            File(dir, "shared/8.0.0/libclrjit.so").writeText("clrjit".repeat(100))
+            File(dir, "host.so").writeText("host")
+            block(dir)
+        } finally {
+            dir.deleteRecursively()
+        }
+    }
+
+    @Test
+    fun `intact component passes and second run trusts stamps`() = withComponent { dir ->
+        val manifest = manifestOf(dir, "shared/8.0.0/libcoreclr.so", "shared/8.0.0/libclrjit.so", "host.so")
+
+        val first = IntegrityVerifier.verify(dir, manifest)
+        assertTrue(first.isValid)
+        assertEquals(3, first.hashedFiles)
+
+        val second = IntegrityVerifier.verify(dir, manifest)
+        assertTrue(second.isValid)
+        assertEquals(0, second.hashedFiles)
+    }
+
+    @Test
+    fun `detects missing truncated and same-size corrupted files`() = withComponent { dir ->
+        val manifest = manifestOf(dir, "shared/8.0.0/libcoreclr.so", "shared/8.0.0/libclrjit.so", "host.so")
+        IntegrityVerifier.verify(dir, manifest)
+
+        File(dir, "host.so").delete()
+        File(dir, "shared/8.0.0/libclrjit.so").writeText("clrjit".repeat(50))
+        val coreclr = File(dir, "shared/8.0.0/libcoreclr.so")
+        val modified = coreclr.lastModified()
+        coreclr.writeText("CORECLR".repeat(100))
+        coreclr.setLastModified(modified + 5000)
+
+        val result = IntegrityVerifier.verify(dir, manifest)
+
+        assertEquals(
+            listOf(
+                "host.so" to IntegrityVerifier.FailureReason.MISSING,
+                "shared/8.0.0/libclrjit.so" to IntegrityVerifier.FailureReason.SIZE_MISMATCH,
+                "shared/8.0.0/libcoreclr.so" to IntegrityVerifier.FailureReason.HASH_MISMATCH
+            ),
+            result.failures.map { it.relativePath to it.reason }
+        )
+    }
+
+    @Test
+    fun `forgotten stamps force rehash after repair`() = withComponent { dir ->
+        val manifest = manifestOf(dir, "shared/8.0.0/libcoreclr.so", "host.so")
+        IntegrityVerifier.verify(dir, manifest)
+
+        IntegrityVerifier.forgetStamps(dir, listOf("host.so"))
+        val result = IntegrityVerifier.verify(dir, manifest)
+
+        assertTrue(result.isValid)
+        assertEquals(1, result.hashedFiles)
+    }
+
+    @Test
+    fun `manifest round trips through component directory`() = withComponent { dir ->
+        val manifest = manifestOf(dir, "host.so")
+        IntegrityVerifier.writeManifest(dir, manifest)
+
+        assertEquals(manifest, IntegrityVerifier.readManifest(dir))
+    }
+
+    @Test
+    fun `parallel verification of many files`() = withComponent { dir ->
+        val paths = (0 until 400).map { i ->
+            "many/file$i.bin".also { File(dir, it).apply { parentFile.mkdirs(); writeText("payload-$i".repeat(200)) } }
+        }
+        val manifest = manifestOf(dir, *paths.toTypedArray())
+
+        val result = IntegrityVerifier.verify(dir, manifest, parallelism = 4)
+
+        assertTrue(result.isValid)
+        assertEquals(400, result.hashedFiles)
+    }
+}
@@ -0,0 +1,115 @@
+package com.app.ralaunch.core.common.util
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Rule
+import org.junit.Test
+import java.io.File
+import java.util.concurrent.ConcurrentLinkedQueue
+
+class MonoModRolloutTest {
+
+    @get:Rule
+    val logs = NoOpLoggerRule()
+
+    private class MemoryStore : MonoModRollout.ProgressStore {
+        var version: String? = null
+        override fun completedVersion(): String? = version
+        override fun markCompleted(version: String) {
+            this.version = version
+        }
+    }
+
+    private fun gameDirs(root: File, count: Int): List<File> = (0 until count).map { index ->
+        File(root, "games/game$index").apply {
+            mkdirs()
+            File(this, "MonoMod.Common.dll").writeText("old")
+        }
+    }
+
+    private fun patcher(calls: MutableCollection<File>) = MonoModRollout.Patcher { gameDir, assemblies ->
+        calls.add(gameDir)
+        assemblies.forEach { (name, data) -> File(gameDir, name).writeBytes(data) }
+        assemblies.size
+    }
+
+    @Test
+    fun `prepare extracts once and removes older versions`() = withTempDir("monomod-rollout-") { root ->
+        val shared = File(root, "MonoMod")
+        val rollout = MonoModRollout(shared, MemoryStore())
+        File(shared, "oldversion").mkdirs()
+        File(shared, "stray.dll").apply { parentFile.mkdirs(); writeText("x") }
+        var extractions = 0
+
+        repeat(2) {
+            rollout.prepare("v1") { staging ->
+                extractions++
+                File(staging, "MonoMod.Common.dll").writeText("new")
+            }
+        }
+
+        assertEquals(1, extractions)
+        assertEquals(listOf("v1"), shared.list()!!.toList())
+        assertEquals("new", File(rollout.versionDir("v1"), "MonoMod.Common.dll").readText())
+    }
+
+    @Test
+    fun `rollout patches every game and skips stamped games`() = withTempDir("monomod-rollout-") { root ->
+        val store = MemoryStore()
+        val rollout = MonoModRollout(File(root, "MonoMod"), store, parallelism = 3)
+        val patchDir = rollout.prepare("v1") { File(it, "MonoMod.Common.dll").writeText("new") }
+        val games = gameDirs(root, 6)
+        val calls = ConcurrentLinkedQueue<File>()
+
+        val first = rollout.rollout("v1", patchDir, games, patcher(calls))
+
+        assertEquals(MonoModRollout.Report(patched = 6, skipped = 0, failed = 0), first)
+        assertTrue(games.all { File(it, "MonoMod.Common.dll").readText() == "new" })
+        assertTrue(games.all { rollout.readStamp(it) == "v1" })
+        assertEquals("v1", store.version)
+        assertTrue(rollout.isCompleted("v1"))
+
+        calls.clear()
+        val second = rollout.rollout("v1", patchDir, games, patcher(calls))
+        assertEquals(MonoModRollout.Report(patched = 0, skipped = 6, failed = 0), second)
+        assertTrue(calls.isEmpty())
+    }
+
+    @Test
+    fun `interrupted rollout resumes with remaining games only`() = withTempDir("monomod-rollout-") { root ->
+        val store = MemoryStore()
+        val rollout = MonoModRollout(File(root, "MonoMod"), store, parallelism = 1)
+        val patchDir = rollout.prepare("v2") { File(it, "MonoMod.Common.dll").writeText("new") }
+        val games = gameDirs(root, 4)
+        val broken = games[2]
+
+        val failing = MonoModRollout.Patcher { gameDir, _ -> if (gameDir == broken) -1 else 1 }
+        val first = rollout.rollout("v2", patchDir, games, failing)
+        assertEquals(MonoModRollout.Report(patched = 3, skipped = 0, failed = 1), first)
+        assertNull(store.version)
+        assertFalse(rollout.isCompleted("v2"))
+
+        val calls = ConcurrentLinkedQueue<File>()
+        val second = rollout.rollout("v2", patchDir, games, patcher(calls))
+        assertEquals(listOf(broken), calls.toList())
+        assertEquals(MonoModRollout.Report(patched = 1, skipped = 3, failed = 0), second)
+        assertEquals("v2", store.version)
+    }
+
+    @Test
+    fun `new version re-patches previously stamped games`() = withTempDir("monomod-rollout-") { root ->
+        val rollout = MonoModRollout(File(root, "MonoMod"), MemoryStore())
+        val games = gameDirs(root, 2)
+        val v1 = rollout.prepare("v1") { File(it, "MonoMod.Common.dll").writeText("one") }
+        rollout.rollout("v1", v1, games, patcher(ArrayList()))
+
+        val v2 = rollout.prepare("v2") { File(it, "MonoMod.Common.dll").writeText("two") }
+        val report = rollout.rollout("v2", v2, games, patcher(ConcurrentLinkedQueue()))
+
+        assertEquals(2, report.patched)
+        assertFalse(v1.exists())
+        assertTrue(games.all { File(it, "MonoMod.Common.dll").readText() == "two" })
+    }
+}
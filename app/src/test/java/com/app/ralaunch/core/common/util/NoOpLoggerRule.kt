@@ -0,0 +1,34 @@
+package com.app.ralaunch.core.common.util
+
+import com.app.ralaunch.core.logging.AppLog
+import com.app.ralaunch.core.logging.contract.Logger
+import org.junit.rules.ExternalResource
+
+/**
+ * 测试期间为 [AppLog] 安装不输出的 Logger，结束后恢复
+ *
+ * JVM 单元测试中没有 android.util.Log，被测代码一旦写日志就会失败。
+ */
+class NoOpLoggerRule : ExternalResource() {
+
+    override fun before() {
+        AppLog.install(NoOpLogger)
+    }
+
+    override fun after() {
+        AppLog.reset()
+    }
+
+    private object NoOpLogger : Logger {
+        override fun v(tag: String, message: String): Int = 0
+        override fun v(tag: String, message: String, throwable: Throwable?): Int = 0
+        override fun d(tag: String, message: String): Int = 0
+        override fun d(tag: String, message: String, throwable: Throwable?): Int = 0
+        override fun i(tag: String, message: String): Int = 0
+        override fun i(tag: String, message: String, throwable: Throwable?): Int = 0
+        override fun w(tag: String, message: String): Int = 0
+        override fun w(tag: String, message: String, throwable: Throwable?): Int = 0
+        override fun e(tag: String, message: String): Int = 0
+        override fun e(tag: String, message: String, throwable: Throwable?): Int = 0
+    }
+}
@@ -0,0 +1,16 @@
+package com.app.ralaunch.core.common.util
+
+import java.io.File
+import kotlin.io.path.createTempDirectory
+
+/**
+ * 在以 [prefix] 开头的临时目录中运行 [block]，结束后删除整个目录
+ */
+fun withTempDir(prefix: String, block: (File) -> Unit) {
+    val dir = createTempDirectory(prefix).toFile()
+    try {
+        block(dir)
+    } finally {
+        dir.deleteRecursively()
+    }
+}
@@ -0,0 +1,117 @@
+package com.app.ralaunch.core.common.util
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.nio.file.Files
+import java.nio.file.Path
+import kotlin.io.path.createDirectories
+import kotlin.io.path.createTempDirectory
+import kotlin.io.path.exists
+import kotlin.io.path.listDirectoryEntries
+import kotlin.io.path.notExists
+import kotlin.io.path.writeText
+
+class TreeDeleterTest {
+
+    private fun populate(root: Path, dirs: Int, filesPerDir: Int): Int {
+        repeat(dirs) { d ->
+            val dir = root.resolve("dir$d/nested").createDirectories()
+            repeat(filesPerDir) { f -> dir.resolve("file$f.bin").writeText("x") }
+        }
+        // 文件 + 每组两个目录 + 根目录
+        return dirs * filesPerDir + dirs * 2 + 1
+    }
+
+    @Test
+    fun `deleteTree removes large tree in parallel and reports progress`() {
+        val root = createTempDirectory("tree-deleter-")
+        val expected = populate(root, dirs = 20, filesPerDir = 60)
+        var lastDeleted = 0L
+        var lastTotal = 0L
+
+        val ok = TreeDeleter(parallelism = 4).deleteTree(root) { deleted, total ->
+            synchronized(this) {
+                lastDeleted = maxOf(lastDeleted, deleted)
+                lastTotal = total
+            }
+        }
+
+        assertTrue(ok)
+        assertTrue(root.notExists())
+        assertEquals(expected.toLong(), lastTotal)
+        assertEquals(expected.toLong(), lastDeleted)
+    }
+
+    @Test
+    fun `moveToTrash makes target disappear and emptyTrash resumes deletion`() {
+        val root = createTempDirectory("tree-deleter-")
+        try {
+            val game = root.resolve("game").createDirectories()
+            populate(game, dirs = 3, filesPerDir = 5)
+            val trash = root.resolve(".trash")
+            val deleter = TreeDeleter()
+
+            val entry = deleter.moveToTrash(game, trash)
+
+            assertNotNull(entry)
+            assertTrue(game.notExists())
+            assertTrue(entry!!.exists())
+            // 模拟进程在删除前被杀：下次启动时清理
+            assertTrue(deleter.emptyTrash(trash))
+            assertTrue(trash.exists())
+            assertTrue(trash.listDirectoryEntries().isEmpty())
+        } finally {
+            FileUtils.deleteDirectoryRecursively(root)
+        }
+    }
+
+    @Test
+    fun `trash deletion keeps within root checks`() {
+        val root = createTempDirectory("tree-deleter-root-")
+        val outside = createTempDirectory("tree-deleter-outside-")
+        try {
+            outside.resolve("keep.txt").writeText("keep")
+            val trash = root.resolve(".trash")
+
+            assertFalse(FileUtils.deleteDirectoryRecursivelyWithinRoot(outside, root, trash))
+            assertFalse(FileUtils.deleteDirectoryRecursivelyWithinRoot(root, root, trash))
+            assertTrue(outside.resolve("keep.txt").exists())
+
+            val child = root.resolve("child").createDirectories()
+            assertFalse(FileUtils.deleteDirectoryRecursivelyWithinRoot(child, root, child.resolve("trash")))
+            assertTrue(child.exists())
+
+            child.resolve("a.txt").writeText("a")
+            assertTrue(FileUtils.deleteDirectoryRecursivelyWithinRoot(child, root, trash))
+            assertTrue(child.notExists())
+            assertTrue(trash.listDirectoryEntries().isEmpty())
+        } finally {
+            FileUtils.deleteDirectoryRecursively(root)
+            FileUtils.deleteDirectoryRecursively(outside)
+        }
+    }
+
+    @Test
+    fun `deleteTree does not follow symlinks`() {
+        val root = createTempDirectory("tree-deleter-")
+        val outside = createTempDirectory("tree-deleter-outside-")
+        try {
+            outside.resolve("protected.txt").writeText("keep")
+            root.resolve("sub").createDirectories()
+            try {
+                Files.createSymbolicLink(root.resolve("sub/link"), outside)
+            } catch (e: Exception) {
+                org.junit.Assume.assumeNoException(e)
+            }
+
+            assertTrue(TreeDeleter(parallelism = 2).deleteTree(root))
+            assertTrue(outside.resolve("protected.txt").exists())
+        } finally {
+            FileUtils.deleteDirectoryRecursively(root)
+            FileUtils.deleteDirectoryRecursively(outside)
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.app.ralaunch.core.platform.android.provider
+
+import android.provider.DocumentsContract.Document
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class DocumentRowBuilderTest {
+
+    private val builder = DocumentRowBuilder { extension ->
+        mapOf("png" to "image/png", "json" to "application/json")[extension]
+    }
+
+    private fun stat(mode: Int, size: Long = 0, mtime: Long = 0, uid: Int = 10100) =
+        FileStat(mode = mode, uid = uid, gid = uid, size = size, lastModified = mtime)
+
+    private val regularFile = 0x8000 or 0x1B6   // -rw-rw-rw-
+    private val directory = 0x4000 or 0x1FF     // drwxrwxrwx
+    private val symlink = 0xA000 or 0x1FF
+
+    private fun build(
+        path: String,
+        lstat: FileStat,
+        targetStat: FileStat? = null,
+        linkTarget: String? = null,
+        writable: Boolean = true,
+        parentWritable: Boolean = true,
+        withExtras: Boolean = true
+    ) = builder.build(
+        documentId = "pkg/data$path",
+        path = path,
+        displayName = path.substringAfterLast('/'),
+        lstat = lstat,
+        targetStat = targetStat,
+        linkTarget = linkTarget,
+        writable = writable,
+        parentWritable = parentWritable,
+        withExtras = withExtras
+    )
+
+    @Test
+    fun `regular file row uses lstat size time and extension mime`() {
+        val row = build("/worlds/map.PNG", stat(regularFile, size = 42, mtime = 1234))
+
+        assertEquals(42L, row.size)
+        assertEquals(1234L, row.lastModified)
+        assertEquals("image/png", row.mimeType)
+        assertEquals("${regularFile}|10100|10100", row.extras)
+        assertEquals(
+            Document.FLAG_SUPPORTS_WRITE or Document.FLAG_SUPPORTS_DELETE or
+                    Document.FLAG_SUPPORTS_RENAME or Document.FLAG_SUPPORTS_MOVE,
+            row.flags
+        )
+    }
+
+    @Test
+    fun `directory flags depend on own and parent writability`() {
+        val row = build("/mods", stat(directory), writable = true, parentWritable = false)
+
+        assertEquals(Document.MIME_TYPE_DIR, row.mimeType)
+        assertEquals(Document.FLAG_DIR_SUPPORTS_CREATE, row.flags)
+
+        val readOnly = build("/mods", stat(directory), writable = false, parentWritable = false)
+        assertEquals(0, readOnly.flags)
+    }
+
+    @Test
+    fun `symlink follows target and records link in extras`() {
+        val row = build(
+            "/link",
+            stat(symlink, size = 7),
+            targetStat = stat(directory, size = 4096, mtime = 99),
+            linkTarget = "/storage/emulated/0/Terraria"
+        )
+
+        assertEquals(Document.MIME_TYPE_DIR, row.mimeType)
+        assertEquals(4096L, row.size)
+        assertEquals(99L, row.lastModified)
+        assertTrue(row.extras!!.endsWith("|/storage/emulated/0/Terraria"))
+    }
+
+    @Test
+    fun `dangling symlink and unknown extension`() {
+        val row = build("/broken.bin", stat(symlink, size = 7, mtime = 5), writable = false)
+
+        assertEquals(0L, row.size)
+        assertEquals(0L, row.lastModified)
+        assertEquals("application/octet-stream", row.mimeType)
+    }
+
+    @Test
+    fun `extras omitted for top level directories`() {
+        assertNull(build("/data", stat(directory), withExtras = false).extras)
+    }
+}
@@ -0,0 +1,102 @@
+package com.app.ralaunch.core.platform.network.easytier
+
+import com.app.ralaunch.core.common.util.NoOpLoggerRule
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Rule
+import org.junit.Test
+
+class EasyTierPeerTrackerTest {
+
+    @get:Rule
+    val logs = NoOpLoggerRule()
+
+    @Test
+    fun `parser reads peers from peer route pairs and skips self and public servers`() {
+        val json = """
+            {"map":{"room":{
+              "peer_route_pairs":[
+                {"peer":{"conns":[{"tunnel":{"tunnel_type":"udp"},"stats":{"latency_us":12000},"loss_rate":0.5}]},
+                 "route":{"peer_id":2,"hostname":"host-1","ipv4_addr":{"address":{"addr":176061953}},
+                          "stun_info":{"udp_nat_type":3},"feature_flag":{"is_public_server":false}}},
+                {"route":{"peer_id":1,"hostname":"me"}},
+                {"route":{"peer_id":9,"hostname":"PublicServer_a"}}
+              ],
+              "running":true,
+              "my_node_info":{"virtual_ipv4":{"address":{"addr":176061954},"network_length":24},"peer_id":1,
+                              "unused":{"nested":[1,2,3]}}
+            }}}
+        """.trimIndent()
+
+        val info = EasyTierJsonParser.parseNetworkInfo(json)!!.getValue("room")
+
+        assertTrue(info.running)
+        assertEquals("10.126.126.2/24", info.virtualIp)
+        assertEquals(1, info.peers.size)
+        val peer = info.peers.single()
+        assertEquals("2", peer.id)
+        assertEquals("10.126.126.1", peer.virtualIp)
+        assertEquals(12, peer.latency)
+        assertEquals("udp", peer.tunnelProto)
+        assertEquals("FullCone", peer.natType)
+        assertEquals(0.5f, peer.lossRate)
+    }
+
+    @Test
+    fun `parser falls back to routes when pairs are empty`() {
+        val json = """{"map":{"room":{"running":true,"peer_route_pairs":[],"routes":[{"peer_id":5,"hostname":""}]}}}"""
+
+        val peers = EasyTierJsonParser.parseNetworkInfo(json)!!.getValue("room").peers
+
+        assertEquals(listOf("Peer-5"), peers.map { it.hostname })
+    }
+
+    @Test
+    fun `tracker emits add update and remove keyed by peer id`() {
+        val tracker = EasyTierPeerTracker()
+        val a = peer("1", latency = 10)
+        val b = peer("2", latency = 20)
+
+        val first = tracker.apply(listOf(a, b))
+        assertEquals(listOf(PeerEvent.Added(a), PeerEvent.Added(b)), first.events)
+
+        val a2 = a.copy(latency = 15)
+        val second = tracker.apply(listOf(a2))
+        assertEquals(listOf(PeerEvent.Updated(a, a2), PeerEvent.Removed(b)), second.events)
+        assertEquals(listOf(a2), second.peers)
+    }
+
+    @Test
+    fun `tracker reuses previous list when nothing changed`() {
+        val tracker = EasyTierPeerTracker()
+        val first = tracker.apply(listOf(peer("1"), peer("2")))
+
+        val second = tracker.apply(listOf(peer("1"), peer("2")))
+
+        assertTrue(second.isEmpty)
+        assertSame(first.peers, second.peers)
+    }
+
+    @Test
+    fun `identical payload is skipped until reset`() {
+        val tracker = EasyTierPeerTracker()
+
+        assertFalse(tracker.isSamePayload("{\"map\":{}}"))
+        assertTrue(tracker.isSamePayload("{\"map\":{}}"))
+        assertFalse(tracker.isSamePayload("{\"map\":{\"a\":{}}}"))
+
+        tracker.reset()
+        assertFalse(tracker.isSamePayload("{\"map\":{\"a\":{}}}"))
+    }
+
+    private fun peer(id: String, latency: Int? = null) = NetworkPeerInfo(
+        id = id,
+        virtualIp = "10.126.126.$id",
+        hostname = "peer-$id",
+        latency = latency,
+        tunnelProto = "tcp",
+        natType = "Unknown"
+    )
+}
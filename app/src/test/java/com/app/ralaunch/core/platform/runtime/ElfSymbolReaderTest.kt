@@ -0,0 +1,38 @@
+package com.app.ralaunch.core.platform.runtime
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assume.assumeTrue
+import org.junit.Test
+import java.io.File
+import kotlin.io.path.createTempFile
+import kotlin.io.path.deleteIfExists
+import kotlin.io.path.writeText
+
+class ElfSymbolReaderTest {
+
+    @Test
+    fun `finds exported symbols and reports missing ones`() {
+        val libjava = File(System.getProperty("java.home"), "lib/libjava.so")
+        assumeTrue("requires a Linux JDK", libjava.isFile)
+
+        val found = ElfSymbolReader.findDefinedSymbols(
+            libjava,
+            listOf("JNI_OnLoad", "definitely_not_exported_symbol")
+        )
+
+        assertEquals(setOf("JNI_OnLoad"), found)
+    }
+
+    @Test
+    fun `returns null for non elf file`() {
+        val file = createTempFile("elf-reader-", ".so")
+        try {
+            file.writeText("not an elf file")
+
+            assertNull(ElfSymbolReader.findDefinedSymbols(file.toFile(), listOf("eglGetProcAddress")))
+        } finally {
+            file.deleteIfExists()
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.app.ralaunch.feature.controls
+
+import android.view.KeyEvent
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class KeyCodeTablesTest {
+
+    private val labels = KeyMapper.buildLabelTable(
+        resolve = { "res$it" },
+        unknown = { "unknown ${it.code}" }
+    )
+
+    @Test
+    fun `scancode table matches enum codes`() {
+        for (key in ControlData.KeyCode.entries) {
+            assertEquals(key.name, key.code, KeyCodeTables.scancode(key))
+        }
+    }
+
+    @Test
+    fun `every selectable keyboard key has an android keycode`() {
+        val missing = labels.allKeys.keys
+            .filter { it.type == ControlData.KeyType.KEYBOARD }
+            .filter { KeyCodeTables.androidKeycode(it) == KeyCodeTables.NO_KEYCODE }
+        assertTrue("Missing Android keycodes: $missing", missing.isEmpty())
+    }
+
+    @Test
+    fun `android keycodes are unique and only for keyboard keys`() {
+        val mapped = ControlData.KeyCode.entries
+            .filter { KeyCodeTables.androidKeycode(it) != KeyCodeTables.NO_KEYCODE }
+        assertTrue(mapped.all { it.type == ControlData.KeyType.KEYBOARD })
+
+        val duplicates = mapped.groupBy { KeyCodeTables.androidKeycode(it) }.filterValues { it.size > 1 }
+        assertTrue("Duplicate Android keycodes: $duplicates", duplicates.isEmpty())
+
+        assertEquals(KeyEvent.KEYCODE_A, KeyCodeTables.androidKeycode(ControlData.KeyCode.KEYBOARD_A))
+        assertEquals(KeyEvent.KEYCODE_MOVE_HOME, KeyCodeTables.androidKeycode(ControlData.KeyCode.KEYBOARD_HOME))
+        assertEquals(KeyCodeTables.NO_KEYCODE, KeyCodeTables.androidKeycode(ControlData.KeyCode.MOUSE_LEFT))
+    }
+
+    @Test
+    fun `every key has a label`() {
+        for (key in ControlData.KeyCode.entries) {
+            val name = labels.name(key)
+            assertTrue(key.name, name.isNotBlank())
+            if (key in labels.allKeys) {
+                assertEquals(labels.allKeys[key], name)
+            } else {
+                assertEquals("unknown ${key.code}", name)
+            }
+        }
+        // 手柄按钮与常用按键都出现在完整列表中
+        assertTrue(labels.allKeys.keys.containsAll(labels.xboxButtons.keys))
+        assertTrue(labels.allKeys.keys.containsAll(labels.gameKeys.keys))
+        assertEquals(ControlData.KeyCode.SPECIAL_KEYBOARD, labels.allKeys.keys.first())
+    }
+
+    @Test
+    fun `string resources are resolved once per table`() {
+        var calls = 0
+        val resolvedIds = HashSet<Int>()
+        KeyMapper.buildLabelTable(
+            resolve = {
+                calls++
+                resolvedIds.add(it)
+                "res$it"
+            },
+            unknown = { it.name }
+        )
+        assertEquals(resolvedIds.size, calls)
+    }
+}
@@ -0,0 +1,162 @@
+package com.app.ralaunch.feature.controls.bridges
+
+import com.app.ralaunch.feature.controls.ControlData
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import kotlin.random.Random
+
+class MotionCoalescerTest {
+
+    /** 记录收到的调用，并按原样累计相对位移 */
+    private class RecordingBridge : ControlInputBridge {
+        val calls = mutableListOf<String>()
+        var totalDx = 0.0
+        var totalDy = 0.0
+
+        override fun sendKey(keycode: ControlData.KeyCode, isDown: Boolean) {
+            calls.add("key $keycode $isDown")
+        }
+
+        override fun sendMouseButton(button: ControlData.KeyCode, isDown: Boolean) {
+            calls.add("button $button $isDown")
+        }
+
+        override fun sendMouseMove(deltaX: Float, deltaY: Float) {
+            totalDx += deltaX
+            totalDy += deltaY
+            calls.add("move $deltaX,$deltaY")
+        }
+
+        override fun sendMouseWheel(scrollY: Float) {
+            calls.add("wheel $scrollY")
+        }
+
+        override fun sendMousePosition(x: Float, y: Float) {
+            calls.add("pos $x,$y")
+        }
+
+        override fun sendXboxLeftStick(x: Float, y: Float) {
+            calls.add("left $x,$y")
+        }
+
+        override fun sendXboxRightStick(x: Float, y: Float) {
+            calls.add("right $x,$y")
+        }
+
+        override fun sendXboxButton(xboxButton: ControlData.KeyCode, isDown: Boolean) {
+            calls.add("xbox $xboxButton $isDown")
+        }
+
+        override fun sendXboxTrigger(xboxTrigger: ControlData.KeyCode, value: Float) {
+            calls.add("trigger $xboxTrigger $value")
+        }
+
+        override fun startTextInput() {
+            calls.add("startText")
+        }
+
+        override fun stopTextInput() {
+            calls.add("stopText")
+        }
+    }
+
+    @Test
+    fun `relative deltas are summed into one move per flush`() {
+        val coalescer = MotionCoalescer()
+        val bridge = RecordingBridge()
+
+        coalescer.addMouseDelta(1.5f, -2f)
+        coalescer.addMouseDelta(2.5f, 1f)
+        coalescer.addMouseDelta(-1f, 0.25f)
+        assertEquals(3, coalescer.pendingSamples)
+
+        assertEquals(1, coalescer.flush(bridge))
+        assertEquals(listOf("move 3.0,-0.75"), bridge.calls)
+        assertFalse(coalescer.hasPending)
+        assertEquals(0, coalescer.flush(bridge))
+    }
+
+    @Test
+    fun `total delta is conserved across frames`() {
+        val coalescer = MotionCoalescer()
+        val bridge = RecordingBridge()
+        val random = Random(46)
+        var expectedDx = 0.0
+        var expectedDy = 0.0
+
+        // 480 Hz 触摸采样、60 Hz 刷新：约每 8 个采样合并一次
+        repeat(4800) { i ->
+            val dx = random.nextInt(-40, 41) / 4f
+            val dy = random.nextInt(-40, 41) / 4f
+            expectedDx += dx
+            expectedDy += dy
+            coalescer.addMouseDelta(dx, dy)
+            if (i % 8 == 7) coalescer.flush(bridge)
+        }
+        coalescer.flush(bridge)
+
+        assertEquals(expectedDx, bridge.totalDx, 1e-3)
+        assertEquals(expectedDy, bridge.totalDy, 1e-3)
+        assertEquals(600, bridge.calls.size)
+    }
+
+    @Test
+    fun `absolute position keeps order with surrounding deltas`() {
+        val coalescer = MotionCoalescer()
+        val bridge = RecordingBridge()
+
+        coalescer.addMouseDelta(1f, 1f)
+        coalescer.setMousePosition(100f, 200f)
+        coalescer.addMouseDelta(2f, 0f)
+        coalescer.addMouseDelta(3f, 0f)
+        coalescer.flush(bridge)
+
+        assertEquals(listOf("move 1.0,1.0", "pos 100.0,200.0", "move 5.0,0.0"), bridge.calls)
+    }
+
+    @Test
+    fun `replaced position folds later deltas forward without losing them`() {
+        val coalescer = MotionCoalescer()
+        val bridge = RecordingBridge()
+
+        coalescer.setMousePosition(10f, 10f)
+        coalescer.addMouseDelta(4f, -4f)
+        coalescer.setMousePosition(50f, 60f)
+        coalescer.addMouseDelta(1f, 1f)
+        coalescer.flush(bridge)
+
+        assertEquals(listOf("move 4.0,-4.0", "pos 50.0,60.0", "move 1.0,1.0"), bridge.calls)
+        assertEquals(5.0, bridge.totalDx, 0.0)
+        assertEquals(-3.0, bridge.totalDy, 0.0)
+    }
+
+    @Test
+    fun `sticks keep only the latest value per side`() {
+        val coalescer = MotionCoalescer()
+        val bridge = RecordingBridge()
+
+        coalescer.setLeftStick(0.1f, 0.2f)
+        coalescer.setRightStick(0.5f, 0.5f)
+        coalescer.setLeftStick(0.3f, -0.4f)
+        coalescer.setRightStick(0f, 0f)
+        assertTrue(coalescer.hasPending)
+        coalescer.flush(bridge)
+
+        assertEquals(listOf("left 0.3,-0.4", "right 0.0,0.0"), bridge.calls)
+    }
+
+    @Test
+    fun `clear drops pending motion`() {
+        val coalescer = MotionCoalescer()
+        val bridge = RecordingBridge()
+
+        coalescer.addMouseDelta(5f, 5f)
+        coalescer.setRightStick(1f, 0f)
+        coalescer.clear()
+
+        assertEquals(0, coalescer.flush(bridge))
+        assertTrue(bridge.calls.isEmpty())
+    }
+}
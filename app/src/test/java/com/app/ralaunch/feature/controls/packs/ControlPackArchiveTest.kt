@@ -0,0 +1,163 @@
+package com.app.ralaunch.feature.controls.packs
+
+import com.app.ralaunch.core.common.util.NoOpLoggerRule
+import com.app.ralaunch.core.common.util.withTempDir
+import com.app.ralaunch.feature.controls.ControlData
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Assert.fail
+import org.junit.Rule
+import org.junit.Test
+import java.io.File
+import java.io.FileOutputStream
+import java.io.IOException
+import java.util.zip.ZipEntry
+import java.util.zip.ZipFile
+import java.util.zip.ZipOutputStream
+import kotlin.random.Random
+
+class ControlPackArchiveTest {
+
+    @get:Rule
+    val logs = NoOpLoggerRule()
+
+    private fun createPackDir(root: File, id: String, textures: Int = 8): File {
+        val packDir = File(root, "source/$id").apply { mkdirs() }
+        ControlPackInfo(id = id, name = "Pack $id").saveTo(File(packDir, ControlPackInfo.MANIFEST_FILE_NAME))
+        ControlLayout(name = "Pack $id", controls = mutableListOf(ControlData.Button()))
+            .saveTo(File(packDir, ControlPackInfo.LAYOUT_FILE_NAME))
+        val random = Random(id.hashCode())
+        repeat(textures) { index ->
+            File(packDir, "assets/texture_$index.png").apply {
+                parentFile.mkdirs()
+                writeBytes(random.nextBytes(64 * 1024))
+            }
+        }
+        return packDir
+    }
+
+    private fun writeZip(target: File, entries: Map<String, ByteArray>) {
+        ZipOutputStream(FileOutputStream(target)).use { zip ->
+            entries.forEach { (name, data) ->
+                zip.putNextEntry(ZipEntry(name))
+                zip.write(data)
+                zip.closeEntry()
+            }
+        }
+    }
+
+    @Test
+    fun `export stores media and install round trips every file`() = withTempDir("control-pack-archive-") { root ->
+        val packDir = createPackDir(root, "pack_a")
+        val installed = File(root, "installed")
+        val archive = ControlPackArchive(installed, root)
+        val zipFile = File(root, "pack_a.zip")
+
+        assertEquals(10, archive.export(packDir, zipFile))
+        ZipFile(zipFile).use { zip ->
+            assertEquals(ZipEntry.STORED, zip.getEntry("assets/texture_0.png").method)
+            assertEquals(ZipEntry.DEFLATED, zip.getEntry(ControlPackInfo.LAYOUT_FILE_NAME).method)
+        }
+        assertFalse(File(root, "pack_a.zip.tmp").exists())
+
+        val info = archive.install(zipFile)
+        assertEquals("pack_a", info.id)
+        packDir.walkTopDown().filter { it.isFile }.forEach { source ->
+            val copy = File(installed, "pack_a/${source.relativeTo(packDir).path}")
+            assertArrayEquals(source.name, source.readBytes(), copy.readBytes())
+        }
+        assertTrue(File(root, ".staging").listFiles().isNullOrEmpty())
+    }
+
+    @Test
+    fun `manifest in subdirectory is unwrapped`() = withTempDir("control-pack-archive-") { root ->
+        val packDir = createPackDir(root, "pack_b", textures = 1)
+        val zipFile = File(root, "wrapped.zip")
+        writeZip(zipFile, packDir.walkTopDown().filter { it.isFile }.associate {
+            "pack_b/${it.relativeTo(packDir).path}" to it.readBytes()
+        })
+
+        val installed = File(root, "installed")
+        ControlPackArchive(installed, root).install(zipFile)
+
+        assertTrue(File(installed, "pack_b/${ControlPackInfo.MANIFEST_FILE_NAME}").isFile)
+        assertTrue(File(installed, "pack_b/assets/texture_0.png").isFile)
+    }
+
+    @Test
+    fun `invalid layout keeps the installed pack untouched`() = withTempDir("control-pack-archive-") { root ->
+        val installed = File(root, "installed")
+        val archive = ControlPackArchive(installed, root)
+        val good = File(root, "good.zip")
+        archive.export(createPackDir(root, "pack_c", textures = 2), good)
+        archive.install(good)
+
+        val broken = File(root, "broken.zip")
+        writeZip(broken, mapOf(
+            ControlPackInfo.MANIFEST_FILE_NAME to ControlPackInfo(id = "pack_c", name = "broken").toJson().toByteArray(),
+            ControlPackInfo.LAYOUT_FILE_NAME to "{ not json".toByteArray(),
+            "assets/extra.png" to ByteArray(16)
+        ))
+        try {
+            archive.install(broken)
+            fail("broken pack should not install")
+        } catch (expected: IOException) {
+        }
+
+        assertTrue(File(installed, "pack_c/assets/texture_1.png").isFile)
+        assertFalse(File(installed, "pack_c/assets/extra.png").exists())
+        assertEquals("Pack pack_c", ControlPackInfo.fromFile(File(installed, "pack_c/manifest.json"))?.name)
+        assertTrue(File(root, ".staging").listFiles().isNullOrEmpty())
+    }
+
+    @Test
+    fun `entries escaping the pack directory are rejected`() = withTempDir("control-pack-archive-") { root ->
+        val packDir = createPackDir(root, "pack_d", textures = 0)
+        val zipFile = File(root, "evil.zip")
+        writeZip(zipFile, mapOf(
+            ControlPackInfo.MANIFEST_FILE_NAME to File(packDir, ControlPackInfo.MANIFEST_FILE_NAME).readBytes(),
+            ControlPackInfo.LAYOUT_FILE_NAME to File(packDir, ControlPackInfo.LAYOUT_FILE_NAME).readBytes(),
+            "../../escaped.txt" to ByteArray(4)
+        ))
+
+        val installed = File(root, "installed")
+        try {
+            ControlPackArchive(installed, root).install(zipFile)
+            fail("zip slip entry should be rejected")
+        } catch (expected: IOException) {
+        }
+        assertFalse(File(installed, "pack_d").exists())
+        assertFalse(root.walkTopDown().any { it.name == "escaped.txt" })
+    }
+
+    @Test
+    fun `texture heavy pack is stored and replaces the installed copy whole`() = withTempDir("control-pack-archive-") { root ->
+        val installed = File(root, "installed")
+        val archive = ControlPackArchive(installed, root)
+        val previous = File(root, "previous.zip")
+        archive.export(createPackDir(root, "pack_e", textures = 2), previous)
+        archive.install(previous)
+        File(installed, "pack_e/assets/stale.png").writeBytes(ByteArray(16))
+
+        val packDir = createPackDir(root, "pack_e", textures = 200)
+        val zipFile = File(root, "pack_e.zip")
+        archive.export(packDir, zipFile)
+        ZipFile(zipFile).use { zip ->
+            val media = zip.entries().toList().filter { it.name.startsWith("assets/") }
+            assertEquals(200, media.size)
+            media.forEach { assertEquals(it.name, ZipEntry.STORED, it.method) }
+        }
+
+        archive.install(zipFile)
+        assertEquals(200, File(installed, "pack_e/assets").list()?.size)
+        assertFalse(File(installed, "pack_e/assets/stale.png").exists())
+        packDir.walkTopDown().filter { it.isFile }.forEach { source ->
+            val copy = File(installed, "pack_e/${source.relativeTo(packDir).path}")
+            assertArrayEquals(source.name, source.readBytes(), copy.readBytes())
+        }
+        assertTrue(File(root, ".staging").listFiles().isNullOrEmpty())
+        assertTrue(File(root, ".trash").listFiles().isNullOrEmpty())
+    }
+}
@@ -0,0 +1,71 @@
+package com.app.ralaunch.feature.controls.packs
+
+import com.app.ralaunch.core.common.util.NoOpLoggerRule
+import com.app.ralaunch.core.common.util.withTempDir
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Rule
+import org.junit.Test
+import java.io.File
+import java.util.concurrent.Executors
+
+class ControlPackStateStoreTest {
+
+    @get:Rule
+    val logs = NoOpLoggerRule()
+
+    private val executor = Executors.newSingleThreadScheduledExecutor()
+
+    @After
+    fun tearDown() {
+        executor.shutdownNow()
+    }
+
+    /** 每个实例相当于一个进程（启动器或 `:game`）里的管理器 */
+    private fun newStore(file: File) = ControlPackStateStore({ file }, executor, saveDelayMs = 60_000)
+
+    @Test
+    fun `reloads state rewritten by another process`() = withTempDir("pack-state-") { dir ->
+        val file = File(dir, ControlPackManager.MANAGER_STATE_FILE)
+        val launcher = newStore(file)
+        val game = newStore(file)
+
+        launcher.update { it.copy(selectedPackId = "pack-a") }
+        launcher.flush()
+        assertEquals("pack-a", game.current().selectedPackId)
+
+        game.update { it.copy(selectedPackId = "pack-bb") }
+        game.flush()
+        assertEquals("pack-bb", launcher.current().selectedPackId)
+    }
+
+    @Test
+    fun `update applies on top of the other process's latest write`() = withTempDir("pack-state-") { dir ->
+        val file = File(dir, ControlPackManager.MANAGER_STATE_FILE)
+        val launcher = newStore(file)
+        val game = newStore(file)
+        assertEquals(null, launcher.current().selectedPackId)
+
+        game.update { it.copy(quickSwitchPackIds = listOf("x", "y")) }
+        game.flush()
+        launcher.update { it.copy(selectedPackId = "z") }
+        launcher.flush()
+
+        val state = newStore(file).current()
+        assertEquals("z", state.selectedPackId)
+        assertEquals(listOf("x", "y"), state.quickSwitchPackIds)
+    }
+
+    @Test
+    fun `unsaved local changes are not replaced by a reload`() = withTempDir("pack-state-") { dir ->
+        val file = File(dir, ControlPackManager.MANAGER_STATE_FILE)
+        val launcher = newStore(file)
+        val game = newStore(file)
+
+        launcher.update { it.copy(selectedPackId = "local") }
+        game.update { it.copy(selectedPackId = "remote-pack") }
+        game.flush()
+
+        assertEquals("local", launcher.current().selectedPackId)
+    }
+}
@@ -0,0 +1,327 @@
+package com.app.ralaunch.feature.controls.ui
+
+import com.app.ralaunch.core.logging.AppLog
+import com.app.ralaunch.core.logging.LogLevel
+import com.app.ralaunch.core.logging.contract.Logger
+import com.app.ralaunch.feature.controls.ControlData
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import kotlin.random.Random
+
+class ControlTouchRouterTest {
+
+    /** 只接受落在 [accepts] 区域内的触摸点，记录收到的本地坐标 */
+    private class FakeControl(
+        private val accepts: (Float, Float) -> Boolean = { _, _ -> true }
+    ) : ControlView {
+        override var controlData: ControlData = ControlData.Button()
+        val events = mutableListOf<String>()
+
+        override fun isTouchInBounds(x: Float, y: Float) = accepts(x, y)
+
+        override fun tryAcquireTouch(pointerId: Int, x: Float, y: Float): Boolean {
+            if (!accepts(x, y)) return false
+            events.add("down $pointerId $x,$y")
+            return true
+        }
+
+        override fun handleTouchMove(pointerId: Int, x: Float, y: Float) {
+            events.add("move $pointerId $x,$y")
+        }
+
+        override fun releaseTouch(pointerId: Int) {
+            events.add("up $pointerId")
+        }
+
+        override fun cancelAllTouches() {
+            events.add("cancel")
+        }
+    }
+
+    private class RecordingListener : ControlTouchRouter.Listener {
+        val events = mutableListOf<String>()
+        override fun onPointerAcquired(pointerId: Int, control: ControlView) {
+            events.add("acquire $pointerId")
+        }
+
+        override fun onPointerReleased(pointerId: Int, control: ControlView) {
+            events.add("release $pointerId")
+        }
+
+        override fun onControlsInUseChanged(inUse: Boolean) {
+            events.add("inUse $inUse")
+        }
+    }
+
+    @Test
+    fun `hit test returns topmost visible control and can continue below`() {
+        val table = ControlGeometryTable()
+        table.reset(3)
+        table.set(0, 0f, 0f, 100f, 100f, true)
+        table.set(1, 50f, 50f, 150f, 150f, true)
+        table.set(2, 60f, 60f, 80f, 80f, false)
+
+        assertEquals(1, table.hitTest(70f, 70f))
+        assertEquals(0, table.hitTest(70f, 70f, below = 1))
+        assertEquals(-1, table.hitTest(70f, 70f, below = 0))
+        assertEquals(-1, table.hitTest(200f, 200f))
+        // 右/下边界不包含
+        assertEquals(-1, table.hitTest(150f, 60f))
+    }
+
+    @Test
+    fun `only controls whose bounds change are marked dirty`() {
+        val table = ControlGeometryTable()
+        table.reset(2)
+        table.set(0, 0f, 0f, 10f, 10f, true)
+        table.set(1, 100f, 100f, 110f, 110f, true)
+        table.clearAllDirty()
+        assertFalse(table.hasDirty)
+
+        table.set(0, 20f, 0f, 30f, 10f, true)
+        assertTrue(table.isDirty(0))
+        assertFalse(table.isDirty(1))
+
+        // 未变化的更新不产生脏标记，仅可见性变化也算变化
+        table.clearAllDirty()
+        table.set(1, 100f, 100f, 110f, 110f, true)
+        assertFalse(table.hasDirty)
+        table.set(1, 100f, 100f, 110f, 110f, false)
+        assertTrue(table.isDirty(1))
+    }
+
+    @Test
+    fun `pointer falls through to lower control when top control rejects it`() {
+        val table = ControlGeometryTable()
+        table.reset(2)
+        table.set(0, 0f, 0f, 100f, 100f, true)
+        table.set(1, 40f, 40f, 100f, 100f, true)
+        val bottom = FakeControl()
+        // 上层控件只接受本地坐标右下半部分
+        val top = FakeControl { x, y -> x >= 30f && y >= 30f }
+        val router = ControlTouchRouter(table)
+        router.setControls(listOf(bottom, top))
+
+        assertSame(bottom, router.pointerDown(0, 50f, 50f))
+        assertEquals(listOf("down 0 50.0,50.0"), bottom.events)
+        assertTrue(top.events.isEmpty())
+
+        assertSame(top, router.pointerDown(1, 80f, 90f))
+        assertEquals(listOf("down 1 40.0,50.0"), top.events)
+
+        assertNull(router.pointerDown(2, 150f, 150f))
+        assertEquals(2, router.activePointerCount)
+    }
+
+    @Test
+    fun `move and up are routed to the owning control in local coordinates`() {
+        val table = ControlGeometryTable()
+        table.reset(1)
+        table.set(0, 10f, 20f, 110f, 120f, true)
+        val control = FakeControl()
+        val listener = RecordingListener()
+        val router = ControlTouchRouter(table, listener)
+        router.setControls(listOf(control))
+
+        router.pointerDown(3, 15f, 25f)
+        table.clearAllDirty()
+        assertTrue(router.pointerMove(3, 200f, 200f))
+        assertFalse(router.pointerMove(4, 15f, 25f))
+        assertFalse(table.hasDirty)
+
+        assertSame(control, router.pointerUp(3))
+        assertNull(router.pointerUp(3))
+        assertTrue(table.isDirty(0))
+
+        assertEquals(listOf("down 3 5.0,5.0", "move 3 190.0,180.0", "up 3"), control.events)
+        assertEquals(listOf("acquire 3", "inUse true", "release 3", "inUse false"), listener.events)
+    }
+
+    @Test
+    fun `cancel releases every pointer once`() {
+        val table = ControlGeometryTable()
+        table.reset(2)
+        table.set(0, 0f, 0f, 50f, 50f, true)
+        table.set(1, 50f, 0f, 100f, 50f, true)
+        val left = FakeControl()
+        val right = FakeControl()
+        val listener = RecordingListener()
+        val router = ControlTouchRouter(table, listener)
+        router.setControls(listOf(left, right))
+
+        router.pointerDown(0, 10f, 10f)
+        router.pointerDown(1, 60f, 10f)
+        router.cancel()
+        router.cancel()
+
+        assertEquals(0, router.activePointerCount)
+        assertEquals("cancel", left.events.last())
+        assertEquals("cancel", right.events.last())
+        assertEquals(1, listener.events.count { it == "inUse false" })
+        assertEquals(2, listener.events.count { it.startsWith("release") })
+    }
+
+    @Test
+    fun `pointer ids beyond the initial table are accepted`() {
+        val table = ControlGeometryTable()
+        table.reset(1)
+        table.set(0, 0f, 0f, 10f, 10f, true)
+        val control = FakeControl()
+        val router = ControlTouchRouter(table)
+        router.setControls(listOf(control))
+
+        assertSame(control, router.pointerDown(100, 1f, 1f))
+        assertTrue(router.pointerMove(100, 2f, 3f))
+        assertEquals("move 100 2.0,3.0", control.events.last())
+        assertNull(router.pointerDown(-1, 1f, 1f))
+        assertSame(control, router.pointerUp(100))
+        assertEquals(0, router.activePointerCount)
+    }
+
+    // ==================== 轨迹回放 ====================
+
+    /** 只计数的控件 */
+    private class CountingControl : ControlView {
+        override var controlData: ControlData = ControlData.Button()
+        var moves = 0
+        var sum = 0f
+        override fun isTouchInBounds(x: Float, y: Float) = true
+        override fun tryAcquireTouch(pointerId: Int, x: Float, y: Float) = true
+        override fun handleTouchMove(pointerId: Int, x: Float, y: Float) {
+            moves++
+            sum += x + y
+        }
+        override fun releaseTouch(pointerId: Int) {}
+        override fun cancelAllTouches() {}
+    }
+
+    private class SilentLogger : Logger {
+        var messages = 0
+        override fun isLoggable(level: LogLevel) = level != LogLevel.DEBUG && level != LogLevel.VERBOSE
+        override fun v(tag: String, message: String) = count()
+        override fun v(tag: String, message: String, throwable: Throwable?) = count()
+        override fun d(tag: String, message: String) = count()
+        override fun d(tag: String, message: String, throwable: Throwable?) = count()
+        override fun i(tag: String, message: String) = count()
+        override fun i(tag: String, message: String, throwable: Throwable?) = count()
+        override fun w(tag: String, message: String) = count()
+        override fun w(tag: String, message: String, throwable: Throwable?) = count()
+        override fun e(tag: String, message: String) = count()
+        override fun e(tag: String, message: String, throwable: Throwable?) = count()
+        private fun count(): Int {
+            messages++
+            return 0
+        }
+    }
+
+    /** 参照实现：按 ID 查 HashMap 的分发方式 */
+    private class MapDispatcher(private val controls: List<CountingControl>, private val bounds: List<FloatArray>) {
+        val pointerToControl: MutableMap<Int, Int> = HashMap()
+
+        fun down(pointerId: Int, x: Float, y: Float) {
+            for (i in controls.size - 1 downTo 0) {
+                val rect = bounds[i]
+                if (x < rect[0] || x >= rect[2] || y < rect[1] || y >= rect[3]) continue
+                if (controls[i].tryAcquireTouch(pointerId, x - rect[0], y - rect[1])) {
+                    pointerToControl[pointerId] = i
+                    return
+                }
+            }
+        }
+
+        fun move(pointerId: Int, x: Float, y: Float) {
+            pointerToControl[pointerId]?.let { index ->
+                controls[index].handleTouchMove(pointerId, x - bounds[index][0], y - bounds[index][1])
+            }
+        }
+
+        fun up(pointerId: Int) {
+            pointerToControl.remove(pointerId)?.let { controls[it].releaseTouch(pointerId) }
+        }
+    }
+
+    private class TraceEvent(val action: Int, val pointerId: Int, val x: Float, val y: Float)
+
+    /**
+     * 模拟一场战斗中的多点触控：摇杆持续拖动，另外几根手指反复点按按钮，每帧一次 MOVE 携带全部触摸点
+     */
+    private fun recordTrace(frames: Int): List<TraceEvent> {
+        val random = Random(42)
+        val trace = ArrayList<TraceEvent>()
+        val active = BooleanArray(5)
+        for (frame in 0 until frames) {
+            val finger = random.nextInt(5)
+            if (frame % 6 == 0) {
+                if (active[finger]) {
+                    trace.add(TraceEvent(ACTION_UP, finger, 0f, 0f))
+                } else {
+                    trace.add(TraceEvent(ACTION_DOWN, finger, 20f + finger * 200f, 500f + random.nextFloat() * 50f))
+                }
+                active[finger] = !active[finger]
+            }
+            for (pointerId in active.indices) {
+                if (active[pointerId]) {
+                    trace.add(TraceEvent(ACTION_MOVE, pointerId, 20f + pointerId * 200f + random.nextFloat() * 100f, 520f))
+                }
+            }
+        }
+        return trace
+    }
+
+    @Test
+    fun `multi touch trace is routed like a pointer map without building debug messages`() {
+        val logger = SilentLogger()
+        AppLog.install(logger)
+        try {
+            val bounds = (0 until 12).map { i -> floatArrayOf(i * 100f, 400f, i * 100f + 180f, 700f) }
+            val trace = recordTrace(frames = 2_000)
+
+            val expectedControls = bounds.map { CountingControl() }
+            val expected = MapDispatcher(expectedControls, bounds)
+
+            val routerControls = bounds.map { CountingControl() }
+            val table = ControlGeometryTable()
+            table.reset(bounds.size)
+            bounds.forEachIndexed { i, b -> table.set(i, b[0], b[1], b[2], b[3], true) }
+            val router = ControlTouchRouter(table)
+            router.setControls(routerControls)
+
+            var messagesBuilt = 0
+            for (event in trace) when (event.action) {
+                ACTION_DOWN -> {
+                    expected.down(event.pointerId, event.x, event.y)
+                    AppLog.d("ControlLayout") { messagesBuilt++; "handlePointerDown: pointerId=${event.pointerId}" }
+                    router.pointerDown(event.pointerId, event.x, event.y)
+                }
+                ACTION_MOVE -> {
+                    expected.move(event.pointerId, event.x, event.y)
+                    assertEquals(event.pointerId in expected.pointerToControl, router.pointerMove(event.pointerId, event.x, event.y))
+                }
+                else -> {
+                    expected.up(event.pointerId)
+                    AppLog.d("ControlLayout") { messagesBuilt++; "handlePointerUp: pointerId=${event.pointerId}" }
+                    router.pointerUp(event.pointerId)
+                }
+            }
+
+            assertTrue(expectedControls.sumOf { it.moves } > 0)
+            assertEquals(expectedControls.map { it.moves }, routerControls.map { it.moves })
+            assertEquals(expectedControls.map { it.sum }, routerControls.map { it.sum })
+            assertEquals(expected.pointerToControl.size, router.activePointerCount)
+            assertEquals(0, messagesBuilt)
+            assertEquals(0, logger.messages)
+        } finally {
+            AppLog.reset()
+        }
+    }
+
+    private companion object {
+        const val ACTION_DOWN = 0
+        const val ACTION_MOVE = 1
+        const val ACTION_UP = 2
+    }
+}
@@ -0,0 +1,93 @@
+package com.app.ralaunch.feature.filebrowser
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.io.File
+import kotlin.io.path.createTempDirectory
+
+class DirectoryScannerTest {
+
+    private fun tempDir(): File = createTempDirectory("scanner").toFile()
+
+    @Test
+    fun `scan reads attributes and skips hidden entries`() {
+        val dir = tempDir()
+        try {
+            File(dir, "sub").mkdir()
+            File(dir, "a.txt").writeText("hello")
+            File(dir, ".hidden").writeText("x")
+
+            val entries = DirectoryScanner().scan(dir.toPath())!!.sortedBy { it.name }
+
+            assertEquals(listOf("a.txt", "sub"), entries.map { it.name })
+            assertEquals(5L, entries[0].size)
+            assertTrue(entries[1].isDirectory)
+            assertEquals(0L, entries[1].size)
+        } finally {
+            dir.deleteRecursively()
+        }
+    }
+
+    @Test
+    fun `scan delivers entries in pages`() {
+        val dir = tempDir()
+        try {
+            repeat(10) { File(dir, "f$it").writeText("") }
+            val pages = mutableListOf<Int>()
+
+            val entries = DirectoryScanner(pageSize = 4).scan(dir.toPath(), { pages.add(it.size) })
+
+            assertEquals(10, entries!!.size)
+            assertEquals(listOf(4, 4, 2), pages)
+        } finally {
+            dir.deleteRecursively()
+        }
+    }
+
+    @Test
+    fun `listing is cached until directory mtime changes`() {
+        val dir = tempDir()
+        try {
+            File(dir, "a").writeText("")
+            val scanner = DirectoryScanner()
+            val first = scanner.scan(dir.toPath())
+            assertSame(first, scanner.scan(dir.toPath()))
+
+            File(dir, "b").writeText("")
+            dir.setLastModified(dir.lastModified() + 2000)
+            assertEquals(2, scanner.scan(dir.toPath())!!.size)
+        } finally {
+            dir.deleteRecursively()
+        }
+    }
+
+    @Test
+    fun `scan returns null for missing directory or cancellation`() {
+        val dir = tempDir()
+        try {
+            File(dir, "a").writeText("")
+            assertNull(DirectoryScanner().scan(File(dir, "missing").toPath()))
+            assertNull(DirectoryScanner().scan(dir.toPath(), isCancelled = { true }))
+        } finally {
+            dir.deleteRecursively()
+        }
+    }
+
+    @Test
+    fun `incremental search narrows previous result and restarts on backspace`() {
+        val files = listOf("Terraria", "tModLoader", "Stardew", "terrain.png").map {
+            FileItemData(name = it, path = "/$it", isDirectory = false)
+        }
+        val search = IncrementalSearch()
+        search.setSource(files)
+
+        assertEquals(listOf("Terraria", "terrain.png"), search.filter("terr").map { it.name })
+        assertEquals(listOf("Terraria"), search.filter("terrar").map { it.name })
+        assertEquals(listOf("Terraria", "terrain.png"), search.filter("terr").map { it.name })
+        assertEquals(listOf("tModLoader"), search.filter("mod").map { it.name })
+        assertEquals(files, search.filter(""))
+    }
+}
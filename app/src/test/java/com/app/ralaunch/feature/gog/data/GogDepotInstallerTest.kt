@@ -0,0 +1,229 @@
+package com.app.ralaunch.feature.gog.data
+
+import com.app.ralaunch.core.common.util.NoOpLoggerRule
+import com.app.ralaunch.feature.gog.data.model.GogDepotChunk
+import com.app.ralaunch.feature.gog.data.model.GogDepotItem
+import com.sun.net.httpserver.HttpServer
+import org.junit.After
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.fail
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import java.io.ByteArrayOutputStream
+import java.io.File
+import java.net.InetSocketAddress
+import java.security.MessageDigest
+import java.util.Collections
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.zip.Deflater
+import kotlin.io.path.createTempDirectory
+import kotlin.random.Random
+
+class GogDepotInstallerTest {
+
+    @get:Rule
+    val logs = NoOpLoggerRule()
+
+    private lateinit var server: HttpServer
+    private lateinit var serverExecutor: ExecutorService
+    private lateinit var workDir: File
+
+    /** 假 CDN：压缩块 MD5 -> 压缩数据 */
+    private val cdn = ConcurrentHashMap<String, ByteArray>()
+    private val requests = Collections.synchronizedList(mutableListOf<String>())
+
+    @Before
+    fun setUp() {
+        workDir = createTempDirectory("depot-install-").toFile()
+        server = HttpServer.create(InetSocketAddress("127.0.0.1", 0), 0)
+        server.createContext("/chunks/") { exchange ->
+            val md5 = exchange.requestURI.path.substringAfterLast('/')
+            requests.add(md5)
+            val body = cdn[md5]
+            if (body == null) {
+                exchange.sendResponseHeaders(404, -1)
+            } else {
+                exchange.sendResponseHeaders(200, body.size.toLong())
+                exchange.responseBody.use { it.write(body) }
+            }
+            exchange.close()
+        }
+        serverExecutor = Executors.newCachedThreadPool()
+        server.executor = serverExecutor
+        server.start()
+    }
+
+    @After
+    fun tearDown() {
+        server.stop(0)
+        serverExecutor.shutdownNow()
+        workDir.deleteRecursively()
+    }
+
+    @Test
+    fun `installs multi chunk files and downloads shared chunks once`() {
+        val shared = Random(1).nextBytes(CHUNK_SIZE)
+        val tail = Random(2).nextBytes(1000)
+        val big = item("data/big.bin", listOf(shared, Random(3).nextBytes(CHUNK_SIZE), tail))
+        val copy = item("data/copy.bin", listOf(shared))
+
+        val result = newInstaller().install(listOf(big.item, copy.item), File(workDir, "game"))
+
+        assertArrayEquals(big.content, File(workDir, "game/data/big.bin").readBytes())
+        assertArrayEquals(copy.content, File(workDir, "game/data/copy.bin").readBytes())
+        assertEquals(3, result.chunksDownloaded)
+        assertEquals(3, requests.size)
+    }
+
+    @Test
+    fun `reuses chunks already present on disk`() {
+        val file = item("game.exe", List(4) { Random(10 + it).nextBytes(CHUNK_SIZE) })
+        val target = File(workDir, "game/game.exe").apply {
+            parentFile!!.mkdirs()
+            // 只有前两块已写好，模拟中断后的续装
+            writeBytes(file.content.copyOf(CHUNK_SIZE * 2))
+        }
+
+        val result = newInstaller().install(listOf(file.item), File(workDir, "game"))
+
+        assertArrayEquals(file.content, target.readBytes())
+        assertEquals(2, result.chunksReused)
+        assertEquals(2, requests.size)
+    }
+
+    @Test
+    fun `slices small files out of the container`() {
+        val first = Random(20).nextBytes(300)
+        val second = Random(21).nextBytes(500)
+        val container = item("galaxy_smallfilescontainer", listOf(first + second), isContainer = true)
+        val items = listOf(
+            container.item,
+            GogDepotItem(path = "small/a.txt", totalSizeUncompressed = 300, isInSFC = true, sfcOffset = 0, sfcSize = 300),
+            GogDepotItem(path = "small/b.txt", totalSizeUncompressed = 500, isInSFC = true, sfcOffset = 300, sfcSize = 500)
+        )
+
+        val result = newInstaller().install(items, File(workDir, "game"))
+
+        assertArrayEquals(first, File(workDir, "game/small/a.txt").readBytes())
+        assertArrayEquals(second, File(workDir, "game/small/b.txt").readBytes())
+        assertFalse(File(workDir, "game/.galaxy_sfc").exists())
+        assertEquals(2, result.filesWritten)
+    }
+
+    @Test
+    fun `rejects chunk whose content does not match manifest`() {
+        val file = item("broken.bin", listOf(Random(30).nextBytes(CHUNK_SIZE)))
+        val md5 = file.item.chunks.single().md5Compressed
+        cdn[md5] = deflate(Random(31).nextBytes(CHUNK_SIZE))
+
+        try {
+            newInstaller().install(listOf(file.item), File(workDir, "game"))
+            fail("Expected verification failure")
+        } catch (e: GogDepotInstaller.ChunkVerificationException) {
+            assertEquals(md5, e.chunkMd5)
+        }
+        // 校验失败的块会按重试次数重新请求
+        assertEquals(2, requests.size)
+    }
+
+    @Test
+    fun `cancelled install keeps written chunks for the next run`() {
+        val file = item("game.pak", List(4) { Random(50 + it).nextBytes(CHUNK_SIZE) })
+        val installer = GogDepotInstaller(
+            chunkUrl = { md5 -> GogDepotInstaller.galaxyChunkUrl("http://127.0.0.1:${server.address.port}/chunks", md5) },
+            connectionCount = 1
+        )
+
+        try {
+            installer.install(listOf(file.item), File(workDir, "game"), isCancelled = { requests.size >= 2 })
+            fail("Expected cancellation")
+        } catch (e: DownloadCancelledException) {
+            // 预期
+        }
+        requests.clear()
+
+        val result = installer.install(listOf(file.item), File(workDir, "game"))
+
+        assertArrayEquals(file.content, File(workDir, "game/game.pak").readBytes())
+        assertEquals(1, result.chunksReused)
+        assertEquals(3, requests.size)
+    }
+
+    @Test
+    fun `rejects paths escaping install directory`() {
+        val file = item("../outside.bin", listOf(Random(40).nextBytes(10)))
+
+        try {
+            newInstaller().install(listOf(file.item), File(workDir, "game"))
+            fail("Expected path rejection")
+        } catch (e: java.io.IOException) {
+            assertFalse(File(workDir, "outside.bin").exists())
+        }
+    }
+
+    private class SyntheticItem(val item: GogDepotItem, val content: ByteArray)
+
+    private fun item(path: String, chunkData: List<ByteArray>, isContainer: Boolean = false): SyntheticItem {
+        var compressedOffset = 0L
+        var uncompressedOffset = 0L
+        val chunks = chunkData.map { data ->
+            val compressed = deflate(data)
+            val chunk = GogDepotChunk(
+                md5Compressed = md5(compressed),
+                md5Uncompressed = md5(data),
+                sizeCompressed = compressed.size.toLong(),
+                sizeUncompressed = data.size.toLong(),
+                offsetCompressed = compressedOffset,
+                offsetUncompressed = uncompressedOffset
+            )
+            cdn[chunk.md5Compressed] = compressed
+            compressedOffset += compressed.size
+            uncompressedOffset += data.size
+            chunk
+        }
+        val content = chunkData.fold(ByteArray(0)) { acc, bytes -> acc + bytes }
+        return SyntheticItem(
+            GogDepotItem(
+                path = path,
+                chunks = chunks,
+                totalSizeCompressed = compressedOffset,
+                totalSizeUncompressed = uncompressedOffset,
+                md5 = md5(content),
+                isSmallFilesContainer = isContainer
+            ),
+            content
+        )
+    }
+
+    private fun newInstaller() = GogDepotInstaller(
+        chunkUrl = { md5 -> GogDepotInstaller.galaxyChunkUrl("http://127.0.0.1:${server.address.port}/chunks", md5) },
+        connectionCount = 3,
+        maxChunkRetries = 1,
+        retryDelayMs = 10
+    )
+
+    private fun deflate(data: ByteArray): ByteArray {
+        val deflater = Deflater()
+        deflater.setInput(data)
+        deflater.finish()
+        val output = ByteArrayOutputStream()
+        val buffer = ByteArray(8192)
+        while (!deflater.finished()) {
+            output.write(buffer, 0, deflater.deflate(buffer))
+        }
+        deflater.end()
+        return output.toByteArray()
+    }
+
+    private fun md5(data: ByteArray): String =
+        MessageDigest.getInstance("MD5").digest(data).joinToString("") { "%02x".format(it) }
+
+    companion object {
+        private const val CHUNK_SIZE = 64 * 1024
+    }
+}
@@ -0,0 +1,89 @@
+package com.app.ralaunch.feature.gog.data
+
+import com.app.ralaunch.feature.gog.data.api.GogDepotManifestReader
+import com.app.ralaunch.feature.gog.data.model.GogDepotItem
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.io.File
+import kotlin.io.path.createTempFile
+
+class GogDepotManifestReaderTest {
+
+    @Test
+    fun `decodes items chunks and small files container`() {
+        val manifest = """
+            {"version":2,"depot":{
+              "items":[
+                {"type":"DepotFile","path":"bin\\game.exe","md5":"aaaa","chunks":[
+                  {"compressedMd5":"c1","md5":"u1","compressedSize":10,"size":100},
+                  {"compressedMd5":"c2","md5":"u2","compressedSize":20,"size":50}
+                ]},
+                {"type":"DepotDirectory","path":"bin"},
+                {"type":"DepotFile","path":"readme.txt","sfcRef":{"offset":7,"size":3},
+                 "chunks":[{"compressedMd5":"c3","md5":"u3","compressedSize":4,"size":3}]}
+              ],
+              "smallFilesContainer":{"chunks":[{"compressedMd5":"s1","md5":"su1","compressedSize":5,"size":10}]}
+            }}
+        """.trimIndent()
+        val items = mutableListOf<GogDepotItem>()
+
+        GogDepotManifestReader.read(manifest.reader(), isDependency = true) { items.add(it) }
+
+        assertEquals(listOf("bin/game.exe", "readme.txt", "galaxy_smallfilescontainer"), items.map { it.path })
+        val exe = items[0]
+        assertEquals("aaaa", exe.md5)
+        assertEquals(30L, exe.totalSizeCompressed)
+        assertEquals(150L, exe.totalSizeUncompressed)
+        assertEquals(100L, exe.chunks[1].offsetUncompressed)
+        assertEquals(10L, exe.chunks[1].offsetCompressed)
+        assertTrue(exe.isDependency)
+        val readme = items[1]
+        assertTrue(readme.isInSFC)
+        assertEquals(7L, readme.sfcOffset)
+        assertEquals("u3", readme.md5)
+        val container = items[2]
+        assertTrue(container.isSmallFilesContainer)
+        assertEquals("su1", container.md5)
+    }
+
+    @Test
+    fun `streams many items from a file in order`() {
+        val itemCount = 2_000
+        val file = createTempFile("depot-manifest-", ".json").toFile()
+        try {
+            writeSyntheticManifest(file, itemCount)
+            val items = mutableListOf<GogDepotItem>()
+
+            file.bufferedReader().use { reader ->
+                GogDepotManifestReader.read(reader, isDependency = false) { items.add(it) }
+            }
+
+            assertEquals(itemCount, items.size)
+            assertEquals((0 until itemCount).map { "data/dir${it % 100}/file$it.bin" }, items.map { it.path })
+            val last = items.last()
+            assertEquals(2, last.chunks.size)
+            assertEquals("%032x".format((itemCount - 1) * 3L), last.chunks[1].md5Compressed)
+            assertEquals(1_048_576L, last.chunks[1].offsetUncompressed)
+            assertEquals(4_096L, last.chunks[1].offsetCompressed)
+            assertEquals(1_052_672L, last.totalSizeUncompressed)
+        } finally {
+            file.delete()
+        }
+    }
+
+    private fun writeSyntheticManifest(file: File, itemCount: Int) {
+        file.bufferedWriter().use { out ->
+            out.write("{\"version\":2,\"depot\":{\"items\":[")
+            for (i in 0 until itemCount) {
+                if (i > 0) out.write(",")
+                out.write("{\"type\":\"DepotFile\",\"path\":\"data\\\\dir${i % 100}\\\\file$i.bin\",\"chunks\":[")
+                out.write("{\"compressedMd5\":\"${"%032x".format(i * 2L)}\",\"md5\":\"${"%032x".format(i * 2L + 1)}\",")
+                out.write("\"compressedSize\":4096,\"size\":1048576},")
+                out.write("{\"compressedMd5\":\"${"%032x".format(i * 3L)}\",\"md5\":\"${"%032x".format(i * 3L + 1)}\",")
+                out.write("\"compressedSize\":2048,\"size\":4096}]}")
+            }
+            out.write("]}}")
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.app.ralaunch.feature.gog.data
+
+import com.app.ralaunch.core.common.util.NoOpLoggerRule
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import java.io.File
+import kotlin.io.path.createTempDirectory
+
+class GogManifestCacheTest {
+
+    @get:Rule
+    val logs = NoOpLoggerRule()
+
+    private lateinit var dir: File
+    private var now = 1_000_000L
+
+    @Before
+    fun setUp() {
+        dir = createTempDirectory("gog-manifest-cache-").toFile()
+    }
+
+    @After
+    fun tearDown() {
+        dir.deleteRecursively()
+    }
+
+    @Test
+    fun `loads content addressed manifest only once`() {
+        val cache = newCache()
+        var loads = 0
+
+        repeat(3) {
+            assertEquals("{\"depot\":{}}", cache.getOrLoadContent("ab/cd/abcdef01") { loads++; "{\"depot\":{}}" })
+        }
+
+        assertEquals(1, loads)
+    }
+
+    @Test
+    fun `drops corrupt entries on read`() {
+        val cache = newCache()
+        cache.putContent("abcdef01", "{\"depot\":{}}")
+        File(dir, "v2/abcdef01").writeText("{\"depot\":{\"tampered\":true}}")
+
+        assertNull(cache.getContent("abcdef01"))
+        assertEquals(false, File(dir, "v2/abcdef01").exists())
+    }
+
+    @Test
+    fun `evicts least recently used manifests over size limit`() {
+        val cache = newCache(maxBytes = 250)
+        val body = "x".repeat(100)
+        cache.putContent("aa01", body)
+        now += 1000
+        cache.putContent("bb02", body)
+        now += 1000
+        cache.getContent("aa01")
+        now += 1000
+        cache.putContent("cc03", body)
+
+        assertEquals(body, cache.getContent("aa01"))
+        assertNull(cache.getContent("bb02"))
+        assertEquals(body, cache.getContent("cc03"))
+    }
+
+    @Test
+    fun `expiring entries are reloaded after ttl`() {
+        val cache = newCache(ttlMs = 5_000)
+        var loads = 0
+        val url = "https://content-system.gog.com/products/1/os/linux/builds?generation=2"
+
+        cache.getOrLoadExpiring(url) { loads++; "{\"items\":[]}" }
+        now += 4_000
+        cache.getOrLoadExpiring(url) { loads++; "{\"items\":[]}" }
+        now += 2_000
+        cache.getOrLoadExpiring(url) { loads++; "{\"items\":[]}" }
+
+        assertEquals(2, loads)
+    }
+
+    @Test
+    fun `ignores keys that are not hashes`() {
+        val cache = newCache()
+
+        cache.putContent("../../evil", "{}")
+
+        assertNull(cache.getContent("../../evil"))
+        assertEquals(0, File(dir, "v2").listFiles()?.size ?: 0)
+    }
+
+    private fun newCache(maxBytes: Long = GogManifestCache.DEFAULT_MAX_BYTES, ttlMs: Long = 60_000) =
+        GogManifestCache(dir, maxBytes = maxBytes, expiringTtlMs = ttlMs, clock = { now })
+}
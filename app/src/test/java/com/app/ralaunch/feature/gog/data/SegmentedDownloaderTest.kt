@@ -0,0 +1,234 @@
+package com.app.ralaunch.feature.gog.data
+
+import com.app.ralaunch.core.common.util.NoOpLoggerRule
+import com.sun.net.httpserver.HttpExchange
+import com.sun.net.httpserver.HttpServer
+import org.junit.After
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Assert.fail
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import java.io.File
+import java.io.IOException
+import java.net.InetSocketAddress
+import java.security.MessageDigest
+import java.util.Collections
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.io.path.createTempDirectory
+import kotlin.random.Random
+
+class SegmentedDownloaderTest {
+
+    @get:Rule
+    val logs = NoOpLoggerRule()
+
+    private val payload = Random(42).nextBytes(SEGMENT_SIZE * 5 + 123)
+    private val payloadMd5 = MessageDigest.getInstance("MD5").digest(payload)
+        .joinToString("") { "%02x".format(it) }
+
+    private lateinit var server: HttpServer
+    private lateinit var serverExecutor: ExecutorService
+    private lateinit var workDir: File
+
+    /** 返回 true 时在写出一半数据后断开连接 */
+    @Volatile
+    private var dropConnection: (rangeStart: Long) -> Boolean = { false }
+
+    @Volatile
+    private var supportRanges = true
+
+    /** 对该段起点返回的 HTTP 状态码，null 表示正常返回 206 */
+    @Volatile
+    private var failStatus: (rangeStart: Long) -> Int? = { null }
+
+    /** 返回 true 时该段分几次慢慢写出 */
+    @Volatile
+    private var slowRange: (rangeStart: Long) -> Boolean = { false }
+
+    private val servedRanges = Collections.synchronizedList(mutableListOf<Long>())
+
+    @Before
+    fun setUp() {
+        workDir = createTempDirectory("segmented-download-").toFile()
+        server = HttpServer.create(InetSocketAddress("127.0.0.1", 0), 0)
+        server.createContext("/file") { exchange -> serve(exchange) }
+        serverExecutor = Executors.newCachedThreadPool()
+        server.executor = serverExecutor
+        server.start()
+    }
+
+    @After
+    fun tearDown() {
+        server.stop(0)
+        serverExecutor.shutdownNow()
+        workDir.deleteRecursively()
+    }
+
+    @Test
+    fun `downloads all segments in parallel`() {
+        val target = File(workDir, "game.sh")
+
+        newDownloader().download(url(), target, expectedMd5 = payloadMd5)
+
+        assertArrayEquals(payload, target.readBytes())
+        assertFalse(File(target.path + ".part").exists())
+        assertFalse(File(target.path + ".part.state").exists())
+    }
+
+    @Test
+    fun `retries dropped connections within a segment`() {
+        val drops = AtomicInteger(0)
+        dropConnection = { start -> start == SEGMENT_SIZE * 2L && drops.getAndIncrement() < 2 }
+        val target = File(workDir, "game.sh")
+
+        newDownloader(maxRetries = 3).download(url(), target, expectedMd5 = payloadMd5)
+
+        assertEquals(3, drops.get())
+        assertArrayEquals(payload, target.readBytes())
+    }
+
+    @Test
+    fun `resumes from persisted segment bitmap after failure`() {
+        dropConnection = { start -> start >= SEGMENT_SIZE * 3L }
+        val target = File(workDir, "game.sh")
+
+        try {
+            newDownloader(connections = 1, maxRetries = 0).download(url(), target)
+            fail("expected dropped connection to fail the download")
+        } catch (_: IOException) {
+        }
+        assertTrue(File(target.path + ".part.state").exists())
+
+        dropConnection = { false }
+        servedRanges.clear()
+        newDownloader(connections = 1).download(url(), target, expectedMd5 = payloadMd5)
+
+        assertArrayEquals(payload, target.readBytes())
+        assertEquals(
+            listOf(SEGMENT_SIZE * 3L, SEGMENT_SIZE * 4L, SEGMENT_SIZE * 5L),
+            servedRanges.filter { it > 0 }.sorted()
+        )
+    }
+
+    @Test
+    fun `deletes partial file when md5 does not match`() {
+        val target = File(workDir, "game.sh")
+
+        try {
+            newDownloader().download(url(), target, expectedMd5 = "0".repeat(32))
+            fail("expected checksum mismatch")
+        } catch (_: SegmentedDownloader.ChecksumMismatchException) {
+        }
+
+        assertFalse(target.exists())
+        assertFalse(File(target.path + ".part").exists())
+    }
+
+    @Test
+    fun `falls back to single stream when server ignores range`() {
+        supportRanges = false
+        val target = File(workDir, "game.sh")
+
+        newDownloader().download(url(), target, expectedMd5 = payloadMd5)
+
+        assertArrayEquals(payload, target.readBytes())
+    }
+
+    @Test
+    fun `cancel during retry wait stops without another attempt`() {
+        val cancelled = AtomicBoolean(false)
+        dropConnection = { start -> (start == SEGMENT_SIZE * 2L).also { if (it) cancelled.set(true) } }
+        val target = File(workDir, "game.sh")
+
+        try {
+            newDownloader(connections = 1, maxRetries = 1, retryDelayMs = 60_000)
+                .download(url(), target, isCancelled = { cancelled.get() })
+            fail("expected cancellation")
+        } catch (_: DownloadCancelledException) {
+        }
+
+        assertEquals(1, servedRanges.count { it == SEGMENT_SIZE * 2L })
+        assertTrue(File(target.path + ".part.state").exists())
+    }
+
+    @Test
+    fun `a failed segment stops the other connections`() {
+        failStatus = { start -> if (start == SEGMENT_SIZE.toLong()) 500 else null }
+        slowRange = { start -> start == 0L || start == SEGMENT_SIZE * 2L }
+        val target = File(workDir, "game.sh")
+
+        try {
+            newDownloader(connections = 3, maxRetries = 0).download(url(), target)
+            fail("expected the failed segment to fail the download")
+        } catch (e: HttpStatusException) {
+            assertEquals(500, e.code)
+        }
+
+        // 被中止的段没有记为完成，续传时会重新请求
+        failStatus = { null }
+        slowRange = { false }
+        servedRanges.clear()
+        newDownloader(connections = 1).download(url(), target, expectedMd5 = payloadMd5)
+
+        assertArrayEquals(payload, target.readBytes())
+        assertTrue(servedRanges.containsAll(listOf(0L, SEGMENT_SIZE.toLong(), SEGMENT_SIZE * 2L)))
+    }
+
+    private fun newDownloader(connections: Int = 3, maxRetries: Int = 2, retryDelayMs: Long = 10) = SegmentedDownloader(
+        connectionCount = connections,
+        segmentSize = SEGMENT_SIZE.toLong(),
+        maxSegmentRetries = maxRetries,
+        retryDelayMs = retryDelayMs,
+        timeoutMs = 5_000
+    )
+
+    private fun url() = "http://127.0.0.1:${server.address.port}/file"
+
+    private fun serve(exchange: HttpExchange) {
+        exchange.use {
+            val range = exchange.requestHeaders.getFirst("Range")
+            if (range == null || !supportRanges) {
+                exchange.sendResponseHeaders(200, payload.size.toLong())
+                exchange.responseBody.write(payload)
+                return
+            }
+            val (startText, endText) = range.removePrefix("bytes=").split('-')
+            val start = startText.toLong()
+            val end = endText.toLongOrNull()?.coerceAtMost(payload.size - 1L) ?: (payload.size - 1L)
+            val length = (end - start + 1).toInt()
+            if (length > 1) servedRanges.add(start)
+            if (length > 1) failStatus(start)?.let { status ->
+                exchange.sendResponseHeaders(status, -1)
+                return
+            }
+            exchange.responseHeaders.add("Content-Range", "bytes $start-$end/${payload.size}")
+            exchange.sendResponseHeaders(206, length.toLong())
+            if (length > 1 && dropConnection(start)) {
+                exchange.responseBody.write(payload, start.toInt(), length / 2)
+                exchange.responseBody.flush()
+                return
+            }
+            if (length > 1 && slowRange(start)) {
+                val chunk = length / 8
+                for (offset in 0 until length step chunk) {
+                    exchange.responseBody.write(payload, start.toInt() + offset, minOf(chunk, length - offset))
+                    exchange.responseBody.flush()
+                    Thread.sleep(50)
+                }
+                return
+            }
+            exchange.responseBody.write(payload, start.toInt(), length)
+        }
+    }
+
+    private companion object {
+        const val SEGMENT_SIZE = 64 * 1024
+    }
+}
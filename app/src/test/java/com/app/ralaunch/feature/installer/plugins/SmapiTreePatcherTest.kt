@@ -0,0 +1,179 @@
+package com.app.ralaunch.feature.installer.plugins
+
+import com.app.ralaunch.core.common.util.FileCopier
+import com.app.ralaunch.core.common.util.NoOpLoggerRule
+import com.app.ralaunch.core.common.util.withTempDir
+import com.google.gson.JsonParser
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Assert.fail
+import org.junit.Rule
+import org.junit.Test
+import java.io.File
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.util.Collections
+
+class SmapiTreePatcherTest {
+
+    @get:Rule
+    val logs = NoOpLoggerRule()
+
+    /** 最小 PE：MZ 头 + e_lfanew 指向的 PE 签名与 Machine 字段 */
+    private fun peImage(machine: Int, peOffset: Int = 0x80): ByteArray {
+        val buffer = ByteBuffer.allocate(peOffset + 64).order(ByteOrder.LITTLE_ENDIAN)
+        buffer.put(0, 'M'.code.toByte()).put(1, 'Z'.code.toByte())
+        buffer.putInt(0x3C, peOffset)
+        buffer.putInt(peOffset, 0x00004550)
+        buffer.putShort(peOffset + 4, machine.toShort())
+        return buffer.array()
+    }
+
+    private fun machineOf(file: File, peOffset: Int = 0x80): Int =
+        ByteBuffer.wrap(file.readBytes()).order(ByteOrder.LITTLE_ENDIAN).getShort(peOffset + 4).toInt() and 0xFFFF
+
+    @Test
+    fun `x64 assemblies are patched once at the header offset`() = withTempDir("smapi-patch-") { dir ->
+        val dll = File(dir, "Stardew Valley.dll").apply { writeBytes(peImage(SmapiTreePatcher.MACHINE_AMD64, 0xC0)) }
+
+        assertTrue(SmapiTreePatcher.patchPeArchitecture(dll))
+        assertEquals(SmapiTreePatcher.MACHINE_ARM64, machineOf(dll, 0xC0))
+
+        val patched = dll.readBytes()
+        assertFalse(SmapiTreePatcher.patchPeArchitecture(dll))
+        assertArrayEquals(patched, dll.readBytes())
+    }
+
+    @Test
+    fun `non x64 and invalid images are left untouched`() = withTempDir("smapi-patch-") { dir ->
+        val anyCpu = File(dir, "a.dll").apply { writeBytes(peImage(0x014C)) }
+        val notPe = File(dir, "b.dll").apply { writeBytes(ByteArray(0x100) { 0x86.toByte() }) }
+        val badSignature = File(dir, "c.dll").apply {
+            writeBytes(peImage(SmapiTreePatcher.MACHINE_AMD64).also { it[0x80] = 'X'.code.toByte() })
+        }
+        val badOffset = File(dir, "d.dll").apply {
+            writeBytes(peImage(SmapiTreePatcher.MACHINE_AMD64).also { it[0x3F] = 0x7F })
+        }
+
+        for (file in listOf(anyCpu, notPe, badSignature, badOffset)) {
+            val before = file.readBytes()
+            assertFalse(file.name, SmapiTreePatcher.patchPeArchitecture(file))
+            assertArrayEquals(file.name, before, file.readBytes())
+        }
+    }
+
+    @Test
+    fun `deps json drops x64 runtime identifiers`() = withTempDir("smapi-patch-") { dir ->
+        val deps = File(dir, "StardewModdingAPI.deps.json")
+        deps.writeText(
+            """
+            {
+              "runtimeTarget": { "name": ".NETCoreApp,Version=v6.0/linux-x64", "signature": "" },
+              "targets": {
+                ".NETCoreApp,Version=v6.0/linux-x64": {
+                  "runtimepack.Microsoft.NETCore.App.Runtime.linux-x64/6.0.25": {
+                    "runtime": { "System.Private.CoreLib.dll": { "fileVersion": "6.0.2523.51912" } }
+                  }
+                }
+              },
+              "libraries": { "count": 3, "serviceable": true, "sha512": null }
+            }
+            """.trimIndent()
+        )
+
+        assertTrue(SmapiTreePatcher.patchDepsJson(deps))
+        val text = deps.readText()
+        assertFalse(text.contains("x64"))
+        val json = JsonParser.parseString(text).asJsonObject
+        assertEquals(".NETCoreApp,Version=v6.0", json["runtimeTarget"].asJsonObject["name"].asString)
+        val target = json["targets"].asJsonObject[".NETCoreApp,Version=v6.0"].asJsonObject
+        assertTrue(target.has("runtimepack.Microsoft.NETCore.App.Runtime/6.0.25"))
+        assertEquals(3, json["libraries"].asJsonObject["count"].asInt)
+
+        val patched = deps.readText()
+        assertFalse(SmapiTreePatcher.patchDepsJson(deps))
+        assertEquals(patched, deps.readText())
+    }
+
+    @Test
+    fun `self contained runtime config becomes framework dependent`() = withTempDir("smapi-patch-") { dir ->
+        val config = File(dir, "Stardew Valley.runtimeconfig.json")
+        config.writeText(
+            """
+            {
+              "runtimeOptions": {
+                "tfm": "net6.0",
+                "includedFrameworks": [
+                  { "name": "Microsoft.NETCore.App", "version": "6.0.25" }
+                ]
+              }
+            }
+            """.trimIndent()
+        )
+
+        assertTrue(SmapiTreePatcher.patchRuntimeConfigJson(config))
+        val options = JsonParser.parseString(config.readText()).asJsonObject["runtimeOptions"].asJsonObject
+        assertFalse(options.has("includedFrameworks"))
+        assertEquals("Microsoft.NETCore.App", options["framework"].asJsonObject["name"].asString)
+        assertEquals("6.0.25", options["framework"].asJsonObject["version"].asString)
+        assertEquals("latestMajor", options["rollForward"].asString)
+
+        assertFalse(SmapiTreePatcher.patchRuntimeConfigJson(config))
+    }
+
+    @Test
+    fun `roll forward is added only when missing`() = withTempDir("smapi-patch-") { dir ->
+        val config = File(dir, "StardewModdingAPI.runtimeconfig.json")
+        config.writeText(
+            """{"runtimeOptions":{"tfm":"net6.0","framework":{"name":"Microsoft.NETCore.App","version":"6.0.0"},"configProperties":{"System.GC.Concurrent":true}}}"""
+        )
+
+        assertTrue(SmapiTreePatcher.patchRuntimeConfigJson(config))
+        val options = JsonParser.parseString(config.readText()).asJsonObject["runtimeOptions"].asJsonObject
+        assertEquals("latestMajor", options["rollForward"].asString)
+        assertTrue(options["configProperties"].asJsonObject["System.GC.Concurrent"].asBoolean)
+
+        val patched = config.readText()
+        assertFalse(SmapiTreePatcher.patchRuntimeConfigJson(config))
+        assertEquals(patched, config.readText())
+        assertFalse(File(dir, config.name + ".tmp").exists())
+    }
+
+    @Test
+    fun `tree walk classifies once and a second run changes nothing`() = withTempDir("smapi-patch-") { dir ->
+        File(dir, "Stardew Valley.dll").writeBytes(peImage(SmapiTreePatcher.MACHINE_AMD64))
+        File(dir, "Unlisted.dll").writeBytes(peImage(SmapiTreePatcher.MACHINE_AMD64))
+        File(dir, "smapi-internal").mkdirs()
+        File(dir, "smapi-internal/0Harmony.dll").writeBytes(peImage(SmapiTreePatcher.MACHINE_AMD64))
+        File(dir, "Mods/SomeMod").mkdirs()
+        File(dir, "Mods/SomeMod/SomeMod.dll").writeBytes(peImage(SmapiTreePatcher.MACHINE_AMD64))
+        File(dir, "Stardew Valley.deps.json").writeText("""{"runtimeTarget":{"name":"x/linux-x64"}}""")
+        File(dir, "Stardew Valley.runtimeconfig.json")
+            .writeText("""{"runtimeOptions":{"framework":{"name":"Microsoft.NETCore.App","version":"6.0.0"}}}""")
+
+        val first = SmapiTreePatcher.patch(dir, parallelism = 3)
+        assertEquals(SmapiTreePatcher.Report(assemblies = 3, runtimeConfigs = 1, depsFiles = 1, failed = 0), first)
+        assertEquals(SmapiTreePatcher.MACHINE_AMD64, machineOf(File(dir, "Unlisted.dll")))
+
+        val second = SmapiTreePatcher.patch(dir, parallelism = 3)
+        assertEquals(SmapiTreePatcher.Report(assemblies = 0, runtimeConfigs = 0, depsFiles = 0, failed = 0), second)
+    }
+
+    @Test
+    fun `progress covers every file and cancellation is raised`() = withTempDir("smapi-patch-") { dir ->
+        File(dir, "Mods/SomeMod").mkdirs()
+        repeat(4) { File(dir, "Mods/SomeMod/Mod$it.dll").writeBytes(peImage(SmapiTreePatcher.MACHINE_AMD64)) }
+
+        val progress = Collections.synchronizedList(ArrayList<Pair<Int, Int>>())
+        SmapiTreePatcher.patch(dir, parallelism = 2) { done, total -> progress.add(done to total) }
+        assertEquals((1..4).map { it to 4 }, progress.sortedBy { it.first })
+
+        try {
+            SmapiTreePatcher.patch(dir, isCancelled = { true })
+            fail("cancelled patch should not report completion")
+        } catch (expected: FileCopier.CancelledException) {
+        }
+    }
+}
@@ -101,6 +101,44 @@ class JavaScriptExecutorTest {
         )
     }
 
+    @Test
+    fun `reuses compiled script for identical source`() {
+        val cachedExecutor = JavaScriptExecutor()
+
+        repeat(3) { cachedExecutor.eval("1 + 1") }
+        cachedExecutor.eval("2 + 2")
+
+        assertEquals(2, cachedExecutor.cachedScriptCount)
+    }
+
+    @Test
+    fun `evicts least recently used compiled scripts`() {
+        val cachedExecutor = JavaScriptExecutor(maxCachedScripts = 2)
+
+        cachedExecutor.eval("1")
+        cachedExecutor.eval("2")
+        cachedExecutor.eval("3")
+
+        assertEquals(2, cachedExecutor.cachedScriptCount)
+    }
+
+    @Test
+    fun `recompiles script file after it changes`() {
+        val scriptFile = File.createTempFile("rhino-executor", ".js").apply {
+            writeText("recorder.record(1);")
+            deleteOnExit()
+        }
+        val recorder = Recorder()
+
+        executor.execute(scriptFile.absolutePath, mapOf("recorder" to recorder))
+        assertEquals(listOf(1), recorder.values)
+
+        scriptFile.writeText("recorder.record(22);")
+        scriptFile.setLastModified(scriptFile.lastModified() + 2000)
+        executor.execute(scriptFile.absolutePath, mapOf("recorder" to recorder))
+        assertEquals(listOf(1, 22), recorder.values)
+    }
+
     class HostBridge {
         fun increment(value: Int): Int = value + 1
 
@@ -108,4 +146,12 @@ class JavaScriptExecutorTest {
 
         fun describe(value: Int, label: String): String = "$label-$value"
     }
+
+    class Recorder {
+        val values = mutableListOf<Int>()
+
+        fun record(value: Int) {
+            values.add(value)
+        }
+    }
 }
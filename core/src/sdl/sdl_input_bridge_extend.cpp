@@ -1,5 +1,6 @@
 #include <jni.h>
 #include <stdlib.h>
+#include <string.h>
 #include "SDL.h"
 #include "logger.hpp"
 
@@ -62,4 +63,96 @@ extern "C" JNIEXPORT void JNICALL
 Java_com_app_ralaunch_feature_controls_bridges_SDLInputBridge_nativeStopTextInput(
         JNIEnv *env, jclass clazz) {
     SDL_StopTextInput();
-}
\ No newline at end of file
+}
+// SDL2 自带的单轴 JNI 入口（由 libSDL2.so 导出），批量接口直接以 C 调用复用它
+extern "C" JNIEXPORT void JNICALL
+Java_org_libsdl_app_SDLControllerManager_onNativeJoy(
+        JNIEnv *env, jclass clazz, jint device_id, jint axis, jfloat value);
+
+/**
+ * 批量发送手柄轴数据：一次 JNI 调用按顺序转发 count 组 (axis, value)
+ * 历史采样与当前采样已在 Java 侧按时间顺序排好
+ */
+extern "C" JNIEXPORT void JNICALL
+Java_org_libsdl_app_SDLControllerManager_onNativeJoyBatch(
+        JNIEnv *env, jclass clazz, jint device_id, jintArray axes, jfloatArray values, jint count) {
+    if (count <= 0) {
+        return;
+    }
+    // 分段拷贝到栈上，避免在持有 critical 数组期间进入 SDL 的加锁路径
+    const jint kChunk = 64;
+    jint axisBuf[kChunk];
+    jfloat valueBuf[kChunk];
+    for (jint start = 0; start < count; start += kChunk) {
+        jint n = count - start < kChunk ? count - start : kChunk;
+        env->GetIntArrayRegion(axes, start, n, axisBuf);
+        env->GetFloatArrayRegion(values, start, n, valueBuf);
+        if (env->ExceptionCheck()) {
+            return;
+        }
+        for (jint i = 0; i < n; i++) {
+            Java_org_libsdl_app_SDLControllerManager_onNativeJoy(env, clazz, device_id, axisBuf[i], valueBuf[i]);
+        }
+    }
+}
+
+// SDL2 hidapi 自带的单报告 JNI 入口（由 libSDL2.so 导出），它会把数据拷贝进自己的队列
+extern "C" JNIEXPORT void JNICALL
+Java_org_libsdl_app_HIDDeviceManager_HIDDeviceInputReport(
+        JNIEnv *env, jobject thiz, jint device_id, jbyteArray report);
+
+/**
+ * 批量投递 HID 输入报告：Java 侧 HIDInputReportQueue 把 count 条背靠背到达的报告打包进 direct buffer，
+ * 每条为本机字节序的 16 位长度 + 报告数据
+ * SDL 只接受 byte[] 且会同步拷贝，长度与 scratch 相同的报告直接复用它（固定长度设备不再分配），
+ * 其余长度在一批内按长度复用同一个数组
+ */
+extern "C" JNIEXPORT void JNICALL
+Java_org_libsdl_app_HIDDeviceManager_HIDDeviceInputReportBatch(
+        JNIEnv *env, jobject thiz, jint device_id, jobject reports, jint size, jint count, jbyteArray scratch) {
+    if (count <= 0 || size <= 0) {
+        return;
+    }
+    auto *data = static_cast<const uint8_t *>(env->GetDirectBufferAddress(reports));
+    jlong capacity = env->GetDirectBufferCapacity(reports);
+    if (data == nullptr || capacity < size) {
+        LOGW("HID report batch: invalid buffer (capacity={}, size={})", (long long) capacity, size);
+        return;
+    }
+    jsize scratchLength = scratch != nullptr ? env->GetArrayLength(scratch) : 0;
+
+    jbyteArray array = nullptr;
+    jsize arrayLength = 0;
+    jint offset = 0;
+    for (jint i = 0; i < count && offset + 2 <= size; i++) {
+        uint16_t length;
+        memcpy(&length, data + offset, sizeof(length));
+        offset += 2;
+        if (length == 0 || offset + length > size) {
+            LOGW("HID report batch: truncated record {} of {}", i, count);
+            break;
+        }
+        jbyteArray target;
+        if (length == scratchLength) {
+            target = scratch;
+        } else {
+            if (array == nullptr || arrayLength != length) {
+                if (array != nullptr) {
+                    env->DeleteLocalRef(array);
+                }
+                array = env->NewByteArray(length);
+                if (array == nullptr) {
+                    return;
+                }
+                arrayLength = length;
+            }
+            target = array;
+        }
+        env->SetByteArrayRegion(target, 0, length, reinterpret_cast<const jbyte *>(data + offset));
+        Java_org_libsdl_app_HIDDeviceManager_HIDDeviceInputReport(env, thiz, device_id, target);
+        offset += length;
+    }
+    if (array != nullptr) {
+        env->DeleteLocalRef(array);
+    }
+}